@@ -18,20 +18,28 @@
 package org.apache.hugegraph.concurrent;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.hugegraph.util.E;
 import com.google.common.collect.ImmutableList;
-import com.google.common.util.concurrent.Striped;
 
 /**
  * KeyLock provide an interface of segment lock
+ * NOTE: a batch of keys is always locked in the order of the stripe index,
+ * and keys falling into the same stripe are locked only once, so that two
+ * threads locking overlapping batches can't be deadlocked.
  */
 public class KeyLock {
 
-    private Striped<Lock> locks;
+    private final ReentrantLock[] locks;
+    private final int mask;
+    private final boolean fair;
+    private final LockStats stats;
 
     public KeyLock() {
         // The default size is availableProcessors() * 4
@@ -39,12 +47,45 @@ public class KeyLock {
     }
 
     public KeyLock(int size) {
-        this.locks = Striped.lock(size);
+        this(size, false);
+    }
+
+    public KeyLock(int size, boolean fair) {
+        E.checkArgument(size > 0, "The size of KeyLock must be > 0, " +
+                                  "but got %s", size);
+        // Round up to the power of 2 like Striped does
+        int stripes = size == 1 ? 1 : Integer.highestOneBit(size - 1) << 1;
+        this.locks = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.locks[i] = new ReentrantLock(fair);
+        }
+        this.mask = stripes - 1;
+        this.fair = fair;
+        this.stats = new LockStats();
+    }
+
+    public final int size() {
+        return this.locks.length;
+    }
+
+    public final boolean fair() {
+        return this.fair;
+    }
+
+    public final LockStats stats() {
+        return this.stats;
+    }
+
+    private int indexOf(Object key) {
+        E.checkArgument(key != null, "Lock key can't be null");
+        // Spread the hash like HashMap, the low bits are used as index
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & this.mask;
     }
 
     private int indexOf(Lock lock) {
-        for (int i = 0; i < this.locks.size(); i++) {
-            if (this.locks.getAt(i) == lock) {
+        for (int i = 0; i < this.locks.length; i++) {
+            if (this.locks[i] == lock) {
                 return i;
             }
         }
@@ -57,9 +98,8 @@ public class KeyLock {
      * @return The lock(locked) of passed key
      */
     public final Lock lock(Object key) {
-        E.checkArgument(key != null, "Lock key can't be null");
-        Lock lock = this.locks.get(key);
-        lock.lock();
+        ReentrantLock lock = this.locks[this.indexOf(key)];
+        this.acquire(lock);
         return lock;
     }
 
@@ -69,7 +109,7 @@ public class KeyLock {
      */
     public final void unlock(Object key) {
         E.checkArgument(key != null, "Unlock key can't be null");
-        this.locks.get(key).unlock();
+        this.locks[this.indexOf(key)].unlock();
     }
 
     /**
@@ -78,24 +118,9 @@ public class KeyLock {
      * @return The locks(locked) of keys
      */
     public final List<Lock> lockAll(Object... keys) {
-        E.checkArgument(keys != null && keys.length > 0,
-                        "Lock keys can't be null or empty");
-        List<Lock> locks = new ArrayList<>(keys.length);
-        for (Object key : keys) {
-            E.checkArgument(key != null, "Lock key can't be null");
-            Lock lock = this.locks.get(key);
-            locks.add(lock);
-        }
-        locks.sort((a, b) -> {
-            int diff = a.hashCode() - b.hashCode();
-            if (diff == 0 && a != b) {
-                diff = this.indexOf(a) - this.indexOf(b);
-                assert diff != 0;
-            }
-            return diff;
-        });
-        for (Lock lock : locks) {
-            lock.lock();
+        List<ReentrantLock> locks = this.sortedLocks(keys);
+        for (ReentrantLock lock : locks) {
+            this.acquire(lock);
         }
         return Collections.unmodifiableList(locks);
     }
@@ -108,28 +133,56 @@ public class KeyLock {
      * @return      locks for the two objects
      */
     public List<Lock> lockAll(Object key1, Object key2) {
-        E.checkArgument(key1 != null, "Lock key can't be null");
-        E.checkArgument(key2 != null, "Lock key can't be null");
-        Lock lock1 = this.locks.get(key1);
-        Lock lock2 = this.locks.get(key2);
-
-        int diff = lock1.hashCode() - lock2.hashCode();
-        if (diff == 0 && lock1 != lock2) {
-            diff = this.indexOf(lock1) - this.indexOf(lock2);
-            assert diff != 0;
+        int index1 = this.indexOf(key1);
+        int index2 = this.indexOf(key2);
+
+        List<Lock> locks;
+        if (index1 == index2) {
+            locks = ImmutableList.of(this.locks[index1]);
+        } else if (index1 < index2) {
+            locks = ImmutableList.of(this.locks[index1], this.locks[index2]);
+        } else {
+            locks = ImmutableList.of(this.locks[index2], this.locks[index1]);
         }
 
-        List<Lock> locks = diff > 0 ?
-                           ImmutableList.of(lock2, lock1) :
-                           ImmutableList.of(lock1, lock2);
-
         for (Lock lock : locks) {
-            lock.lock();
+            this.acquire((ReentrantLock) lock);
         }
 
         return locks;
     }
 
+    /**
+     * Try to lock a list of object with sorted order in the timeout, the
+     * locked ones will be released if any of them can't be locked in time
+     * @param timeout   The max time to wait for all the locks
+     * @param unit      The time unit of timeout
+     * @param keys      The objects to lock
+     * @return The locks(locked) of keys, or null if timeout
+     */
+    public final List<Lock> tryLockAll(long timeout, TimeUnit unit,
+                                       Object... keys)
+                                       throws InterruptedException {
+        List<ReentrantLock> locks = this.sortedLocks(keys);
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        int locked = 0;
+        try {
+            for (ReentrantLock lock : locks) {
+                if (!this.tryAcquire(lock, deadline - System.nanoTime())) {
+                    return null;
+                }
+                locked++;
+            }
+        } finally {
+            if (locked < locks.size()) {
+                for (int i = locked; i > 0; i--) {
+                    locks.get(i - 1).unlock();
+                }
+            }
+        }
+        return Collections.unmodifiableList(locks);
+    }
+
     /**
      * Unlock a list of object
      * @param locks The locks to unlock
@@ -141,4 +194,52 @@ public class KeyLock {
             locks.get(i - 1).unlock();
         }
     }
+
+    private List<ReentrantLock> sortedLocks(Object... keys) {
+        E.checkArgument(keys != null && keys.length > 0,
+                        "Lock keys can't be null or empty");
+        int[] indexes = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            indexes[i] = this.indexOf(keys[i]);
+        }
+        Arrays.sort(indexes);
+        List<ReentrantLock> locks = new ArrayList<>(keys.length);
+        for (int i = 0; i < indexes.length; i++) {
+            if (i == 0 || indexes[i] != indexes[i - 1]) {
+                locks.add(this.locks[indexes[i]]);
+            }
+        }
+        return locks;
+    }
+
+    private boolean acquireWithoutWait(ReentrantLock lock) {
+        if (lock.isHeldByCurrentThread()) {
+            lock.lock();
+        } else if ((this.fair && lock.hasQueuedThreads()) || !lock.tryLock()) {
+            // NOTE: tryLock() barges even if the lock is fair
+            return false;
+        }
+        this.stats.recordAcquired();
+        return true;
+    }
+
+    private void acquire(ReentrantLock lock) {
+        if (this.acquireWithoutWait(lock)) {
+            return;
+        }
+        long start = System.nanoTime();
+        lock.lock();
+        this.stats.recordContended(System.nanoTime() - start, true);
+    }
+
+    private boolean tryAcquire(ReentrantLock lock, long timeoutNanos)
+                               throws InterruptedException {
+        if (this.acquireWithoutWait(lock)) {
+            return true;
+        }
+        long start = System.nanoTime();
+        boolean acquired = lock.tryLock(timeoutNanos, TimeUnit.NANOSECONDS);
+        this.stats.recordContended(System.nanoTime() - start, acquired);
+        return acquired;
+    }
 }
@@ -17,6 +17,7 @@
 
 package org.apache.hugegraph.concurrent;
 
+import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.Lock;
@@ -69,9 +70,21 @@ public class LockGroup {
         return (KeyLock) this.locksMap.get(lockName);
     }
 
+    public KeyLock keyLock(String lockName, int size, boolean fair) {
+        if (!this.locksMap.containsKey(lockName)) {
+            this.locksMap.putIfAbsent(lockName, new KeyLock(size, fair));
+        }
+        return (KeyLock) this.locksMap.get(lockName);
+    }
+
     public <K extends Comparable<K>> RowLock<K> rowLock(String lockName) {
+        return this.rowLock(lockName, false);
+    }
+
+    public <K extends Comparable<K>> RowLock<K> rowLock(String lockName,
+                                                        boolean fair) {
         if (!this.locksMap.containsKey(lockName)) {
-            this.locksMap.putIfAbsent(lockName, new RowLock<>());
+            this.locksMap.putIfAbsent(lockName, new RowLock<>(fair));
         }
         Object value = this.locksMap.get(lockName);
         @SuppressWarnings("unchecked")
@@ -79,6 +92,35 @@ public class LockGroup {
         return lock;
     }
 
+    /**
+     * Get the contention stats of all the KeyLocks and RowLocks in the group
+     * @return The stats of each lock by name
+     */
+    public Map<String, LockStats> stats() {
+        Map<String, LockStats> stats = new HashMap<>();
+        for (Map.Entry<String, Object> e : this.locksMap.entrySet()) {
+            Object lock = e.getValue();
+            if (lock instanceof KeyLock) {
+                stats.put(e.getKey(), ((KeyLock) lock).stats());
+            } else if (lock instanceof RowLock) {
+                stats.put(e.getKey(), ((RowLock<?>) lock).stats());
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Get the contention stats summed of all the KeyLocks and RowLocks
+     * @return The total stats of the group
+     */
+    public LockStats totalStats() {
+        LockStats total = new LockStats();
+        for (LockStats stats : this.stats().values()) {
+            total.add(stats);
+        }
+        return total;
+    }
+
     public String name() {
         return this.name;
     }
@@ -17,6 +17,7 @@
 
 package org.apache.hugegraph.concurrent;
 
+import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -60,6 +61,18 @@ public class LockManager {
         return lockGroup;
     }
 
+    /**
+     * Get the contention stats of the KeyLocks and RowLocks of each group
+     * @return The total stats of each group by name
+     */
+    public Map<String, LockStats> stats() {
+        Map<String, LockStats> stats = new HashMap<>();
+        for (LockGroup group : this.lockGroupMap.values()) {
+            stats.put(group.name(), group.totalStats());
+        }
+        return stats;
+    }
+
     public void destroy(String group) {
         if (this.exists(group)) {
             this.lockGroupMap.remove(group);
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hugegraph.concurrent;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LockStats counts the acquisitions of a KeyLock or RowLock, how many of
+ * them had to wait for another holder, how many timed out, and the total
+ * time spent waiting
+ */
+public final class LockStats {
+
+    private final LongAdder acquired;
+    private final LongAdder contended;
+    private final LongAdder timeouts;
+    private final LongAdder waitNanos;
+
+    public LockStats() {
+        this.acquired = new LongAdder();
+        this.contended = new LongAdder();
+        this.timeouts = new LongAdder();
+        this.waitNanos = new LongAdder();
+    }
+
+    void recordAcquired() {
+        this.acquired.increment();
+    }
+
+    void recordContended(long waitNanos, boolean acquired) {
+        this.contended.increment();
+        this.waitNanos.add(waitNanos);
+        if (acquired) {
+            this.acquired.increment();
+        } else {
+            this.timeouts.increment();
+        }
+    }
+
+    public long acquired() {
+        return this.acquired.sum();
+    }
+
+    public long contended() {
+        return this.contended.sum();
+    }
+
+    public long timeouts() {
+        return this.timeouts.sum();
+    }
+
+    public long waitTime(TimeUnit unit) {
+        return unit.convert(this.waitNanos.sum(), TimeUnit.NANOSECONDS);
+    }
+
+    public void add(LockStats other) {
+        this.acquired.add(other.acquired());
+        this.contended.add(other.contended());
+        this.timeouts.add(other.timeouts());
+        this.waitNanos.add(other.waitNanos.sum());
+    }
+
+    @Override
+    public String toString() {
+        return String.format("LockStats{acquired=%s, contended=%s, " +
+                             "timeouts=%s, waitMs=%s}",
+                             this.acquired(), this.contended(),
+                             this.timeouts(),
+                             this.waitTime(TimeUnit.MILLISECONDS));
+    }
+}
@@ -24,30 +24,42 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.Lock;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.hugegraph.util.E;
 
 public class RowLock<K extends Comparable<K>> {
 
-    private final Map<K, Lock> locks = new ConcurrentHashMap<>();
+    private final Map<K, ReentrantLock> locks = new ConcurrentHashMap<>();
     private final ThreadLocal<Map<K, LocalLock>> localLocks =
                   ThreadLocal.withInitial(HashMap::new);
+    private final boolean fair;
+    private final LockStats stats;
+
+    public RowLock() {
+        this(false);
+    }
+
+    public RowLock(boolean fair) {
+        this.fair = fair;
+        this.stats = new LockStats();
+    }
+
+    public boolean fair() {
+        return this.fair;
+    }
+
+    public LockStats stats() {
+        return this.stats;
+    }
 
     public void lock(K key) {
         E.checkArgument(key != null, "Lock key can't be null");
-        LocalLock localLock = this.localLocks.get().get(key);
-        if (localLock != null) {
-            localLock.lockCount++;
-        } else {
-            Lock current = new ReentrantLock();
-            Lock previous = this.locks.putIfAbsent(key, current);
-            if (previous != null) {
-                current = previous;
-            }
-            current.lock();
-            this.localLocks.get().put(key, new LocalLock(current));
+        try {
+            this.lock(key, false, 0L);
+        } catch (InterruptedException e) {
+            throw new AssertionError("Can't be interrupted without timeout");
         }
     }
 
@@ -58,7 +70,10 @@ public class RowLock<K extends Comparable<K>> {
             return;
         }
         if (--localLock.lockCount == 0) {
-            this.locks.remove(key, localLock.current);
+            // Keep the lock for the waiting threads to preserve the order
+            if (!localLock.current.hasQueuedThreads()) {
+                this.locks.remove(key, localLock.current);
+            }
             this.localLocks.get().remove(key);
             localLock.current.unlock();
         }
@@ -77,6 +92,38 @@ public class RowLock<K extends Comparable<K>> {
         }
     }
 
+    /**
+     * Try to lock all the keys with sorted order in the timeout, the locked
+     * ones will be released if any of them can't be locked in time
+     * @param keys      The keys to lock
+     * @param timeout   The max time to wait for all the locks
+     * @param unit      The time unit of timeout
+     * @return true if all the keys are locked, or false if timeout
+     */
+    public boolean tryLockAll(Set<K> keys, long timeout, TimeUnit unit)
+                              throws InterruptedException {
+        E.checkArgument(keys != null && keys.size() > 0,
+                        "Lock keys can't be null or empty");
+        List<K> list = new ArrayList<>(keys);
+        Collections.sort(list);
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        int locked = 0;
+        try {
+            for (K key : list) {
+                E.checkArgument(key != null, "Lock key can't be null");
+                if (!this.lock(key, true, deadline)) {
+                    return false;
+                }
+                locked++;
+            }
+        } finally {
+            for (int i = locked; locked < list.size() && i > 0; i--) {
+                this.unlock(list.get(i - 1));
+            }
+        }
+        return true;
+    }
+
     public void unlockAll(Set<K> keys) {
         E.checkArgument(keys != null && keys.size() > 0,
                         "Unlock keys can't be null or empty");
@@ -85,12 +132,58 @@ public class RowLock<K extends Comparable<K>> {
         }
     }
 
+    private boolean lock(K key, boolean timed, long deadline)
+                         throws InterruptedException {
+        LocalLock localLock = this.localLocks.get().get(key);
+        if (localLock != null) {
+            localLock.lockCount++;
+            this.stats.recordAcquired();
+            return true;
+        }
+
+        boolean contended = false;
+        long waitNanos = 0L;
+        while (true) {
+            ReentrantLock current = this.locks.computeIfAbsent(
+                                    key, k -> new ReentrantLock(this.fair));
+            // NOTE: tryLock() barges even if the lock is fair
+            if ((this.fair && current.hasQueuedThreads()) ||
+                !current.tryLock()) {
+                contended = true;
+                long start = System.nanoTime();
+                boolean acquired = true;
+                if (timed) {
+                    acquired = current.tryLock(deadline - start,
+                                               TimeUnit.NANOSECONDS);
+                } else {
+                    current.lock();
+                }
+                waitNanos += System.nanoTime() - start;
+                if (!acquired) {
+                    this.stats.recordContended(waitNanos, false);
+                    return false;
+                }
+            }
+            if (this.locks.get(key) == current) {
+                if (contended) {
+                    this.stats.recordContended(waitNanos, true);
+                } else {
+                    this.stats.recordAcquired();
+                }
+                this.localLocks.get().put(key, new LocalLock(current));
+                return true;
+            }
+            // The lock has been removed by the previous holder, try again
+            current.unlock();
+        }
+    }
+
     private static class LocalLock {
 
-        private final Lock current;
+        private final ReentrantLock current;
         private int lockCount;
 
-        private LocalLock(Lock current) {
+        private LocalLock(ReentrantLock current) {
             this.current = current;
             this.lockCount = 1;
         }
@@ -17,15 +17,23 @@
 
 package org.apache.hugegraph.event;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 import javax.annotation.Nullable;
 
@@ -62,18 +70,123 @@ public class EventHub {
         }
     }
 
+    public static final class LaneStats {
+
+        // The stats of a lane without any event
+        public static final LaneStats EMPTY = new LaneStats("", 0, 0, 0L, 0L,
+                                                            0L, 0L, 0L, 0L);
+
+        private final String event;
+        private final int depth;
+        private final int maxDepth;
+        private final long notified;
+        private final long coalesced;
+        private final long handled;
+        private final long blocked;
+        private final long totalLatencyNanos;
+        private final long maxLatencyNanos;
+
+        private LaneStats(String event, int depth, int maxDepth,
+                          long notified, long coalesced, long handled,
+                          long blocked, long totalLatencyNanos,
+                          long maxLatencyNanos) {
+            this.event = event;
+            this.depth = depth;
+            this.maxDepth = maxDepth;
+            this.notified = notified;
+            this.coalesced = coalesced;
+            this.handled = handled;
+            this.blocked = blocked;
+            this.totalLatencyNanos = totalLatencyNanos;
+            this.maxLatencyNanos = maxLatencyNanos;
+        }
+
+        public String event() {
+            return this.event;
+        }
+
+        /**
+         * The number of events waiting to be handled
+         */
+        public int depth() {
+            return this.depth;
+        }
+
+        public int maxDepth() {
+            return this.maxDepth;
+        }
+
+        public long notified() {
+            return this.notified;
+        }
+
+        /**
+         * The number of events merged into a duplicate pending one
+         */
+        public long coalesced() {
+            return this.coalesced;
+        }
+
+        public long handled() {
+            return this.handled;
+        }
+
+        /**
+         * The number of notifiers blocked by a full lane
+         */
+        public long blocked() {
+            return this.blocked;
+        }
+
+        /**
+         * The average time from notified to handled, in milliseconds
+         */
+        public double avgLatencyMs() {
+            if (this.handled == 0L) {
+                return 0D;
+            }
+            return this.totalLatencyNanos / 1e6 / this.handled;
+        }
+
+        public double maxLatencyMs() {
+            return this.maxLatencyNanos / 1e6;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("LaneStats{event='%s', depth=%s, " +
+                                 "maxDepth=%s, notified=%s, coalesced=%s, " +
+                                 "handled=%s, blocked=%s, avgLatencyMs=%.3f, " +
+                                 "maxLatencyMs=%.3f}",
+                                 this.event, this.depth, this.maxDepth,
+                                 this.notified, this.coalesced, this.handled,
+                                 this.blocked, this.avgLatencyMs(),
+                                 this.maxLatencyMs());
+        }
+    }
+
     private static final Logger LOG = Log.logger(EventHub.class);
 
     public static final String EVENT_WORKER = "event-worker-%d";
     public static final String ANY_EVENT = "*";
 
+    // The max events handled by a lane before yielding the worker
+    private static final int LANE_BATCH_SIZE = 64;
+
     private static final List<EventListener> EMPTY = ImmutableList.of();
 
     // Event executor
     private static ExecutorService executor = null;
 
+    // The ordered hubs alive, to report the stats of their lanes
+    private static final Set<EventHub> ORDERED_HUBS =
+            Collections.newSetFromMap(new WeakHashMap<>());
+
     private String name;
     private Map<String, List<EventListener>> listeners;
+    // The max pending events of each lane, 0 means no ordered lanes
+    private int laneCapacity;
+    private Map<String, Lane> lanes;
 
     public EventHub() {
         this("hub");
@@ -97,6 +210,40 @@ public class EventHub {
         EventHub.init(corePoolSize, maximumPoolSize);
     }
 
+    /**
+     * Create an EventHub whose async events are queued in a lane per event
+     * name and handled one by one in the notified order, instead of being
+     * submitted to the executor each as a task:
+     * - the notifiers are blocked when {@code laneCapacity} events of the
+     *   same name are pending, except the ones notifying from the lane itself
+     * - an event equal to the last pending one of its lane is coalesced,
+     *   namely the event with the same args and the same ignored listener,
+     *   and the notifiers share the future of the pending one
+     * - a lane holds a worker thread for at most LANE_BATCH_SIZE events,
+     *   the events of different names are handled concurrently
+     */
+    public static EventHub ordered(String name, int laneCapacity) {
+        E.checkArgument(laneCapacity > 0,
+                        "The lane capacity must be > 0, but got %s",
+                        laneCapacity);
+        EventHub hub = new EventHub(name);
+        hub.laneCapacity = laneCapacity;
+        hub.lanes = new ConcurrentHashMap<>();
+        synchronized (ORDERED_HUBS) {
+            ORDERED_HUBS.add(hub);
+        }
+        return hub;
+    }
+
+    /**
+     * @return the ordered hubs not garbage collected yet, in no order
+     */
+    public static List<EventHub> orderedHubs() {
+        synchronized (ORDERED_HUBS) {
+            return new ArrayList<>(ORDERED_HUBS);
+        }
+    }
+
     public static synchronized void init(int poolSize) {
         if (executor != null) {
             return;
@@ -132,6 +279,24 @@ public class EventHub {
         return this.name;
     }
 
+    public boolean ordered() {
+        return this.lanes != null;
+    }
+
+    /**
+     * @return the stats of each lane sorted by event name, empty if the
+     *         hub is not ordered
+     */
+    public Map<String, LaneStats> laneStats() {
+        Map<String, LaneStats> stats = new TreeMap<>();
+        if (this.lanes != null) {
+            for (Lane lane : this.lanes.values()) {
+                stats.put(lane.event, lane.stats());
+            }
+        }
+        return stats;
+    }
+
     public boolean containsListener(String event) {
         List<EventListener> ls = this.listeners.get(event);
         return ls != null && ls.size() > 0;
@@ -206,6 +371,11 @@ public class EventHub {
             return CompletableFuture.completedFuture(0);
         }
         Event ev = new Event(this, event, args);
+        if (this.lanes != null) {
+            // The listeners are looked up again when the event is handled
+            return this.lanes.computeIfAbsent(event, Lane::new)
+                             .offer(ev, ignoredListener);
+        }
         return executor().submit(() -> {
             return this.notifyListeners(all, ignoredListener, ev).succeeded();
         });
@@ -252,6 +422,185 @@ public class EventHub {
         return new NotifyResult(attempted, succeeded);
     }
 
+    private static final class Pending {
+
+        private final Event event;
+        private final EventListener ignoredListener;
+        private final CompletableFuture<Integer> future;
+        private final long notifiedNanos;
+
+        private Pending(Event event, EventListener ignoredListener) {
+            this.event = event;
+            this.ignoredListener = ignoredListener;
+            this.future = new CompletableFuture<>();
+            this.notifiedNanos = System.nanoTime();
+        }
+
+        private boolean duplicates(Event event, EventListener ignoredListener) {
+            return this.ignoredListener == ignoredListener &&
+                   Arrays.deepEquals(this.event.args(), event.args());
+        }
+    }
+
+    /**
+     * The pending events of an event name, handled by at most one worker
+     * at a time
+     */
+    private final class Lane {
+
+        private final String event;
+        private final ArrayDeque<Pending> pending;
+        private final ReentrantLock lock;
+        private final Condition notFull;
+        // Whether a worker is scheduled or running for the lane
+        private boolean scheduled;
+        private volatile Thread worker;
+
+        private int maxDepth;
+        private long notified;
+        private long coalesced;
+        private long handled;
+        private long blocked;
+        private long totalLatencyNanos;
+        private long maxLatencyNanos;
+
+        private Lane(String event) {
+            this.event = event;
+            this.pending = new ArrayDeque<>();
+            this.lock = new ReentrantLock();
+            this.notFull = this.lock.newCondition();
+            this.scheduled = false;
+        }
+
+        private Future<Integer> offer(Event ev, EventListener ignoredListener) {
+            this.lock.lock();
+            try {
+                this.notified++;
+                Pending last = this.pending.peekLast();
+                if (last != null && last.duplicates(ev, ignoredListener)) {
+                    this.coalesced++;
+                    return last.future;
+                }
+                /*
+                 * Don't block the worker of the lane, or the lane can't be
+                 * drained anymore
+                 */
+                if (this.pending.size() >= laneCapacity &&
+                    this.worker != Thread.currentThread()) {
+                    this.blocked++;
+                    do {
+                        this.notFull.awaitUninterruptibly();
+                    } while (this.pending.size() >= laneCapacity);
+                }
+                Pending p = new Pending(ev, ignoredListener);
+                this.pending.addLast(p);
+                this.maxDepth = Math.max(this.maxDepth, this.pending.size());
+                if (!this.scheduled) {
+                    this.schedule();
+                }
+                return p.future;
+            } finally {
+                this.lock.unlock();
+            }
+        }
+
+        private void schedule() {
+            assert this.lock.isHeldByCurrentThread();
+            try {
+                executor().execute(this::drain);
+            } catch (RuntimeException e) {
+                // The executor is destroyed, no one will drain the lane
+                for (Pending p : this.pending) {
+                    p.future.completeExceptionally(e);
+                }
+                this.pending.clear();
+                this.notFull.signalAll();
+                throw e;
+            }
+            this.scheduled = true;
+        }
+
+        private void drain() {
+            this.worker = Thread.currentThread();
+            try {
+                for (int i = 0; i < LANE_BATCH_SIZE; i++) {
+                    Pending p = this.poll();
+                    if (p == null) {
+                        return;
+                    }
+                    this.handle(p);
+                }
+            } finally {
+                // A new worker may have been scheduled once the lane is empty
+                if (this.worker == Thread.currentThread()) {
+                    this.worker = null;
+                }
+            }
+
+            // Yield the worker to other lanes after a batch
+            this.lock.lock();
+            try {
+                if (this.pending.isEmpty()) {
+                    this.scheduled = false;
+                } else {
+                    this.schedule();
+                }
+            } finally {
+                this.lock.unlock();
+            }
+        }
+
+        private Pending poll() {
+            this.lock.lock();
+            try {
+                Pending p = this.pending.pollFirst();
+                if (p == null) {
+                    this.scheduled = false;
+                } else {
+                    this.notFull.signal();
+                }
+                return p;
+            } finally {
+                this.lock.unlock();
+            }
+        }
+
+        private void handle(Pending p) {
+            int succeeded = 0;
+            try {
+                ExtendableIterator<EventListener> all =
+                        eventListeners(p.event.name());
+                succeeded = notifyListeners(all, p.ignoredListener, p.event)
+                                    .succeeded();
+            } finally {
+                long latency = System.nanoTime() - p.notifiedNanos;
+                this.lock.lock();
+                try {
+                    this.handled++;
+                    this.totalLatencyNanos += latency;
+                    this.maxLatencyNanos = Math.max(this.maxLatencyNanos,
+                                                    latency);
+                } finally {
+                    this.lock.unlock();
+                }
+                p.future.complete(succeeded);
+            }
+        }
+
+        private LaneStats stats() {
+            this.lock.lock();
+            try {
+                return new LaneStats(this.event, this.pending.size(),
+                                     this.maxDepth, this.notified,
+                                     this.coalesced, this.handled,
+                                     this.blocked, this.totalLatencyNanos,
+                                     this.maxLatencyNanos);
+            } finally {
+                this.lock.unlock();
+            }
+        }
+    }
+
     public Object call(String event, @Nullable Object... args) {
         List<EventListener> ls = this.listeners.get(event);
         if (ls == null) {
@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hugegraph.perf;
+
+import java.util.Arrays;
+
+import org.apache.hugegraph.util.E;
+
+/**
+ * A fixed size histogram of latencies in nanoseconds, each power of 2 is
+ * split into 2 buckets, so the value of a bucket is within 25% of the
+ * recorded ones. It's not thread safe.
+ */
+public final class LatencyHistogram {
+
+    public static final int BUCKETS = 128;
+
+    private final long[] counts;
+    private long count;
+    private long sum;
+    private long min;
+    private long max;
+
+    public LatencyHistogram() {
+        this.counts = new long[BUCKETS];
+        this.clear();
+    }
+
+    public void record(long nanos) {
+        if (nanos < 0L) {
+            nanos = 0L;
+        }
+        this.counts[bucket(nanos)]++;
+        this.count++;
+        this.sum += nanos;
+        this.min = Math.min(this.min, nanos);
+        this.max = Math.max(this.max, nanos);
+    }
+
+    public void merge(LatencyHistogram other) {
+        if (other.count == 0L) {
+            return;
+        }
+        for (int i = 0; i < BUCKETS; i++) {
+            this.counts[i] += other.counts[i];
+        }
+        this.count += other.count;
+        this.sum += other.sum;
+        this.min = Math.min(this.min, other.min);
+        this.max = Math.max(this.max, other.max);
+    }
+
+    public void clear() {
+        Arrays.fill(this.counts, 0L);
+        this.count = 0L;
+        this.sum = 0L;
+        this.min = Long.MAX_VALUE;
+        this.max = 0L;
+    }
+
+    public LatencyHistogram copy() {
+        LatencyHistogram copy = new LatencyHistogram();
+        copy.merge(this);
+        return copy;
+    }
+
+    public long count() {
+        return this.count;
+    }
+
+    public long sum() {
+        return this.sum;
+    }
+
+    public long min() {
+        return this.count == 0L ? 0L : this.min;
+    }
+
+    public long max() {
+        return this.max;
+    }
+
+    public double mean() {
+        return this.count == 0L ? 0D : (double) this.sum / this.count;
+    }
+
+    /**
+     * @return the count of the bucket {@code index}
+     */
+    public long bucketCount(int index) {
+        return this.counts[index];
+    }
+
+    /**
+     * @return the value of the bucket {@code index}, namely the largest
+     *         value falling into it
+     */
+    public static long bucketValue(int index) {
+        E.checkArgument(index >= 0 && index < BUCKETS,
+                        "Invalid bucket index %s", index);
+        if (index < 2) {
+            return index;
+        }
+        int log = index >>> 1;
+        long half = 1L << (log - 1);
+        long lower = (1L << log) + (index & 1) * half;
+        return lower + half - 1L;
+    }
+
+    /**
+     * @return the estimated value at {@code quantile} in [0, 1]
+     */
+    public long percentile(double quantile) {
+        E.checkArgument(quantile >= 0D && quantile <= 1D,
+                        "The quantile must be in [0, 1], but got %s",
+                        quantile);
+        if (this.count == 0L) {
+            return 0L;
+        }
+        long rank = Math.max(1L, (long) Math.ceil(quantile * this.count));
+        long seen = 0L;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += this.counts[i];
+            if (seen >= rank) {
+                return Math.max(this.min(), Math.min(bucketValue(i), this.max));
+            }
+        }
+        return this.max;
+    }
+
+    static int bucket(long value) {
+        if (value < 2L) {
+            return (int) value;
+        }
+        int log = 63 - Long.numberOfLeadingZeros(value);
+        int half = (int) ((value >>> (log - 1)) & 1L);
+        return (log << 1) + half;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("LatencyHistogram{count=%s, min=%s, mean=%.1f, " +
+                             "p50=%s, p99=%s, max=%s}",
+                             this.count, this.min(), this.mean(),
+                             this.percentile(0.5D), this.percentile(0.99D),
+                             this.max);
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hugegraph.perf;
+
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.hugegraph.util.E;
+
+/**
+ * A low overhead profiler which is safe to be kept on in production, as
+ * opposed to PerfUtil:
+ * - only one in {@code sampleRate} requests of each thread is sampled, the
+ *   stopwatches of the other requests cost a thread local lookup
+ * - the latencies are aggregated into the fixed size histograms of the
+ *   sampling thread, and drained into the caller of {@link #drain()}, which
+ *   is supposed to be called periodically
+ * - at most {@code maxOperations} operations are recorded by each thread,
+ *   the others are recorded as {@link #OTHER}
+ *
+ * Usage:
+ * <pre>
+ *   PerfSampler.beginRequest();
+ *   ...
+ *   long start = PerfSampler.start();
+ *   doSomething();
+ *   PerfSampler.stop("something", start);
+ *   ...
+ *   PerfSampler.endRequest();
+ * </pre>
+ */
+public final class PerfSampler {
+
+    public static final String OTHER = "~other";
+
+    private static final ThreadLocal<Recorder> RECORDER =
+            ThreadLocal.withInitial(PerfSampler::register);
+    private static final Set<Recorder> RECORDERS =
+            ConcurrentHashMap.newKeySet();
+
+    // Sample one in N requests, 0 means disabled
+    private static volatile int sampleRate = 0;
+    private static volatile int maxOperations = 64;
+
+    private PerfSampler() {
+        // pass
+    }
+
+    public static synchronized void enable(int sampleRate, int maxOperations) {
+        E.checkArgument(sampleRate > 0,
+                        "The sample rate must be > 0, but got %s",
+                        sampleRate);
+        E.checkArgument(maxOperations > 0,
+                        "The max operations must be > 0, but got %s",
+                        maxOperations);
+        PerfSampler.maxOperations = maxOperations;
+        PerfSampler.sampleRate = sampleRate;
+    }
+
+    public static synchronized void disable() {
+        PerfSampler.sampleRate = 0;
+        drain();
+    }
+
+    public static boolean enabled() {
+        return sampleRate > 0;
+    }
+
+    /**
+     * Begin a request in the current thread
+     *
+     * @return whether the request is sampled
+     */
+    public static boolean beginRequest() {
+        int rate = sampleRate;
+        if (rate <= 0) {
+            return false;
+        }
+        Recorder recorder = RECORDER.get();
+        recorder.sampling = ++recorder.requests % rate == 0;
+        return recorder.sampling;
+    }
+
+    public static void endRequest() {
+        if (sampleRate <= 0) {
+            return;
+        }
+        RECORDER.get().sampling = false;
+    }
+
+    public static boolean sampling() {
+        return sampleRate > 0 && RECORDER.get().sampling;
+    }
+
+    /**
+     * @return the start time to be passed to {@link #stop}, or 0 if the
+     *         request is not sampled
+     */
+    public static long start() {
+        return sampling() ? System.nanoTime() : 0L;
+    }
+
+    public static void stop(String operation, long start) {
+        if (start == 0L) {
+            return;
+        }
+        record(operation, System.nanoTime() - start);
+    }
+
+    public static void record(String operation, long nanos) {
+        if (!sampling()) {
+            return;
+        }
+        RECORDER.get().record(operation, nanos);
+    }
+
+    /**
+     * Drain the latencies recorded by all the threads since the last drain,
+     * the recorders of the dead threads are released
+     *
+     * @return the merged histogram of each operation
+     */
+    public static synchronized Map<String, LatencyHistogram> drain() {
+        Map<String, LatencyHistogram> merged = new HashMap<>();
+        for (Iterator<Recorder> iter = RECORDERS.iterator(); iter.hasNext();) {
+            Recorder recorder = iter.next();
+            recorder.drainTo(merged);
+            if (!recorder.alive()) {
+                iter.remove();
+            }
+        }
+        return merged;
+    }
+
+    private static Recorder register() {
+        Recorder recorder = new Recorder(Thread.currentThread());
+        RECORDERS.add(recorder);
+        return recorder;
+    }
+
+    private static final class Recorder {
+
+        private final WeakReference<Thread> thread;
+        private final Map<String, LatencyHistogram> histograms;
+        private long requests;
+        private boolean sampling;
+
+        private Recorder(Thread thread) {
+            this.thread = new WeakReference<>(thread);
+            this.histograms = new HashMap<>();
+            this.requests = 0L;
+            this.sampling = false;
+        }
+
+        private boolean alive() {
+            Thread thread = this.thread.get();
+            return thread != null && thread.isAlive();
+        }
+
+        // Only contended with the drain
+        private synchronized void record(String operation, long nanos) {
+            LatencyHistogram histogram = this.histograms.get(operation);
+            if (histogram == null) {
+                if (this.histograms.size() >= maxOperations) {
+                    operation = OTHER;
+                    histogram = this.histograms.get(operation);
+                }
+                if (histogram == null) {
+                    histogram = new LatencyHistogram();
+                    this.histograms.put(operation, histogram);
+                }
+            }
+            histogram.record(nanos);
+        }
+
+        private synchronized void drainTo(Map<String, LatencyHistogram> merged) {
+            for (Map.Entry<String, LatencyHistogram> e :
+                 this.histograms.entrySet()) {
+                LatencyHistogram histogram = e.getValue();
+                if (histogram.count() == 0L) {
+                    continue;
+                }
+                merged.computeIfAbsent(e.getKey(), k -> new LatencyHistogram())
+                      .merge(histogram);
+                // Keep the histogram to be reused
+                histogram.clear();
+            }
+        }
+    }
+}
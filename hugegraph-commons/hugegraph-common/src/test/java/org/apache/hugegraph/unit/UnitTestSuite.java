@@ -48,6 +48,7 @@ import org.apache.hugegraph.unit.license.LicenseCreateParamTest;
 import org.apache.hugegraph.unit.license.LicenseInstallParamTest;
 import org.apache.hugegraph.unit.license.LicenseParamsTest;
 import org.apache.hugegraph.unit.license.MachineInfoTest;
+import org.apache.hugegraph.unit.perf.PerfSamplerTest;
 import org.apache.hugegraph.unit.perf.PerfUtilTest;
 import org.apache.hugegraph.unit.perf.StopwatchTest;
 import org.apache.hugegraph.unit.rest.RestClientTest;
@@ -83,6 +84,7 @@ import org.apache.hugegraph.unit.util.VersionUtilTest;
     BarrierEventTest.class,
     EventHubTest.class,
     PerfUtilTest.class,
+    PerfSamplerTest.class,
     StopwatchTest.class,
     AbstractRestClientTest.class,
     RestClientTest.class,
@@ -20,11 +20,14 @@ package org.apache.hugegraph.unit.concurrent;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 
 import org.junit.Test;
 
 import org.apache.hugegraph.concurrent.KeyLock;
+import org.apache.hugegraph.concurrent.LockStats;
 import org.apache.hugegraph.testutil.Assert;
 import org.apache.hugegraph.unit.BaseUnitTest;
 
@@ -121,4 +124,93 @@ public class KeyLockTest extends BaseUnitTest {
             Assert.assertContains("Unlock locks can't be null", e.getMessage());
         });
     }
+
+    @Test
+    public void testLockAllWithSameStripe() {
+        KeyLock locks = new KeyLock(1);
+        Assert.assertEquals(1, locks.size());
+
+        // The keys of the same stripe are locked only once
+        List<Lock> ls = locks.lockAll("1", 2, 3);
+        Assert.assertEquals(1, ls.size());
+        locks.unlockAll(ls);
+        ls = locks.lockAll("1", 2);
+        Assert.assertEquals(1, ls.size());
+        locks.unlockAll(ls);
+
+        runWithThreads(1, () -> {
+            Lock lock = locks.lock("4");
+            lock.unlock();
+        });
+
+        // The size is rounded up to the power of 2
+        Assert.assertEquals(8, new KeyLock(5).size());
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            new KeyLock(0);
+        }, e -> {
+            Assert.assertContains("The size of KeyLock must be > 0",
+                                  e.getMessage());
+        });
+    }
+
+    @Test
+    public void testLockAllWithOverlappedKeys() {
+        KeyLock locks = new KeyLock(64, true);
+        Assert.assertTrue(locks.fair());
+
+        // Reversed overlapped batches can't be deadlocked
+        runWithThreads(8, () -> {
+            for (int i = 0; i < 1000; i++) {
+                List<Lock> ls = i % 2 == 0 ?
+                                locks.lockAll(1, 2, 3, 4, 5) :
+                                locks.lockAll(5, 4, 3, 2, 1);
+                locks.unlockAll(ls);
+            }
+        });
+
+        LockStats stats = locks.stats();
+        Assert.assertTrue(stats.acquired() >= 8 * 1000);
+        Assert.assertEquals(0L, stats.timeouts());
+    }
+
+    @Test
+    public void testTryLockAll() throws InterruptedException {
+        KeyLock locks = new KeyLock(64);
+
+        List<Lock> ls = locks.tryLockAll(1L, TimeUnit.SECONDS, 1, 2, 3);
+        Assert.assertNotNull(ls);
+        Assert.assertEquals(3, ls.size());
+
+        CountDownLatch latch = new CountDownLatch(1);
+        Thread thread = new Thread(() -> {
+            List<Lock> ls2 = locks.lockAll(3);
+            latch.countDown();
+            try {
+                Thread.sleep(1000L);
+            } catch (InterruptedException ignored) {
+                // pass
+            }
+            locks.unlockAll(ls2);
+        });
+        locks.unlockAll(ls);
+        thread.start();
+        latch.await();
+
+        // Key 3 is locked by the other thread
+        Assert.assertNull(locks.tryLockAll(10L, TimeUnit.MILLISECONDS,
+                                           1, 2, 3));
+        Assert.assertEquals(1L, locks.stats().timeouts());
+        Assert.assertEquals(1L, locks.stats().contended());
+        Assert.assertGte(10L, locks.stats().waitTime(TimeUnit.MILLISECONDS));
+
+        // The locked keys 1 and 2 are released after timeout
+        runWithThreads(1, () -> {
+            locks.unlockAll(locks.lockAll(1, 2));
+        });
+
+        ls = locks.tryLockAll(10L, TimeUnit.SECONDS, 1, 2, 3);
+        Assert.assertNotNull(ls);
+        locks.unlockAll(ls);
+        thread.join();
+    }
 }
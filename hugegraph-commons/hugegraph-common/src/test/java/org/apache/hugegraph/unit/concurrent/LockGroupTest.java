@@ -27,6 +27,7 @@ import org.junit.Test;
 import org.apache.hugegraph.concurrent.AtomicLock;
 import org.apache.hugegraph.concurrent.KeyLock;
 import org.apache.hugegraph.concurrent.LockGroup;
+import org.apache.hugegraph.concurrent.LockStats;
 import org.apache.hugegraph.concurrent.RowLock;
 import org.apache.hugegraph.testutil.Assert;
 import org.apache.hugegraph.unit.BaseUnitTest;
@@ -99,6 +100,27 @@ public class LockGroupTest extends BaseUnitTest {
         Assert.assertSame(lock, lock1);
     }
 
+    @Test
+    public void testStats() {
+        KeyLock keyLock = this.group.keyLock("key", 16, true);
+        Assert.assertTrue(keyLock.fair());
+        RowLock<Integer> rowLock = this.group.rowLock("row", true);
+        Assert.assertTrue(rowLock.fair());
+        this.group.lock("lock");
+
+        keyLock.unlockAll(keyLock.lockAll(1, 2));
+        rowLock.lock(1);
+        rowLock.unlock(1);
+
+        Assert.assertEquals(2, this.group.stats().size());
+        Assert.assertEquals(2L, this.group.stats().get("key").acquired());
+        Assert.assertEquals(1L, this.group.stats().get("row").acquired());
+        LockStats total = this.group.totalStats();
+        Assert.assertEquals(3L, total.acquired());
+        Assert.assertEquals(0L, total.contended());
+        Assert.assertEquals(0L, total.timeouts());
+    }
+
     @Test
     public void testName() {
         Assert.assertEquals(GROUP, this.group.name());
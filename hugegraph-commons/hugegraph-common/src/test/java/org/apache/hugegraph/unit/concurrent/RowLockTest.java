@@ -22,6 +22,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Test;
 
@@ -98,6 +100,70 @@ public class RowLockTest extends BaseUnitTest {
         });
     }
 
+    @Test
+    public void testTryLockAll() throws InterruptedException {
+        RowLock<Integer> lock = new RowLock<>(true);
+        Assert.assertTrue(lock.fair());
+        Assert.assertTrue(lock.tryLockAll(ImmutableSet.of(1, 2),
+                                          1L, TimeUnit.SECONDS));
+        // Reentrant
+        Assert.assertTrue(lock.tryLockAll(ImmutableSet.of(1),
+                                          1L, TimeUnit.SECONDS));
+        lock.unlock(1);
+
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        Thread thread = new Thread(() -> {
+            lock.lock(3);
+            locked.countDown();
+            try {
+                done.await();
+            } catch (InterruptedException ignored) {
+                // pass
+            }
+            lock.unlock(3);
+        });
+        thread.start();
+        locked.await();
+
+        // Key 3 is locked by the other thread
+        Assert.assertFalse(lock.tryLockAll(ImmutableSet.of(1, 2, 3),
+                                           10L, TimeUnit.MILLISECONDS));
+        Assert.assertEquals(1L, lock.stats().timeouts());
+        done.countDown();
+        thread.join();
+
+        // Key 1 and 2 are still locked once by this thread
+        runWithThreads(1, () -> {
+            try {
+                Assert.assertFalse(lock.tryLockAll(ImmutableSet.of(1),
+                                                   10L,
+                                                   TimeUnit.MILLISECONDS));
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        lock.unlockAll(ImmutableSet.of(1, 2));
+        Assert.assertTrue(lock.tryLockAll(ImmutableSet.of(1, 2, 3),
+                                          1L, TimeUnit.SECONDS));
+        lock.unlockAll(ImmutableSet.of(1, 2, 3));
+    }
+
+    @Test
+    public void testRowLockWithMultiThreadsCount() {
+        RowLock<Integer> lock = new RowLock<>(true);
+        int[] counter = new int[1];
+        runWithThreads(THREADS_NUM, () -> {
+            for (int i = 0; i < 1000; i++) {
+                lock.lockAll(ImmutableSet.of(1, 2));
+                counter[0]++;
+                lock.unlockAll(ImmutableSet.of(1, 2));
+            }
+        });
+        Assert.assertEquals(THREADS_NUM * 1000, counter[0]);
+        Assert.assertEquals(THREADS_NUM * 1000 * 2L, lock.stats().acquired());
+    }
+
     @Test
     public void testRowLockWithMultiThreads() {
         RowLock<Integer> lock = new RowLock<>();
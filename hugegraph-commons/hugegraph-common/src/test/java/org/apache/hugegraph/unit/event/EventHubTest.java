@@ -17,6 +17,12 @@
 
 package org.apache.hugegraph.unit.event;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.After;
@@ -31,6 +37,7 @@ import org.apache.hugegraph.testutil.Assert;
 import org.apache.hugegraph.unit.BaseUnitTest;
 import org.apache.hugegraph.event.Event;
 import org.apache.hugegraph.event.EventHub;
+import org.apache.hugegraph.event.EventHub.LaneStats;
 import org.apache.hugegraph.event.EventHub.NotifyResult;
 import org.apache.hugegraph.event.EventListener;
 
@@ -536,4 +543,163 @@ public class EventHubTest extends BaseUnitTest {
             }
         });
     }
+
+    @Test
+    public void testOrderedNotifyKeepsOrder() throws Exception {
+        final String notify = "event-notify-ordered";
+        EventHub hub = EventHub.ordered("ordered", 1024);
+        Assert.assertTrue(hub.ordered());
+        Assert.assertFalse(this.eventHub.ordered());
+        Assert.assertTrue(EventHub.orderedHubs().contains(hub));
+        Assert.assertFalse(EventHub.orderedHubs().contains(this.eventHub));
+
+        List<Integer> received = Collections.synchronizedList(
+                                 new ArrayList<>());
+        hub.listen(notify, event -> {
+            received.add((int) event.args()[0]);
+            return null;
+        });
+
+        Future<Integer> last = null;
+        for (int i = 0; i < 1000; i++) {
+            last = hub.notify(notify, i);
+        }
+        Assert.assertEquals(1, (int) last.get(10, TimeUnit.SECONDS));
+
+        Assert.assertEquals(1000, received.size());
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertEquals(i, (int) received.get(i));
+        }
+
+        LaneStats stats = hub.laneStats().get(notify);
+        Assert.assertEquals(notify, stats.event());
+        Assert.assertEquals(0, stats.depth());
+        Assert.assertEquals(1000L, stats.notified());
+        Assert.assertEquals(1000L, stats.handled());
+        Assert.assertEquals(0L, stats.coalesced());
+        Assert.assertTrue(stats.maxLatencyMs() >= stats.avgLatencyMs());
+    }
+
+    @Test
+    public void testOrderedNotifyCoalesceDuplicates() throws Exception {
+        final String notify = "event-notify-coalesce";
+        EventHub hub = EventHub.ordered("ordered", 1024);
+
+        CountDownLatch blocking = new CountDownLatch(1);
+        List<Object> received = Collections.synchronizedList(
+                                new ArrayList<>());
+        hub.listen(notify, event -> {
+            try {
+                blocking.await();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            received.add(event.args()[0]);
+            return null;
+        });
+
+        // The first one is taken by the worker, the others are pending
+        hub.notify(notify, "clear", "vertex");
+        this.wait100ms();
+        Future<Integer> clear1 = hub.notify(notify, "clear", "edge");
+        Future<Integer> clear2 = hub.notify(notify, "clear", "edge");
+        hub.notify(notify, "invalid", "edge");
+        Future<Integer> clear3 = hub.notify(notify, "clear", "edge");
+        Assert.assertSame(clear1, clear2);
+        Assert.assertNotSame(clear1, clear3);
+
+        blocking.countDown();
+        Assert.assertEquals(1, (int) clear3.get(10, TimeUnit.SECONDS));
+        Assert.assertEquals(1, (int) clear1.get());
+        Assert.assertEquals(ImmutableList.of("clear", "clear", "invalid",
+                                             "clear"), received);
+
+        LaneStats stats = hub.laneStats().get(notify);
+        Assert.assertEquals(5L, stats.notified());
+        Assert.assertEquals(1L, stats.coalesced());
+        Assert.assertEquals(4L, stats.handled());
+    }
+
+    @Test
+    public void testOrderedNotifyBlockWhenFull() throws Exception {
+        final String notify = "event-notify-full";
+        EventHub hub = EventHub.ordered("ordered", 2);
+
+        CountDownLatch blocking = new CountDownLatch(1);
+        AtomicInteger count = new AtomicInteger();
+        hub.listen(notify, event -> {
+            try {
+                blocking.await();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            count.incrementAndGet();
+            return null;
+        });
+
+        hub.notify(notify, 0);
+        this.wait100ms();
+        hub.notify(notify, 1);
+        hub.notify(notify, 2);
+
+        Thread notifier = new Thread(() -> {
+            hub.notify(notify, 3);
+        });
+        notifier.start();
+        this.wait100ms();
+        // The lane is full
+        Assert.assertTrue(notifier.isAlive());
+        Assert.assertEquals(2, hub.laneStats().get(notify).depth());
+        Assert.assertEquals(1L, hub.laneStats().get(notify).blocked());
+
+        blocking.countDown();
+        notifier.join(10000L);
+        Assert.assertFalse(notifier.isAlive());
+        hub.notify(notify, 4).get(10, TimeUnit.SECONDS);
+        Assert.assertEquals(5, count.get());
+        Assert.assertEquals(2, hub.laneStats().get(notify).maxDepth());
+    }
+
+    @Test
+    public void testOrderedNotifyFromListener() throws Exception {
+        final String notify = "event-notify-reentrant";
+        EventHub hub = EventHub.ordered("ordered", 1);
+
+        AtomicInteger count = new AtomicInteger();
+        hub.listen(notify, event -> {
+            int i = (int) event.args()[0];
+            count.incrementAndGet();
+            if (i < 10) {
+                // Notify the full lane from its worker without blocking
+                hub.notify(notify, i + 1);
+                hub.notify(notify, i + 100);
+            }
+            return null;
+        });
+
+        hub.notify(notify, 0);
+        for (int i = 0; i < 100 && count.get() < 21; i++) {
+            this.wait100ms();
+        }
+        Assert.assertEquals(21, count.get());
+        Assert.assertEquals(0L, hub.laneStats().get(notify).blocked());
+    }
+
+    @Test
+    public void testOrderedNotifySync() {
+        final String notify = "event-notify-sync";
+        EventHub hub = EventHub.ordered("ordered", 16);
+        hub.listen(notify, event -> null);
+
+        NotifyResult result = hub.notifySync(notify);
+        Assert.assertEquals(1, result.succeeded());
+        // The sync events are not queued
+        Assert.assertTrue(hub.laneStats().isEmpty());
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            EventHub.ordered("ordered", 0);
+        }, e -> {
+            Assert.assertContains("The lane capacity must be > 0", e.getMessage());
+        });
+    }
 }
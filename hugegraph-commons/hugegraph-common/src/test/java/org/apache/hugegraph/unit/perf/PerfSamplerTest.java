@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hugegraph.unit.perf;
+
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Test;
+
+import org.apache.hugegraph.perf.LatencyHistogram;
+import org.apache.hugegraph.perf.PerfSampler;
+import org.apache.hugegraph.testutil.Assert;
+import org.apache.hugegraph.unit.BaseUnitTest;
+
+public class PerfSamplerTest extends BaseUnitTest {
+
+    @After
+    public void teardown() {
+        PerfSampler.disable();
+    }
+
+    @Test
+    public void testHistogramPercentile() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Assert.assertEquals(0L, histogram.percentile(0.99D));
+        Assert.assertEquals(0L, histogram.min());
+
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+        Assert.assertEquals(1000L, histogram.count());
+        Assert.assertEquals(1000L, histogram.min());
+        Assert.assertEquals(1000000L, histogram.max());
+        Assert.assertEquals(500500.0D, histogram.mean(), 0.1D);
+
+        // Each bucket is within 25% of the recorded values
+        assertAround(500000L, histogram.percentile(0.5D));
+        assertAround(990000L, histogram.percentile(0.99D));
+        assertAround(1000L, histogram.percentile(0D));
+        Assert.assertEquals(1000000L, histogram.percentile(1D));
+
+        LatencyHistogram other = new LatencyHistogram();
+        other.record(5000000L);
+        histogram.merge(other);
+        Assert.assertEquals(1001L, histogram.count());
+        Assert.assertEquals(5000000L, histogram.max());
+        Assert.assertEquals(1001L, histogram.copy().count());
+
+        histogram.clear();
+        Assert.assertEquals(0L, histogram.count());
+    }
+
+    @Test
+    public void testHistogramBuckets() {
+        long last = -1L;
+        for (int i = 0; i < LatencyHistogram.BUCKETS - 2; i++) {
+            long value = LatencyHistogram.bucketValue(i);
+            Assert.assertTrue(value > last);
+            last = value;
+        }
+
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(Long.MAX_VALUE);
+        histogram.record(-1L);
+        Assert.assertEquals(2L, histogram.count());
+        Assert.assertEquals(0L, histogram.min());
+        Assert.assertEquals(Long.MAX_VALUE, histogram.percentile(1D));
+    }
+
+    @Test
+    public void testSampleRequests() {
+        Assert.assertFalse(PerfSampler.enabled());
+        Assert.assertFalse(PerfSampler.beginRequest());
+        Assert.assertEquals(0L, PerfSampler.start());
+
+        PerfSampler.enable(4, 16);
+        Assert.assertTrue(PerfSampler.enabled());
+        int sampled = 0;
+        for (int i = 0; i < 100; i++) {
+            if (PerfSampler.beginRequest()) {
+                sampled++;
+                Assert.assertTrue(PerfSampler.sampling());
+                long start = PerfSampler.start();
+                Assert.assertNotEquals(0L, start);
+                PerfSampler.stop("op", start);
+                PerfSampler.record("op2", 100L);
+            } else {
+                Assert.assertEquals(0L, PerfSampler.start());
+                PerfSampler.record("op2", 100L);
+            }
+            PerfSampler.endRequest();
+            Assert.assertFalse(PerfSampler.sampling());
+        }
+        Assert.assertEquals(25, sampled);
+        // Out of the requests
+        PerfSampler.record("op2", 100L);
+
+        Map<String, LatencyHistogram> drained = PerfSampler.drain();
+        Assert.assertEquals(2, drained.size());
+        Assert.assertEquals(25L, drained.get("op").count());
+        Assert.assertEquals(25L, drained.get("op2").count());
+
+        // Drained since the last time
+        Assert.assertTrue(PerfSampler.drain().isEmpty());
+    }
+
+    @Test
+    public void testMergeThreadsAndBoundOperations() throws Exception {
+        PerfSampler.enable(1, 2);
+        runWithThreads(4, () -> {
+            for (int i = 0; i < 100; i++) {
+                PerfSampler.beginRequest();
+                PerfSampler.record("op1", 10L);
+                PerfSampler.record("op2", 20L);
+                PerfSampler.record("op" + (i + 3), 30L);
+                PerfSampler.endRequest();
+            }
+        });
+
+        Map<String, LatencyHistogram> drained = PerfSampler.drain();
+        Assert.assertEquals(3, drained.size());
+        Assert.assertEquals(400L, drained.get("op1").count());
+        Assert.assertEquals(400L, drained.get("op2").count());
+        Assert.assertEquals(400L, drained.get(PerfSampler.OTHER).count());
+        Assert.assertEquals(30L, drained.get(PerfSampler.OTHER).max());
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            PerfSampler.enable(0, 2);
+        }, e -> {
+            Assert.assertContains("The sample rate must be > 0", e.getMessage());
+        });
+    }
+
+    private static void assertAround(long expected, long actual) {
+        Assert.assertTrue("Expect around " + expected + " but got " + actual,
+                          Math.abs(actual - expected) <= expected / 4);
+    }
+}
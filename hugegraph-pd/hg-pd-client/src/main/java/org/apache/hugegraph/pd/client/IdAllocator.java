@@ -0,0 +1,278 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.hugegraph.pd.client;
+
+import java.io.Closeable;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.hugegraph.pd.common.HgAssert;
+import org.apache.hugegraph.pd.common.PDException;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Hands out ids of a PD sequence from segments leased in advance, so that the
+ * common path is a local atomic increment instead of a raft round trip.
+ * <p>
+ * Every key keeps two segments: the one being consumed and the next one, which
+ * is leased in the background once half of the current one is used. The size
+ * of the next segment follows the observed consumption rate, aiming at one
+ * lease per {@code targetMillis}. The leased range follows
+ * {@link PDClient#getIdByKey}: a lease returning {@code id} owns
+ * {@code (id, id + delta]}, so it never collides with direct callers of PD.
+ */
+@Slf4j
+public final class IdAllocator implements Closeable {
+
+    public static final int DEFAULT_MIN_SEGMENT = 10_000;
+    public static final int DEFAULT_MAX_SEGMENT = DEFAULT_MIN_SEGMENT * 16;
+    public static final long DEFAULT_TARGET_MILLIS = 60_000L;
+
+    private final Leaser leaser;
+    private final int minSegment;
+    private final int maxSegment;
+    private final long targetNanos;
+    private final Map<String, Sequence> sequences = new ConcurrentHashMap<>();
+    private final ExecutorService prefetchExecutor;
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+
+    public IdAllocator(PDClient client) {
+        this(client, DEFAULT_MIN_SEGMENT, DEFAULT_MAX_SEGMENT, DEFAULT_TARGET_MILLIS);
+    }
+
+    public IdAllocator(PDClient client, int minSegment, int maxSegment, long targetMillis) {
+        this((key, delta) -> client.getIdByKey(key, delta).getId(),
+             minSegment, maxSegment, targetMillis);
+    }
+
+    public IdAllocator(Leaser leaser, int minSegment, int maxSegment, long targetMillis) {
+        HgAssert.isArgumentNotNull(leaser, "leaser");
+        HgAssert.isTrue(minSegment >= 2, "The min segment must be >= 2");
+        HgAssert.isTrue(maxSegment >= minSegment, "The max segment must be >= the min segment");
+        HgAssert.isTrue(targetMillis > 0, "The target millis must be > 0");
+        this.leaser = leaser;
+        this.minSegment = minSegment;
+        this.maxSegment = maxSegment;
+        this.targetNanos = TimeUnit.MILLISECONDS.toNanos(targetMillis);
+        this.prefetchExecutor = Executors.newCachedThreadPool(
+                new ThreadFactoryBuilder().setDaemon(true)
+                                          .setNameFormat("id-prefetch-%d").build());
+    }
+
+    /**
+     * Return the next id of the key, leasing a new segment from PD only when
+     * the prefetched one is not available
+     */
+    public long nextId(String key) throws PDException {
+        return this.sequence(key).nextId();
+    }
+
+    /**
+     * Make sure every id handed out afterward is greater than the lowest
+     */
+    public void skipTo(String key, long lowest) throws PDException {
+        this.sequence(key).skipTo(lowest);
+    }
+
+    /**
+     * Size of the segment the key will lease next, exposed for monitoring
+     */
+    public int segmentSize(String key) {
+        Sequence sequence = this.sequences.get(key);
+        return sequence == null ? this.minSegment : sequence.size;
+    }
+
+    @Override
+    public void close() {
+        if (this.closed.compareAndSet(false, true)) {
+            this.prefetchExecutor.shutdownNow();
+            this.sequences.clear();
+        }
+    }
+
+    private Sequence sequence(String key) {
+        HgAssert.isFalse(this.closed.get(), "The id allocator has been closed");
+        return this.sequences.computeIfAbsent(key, Sequence::new);
+    }
+
+    private Segment lease(String key, int size) throws PDException {
+        long id = this.leaser.lease(key, size);
+        return new Segment(id, id + size);
+    }
+
+    @FunctionalInterface
+    public interface Leaser {
+
+        /**
+         * Advance the sequence of the key by delta and return the value before
+         * the advance
+         */
+        long lease(String key, int delta) throws PDException;
+    }
+
+    private static final class Segment {
+
+        private static final Segment EMPTY = new Segment(0L, 0L);
+
+        // Exclusive
+        private final long start;
+        // Inclusive
+        private final long end;
+        private final long threshold;
+        private final AtomicLong cursor;
+        private final AtomicBoolean prefetched = new AtomicBoolean(false);
+        private volatile long activatedAt;
+
+        private Segment(long start, long end) {
+            this.start = start;
+            this.end = end;
+            this.threshold = start + (end - start) / 2;
+            this.cursor = new AtomicLong(start);
+        }
+
+        private boolean needPrefetch(long id) {
+            return id >= this.threshold && !this.prefetched.get() &&
+                   this.prefetched.compareAndSet(false, true);
+        }
+    }
+
+    private final class Sequence {
+
+        private final String key;
+        private volatile Segment current = Segment.EMPTY;
+        private CompletableFuture<Segment> next;
+        private volatile int size = IdAllocator.this.minSegment;
+
+        private Sequence(String key) {
+            this.key = key;
+        }
+
+        private long nextId() throws PDException {
+            while (true) {
+                Segment segment = this.current;
+                long id = segment.cursor.incrementAndGet();
+                if (id <= segment.end) {
+                    if (segment.needPrefetch(id)) {
+                        this.prefetch(segment);
+                    }
+                    return id;
+                }
+                this.switchFrom(segment);
+            }
+        }
+
+        private synchronized void prefetch(Segment segment) {
+            if (this.current != segment || this.next != null) {
+                return;
+            }
+            this.size = this.adapt(segment);
+            int size = this.size;
+            try {
+                this.next = CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return lease(this.key, size);
+                    } catch (PDException e) {
+                        throw new CompletionException(e);
+                    }
+                }, prefetchExecutor);
+            } catch (Exception e) {
+                // Let the consumer lease synchronously when switching
+                log.warn("Failed to prefetch the id segment of '{}'", this.key, e);
+            }
+        }
+
+        private synchronized void switchFrom(Segment segment) throws PDException {
+            if (this.current != segment) {
+                // Switched by another thread
+                return;
+            }
+            Segment segment2 = null;
+            CompletableFuture<Segment> next = this.next;
+            this.next = null;
+            if (next != null) {
+                try {
+                    segment2 = next.join();
+                } catch (Exception e) {
+                    log.warn("Failed to prefetch the id segment of '{}', lease it again",
+                             this.key, e);
+                }
+            }
+            if (segment2 == null) {
+                segment2 = lease(this.key, this.size);
+            }
+            segment2.activatedAt = System.nanoTime();
+            this.current = segment2;
+        }
+
+        private synchronized void skipTo(long lowest) throws PDException {
+            Segment segment = this.current;
+            if (lowest <= segment.end) {
+                segment.cursor.accumulateAndGet(lowest, Math::max);
+                return;
+            }
+            Segment segment2 = null;
+            CompletableFuture<Segment> next = this.next;
+            this.next = null;
+            if (next != null && next.isDone() && !next.isCompletedExceptionally()) {
+                // Nothing to lease if the prefetched segment reaches the lowest
+                segment2 = next.join();
+            }
+            if (segment2 == null || lowest > segment2.end) {
+                segment2 = lease(this.key, this.size);
+            }
+            while (lowest > segment2.end) {
+                // Extend the leased segment over the lowest with one more lease
+                int delta = (int) Math.min(lowest - segment2.end + this.size,
+                                           Integer.MAX_VALUE);
+                segment2 = lease(this.key, delta);
+            }
+            segment2.cursor.accumulateAndGet(lowest, Math::max);
+            segment2.activatedAt = System.nanoTime();
+            this.current = segment2;
+        }
+
+        /**
+         * Estimate how long the current segment lasts from its first half, and
+         * double or halve the next segment to keep leases near the target rate
+         */
+        private int adapt(Segment segment) {
+            int size = this.size;
+            if (segment.activatedAt == 0L) {
+                return size;
+            }
+            long elapsed = (System.nanoTime() - segment.activatedAt) * 2;
+            if (elapsed < targetNanos / 2) {
+                size = (int) Math.min((long) size * 2, maxSegment);
+            } else if (elapsed > targetNanos * 2) {
+                size = Math.max(size / 2, minSegment);
+            }
+            return size;
+        }
+    }
+}
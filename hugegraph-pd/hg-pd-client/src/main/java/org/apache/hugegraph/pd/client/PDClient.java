@@ -88,6 +88,7 @@ public class PDClient {
     private PDWatch.Watcher shardGroupWatcher;
     private PDWatch pdWatch;
     private Authentication auth;
+    private volatile IdAllocator idAllocator;
 
     private PDClient(PDConfig config) {
         this.config = config;
@@ -900,6 +901,21 @@ public class PDClient {
         }
     }
 
+    /**
+     * Get the allocator handing out the ids of getIdByKey() from the segments
+     * leased in advance, it's created once and lives as long as this client
+     */
+    public IdAllocator getIdAllocator() {
+        if (this.idAllocator == null) {
+            synchronized (this) {
+                if (this.idAllocator == null) {
+                    this.idAllocator = new IdAllocator(this);
+                }
+            }
+        }
+        return this.idAllocator;
+    }
+
     public Pdpb.GetIdResponse getIdByKey(String key, int delta) throws PDException {
         Pdpb.GetIdRequest request = Pdpb.GetIdRequest.newBuilder()
                                                      .setHeader(header)
@@ -18,6 +18,7 @@
 package org.apache.hugegraph.pd.common;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -30,6 +31,7 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.apache.hugegraph.pd.grpc.Metapb;
 
+import com.google.common.collect.BoundType;
 import com.google.common.collect.Range;
 import com.google.common.collect.RangeMap;
 import com.google.common.collect.TreeRangeMap;
@@ -38,6 +40,10 @@ import com.google.common.collect.TreeRangeMap;
  * abandon copy on write way
  * 1. When the number of graph * partitions is extremely large, the efficiency is severely
  * reduced and cannot be used
+ * <p>
+ * The key code routing is an exception: each graph has an immutable {@link RouteTable}
+ * snapshot, which is rebuilt from the range map of this graph only (not all the graphs) after
+ * its partitions changed, so {@link #getPartitionByCode} is lock-free.
  */
 public class PartitionCache {
 
@@ -46,6 +52,8 @@ public class PartitionCache {
     Lock writeLock = readWriteLock.writeLock();
     // One cache per graph
     private volatile Map<String, RangeMap<Long, Integer>> keyToPartIdCache;
+    // Immutable routing snapshot of keyToPartIdCache, one per graph
+    private volatile Map<String, RouteTable> routeTables;
     // graphName + PartitionID
     private volatile Map<String, Map<Integer, Metapb.Partition>> partitionCache;
     private volatile Map<Integer, Metapb.ShardGroup> shardGroupCache;
@@ -54,6 +62,7 @@ public class PartitionCache {
 
     public PartitionCache() {
         keyToPartIdCache = new ConcurrentHashMap<>();
+        routeTables = new ConcurrentHashMap<>();
         partitionCache = new ConcurrentHashMap<>();
         shardGroupCache = new ConcurrentHashMap<>();
         storeCache = new ConcurrentHashMap<>();
@@ -134,12 +143,12 @@ public class PartitionCache {
      * @return
      */
     public KVPair<Metapb.Partition, Metapb.Shard> getPartitionByCode(String graphName, long code) {
-        waitGraphLock(graphName);
-        RangeMap<Long, Integer> rangeMap = keyToPartIdCache.get(graphName);
-        if (rangeMap != null) {
-            Integer partId = rangeMap.get(code);
-            if (partId != null) {
-                return getPartitionById(graphName, partId);
+        // No graph lock here, the snapshot is replaced as a whole by the writers
+        RouteTable routeTable = routeTables.get(graphName);
+        if (routeTable != null) {
+            Metapb.Partition partition = routeTable.route(code);
+            if (partition != null) {
+                return new KVPair<>(partition, getLeaderShard(partition.getId()));
             }
         }
         return null;
@@ -191,6 +200,7 @@ public class PartitionCache {
             keyToPartIdCache.computeIfAbsent(graphName, k -> TreeRangeMap.create())
                             .put(Range.closedOpen(partition.getStartKey(),
                                                   partition.getEndKey()), partId);
+            refreshRouteTable(graphName);
         } finally {
             unlockGraph(graphName);
         }
@@ -219,6 +229,7 @@ public class PartitionCache {
             keyToPartIdCache.computeIfAbsent(graphName, k -> TreeRangeMap.create())
                             .put(Range.closedOpen(partition.getStartKey(), partition.getEndKey()),
                                  partId);
+            refreshRouteTable(graphName);
         } finally {
             unlockGraph(graphName);
         }
@@ -249,12 +260,28 @@ public class PartitionCache {
                     Objects.equals(partition.getId(), graphRange.get(partition.getEndKey() - 1))) {
                     graphRange.remove(graphRange.getEntry(partition.getStartKey()).getKey());
                 }
+                refreshRouteTable(graphName);
             }
         } finally {
             unlockGraph(graphName);
         }
     }
 
+    /**
+     * Rebuild the routing snapshot of graphName, must be called with the graph lock held
+     *
+     * @param graphName
+     */
+    private void refreshRouteTable(String graphName) {
+        RangeMap<Long, Integer> rangeMap = keyToPartIdCache.get(graphName);
+        Map<Integer, Metapb.Partition> partitions = partitionCache.get(graphName);
+        if (rangeMap == null || partitions == null) {
+            routeTables.remove(graphName);
+            return;
+        }
+        routeTables.put(graphName, RouteTable.of(rangeMap, partitions));
+    }
+
     /**
      * remove partition id of graph name
      *
@@ -273,6 +300,7 @@ public class PartitionCache {
         try {
             partitionCache = new ConcurrentHashMap<>();
             keyToPartIdCache = new ConcurrentHashMap<>();
+            routeTables = new ConcurrentHashMap<>();
             locks.clear();
         } finally {
             writeLock.unlock();
@@ -289,6 +317,7 @@ public class PartitionCache {
             lockGraph(graphName);
             partitionCache.remove(graphName);
             keyToPartIdCache.remove(graphName);
+            routeTables.remove(graphName);
             locks.remove(graphName);
         } finally {
             unlockGraph(graphName);
@@ -365,6 +394,7 @@ public class PartitionCache {
         try {
             partitionCache = new ConcurrentHashMap<>();
             keyToPartIdCache = new ConcurrentHashMap<>();
+            routeTables = new ConcurrentHashMap<>();
             shardGroupCache = new ConcurrentHashMap<>();
             storeCache = new ConcurrentHashMap<>();
             graphCache = new ConcurrentHashMap<>();
@@ -462,4 +492,55 @@ public class PartitionCache {
         builder.append("}");
         return builder.toString();
     }
+
+    /**
+     * Immutable key code routing of one graph: the sorted start codes of the ranges with the
+     * parallel end codes and partitions, looked up by a binary search.
+     */
+    static final class RouteTable {
+
+        private final long[] starts;
+        private final long[] ends;
+        private final Metapb.Partition[] partitions;
+
+        private RouteTable(long[] starts, long[] ends, Metapb.Partition[] partitions) {
+            this.starts = starts;
+            this.ends = ends;
+            this.partitions = partitions;
+        }
+
+        static RouteTable of(RangeMap<Long, Integer> rangeMap,
+                             Map<Integer, Metapb.Partition> partitionMap) {
+            Map<Range<Long>, Integer> ranges = rangeMap.asMapOfRanges();
+            int size = ranges.size();
+            long[] starts = new long[size];
+            long[] ends = new long[size];
+            Metapb.Partition[] partitions = new Metapb.Partition[size];
+            int i = 0;
+            // The ranges are disjoint and ordered by their lower bounds
+            for (Map.Entry<Range<Long>, Integer> entry : ranges.entrySet()) {
+                Range<Long> range = entry.getKey();
+                starts[i] = range.lowerBoundType() == BoundType.CLOSED ?
+                            range.lowerEndpoint() : range.lowerEndpoint() + 1;
+                ends[i] = range.upperBoundType() == BoundType.OPEN ?
+                          range.upperEndpoint() : range.upperEndpoint() + 1;
+                // May be null if the partition has been removed but its range is kept
+                partitions[i] = partitionMap.get(entry.getValue());
+                i++;
+            }
+            return new RouteTable(starts, ends, partitions);
+        }
+
+        Metapb.Partition route(long code) {
+            int index = Arrays.binarySearch(this.starts, code);
+            if (index < 0) {
+                // The range before the insertion point
+                index = -index - 2;
+                if (index < 0) {
+                    return null;
+                }
+            }
+            return code < this.ends[index] ? this.partitions[index] : null;
+        }
+    }
 }
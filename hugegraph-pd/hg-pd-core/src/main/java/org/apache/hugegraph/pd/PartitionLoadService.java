@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hugegraph.pd;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.apache.hugegraph.pd.config.PDConfig;
+import org.apache.hugegraph.pd.grpc.Metapb;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Track the load reported by partition heartbeats and detect hot partitions.
+ * The load is kept in memory of the PD leader only, it is rebuilt from the heartbeats after
+ * the leader changes.
+ */
+@Slf4j
+public class PartitionLoadService {
+
+    // Weight of the latest heartbeat in the smoothed load
+    private static final double SMOOTH_FACTOR = 0.5;
+
+    private final PDConfig pdConfig;
+    private final Map<Integer, PartitionLoad> loads = new ConcurrentHashMap<>();
+
+    public PartitionLoadService(PDConfig pdConfig) {
+        this.pdConfig = pdConfig;
+    }
+
+    /**
+     * Record the load of a partition heartbeat, a partition is counted as hot for the round
+     * if its qps or its bytes per second exceeds the thresholds
+     */
+    public void record(Metapb.PartitionStats stats) {
+        if (stats.getIntervalMs() <= 0) {
+            return;
+        }
+        double seconds = stats.getIntervalMs() / 1000.0;
+        long ops = stats.getReadCount() + stats.getWriteCount();
+        double qps = ops / seconds;
+        double bytesPerSecond = (stats.getBytesRead() + stats.getBytesWritten()) / seconds;
+        double latencyUs = ops == 0 ? 0 : (double) stats.getLatencyUs() / ops;
+
+        PartitionLoad load = this.loads.computeIfAbsent(stats.getId(), PartitionLoad::new);
+        synchronized (load) {
+            load.leaderStoreId = stats.getLeader().getStoreId();
+            load.qps = smooth(load.qps, qps);
+            load.bytesPerSecond = smooth(load.bytesPerSecond, bytesPerSecond);
+            load.avgLatencyUs = smooth(load.avgLatencyUs, latencyUs);
+            countRound(load);
+        }
+    }
+
+    /**
+     * Renew the load of a partition reported unchanged in a batched heartbeat, which means
+     * its load stays around the last recorded one
+     */
+    public void repeat(int partitionId) {
+        PartitionLoad load = this.loads.get(partitionId);
+        if (load == null) {
+            return;
+        }
+        synchronized (load) {
+            countRound(load);
+        }
+    }
+
+    private void countRound(PartitionLoad load) {
+        PDConfig.Partition config = pdConfig.getPartition();
+        load.timestamp = System.currentTimeMillis();
+        if (load.qps >= config.getHotQpsThreshold() ||
+            load.bytesPerSecond >= config.getHotBytesThreshold()) {
+            load.hotRounds++;
+        } else {
+            load.hotRounds = 0;
+        }
+    }
+
+    /**
+     * @return the partitions that are hot for enough consecutive rounds, hottest first
+     */
+    public List<PartitionLoad> getHotPartitions() {
+        int rounds = pdConfig.getPartition().getHotDetectRounds();
+        return this.loads.values().stream()
+                         .filter(load -> load.hotRounds >= rounds)
+                         .sorted(Comparator.comparingDouble(PartitionLoad::getQps).reversed())
+                         .collect(Collectors.toList());
+    }
+
+    public PartitionLoad getLoad(int partitionId) {
+        return this.loads.get(partitionId);
+    }
+
+    public Map<Integer, PartitionLoad> getLoads() {
+        return this.loads;
+    }
+
+    /**
+     * Forget the load of a partition, e.g. after it is split or its leader is moved
+     */
+    public void reset(int partitionId) {
+        this.loads.remove(partitionId);
+    }
+
+    public void clear() {
+        this.loads.clear();
+    }
+
+    private static double smooth(double old, double current) {
+        return old * (1 - SMOOTH_FACTOR) + current * SMOOTH_FACTOR;
+    }
+
+    @Getter
+    public static class PartitionLoad {
+
+        private final int partitionId;
+        private long leaderStoreId;
+        private double qps;
+        private double bytesPerSecond;
+        private double avgLatencyUs;
+        private int hotRounds;
+        private long timestamp;
+
+        public PartitionLoad(int partitionId) {
+            this.partitionId = partitionId;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("PartitionLoad{id=%d, leader=%d, qps=%.1f, bytes/s=%.1f, " +
+                                 "latency(us)=%.1f, hotRounds=%d}", partitionId, leaderStoreId,
+                                 qps, bytesPerSecond, avgLatencyUs, hotRounds);
+        }
+    }
+}
@@ -43,6 +43,7 @@ import org.apache.hugegraph.pd.grpc.pulse.ConfChangeType;
 import org.apache.hugegraph.pd.grpc.pulse.DbCompaction;
 import org.apache.hugegraph.pd.grpc.pulse.MovePartition;
 import org.apache.hugegraph.pd.grpc.pulse.PartitionKeyRange;
+import org.apache.hugegraph.pd.grpc.pulse.PartitionStatsBatch;
 import org.apache.hugegraph.pd.grpc.pulse.SplitPartition;
 import org.apache.hugegraph.pd.grpc.pulse.TransferLeader;
 import org.apache.hugegraph.pd.meta.MetadataFactory;
@@ -67,11 +68,14 @@ public class PartitionService implements RaftStateListener {
 
     // Partition status listeners
     private List<PartitionStatusListener> statusListeners;
+    // Partition load reported by heartbeats
+    private final PartitionLoadService loadService;
 
     public PartitionService(PDConfig config, StoreNodeService storeService) {
         this.pdConfig = config;
         this.storeService = storeService;
         partitionMeta = MetadataFactory.newPartitionMeta(config);
+        loadService = new PartitionLoadService(config);
         instructionListeners =
                 Collections.synchronizedList(new ArrayList<PartitionInstructionListener>());
         statusListeners = Collections.synchronizedList(new ArrayList<PartitionStatusListener>());
@@ -943,7 +947,44 @@ public class PartitionService implements RaftStateListener {
      * @param stats
      */
     public void partitionHeartbeat(Metapb.PartitionStats stats) throws PDException {
+        checkPartitionStats(stats);
+        // statistics
+        partitionMeta.updatePartitionStats(stats.toBuilder()
+                                                .setTimestamp(System.currentTimeMillis()).build());
+        loadService.record(stats);
+    }
 
+    /**
+     * Process the partition heartbeats of a store in one pass, the stats of the changed
+     * partitions are written at once, the unchanged partitions renew the timestamp of their
+     * stored stats in the same write and their load
+     *
+     * @param batch
+     */
+    public void partitionHeartbeat(PartitionStatsBatch batch) throws PDException {
+        long now = System.currentTimeMillis();
+        List<Metapb.PartitionStats> statsList =
+                new ArrayList<>(batch.getStatesCount() + batch.getUnchangedIdsCount());
+        for (Metapb.PartitionStats stats : batch.getStatesList()) {
+            checkPartitionStats(stats);
+            statsList.add(stats.toBuilder().setTimestamp(now).build());
+        }
+        for (int id : batch.getUnchangedIdsList()) {
+            Metapb.PartitionStats stats = partitionMeta.getPartitionStats("", id);
+            if (stats != null) {
+                statsList.add(stats.toBuilder().setTimestamp(now).build());
+            }
+        }
+        partitionMeta.updatePartitionStats(statsList);
+        for (Metapb.PartitionStats stats : batch.getStatesList()) {
+            loadService.record(stats);
+        }
+        for (int id : batch.getUnchangedIdsList()) {
+            loadService.repeat(id);
+        }
+    }
+
+    private void checkPartitionStats(Metapb.PartitionStats stats) throws PDException {
         Metapb.ShardGroup shardGroup = storeService.getShardGroup(stats.getId());
         // shard group version changes or leader changes
         // (The shard group is controlled by the PD, and there may be brief inconsistencies after
@@ -964,9 +1005,10 @@ public class PartitionService implements RaftStateListener {
         // partitionMeta.getAndCreateGraph(partition.getGraphName());
         checkShardState(shardGroup, stats);
         // }
-        // statistics
-        partitionMeta.updatePartitionStats(stats.toBuilder()
-                                                .setTimestamp(System.currentTimeMillis()).build());
+    }
+
+    public PartitionLoadService getLoadService() {
+        return loadService;
     }
 
     private boolean isShardEquals(List<Metapb.Shard> list1, List<Metapb.Shard> list2) {
@@ -1556,6 +1598,7 @@ public class PartitionService implements RaftStateListener {
     @Override
     public void onRaftLeaderChanged() {
         log.info("Partition service reload cache from rocksdb, due to leader change");
+        loadService.clear();
         try {
             partitionMeta.reload();
         } catch (PDException e) {
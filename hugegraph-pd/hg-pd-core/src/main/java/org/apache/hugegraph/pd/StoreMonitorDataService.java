@@ -26,33 +26,88 @@ import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import org.apache.hugegraph.pd.common.PDException;
 import org.apache.hugegraph.pd.config.PDConfig;
 import org.apache.hugegraph.pd.grpc.Metapb;
+import org.apache.hugegraph.pd.meta.MetadataFactory;
 import org.apache.hugegraph.pd.meta.MetadataKeyHelper;
+import org.apache.hugegraph.pd.meta.MonitorDataBlock;
+import org.apache.hugegraph.pd.meta.MonitorDataMeta;
+import org.apache.hugegraph.pd.raft.RaftStateListener;
 import org.springframework.stereotype.Service;
 
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 @Service
-public class StoreMonitorDataService {
+public class StoreMonitorDataService implements RaftStateListener {
 
     private static final String MONITOR_DATA_PREFIX = "SMD";
+    /**
+     * the time window of a rollup block
+     */
+    private static final long ROLLUP_BLOCK_PERIOD = 86400L;
     private PDConfig pdConfig;
+    /**
+     * holds the monitor data of the old layout, one kv per heartbeat,
+     * which is only cleaned up now
+     */
     private KvService kvService;
+    private MonitorDataMeta monitorDataMeta;
     /**
      * the last timestamp of the store monitor data,
      * used for determine the gap of store's heartbeat.
      */
     private Map<Long, Long> lastStoreStateTimestamp;
+    /**
+     * the block being filled of each store, written to rocksdb once per
+     * flush interval and when the block is sealed, only valid while this
+     * pd is the leader
+     */
+    private Map<Long, OpenBlock> openBlocks;
 
     public StoreMonitorDataService(PDConfig pdConfig) {
         this.pdConfig = pdConfig;
         this.kvService = new KvService(pdConfig);
-        this.lastStoreStateTimestamp = new HashMap<>();
+        this.monitorDataMeta = MetadataFactory.newMonitorDataMeta(pdConfig);
+        this.lastStoreStateTimestamp = new ConcurrentHashMap<>();
+        this.openBlocks = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * The leader of the PD has changed, the open blocks may be stale since the
+     * other leader has appended to the persisted ones, so they are dropped and
+     * reloaded from rocksdb on the next heartbeat
+     */
+    @Override
+    public void onRaftLeaderChanged() {
+        log.info("Store monitor data service drop the open blocks, due to leader change");
+        this.openBlocks.clear();
+        this.lastStoreStateTimestamp.clear();
+    }
+
+    /**
+     * write the dirty open blocks of all stores, it's called before this pd
+     * steps down, since a follower can't write them anymore
+     */
+    public void flushMonitorData() {
+        long current = System.currentTimeMillis() / 1000;
+        for (Map.Entry<Long, OpenBlock> entry : this.openBlocks.entrySet()) {
+            OpenBlock open = entry.getValue();
+            synchronized (open) {
+                if (open.block == null) {
+                    continue;
+                }
+                try {
+                    flushBlock(entry.getKey(), open, current);
+                } catch (PDException e) {
+                    log.error("flush monitor data of store {} failed", entry.getKey(), e);
+                }
+            }
+        }
     }
 
     /**
@@ -84,18 +139,50 @@ public class StoreMonitorDataService {
     }
 
     /**
-     * save the snapshot of store status
+     * append the snapshot of store status to the open block of the store
      *
      * @param storeStats store status
      * @param ts,        timestamp
-     * @return store status
      * @throws PDException
      */
     private void saveMonitorDataToDb(Metapb.StoreStats storeStats, long ts) throws PDException {
-        String key = getMonitorDataKey(storeStats.getStoreId(), ts);
-        log.debug("store id: {}, save monitor data info, ts:{}, my key:{}", storeStats.getStoreId(),
-                  ts, key);
-        kvService.put(key, extractMetricsFromStoreStatus(storeStats));
+        long storeId = storeStats.getStoreId();
+        long blockStart = floor(ts, this.pdConfig.getStore().getMonitorBlockPeriod());
+        OpenBlock open = this.openBlocks.computeIfAbsent(storeId, k -> new OpenBlock());
+        synchronized (open) {
+            if (open.block != null && open.block.start() != blockStart) {
+                // seal the block of the previous window
+                flushBlock(storeId, open, ts);
+                open.block = null;
+            }
+            if (open.block == null) {
+                // continue the block persisted before restart or leader changed
+                MonitorDataBlock block = this.monitorDataMeta.getBlock(storeId, false, blockStart);
+                open.block = block != null ? block : new MonitorDataBlock(blockStart);
+                open.flushedAt = ts;
+            }
+            if (!open.block.append(ts, extractMetricsFromStoreStatus(storeStats))) {
+                return;
+            }
+            open.dirty = true;
+            log.debug("store id: {}, append monitor data, ts:{}, block:{}", storeId, ts,
+                      blockStart);
+            if (ts - open.flushedAt >= this.pdConfig.getStore().getMonitorFlushInterval()) {
+                flushBlock(storeId, open, ts);
+            }
+        }
+    }
+
+    private void flushBlock(long storeId, OpenBlock open, long ts) throws PDException {
+        if (open.dirty) {
+            if (open.block.size() > 0) {
+                this.monitorDataMeta.putBlock(storeId, false, open.block);
+            } else {
+                this.monitorDataMeta.removeBlock(storeId, false, open.block.start());
+            }
+            open.dirty = false;
+        }
+        open.flushedAt = ts;
     }
 
     public String debugMonitorInfo(List<Metapb.RecordPair> systemInfo) {
@@ -121,12 +208,54 @@ public class StoreMonitorDataService {
      */
     public Map<String, String> getStoreMonitorData(long storeId, long start, long end) throws
                                                                                        PDException {
-        log.debug("get monitor data, store id:{}, start{}, end:{}",
-                  storeId,
-                  getMonitorDataKey(storeId, start),
-                  getMonitorDataKey(storeId, end));
-        return kvService.scanRange(getMonitorDataKey(storeId, start),
-                                   getMonitorDataKey(storeId, end));
+        log.debug("get monitor data, store id:{}, start{}, end:{}", storeId, start, end);
+        Map<String, String> result = new HashMap<>();
+        for (MonitorDataBlock.Sample sample : getMonitorSamples(storeId, start, end)) {
+            result.put(getMonitorDataKey(storeId, sample.getTimestamp()),
+                       formatMetrics(sample.getMetrics()));
+        }
+        return result;
+    }
+
+    /**
+     * decode the samples within [start, end) from the rollups, the persisted
+     * raw blocks and the open block, only the blocks overlapping the range
+     * are read
+     */
+    private List<MonitorDataBlock.Sample> getMonitorSamples(long storeId, long start,
+                                                            long end) throws PDException {
+        List<MonitorDataBlock.Sample> samples = new ArrayList<>();
+        if (start >= end) {
+            return samples;
+        }
+        long blockPeriod = this.pdConfig.getStore().getMonitorBlockPeriod();
+        for (byte[] bytes : this.monitorDataMeta.scanBlocks(storeId, true,
+                                                            floor(start, ROLLUP_BLOCK_PERIOD),
+                                                            end)) {
+            samples.addAll(MonitorDataBlock.decode(bytes, start, end - 1));
+        }
+
+        MonitorDataBlock openBlock = null;
+        OpenBlock open = this.openBlocks.get(storeId);
+        if (open != null) {
+            synchronized (open) {
+                if (open.block != null) {
+                    openBlock = open.block.since(start);
+                }
+            }
+        }
+        for (byte[] bytes : this.monitorDataMeta.scanBlocks(storeId, false,
+                                                            floor(start, blockPeriod), end)) {
+            if (openBlock != null && MonitorDataBlock.startOf(bytes) == openBlock.start()) {
+                // the open one is newer than the persisted one
+                continue;
+            }
+            samples.addAll(MonitorDataBlock.decode(bytes, start, end - 1));
+        }
+        if (openBlock != null && openBlock.start() < end) {
+            samples.addAll(MonitorDataBlock.decode(openBlock.toBytes(), start, end - 1));
+        }
+        return samples;
     }
 
     /**
@@ -213,6 +342,61 @@ public class StoreMonitorDataService {
      * @return affect rows
      */
     public int removeExpiredMonitorData(long storeId, long till) throws PDException {
+        int records = removeLegacyMonitorData(storeId, till);
+
+        long openStart = -1L;
+        OpenBlock open = this.openBlocks.get(storeId);
+        if (open != null) {
+            synchronized (open) {
+                if (open.block != null) {
+                    openStart = open.block.start();
+                    MonitorDataBlock block = open.block.since(till);
+                    if (block.size() < open.block.size()) {
+                        records += open.block.size() - block.size();
+                        open.block = block;
+                        open.dirty = true;
+                        flushBlock(storeId, open, open.flushedAt);
+                    }
+                }
+            }
+        }
+
+        long blockPeriod = this.pdConfig.getStore().getMonitorBlockPeriod();
+        records += removeExpiredBlocks(storeId, true, till, ROLLUP_BLOCK_PERIOD, -1L);
+        records += removeExpiredBlocks(storeId, false, till, blockPeriod, openStart);
+        return records;
+    }
+
+    private int removeExpiredBlocks(long storeId, boolean rollup, long till, long period,
+                                    long skipped) throws PDException {
+        int records = 0;
+        for (byte[] bytes : this.monitorDataMeta.scanBlocks(storeId, rollup, 0L, till)) {
+            long start = MonitorDataBlock.startOf(bytes);
+            if (start == skipped) {
+                continue;
+            }
+            if (start + period <= till) {
+                records += MonitorDataBlock.sizeOf(bytes);
+                this.monitorDataMeta.removeBlock(storeId, rollup, start);
+                continue;
+            }
+            // the block straddles the expire time
+            MonitorDataBlock block = MonitorDataBlock.fromBytes(bytes);
+            MonitorDataBlock rest = block.since(till);
+            if (rest.size() == block.size()) {
+                continue;
+            }
+            records += block.size() - rest.size();
+            if (rest.size() > 0) {
+                this.monitorDataMeta.putBlock(storeId, rollup, rest);
+            } else {
+                this.monitorDataMeta.removeBlock(storeId, rollup, start);
+            }
+        }
+        return records;
+    }
+
+    private int removeLegacyMonitorData(long storeId, long till) throws PDException {
         String keyStart = getMonitorDataKey(storeId, 1);
         String keyEnd = getMonitorDataKey(storeId, till);
         int records = 0;
@@ -224,6 +408,47 @@ public class StoreMonitorDataService {
         return records;
     }
 
+    /**
+     * downsample the sealed raw blocks of the store that end before the
+     * time into the rollups
+     *
+     * @param storeId store id
+     * @param before  the raw data before it is rolled up
+     * @return the count of raw samples rolled up
+     */
+    public int rollupMonitorData(long storeId, long before) throws PDException {
+        long blockPeriod = this.pdConfig.getStore().getMonitorBlockPeriod();
+        long resolution = this.pdConfig.getStore().getMonitorRollupInterval();
+        int records = 0;
+        MonitorDataBlock rollup = null;
+        for (byte[] bytes : this.monitorDataMeta.scanBlocks(storeId, false, 0L,
+                                                            before - blockPeriod + 1)) {
+            long start = MonitorDataBlock.startOf(bytes);
+            List<MonitorDataBlock.Sample> samples = MonitorDataBlock.downsample(
+                    MonitorDataBlock.decode(bytes, Long.MIN_VALUE, Long.MAX_VALUE), resolution);
+            for (MonitorDataBlock.Sample sample : samples) {
+                long rollupStart = floor(sample.getTimestamp(), ROLLUP_BLOCK_PERIOD);
+                if (rollup == null || rollup.start() != rollupStart) {
+                    if (rollup != null) {
+                        this.monitorDataMeta.putBlock(storeId, true, rollup);
+                    }
+                    rollup = this.monitorDataMeta.getBlock(storeId, true, rollupStart);
+                    if (rollup == null) {
+                        rollup = new MonitorDataBlock(rollupStart);
+                    }
+                }
+                rollup.append(sample.getTimestamp(), sample.getMetrics());
+            }
+            // write the rollup ahead of removing the raw data
+            if (rollup != null) {
+                this.monitorDataMeta.putBlock(storeId, true, rollup);
+            }
+            this.monitorDataMeta.removeBlock(storeId, false, start);
+            records += MonitorDataBlock.sizeOf(bytes);
+        }
+        return records;
+    }
+
     /**
      * get the latest timestamp of the store monitor data
      *
@@ -234,12 +459,9 @@ public class StoreMonitorDataService {
         long maxId = 0L;
         long current = System.currentTimeMillis() / 1000;
         long start = current - this.pdConfig.getStore().getMonitorInterval();
-        String keyStart = getMonitorDataKey(storeId, start);
-        String keyEnd = getMonitorDataKey(storeId, current);
         try {
-            for (String key : kvService.scanRange(keyStart, keyEnd).keySet()) {
-                String[] arr = key.split(String.valueOf(MetadataKeyHelper.getDelimiter()));
-                maxId = Math.max(maxId, Long.parseLong(arr[arr.length - 1]));
+            for (MonitorDataBlock.Sample sample : getMonitorSamples(storeId, start, current)) {
+                maxId = Math.max(maxId, sample.getTimestamp());
             }
         } catch (PDException e) {
         }
@@ -256,11 +478,30 @@ public class StoreMonitorDataService {
         return builder.toString();
     }
 
-    private String extractMetricsFromStoreStatus(Metapb.StoreStats storeStats) {
-        List<String> list = new ArrayList<>();
+    private Map<String, Long> extractMetricsFromStoreStatus(Metapb.StoreStats storeStats) {
+        Map<String, Long> metrics = new HashMap<>();
         for (Metapb.RecordPair pair : storeStats.getSystemMetricsList()) {
-            list.add("\"" + pair.getKey() + "\":" + pair.getValue());
+            metrics.put(pair.getKey(), pair.getValue());
+        }
+        return metrics;
+    }
+
+    private String formatMetrics(Map<String, Long> metrics) {
+        List<String> list = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : metrics.entrySet()) {
+            list.add("\"" + entry.getKey() + "\":" + entry.getValue());
         }
         return String.join(",", list);
     }
+
+    private static long floor(long ts, long period) {
+        return ts - Math.floorMod(ts, period);
+    }
+
+    private static class OpenBlock {
+
+        private MonitorDataBlock block;
+        private long flushedAt;
+        private boolean dirty;
+    }
 }
@@ -143,11 +143,20 @@ public class TaskScheduleService {
                     }
                 }, 2, 30,
                 TimeUnit.SECONDS);
+        // split or move hot partitions each minute
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                balanceHotPartitions();
+            } catch (Throwable e) {
+                log.error("balanceHotPartitions exception: ", e);
+            }
+        }, 60, 60, TimeUnit.SECONDS);
         // clean expired monitor data each 10 minutes, delay 3min.
         if (isLeader() && this.pdConfig.getStore().isMonitorDataEnabled()) {
             executor.scheduleAtFixedRate(() -> {
-                Long expTill = System.currentTimeMillis() / 1000 -
-                               this.pdConfig.getStore().getRetentionPeriod();
+                long now = System.currentTimeMillis() / 1000;
+                Long expTill = now - this.pdConfig.getStore().getRetentionPeriod();
+                long rollupBefore = now - this.pdConfig.getStore().getMonitorRollupAfter();
                 log.debug("monitor data keys before " + expTill + " will be deleted");
                 int records = 0;
                 try {
@@ -155,7 +164,11 @@ public class TaskScheduleService {
                         int cnt =
                                 this.storeMonitorDataService.removeExpiredMonitorData(store.getId(),
                                                                                       expTill);
-                        log.debug("store id :{}, records:{}", store.getId(), cnt);
+                        int rolled =
+                                this.storeMonitorDataService.rollupMonitorData(store.getId(),
+                                                                               rollupBefore);
+                        log.debug("store id :{}, records:{}, rolled up:{}", store.getId(), cnt,
+                                  rolled);
                         records += cnt;
                     }
                 } catch (PDException e) {
@@ -584,6 +597,90 @@ public class TaskScheduleService {
         return maxGap;
     }
 
+    /**
+     * Relieve the partitions that are hot for several consecutive heartbeats:
+     * If the leader store of a hot partition holds other hot leaders, the leadership is moved to
+     * the follower whose store holds the fewest hot leaders, otherwise the partition is split
+     * into two. At most one partition is split each round.
+     *
+     * @return the hot partitions that have been handled, partition id -> target store id (0
+     * means split)
+     */
+    public synchronized Map<Integer, Long> balanceHotPartitions() throws PDException {
+        Map<Integer, Long> results = new HashMap<>();
+        if (!isLeader() || !pdConfig.getPartition().isHotSplitEnabled()) {
+            return results;
+        }
+
+        var taskMeta = storeService.getTaskInfoMeta();
+        if (taskMeta.hasSplitTaskDoing() || taskMeta.hasMoveTaskDoing() ||
+            Objects.equals(kvService.get(BALANCE_SHARD_KEY), "DOING") ||
+            Metapb.ClusterState.Cluster_OK != storeService.getClusterStats().getState()) {
+            return results;
+        }
+
+        PartitionLoadService loadService = partitionService.getLoadService();
+        List<PartitionLoadService.PartitionLoad> hotPartitions = loadService.getHotPartitions();
+        if (hotPartitions.isEmpty()) {
+            return results;
+        }
+        log.info("balanceHotPartitions, hot partitions: {}", hotPartitions);
+
+        Map<Long, Integer> hotLeaderCount = new HashMap<>();
+        for (var load : hotPartitions) {
+            hotLeaderCount.merge(load.getLeaderStoreId(), 1, Integer::sum);
+        }
+
+        boolean splitting = false;
+        for (var load : hotPartitions) {
+            int partId = load.getPartitionId();
+            Metapb.ShardGroup shardGroup = storeService.getShardGroup(partId);
+            if (shardGroup == null) {
+                continue;
+            }
+            long leaderStore = load.getLeaderStoreId();
+
+            Metapb.Shard target = null;
+            if (hotLeaderCount.getOrDefault(leaderStore, 0) > 1) {
+                for (var shard : shardGroup.getShardsList()) {
+                    if (shard.getStoreId() == leaderStore ||
+                        shard.getRole() == Metapb.ShardRole.Learner) {
+                        continue;
+                    }
+                    if (target == null || hotLeaderCount.getOrDefault(shard.getStoreId(), 0) <
+                                          hotLeaderCount.getOrDefault(target.getStoreId(), 0)) {
+                        target = shard;
+                    }
+                }
+            }
+
+            if (target != null && hotLeaderCount.getOrDefault(target.getStoreId(), 0) + 1 <
+                                  hotLeaderCount.get(leaderStore)) {
+                log.info("balanceHotPartitions, transfer leader of {} from {} to {}", load,
+                         leaderStore, target.getStoreId());
+                partitionService.transferLeader(partId, target);
+                hotLeaderCount.merge(leaderStore, -1, Integer::sum);
+                hotLeaderCount.merge(target.getStoreId(), 1, Integer::sum);
+                results.put(partId, target.getStoreId());
+                loadService.reset(partId);
+            } else if (!splitting) {
+                log.info("balanceHotPartitions, split partition {}", load);
+                try {
+                    storeService.splitShardGroups(
+                            new ArrayList<>(List.of(new KVPair<>(partId, 2))));
+                } catch (PDException e) {
+                    log.warn("balanceHotPartitions, failed to split partition {}: {}", partId,
+                             e.getMessage());
+                    continue;
+                }
+                splitting = true;
+                results.put(partId, 0L);
+                loadService.reset(partId);
+            }
+        }
+        return results;
+    }
+
     /**
      * Perform partition splitting, which is divided into automatic splitting and manual splitting
      *
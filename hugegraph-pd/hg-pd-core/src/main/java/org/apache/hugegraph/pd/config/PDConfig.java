@@ -184,6 +184,18 @@ public class PDConfig {
         @Value("${store.monitor_data_retention: 1 day}")
         private String monitorDataRetention = "1 day";
 
+        @Value("${store.monitor_data_block: 1 hour}")
+        private String monitorDataBlock = "1 hour";
+
+        @Value("${store.monitor_data_flush_interval: 5 minute}")
+        private String monitorDataFlushInterval = "5 minute";
+
+        @Value("${store.monitor_data_rollup_after: 6 hour}")
+        private String monitorDataRollupAfter = "6 hour";
+
+        @Value("${store.monitor_data_rollup_interval: 5 minute}")
+        private String monitorDataRollupInterval = "5 minute";
+
         /**
          * interval -> seconds.
          * minimum value is 1 seconds.
@@ -204,6 +216,41 @@ public class PDConfig {
             return parseTimeExpression(this.monitorDataRetention);
         }
 
+        /**
+         * the time window of a compressed monitor data block
+         *
+         * @return the seconds of a block
+         */
+        public Long getMonitorBlockPeriod() {
+            return parseTimeExpression(this.monitorDataBlock);
+        }
+
+        /**
+         * the open block is written to rocksdb at most once per interval,
+         * besides when it is sealed
+         *
+         * @return the seconds between two flushes
+         */
+        public Long getMonitorFlushInterval() {
+            return parseTimeExpression(this.monitorDataFlushInterval);
+        }
+
+        /**
+         * the monitor data older than it is downsampled into rollups
+         *
+         * @return the age of the data to roll up, in seconds
+         */
+        public Long getMonitorRollupAfter() {
+            return parseTimeExpression(this.monitorDataRollupAfter);
+        }
+
+        /**
+         * @return the resolution of the rollups, in seconds
+         */
+        public Long getMonitorRollupInterval() {
+            return parseTimeExpression(this.monitorDataRollupInterval);
+        }
+
         /**
          * parse time expression , support pattern:
          * [1-9][ ](second, minute, hour, day, month, year)
@@ -268,6 +315,22 @@ public class PDConfig {
         @Value("${partition.default-shard-count:3}")
         private int shardCount = 3;
 
+        // Split or move partitions whose load keeps exceeding the thresholds
+        @Value("${partition.hot-split-enabled:false}")
+        private boolean hotSplitEnabled = false;
+
+        // Operations per second of a partition to be regarded as hot
+        @Value("${partition.hot-qps-threshold:20000}")
+        private long hotQpsThreshold = 20000;
+
+        // Bytes read and written per second of a partition to be regarded as hot
+        @Value("${partition.hot-bytes-threshold:104857600}")
+        private long hotBytesThreshold = 100L * 1024 * 1024;
+
+        // Consecutive hot heartbeats before the partition is split or moved
+        @Value("${partition.hot-detect-rounds:6}")
+        private int hotDetectRounds = 6;
+
         public int getTotalCount() {
             if (totalCount == 0) {
                 totalCount = getInitialPartitionCount();
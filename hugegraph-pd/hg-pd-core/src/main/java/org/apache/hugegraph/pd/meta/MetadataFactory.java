@@ -83,4 +83,8 @@ public class MetadataFactory {
     public static LogMeta newLogMeta(PDConfig pdConfig) {
         return new LogMeta(pdConfig);
     }
+
+    public static MonitorDataMeta newMonitorDataMeta(PDConfig pdConfig) {
+        return new MonitorDataMeta(pdConfig);
+    }
 }
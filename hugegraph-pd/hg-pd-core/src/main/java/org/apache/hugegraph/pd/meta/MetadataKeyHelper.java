@@ -45,6 +45,10 @@ public class MetadataKeyHelper {
 
     private static final String QUEUE = "QUEUE";
 
+    private static final String MONITOR_DATA = "MONITOR_DATA";
+    private static final String MONITOR_DATA_RAW = "RAW";
+    private static final String MONITOR_DATA_ROLLUP = "ROLLUP";
+
     public static byte[] getStoreInfoKey(final long storeId) {
         //STORE/{storeId}
         String key = StringBuilderHelper.get()
@@ -320,6 +324,20 @@ public class MetadataKeyHelper {
         return builder.toString().getBytes(Charset.defaultCharset());
     }
 
+    public static byte[] getMonitorDataBlockKey(long storeId, boolean rollup, long start) {
+        //MONITOR_DATA/{storeId}/{RAW|ROLLUP}/{start}
+        StringBuilder builder = StringBuilderHelper.get()
+                                                   .append(MONITOR_DATA)
+                                                   .append(DELIMITER)
+                                                   .append(storeId)
+                                                   .append(DELIMITER)
+                                                   .append(rollup ? MONITOR_DATA_ROLLUP :
+                                                           MONITOR_DATA_RAW)
+                                                   .append(DELIMITER)
+                                                   .append(String.format("%010d", start));
+        return builder.toString().getBytes(Charset.defaultCharset());
+    }
+
     public static byte[] getKVPrefix(String prefix, String key) {
         //K@/{key}
         StringBuilder builder = StringBuilderHelper.get()
@@ -80,6 +80,14 @@ public class MetadataRocksDBStore extends MetadataStoreBase {
         }
     }
 
+    public void batchPut(List<KV> kvs) throws PDException {
+        try {
+            getStore().batchPut(kvs);
+        } catch (Exception e) {
+            throw new PDException(Pdpb.ErrorType.ROCKSDB_WRITE_ERROR_VALUE, e);
+        }
+    }
+
     @Override
     public void putWithTTL(byte[] key, byte[] value, long ttl) throws PDException {
         this.store.putWithTTL(key, value, ttl);
@@ -0,0 +1,466 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.hugegraph.pd.meta;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The store monitor samples within a fixed time window, compressed as a time
+ * series: timestamps as delta-of-delta and every metric as a Gorilla XOR
+ * stream. Regular heartbeats with slowly changing metrics cost a few bits per
+ * sample instead of a KV entry each.
+ * <p>
+ * Metrics may come and go between samples, every column carries one presence
+ * bit per sample for that.
+ */
+public final class MonitorDataBlock {
+
+    private static final byte VERSION = 1;
+
+    private final long start;
+    private final BitOutput timestamps = new BitOutput();
+    private final Map<String, ColumnWriter> columns = new LinkedHashMap<>();
+    private int count;
+    private long lastTimestamp;
+    private long lastDelta;
+
+    public MonitorDataBlock(long start) {
+        this.start = start;
+    }
+
+    public long start() {
+        return this.start;
+    }
+
+    public int size() {
+        return this.count;
+    }
+
+    public long lastTimestamp() {
+        return this.lastTimestamp;
+    }
+
+    /**
+     * Append a sample, the timestamp must be greater than the last one
+     *
+     * @return false if the sample is out of order and dropped
+     */
+    public boolean append(long timestamp, Map<String, Long> metrics) {
+        if (this.count > 0 && timestamp <= this.lastTimestamp) {
+            return false;
+        }
+        this.appendTimestamp(timestamp);
+        for (String name : metrics.keySet()) {
+            this.columns.computeIfAbsent(name, k -> new ColumnWriter(this.count));
+        }
+        for (Map.Entry<String, ColumnWriter> e : this.columns.entrySet()) {
+            e.getValue().append(metrics.get(e.getKey()));
+        }
+        this.count++;
+        return true;
+    }
+
+    /**
+     * Copy of this block without the samples before the timestamp
+     */
+    public MonitorDataBlock since(long from) {
+        return of(this.start, decode(this.toBytes(), from, Long.MAX_VALUE));
+    }
+
+    public byte[] toBytes() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeLong(this.start);
+            out.writeInt(this.count);
+            this.timestamps.writeTo(out);
+            out.writeInt(this.columns.size());
+            for (Map.Entry<String, ColumnWriter> e : this.columns.entrySet()) {
+                out.writeUTF(e.getKey());
+                e.getValue().bits.writeTo(out);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to encode the monitor data block", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static MonitorDataBlock fromBytes(byte[] bytes) {
+        return of(startOf(bytes), decode(bytes, Long.MIN_VALUE, Long.MAX_VALUE));
+    }
+
+    public static long startOf(byte[] bytes) {
+        return new Reader(bytes, false).start;
+    }
+
+    public static int sizeOf(byte[] bytes) {
+        return new Reader(bytes, false).count;
+    }
+
+    /**
+     * Decode the samples within [from, to] only, the value streams are not
+     * read beyond the last sample in range
+     */
+    public static List<Sample> decode(byte[] bytes, long from, long to) {
+        Reader reader = new Reader(bytes, true);
+        long[] timestamps = reader.timestamps();
+        int first = 0;
+        while (first < timestamps.length && timestamps[first] < from) {
+            first++;
+        }
+        int last = timestamps.length - 1;
+        while (last >= first && timestamps[last] > to) {
+            last--;
+        }
+        if (first > last) {
+            return Collections.emptyList();
+        }
+        List<Sample> samples = new ArrayList<>(last - first + 1);
+        for (int i = first; i <= last; i++) {
+            samples.add(new Sample(timestamps[i], new LinkedHashMap<>()));
+        }
+        for (Map.Entry<String, BitInput> column : reader.columns.entrySet()) {
+            ColumnReader values = new ColumnReader(column.getValue());
+            for (int i = 0; i <= last; i++) {
+                Long value = values.next();
+                if (value != null && i >= first) {
+                    samples.get(i - first).metrics.put(column.getKey(), value);
+                }
+            }
+        }
+        return samples;
+    }
+
+    /**
+     * Average the samples into buckets of the resolution, every bucket is
+     * stamped with its start
+     */
+    public static List<Sample> downsample(List<Sample> samples, long resolution) {
+        List<Sample> results = new ArrayList<>();
+        long bucket = Long.MIN_VALUE;
+        Map<String, long[]> sums = new LinkedHashMap<>();
+        for (Sample sample : samples) {
+            long current = sample.timestamp - Math.floorMod(sample.timestamp, resolution);
+            if (current != bucket && !sums.isEmpty()) {
+                results.add(average(bucket, sums));
+                sums = new LinkedHashMap<>();
+            }
+            bucket = current;
+            for (Map.Entry<String, Long> e : sample.metrics.entrySet()) {
+                long[] sum = sums.computeIfAbsent(e.getKey(), k -> new long[2]);
+                sum[0] += e.getValue();
+                sum[1]++;
+            }
+        }
+        if (!sums.isEmpty()) {
+            results.add(average(bucket, sums));
+        }
+        return results;
+    }
+
+    private static Sample average(long bucket, Map<String, long[]> sums) {
+        Map<String, Long> metrics = new LinkedHashMap<>();
+        for (Map.Entry<String, long[]> e : sums.entrySet()) {
+            metrics.put(e.getKey(), Math.round((double) e.getValue()[0] / e.getValue()[1]));
+        }
+        return new Sample(bucket, metrics);
+    }
+
+    private static MonitorDataBlock of(long start, List<Sample> samples) {
+        MonitorDataBlock block = new MonitorDataBlock(start);
+        for (Sample sample : samples) {
+            block.append(sample.timestamp, sample.metrics);
+        }
+        return block;
+    }
+
+    private void appendTimestamp(long timestamp) {
+        if (this.count == 0) {
+            this.timestamps.writeBits(timestamp, 64);
+        } else {
+            long delta = timestamp - this.lastTimestamp;
+            long deltaOfDelta = delta - this.lastDelta;
+            if (deltaOfDelta == 0) {
+                this.timestamps.writeBit(false);
+            } else if (fits(deltaOfDelta, 7)) {
+                this.timestamps.writeBits(0b10, 2);
+                this.timestamps.writeBits(deltaOfDelta, 7);
+            } else if (fits(deltaOfDelta, 9)) {
+                this.timestamps.writeBits(0b110, 3);
+                this.timestamps.writeBits(deltaOfDelta, 9);
+            } else if (fits(deltaOfDelta, 12)) {
+                this.timestamps.writeBits(0b1110, 4);
+                this.timestamps.writeBits(deltaOfDelta, 12);
+            } else {
+                this.timestamps.writeBits(0b1111, 4);
+                this.timestamps.writeBits(deltaOfDelta, 64);
+            }
+            this.lastDelta = delta;
+        }
+        this.lastTimestamp = timestamp;
+    }
+
+    private static boolean fits(long value, int bits) {
+        long bound = 1L << (bits - 1);
+        return value >= -bound && value < bound;
+    }
+
+    private static long signExtend(long value, int bits) {
+        return bits == 64 ? value : (value << (64 - bits)) >> (64 - bits);
+    }
+
+    public static final class Sample {
+
+        private final long timestamp;
+        private final Map<String, Long> metrics;
+
+        public Sample(long timestamp, Map<String, Long> metrics) {
+            this.timestamp = timestamp;
+            this.metrics = metrics;
+        }
+
+        public long getTimestamp() {
+            return this.timestamp;
+        }
+
+        public Map<String, Long> getMetrics() {
+            return this.metrics;
+        }
+    }
+
+    private static final class ColumnWriter {
+
+        private final BitOutput bits = new BitOutput();
+        private long last;
+        private int leading = -1;
+        private int trailing;
+
+        private ColumnWriter(int absent) {
+            for (int i = 0; i < absent; i++) {
+                this.bits.writeBit(false);
+            }
+        }
+
+        private void append(Long value) {
+            if (value == null) {
+                this.bits.writeBit(false);
+                return;
+            }
+            this.bits.writeBit(true);
+            long xor = value ^ this.last;
+            this.last = value;
+            if (xor == 0L) {
+                this.bits.writeBit(false);
+                return;
+            }
+            this.bits.writeBit(true);
+            // Metrics are integers mostly, so the leading zeros are not capped
+            // at 31 as they are for doubles
+            int leading = Long.numberOfLeadingZeros(xor);
+            int trailing = Long.numberOfTrailingZeros(xor);
+            if (this.leading >= 0 && leading >= this.leading && trailing >= this.trailing) {
+                // Fits in the previous meaningful window
+                this.bits.writeBit(false);
+                this.bits.writeBits(xor >>> this.trailing, 64 - this.leading - this.trailing);
+            } else {
+                int significant = 64 - leading - trailing;
+                this.bits.writeBit(true);
+                this.bits.writeBits(leading, 6);
+                this.bits.writeBits(significant - 1, 6);
+                this.bits.writeBits(xor >>> trailing, significant);
+                this.leading = leading;
+                this.trailing = trailing;
+            }
+        }
+    }
+
+    private static final class ColumnReader {
+
+        private final BitInput bits;
+        private long last;
+        private int leading;
+        private int trailing;
+
+        private ColumnReader(BitInput bits) {
+            this.bits = bits;
+        }
+
+        private Long next() {
+            if (!this.bits.readBit()) {
+                return null;
+            }
+            if (this.bits.readBit()) {
+                if (this.bits.readBit()) {
+                    this.leading = (int) this.bits.readBits(6);
+                    int significant = (int) this.bits.readBits(6) + 1;
+                    this.trailing = 64 - this.leading - significant;
+                }
+                int significant = 64 - this.leading - this.trailing;
+                this.last ^= this.bits.readBits(significant) << this.trailing;
+            }
+            return this.last;
+        }
+    }
+
+    private static final class Reader {
+
+        private final long start;
+        private final int count;
+        private BitInput timestamps;
+        private final Map<String, BitInput> columns = new LinkedHashMap<>();
+
+        private Reader(byte[] bytes, boolean body) {
+            try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+                byte version = in.readByte();
+                if (version != VERSION) {
+                    throw new IllegalArgumentException(
+                            "Unsupported monitor data block version: " + version);
+                }
+                this.start = in.readLong();
+                this.count = in.readInt();
+                if (!body) {
+                    return;
+                }
+                this.timestamps = BitInput.readFrom(in);
+                int size = in.readInt();
+                for (int i = 0; i < size; i++) {
+                    String name = in.readUTF();
+                    this.columns.put(name, BitInput.readFrom(in));
+                }
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Invalid monitor data block", e);
+            }
+        }
+
+        private long[] timestamps() {
+            long[] results = new long[this.count];
+            long last = 0L;
+            long delta = 0L;
+            for (int i = 0; i < this.count; i++) {
+                if (i == 0) {
+                    last = this.timestamps.readBits(64);
+                } else {
+                    long deltaOfDelta;
+                    if (!this.timestamps.readBit()) {
+                        deltaOfDelta = 0L;
+                    } else if (!this.timestamps.readBit()) {
+                        deltaOfDelta = signExtend(this.timestamps.readBits(7), 7);
+                    } else if (!this.timestamps.readBit()) {
+                        deltaOfDelta = signExtend(this.timestamps.readBits(9), 9);
+                    } else if (!this.timestamps.readBit()) {
+                        deltaOfDelta = signExtend(this.timestamps.readBits(12), 12);
+                    } else {
+                        deltaOfDelta = this.timestamps.readBits(64);
+                    }
+                    delta += deltaOfDelta;
+                    last += delta;
+                }
+                results[i] = last;
+            }
+            return results;
+        }
+    }
+
+    private static final class BitOutput {
+
+        private long[] words = new long[4];
+        private int size;
+
+        private void writeBit(boolean bit) {
+            this.writeBits(bit ? 1L : 0L, 1);
+        }
+
+        private void writeBits(long value, int bits) {
+            if (bits < 64) {
+                value &= (1L << bits) - 1;
+            }
+            int index = this.size >>> 6;
+            if (index + 1 >= this.words.length) {
+                this.words = Arrays.copyOf(this.words, this.words.length * 2);
+            }
+            int free = 64 - (this.size & 63);
+            if (bits <= free) {
+                this.words[index] |= value << (free - bits);
+            } else {
+                this.words[index] |= value >>> (bits - free);
+                this.words[index + 1] |= value << (64 - (bits - free));
+            }
+            this.size += bits;
+        }
+
+        private void writeTo(DataOutputStream out) throws IOException {
+            out.writeInt(this.size);
+            int length = (this.size + 7) >>> 3;
+            for (int i = 0; i < length; i++) {
+                out.writeByte((int) (this.words[i >>> 3] >>> (56 - ((i & 7) << 3))));
+            }
+        }
+    }
+
+    private static final class BitInput {
+
+        private final byte[] bytes;
+        private final int size;
+        private int position;
+
+        private BitInput(byte[] bytes, int size) {
+            this.bytes = bytes;
+            this.size = size;
+        }
+
+        private static BitInput readFrom(DataInputStream in) throws IOException {
+            int size = in.readInt();
+            byte[] bytes = new byte[(size + 7) >>> 3];
+            in.readFully(bytes);
+            return new BitInput(bytes, size);
+        }
+
+        private boolean readBit() {
+            return this.readBits(1) != 0L;
+        }
+
+        private long readBits(int bits) {
+            if (this.position + bits > this.size) {
+                throw new IllegalArgumentException("Invalid monitor data block, " +
+                                                   "read beyond the end of stream");
+            }
+            long value = 0L;
+            while (bits > 0) {
+                int offset = this.position & 7;
+                int available = 8 - offset;
+                int take = Math.min(available, bits);
+                int b = (this.bytes[this.position >>> 3] & 0xFF) >>> (available - take);
+                value = (value << take) | (b & ((1 << take) - 1));
+                this.position += take;
+                bits -= take;
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.hugegraph.pd.meta;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.hugegraph.pd.common.PDException;
+import org.apache.hugegraph.pd.config.PDConfig;
+import org.apache.hugegraph.pd.store.KV;
+
+/**
+ * Compressed store monitor data, one {@link MonitorDataBlock} per store and
+ * time window, the rollups are kept apart from the raw samples
+ */
+public class MonitorDataMeta extends MetadataRocksDBStore {
+
+    public MonitorDataMeta(PDConfig pdConfig) {
+        super(pdConfig);
+    }
+
+    public void putBlock(long storeId, boolean rollup, MonitorDataBlock block) throws
+                                                                              PDException {
+        put(MetadataKeyHelper.getMonitorDataBlockKey(storeId, rollup, block.start()),
+            block.toBytes());
+    }
+
+    public MonitorDataBlock getBlock(long storeId, boolean rollup, long start) throws
+                                                                             PDException {
+        byte[] bytes = getOne(MetadataKeyHelper.getMonitorDataBlockKey(storeId, rollup, start));
+        return bytes == null ? null : MonitorDataBlock.fromBytes(bytes);
+    }
+
+    /**
+     * The encoded blocks starting within [from, to), ordered by the start
+     */
+    public List<byte[]> scanBlocks(long storeId, boolean rollup, long from, long to) throws
+                                                                                   PDException {
+        List<byte[]> blocks = new ArrayList<>();
+        if (from >= to) {
+            return blocks;
+        }
+        List<KV> kvs = scanRange(MetadataKeyHelper.getMonitorDataBlockKey(storeId, rollup,
+                                                                          Math.max(from, 0L)),
+                                 MetadataKeyHelper.getMonitorDataBlockKey(storeId, rollup, to));
+        for (KV kv : kvs) {
+            blocks.add(kv.getValue());
+        }
+        return blocks;
+    }
+
+    public void removeBlock(long storeId, boolean rollup, long start) throws PDException {
+        remove(MetadataKeyHelper.getMonitorDataBlockKey(storeId, rollup, start));
+    }
+}
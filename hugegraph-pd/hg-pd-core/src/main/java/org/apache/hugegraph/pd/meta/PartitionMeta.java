@@ -26,6 +26,7 @@ import org.apache.hugegraph.pd.common.PDRuntimeException;
 import org.apache.hugegraph.pd.common.PartitionCache;
 import org.apache.hugegraph.pd.config.PDConfig;
 import org.apache.hugegraph.pd.grpc.Metapb;
+import org.apache.hugegraph.pd.store.KV;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -227,6 +228,18 @@ public class PartitionMeta extends MetadataRocksDBStore {
         // }
     }
 
+    /**
+     * Write the stats of many partitions at once
+     */
+    public void updatePartitionStats(List<Metapb.PartitionStats> statsList) throws PDException {
+        List<KV> kvs = new ArrayList<>(statsList.size());
+        for (Metapb.PartitionStats stats : statsList) {
+            kvs.add(new KV(MetadataKeyHelper.getPartitionStatusKey("", stats.getId()),
+                           stats.toByteArray()));
+        }
+        batchPut(kvs);
+    }
+
     /**
      * Get the partition status
      */
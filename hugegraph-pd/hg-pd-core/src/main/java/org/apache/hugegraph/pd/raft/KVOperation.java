@@ -19,9 +19,15 @@ package org.apache.hugegraph.pd.raft;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
+import org.apache.hugegraph.pd.store.KV;
+
 import com.alipay.sofa.jraft.util.BytesUtil;
 import com.alipay.sofa.jraft.util.Requires;
 import com.caucho.hessian.io.Hessian2Input;
@@ -49,6 +55,10 @@ public class KVOperation {
     public static final byte CLEAR = 0x07;
     public static final byte PUT_WITH_TTL_UNIT = 0x08;
     public static final byte REMOVE_WITH_TTL = 0x09;
+    /**
+     * Put a batch of kvs, which are encoded in the value
+     */
+    public static final byte BATCH_PUT = 0x0A;
     /**
      * Snapshot operation
      */
@@ -103,6 +113,24 @@ public class KVOperation {
         return new KVOperation(key, value, null, PUT);
     }
 
+    public static KVOperation createBatchPut(final List<KV> kvs) {
+        Requires.requireNonNull(kvs, "kvs");
+        try (ByteArrayOutputStream bos = new ByteArrayOutputStream();
+             DataOutputStream output = new DataOutputStream(bos)) {
+            output.writeInt(kvs.size());
+            for (KV kv : kvs) {
+                output.writeInt(kv.getKey().length);
+                output.write(kv.getKey());
+                output.writeInt(kv.getValue().length);
+                output.write(kv.getValue());
+            }
+            output.flush();
+            return new KVOperation(BytesUtil.EMPTY_BYTES, bos.toByteArray(), kvs, BATCH_PUT);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to encode the batch put", e);
+        }
+    }
+
     public static KVOperation createGet(final byte[] key) {
         Requires.requireNonNull(key, "key");
         return new KVOperation(key, BytesUtil.EMPTY_BYTES, null, GET);
@@ -152,6 +180,28 @@ public class KVOperation {
         return new KVOperation(null, null, snapshotPath, LOAD_SNAPSHOT);
     }
 
+    /**
+     * The kvs of a batch put, decoded from the value unless applied on the proposing node
+     */
+    @SuppressWarnings("unchecked")
+    public List<KV> getBatchKvs() throws IOException {
+        if (attach instanceof List) {
+            return (List<KV>) attach;
+        }
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(value))) {
+            int size = input.readInt();
+            List<KV> kvs = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                byte[] key = new byte[input.readInt()];
+                input.readFully(key);
+                byte[] value = new byte[input.readInt()];
+                input.readFully(value);
+                kvs.add(new KV(key, value));
+            }
+            return kvs;
+        }
+    }
+
     public byte[] toByteArray() throws IOException {
         try (ByteArrayOutputStream bos = new ByteArrayOutputStream()) {
             bos.write(op);
@@ -29,6 +29,8 @@ public interface HgKVStore {
 
     void put(byte[] key, byte[] value) throws PDException;
 
+    void batchPut(List<KV> kvs) throws PDException;
+
     byte[] get(byte[] key) throws PDException;
 
     List<KV> scanPrefix(byte[] prefix);
@@ -43,6 +43,8 @@ import org.rocksdb.RocksDB;
 import org.rocksdb.RocksDBException;
 import org.rocksdb.RocksIterator;
 import org.rocksdb.Slice;
+import org.rocksdb.WriteBatch;
+import org.rocksdb.WriteOptions;
 
 import com.alipay.sofa.jraft.util.Utils;
 import com.google.common.cache.CacheBuilder;
@@ -97,6 +99,23 @@ public class HgKVStoreImpl implements HgKVStore {
         }
     }
 
+    @Override
+    public void batchPut(List<KV> kvs) throws PDException {
+        final Lock readLock = this.readWriteLock.readLock();
+        readLock.lock();
+        try (WriteBatch batch = new WriteBatch();
+             WriteOptions options = new WriteOptions()) {
+            for (KV kv : kvs) {
+                batch.put(kv.getKey(), kv.getValue());
+            }
+            db.write(options, batch);
+        } catch (RocksDBException e) {
+            throw new PDException(Pdpb.ErrorType.ROCKSDB_WRITE_ERROR_VALUE, e);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
     @Override
     public byte[] get(byte[] key) throws PDException {
         final Lock readLock = this.readWriteLock.readLock();
@@ -17,6 +17,7 @@
 
 package org.apache.hugegraph.pd.store;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
@@ -78,6 +79,21 @@ public class RaftKVStore implements HgKVStore, RaftTaskHandler {
         }
     }
 
+    /**
+     * All the kvs are applied in one raft log entry
+     */
+    @Override
+    public void batchPut(List<KV> kvs) throws PDException {
+        if (kvs.isEmpty()) {
+            return;
+        }
+        try {
+            applyOperation(KVOperation.createBatchPut(kvs)).get();
+        } catch (Exception e) {
+            throw new PDException(Pdpb.ErrorType.UNKNOWN_VALUE, e.getMessage());
+        }
+    }
+
     /**
      * Queries can be read without rafting
      */
@@ -187,6 +203,14 @@ public class RaftKVStore implements HgKVStore, RaftTaskHandler {
         store.put(key, value);
     }
 
+    private void doBatchPut(KVOperation op) throws PDException {
+        try {
+            this.store.batchPut(op.getBatchKvs());
+        } catch (IOException e) {
+            throw new PDException(Pdpb.ErrorType.UNKNOWN_VALUE, e);
+        }
+    }
+
     public long doRemove(byte[] bytes) throws PDException {
         return this.store.remove(bytes);
     }
@@ -289,6 +313,9 @@ public class RaftKVStore implements HgKVStore, RaftTaskHandler {
             case KVOperation.PUT:
                 doPut(op.getKey(), op.getValue());
                 break;
+            case KVOperation.BATCH_PUT:
+                doBatchPut(op);
+                break;
             case KVOperation.REMOVE:
                 doRemove(op.getKey());
                 break;
@@ -194,13 +194,18 @@ public class PDService extends PDGrpc.PDImplBase implements RaftStateListener {
             licenseVerifierService = new LicenseVerifierService(pdConfig);
         }
         RaftEngine.getInstance().addStateListener(partitionService);
+        RaftEngine.getInstance().addStateListener(storeMonitorDataService);
         pdConfig.setIdService(idService);
 
         // Receive a heartbeat message
         PDPulseSubject.listenPartitionHeartbeat(new PulseListener<PartitionHeartbeatRequest>() {
             @Override
             public void onNext(PartitionHeartbeatRequest request) throws Exception {
-                partitionService.partitionHeartbeat(request.getStates());
+                if (request.hasBatch()) {
+                    partitionService.partitionHeartbeat(request.getBatch());
+                } else {
+                    partitionService.partitionHeartbeat(request.getStates());
+                }
             }
 
             @Override
@@ -1703,6 +1708,8 @@ public class PDService extends PDGrpc.PDImplBase implements RaftStateListener {
                 if (!PeerUtil.isPeerEquals(leaderPeer, node.getLeaderId())) {
                     if (peers.contains(leaderPeer)) {
                         log.info("updatePdRaft, transfer to {}", leaderPeer);
+                        // write the open monitor blocks while still the leader
+                        storeMonitorDataService.flushMonitorData();
                         node.transferLeadershipTo(leaderPeer);
                     } else {
                         response = Pdpb.UpdatePdRaftResponse.newBuilder()
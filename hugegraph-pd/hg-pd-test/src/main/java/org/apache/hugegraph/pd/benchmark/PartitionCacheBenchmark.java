@@ -0,0 +1,190 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.hugegraph.pd.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.hugegraph.pd.common.KVPair;
+import org.apache.hugegraph.pd.common.PartitionCache;
+import org.apache.hugegraph.pd.common.PartitionUtils;
+import org.apache.hugegraph.pd.grpc.Metapb;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.google.common.collect.Range;
+import com.google.common.collect.RangeMap;
+import com.google.common.collect.TreeRangeMap;
+
+/**
+ * Compare the key code routing of PartitionCache (array snapshot, lock-free) with the former
+ * way (TreeRangeMap behind the graph spin lock), which is reproduced by {@link RangeMapRouter}.
+ */
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@BenchmarkMode({Mode.Throughput})
+@Warmup(iterations = 2, time = 1000, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 6, time = 1000, timeUnit = TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(2)
+public class PartitionCacheBenchmark {
+
+    private static final String GRAPH = "hugegraph/g";
+    private static final int THREAD_COUNT = 8;
+
+    @Param(value = {"12", "120", "1200"})
+    private int partitionCount;
+
+    private PartitionCache partitionCache;
+
+    private RangeMapRouter rangeMapRouter;
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        this.partitionCache = new PartitionCache();
+        this.rangeMapRouter = new RangeMapRouter();
+
+        long step = (PartitionUtils.MAX_VALUE + 1) / this.partitionCount;
+        for (int i = 0; i < this.partitionCount; i++) {
+            long end = i == this.partitionCount - 1 ?
+                       PartitionUtils.MAX_VALUE + 1 : step * (i + 1);
+            Metapb.Partition partition = Metapb.Partition.newBuilder()
+                                                         .setId(i)
+                                                         .setGraphName(GRAPH)
+                                                         .setStartKey(step * i)
+                                                         .setEndKey(end)
+                                                         .build();
+            Metapb.ShardGroup shardGroup =
+                    Metapb.ShardGroup.newBuilder()
+                                     .setId(i)
+                                     .addShards(Metapb.Shard.newBuilder()
+                                                            .setStoreId(i % 3)
+                                                            .setRole(Metapb.ShardRole.Leader)
+                                                            .build())
+                                     .build();
+            this.partitionCache.updateShardGroup(shardGroup);
+            this.partitionCache.updatePartition(partition);
+            this.rangeMapRouter.update(partition, shardGroup);
+        }
+    }
+
+    private static long nextCode() {
+        return ThreadLocalRandom.current().nextInt(PartitionUtils.MAX_VALUE + 1);
+    }
+
+    @Benchmark
+    @Threads(THREAD_COUNT)
+    public KVPair<Metapb.Partition, Metapb.Shard> routeByArraySnapshot() {
+        return this.partitionCache.getPartitionByCode(GRAPH, nextCode());
+    }
+
+    @Benchmark
+    @Threads(THREAD_COUNT)
+    public KVPair<Metapb.Partition, Metapb.Shard> routeByRangeMap() {
+        return this.rangeMapRouter.getPartitionByCode(GRAPH, nextCode());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(PartitionCacheBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+
+    /**
+     * The routing path of PartitionCache before the array snapshot was introduced
+     */
+    private static class RangeMapRouter {
+
+        private final Map<String, AtomicBoolean> locks = new ConcurrentHashMap<>();
+        private final Map<String, RangeMap<Long, Integer>> keyToPartIdCache =
+                new ConcurrentHashMap<>();
+        private final Map<String, Map<Integer, Metapb.Partition>> partitionCache =
+                new ConcurrentHashMap<>();
+        private final Map<Integer, Metapb.ShardGroup> shardGroupCache =
+                new ConcurrentHashMap<>();
+
+        void update(Metapb.Partition partition, Metapb.ShardGroup shardGroup) {
+            String graphName = partition.getGraphName();
+            this.locks.computeIfAbsent(graphName, k -> new AtomicBoolean());
+            this.partitionCache.computeIfAbsent(graphName, k -> new HashMap<>())
+                               .put(partition.getId(), partition);
+            this.keyToPartIdCache.computeIfAbsent(graphName, k -> TreeRangeMap.create())
+                                 .put(Range.closedOpen(partition.getStartKey(),
+                                                       partition.getEndKey()),
+                                      partition.getId());
+            this.shardGroupCache.put(shardGroup.getId(), shardGroup);
+        }
+
+        KVPair<Metapb.Partition, Metapb.Shard> getPartitionByCode(String graphName,
+                                                                  long code) {
+            this.waitGraphLock(graphName);
+            RangeMap<Long, Integer> rangeMap = this.keyToPartIdCache.get(graphName);
+            if (rangeMap != null) {
+                Integer partId = rangeMap.get(code);
+                if (partId != null) {
+                    this.waitGraphLock(graphName);
+                    Metapb.Partition partition = this.partitionCache.get(graphName)
+                                                                    .get(partId);
+                    if (partition != null) {
+                        return new KVPair<>(partition, this.getLeaderShard(partId));
+                    }
+                }
+            }
+            return null;
+        }
+
+        private void waitGraphLock(String graphName) {
+            AtomicBoolean lock = this.locks.get(graphName);
+            while (lock.get()) {
+                Thread.onSpinWait();
+            }
+        }
+
+        private Metapb.Shard getLeaderShard(int partitionId) {
+            Metapb.ShardGroup shardGroup = this.shardGroupCache.get(partitionId);
+            if (shardGroup != null) {
+                for (Metapb.Shard shard : shardGroup.getShardsList()) {
+                    if (shard.getRole() == Metapb.ShardRole.Leader) {
+                        return shard;
+                    }
+                }
+            }
+            return null;
+        }
+    }
+}
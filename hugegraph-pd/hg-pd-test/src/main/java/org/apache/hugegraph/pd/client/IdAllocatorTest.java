@@ -0,0 +1,190 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.hugegraph.pd.client;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.hugegraph.pd.common.PDException;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class IdAllocatorTest {
+
+    private static final String KEY = "g/id";
+
+    private AtomicLong value;
+    private AtomicInteger leases;
+    private AtomicInteger emptyLeases;
+    private volatile boolean failing;
+    private IdAllocator allocator;
+
+    @Before
+    public void setup() {
+        this.value = new AtomicLong(0);
+        this.leases = new AtomicInteger(0);
+        this.emptyLeases = new AtomicInteger(0);
+        this.failing = false;
+    }
+
+    @After
+    public void teardown() {
+        if (this.allocator != null) {
+            this.allocator.close();
+        }
+    }
+
+    private IdAllocator newAllocator(int min, int max, long targetMillis) {
+        this.allocator = new IdAllocator((key, delta) -> {
+            if (this.failing) {
+                throw new PDException(-1, "PD is unavailable");
+            }
+            this.leases.incrementAndGet();
+            if (delta == 0) {
+                this.emptyLeases.incrementAndGet();
+            }
+            return this.value.getAndAdd(delta);
+        }, min, max, targetMillis);
+        return this.allocator;
+    }
+
+    @Test
+    public void testNextIdIsSequential() throws PDException {
+        IdAllocator allocator = newAllocator(10, 10, 60_000L);
+        for (long i = 1; i <= 100; i++) {
+            Assert.assertEquals(i, allocator.nextId(KEY));
+        }
+        // One lease per segment, plus at most one prefetched segment
+        Assert.assertTrue(this.leases.get() <= 11);
+        Assert.assertTrue(this.value.get() >= 100);
+    }
+
+    @Test
+    public void testConcurrentIdsAreUnique() throws Exception {
+        IdAllocator allocator = newAllocator(16, 1024, 60_000L);
+        int threads = 8;
+        int count = 10000;
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < count; j++) {
+                        ids.add(allocator.nextId(KEY));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Assert.assertEquals(threads * count, ids.size());
+        for (long id : ids) {
+            Assert.assertTrue(id > 0 && id <= this.value.get());
+        }
+    }
+
+    @Test
+    public void testSegmentSizeAdaptsToConsumption() throws PDException {
+        IdAllocator allocator = newAllocator(10, 640, 60_000L);
+        Assert.assertEquals(10, allocator.segmentSize(KEY));
+        for (int i = 0; i < 5000; i++) {
+            allocator.nextId(KEY);
+        }
+        // Consumed far faster than the target, so the segment reaches the max
+        Assert.assertEquals(640, allocator.segmentSize(KEY));
+        Assert.assertTrue(this.leases.get() < 5000 / 10);
+    }
+
+    @Test
+    public void testSkipTo() throws PDException {
+        IdAllocator allocator = newAllocator(10, 10, 60_000L);
+        Assert.assertEquals(1L, allocator.nextId(KEY));
+
+        // Inside the current segment
+        allocator.skipTo(KEY, 5L);
+        Assert.assertEquals(6L, allocator.nextId(KEY));
+
+        // Never move backward
+        allocator.skipTo(KEY, 2L);
+        Assert.assertEquals(7L, allocator.nextId(KEY));
+
+        // Beyond the leased segments
+        allocator.skipTo(KEY, 1000L);
+        Assert.assertTrue(this.value.get() >= 1000L);
+        Assert.assertEquals(1001L, allocator.nextId(KEY));
+        Assert.assertEquals(0, this.emptyLeases.get());
+    }
+
+    @Test
+    public void testSkipToPrefetchedSegment() throws Exception {
+        IdAllocator allocator = newAllocator(10, 10, 60_000L);
+        for (long i = 1; i <= 5; i++) {
+            Assert.assertEquals(i, allocator.nextId(KEY));
+        }
+        // Wait for the segment (10, 20] prefetched in the background
+        long deadline = System.currentTimeMillis() + 5000L;
+        while (this.value.get() < 20L && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10L);
+        }
+        Thread.sleep(100L);
+        Assert.assertEquals(2, this.leases.get());
+
+        // Skip into the prefetched segment without leasing again
+        allocator.skipTo(KEY, 12L);
+        Assert.assertEquals(13L, allocator.nextId(KEY));
+        Assert.assertEquals(2, this.leases.get());
+        Assert.assertEquals(0, this.emptyLeases.get());
+    }
+
+    @Test
+    public void testPrefetchFailureFallsBackToLease() throws PDException {
+        IdAllocator allocator = newAllocator(10, 10, 60_000L);
+        Assert.assertEquals(1L, allocator.nextId(KEY));
+        this.failing = true;
+        // Triggers the prefetch, which fails in the background
+        for (long i = 2; i <= 10; i++) {
+            Assert.assertEquals(i, allocator.nextId(KEY));
+        }
+        this.failing = false;
+        Assert.assertEquals(11L, allocator.nextId(KEY));
+    }
+
+    @Test
+    public void testLeaseFailureIsReported() throws PDException {
+        IdAllocator allocator = newAllocator(10, 10, 60_000L);
+        this.failing = true;
+        Assert.assertThrows(PDException.class, () -> allocator.nextId(KEY));
+        this.failing = false;
+        Assert.assertEquals(1L, allocator.nextId(KEY));
+    }
+}
@@ -26,7 +26,8 @@ import lombok.extern.slf4j.Slf4j;
 @Suite.SuiteClasses({
         PDClientTest.class,
         KvClientTest.class,
-        DiscoveryClientTest.class
+        DiscoveryClientTest.class,
+        IdAllocatorTest.class
 })
 @Slf4j
 public class PDClientSuiteTest {
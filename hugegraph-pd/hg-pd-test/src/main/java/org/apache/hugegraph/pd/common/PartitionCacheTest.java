@@ -147,6 +147,38 @@ public class PartitionCacheTest {
         assertNull(this.cache.getPartitionByCode("graph0", 2000));
     }
 
+    @Test
+    public void testGetPartitionByCodeWithGapAndUpdate() {
+        var partition1 = createPartition(0, "graph0", 0, 100);
+        var partition2 = createPartition(1, "graph0", 200, 300);
+        this.cache.updateShardGroup(creteShardGroup(0));
+        this.cache.updateShardGroup(creteShardGroup(1));
+        this.cache.updatePartition(partition2);
+        this.cache.updatePartition(partition1);
+
+        assertEquals(partition1, this.cache.getPartitionByCode("graph0", 0).getKey());
+        assertEquals(partition1, this.cache.getPartitionByCode("graph0", 99).getKey());
+        assertNull(this.cache.getPartitionByCode("graph0", 100));
+        assertNull(this.cache.getPartitionByCode("graph0", 150));
+        assertEquals(partition2, this.cache.getPartitionByCode("graph0", 200).getKey());
+        assertNotNull(this.cache.getPartitionByCode("graph0", 299).getValue());
+        assertNull(this.cache.getPartitionByCode("graph0", 300));
+        assertNull(this.cache.getPartitionByCode("graph0", -1));
+
+        // The snapshot is replaced once the partition is changed
+        var partition3 = createPartition(1, "graph0", 100, 300);
+        this.cache.updatePartition(partition3);
+        assertEquals(partition3, this.cache.getPartitionByCode("graph0", 150).getKey());
+        assertEquals(partition3, this.cache.getPartitionByCode("graph0", 250).getKey());
+
+        this.cache.removePartition("graph0", 1);
+        assertNull(this.cache.getPartitionByCode("graph0", 250));
+        assertEquals(partition1, this.cache.getPartitionByCode("graph0", 50).getKey());
+
+        this.cache.removeAll("graph0");
+        assertNull(this.cache.getPartitionByCode("graph0", 50));
+    }
+
     @Test
     public void testGetPartitions() {
         var partition1 = createPartition(0, "graph0", 0, 1024);
@@ -18,6 +18,7 @@
 package org.apache.hugegraph.pd.core;
 
 import org.apache.hugegraph.pd.core.meta.MetadataKeyHelperTest;
+import org.apache.hugegraph.pd.core.meta.MonitorDataBlockTest;
 import org.apache.hugegraph.pd.core.store.HgKVStoreImplTest;
 import org.apache.hugegraph.pd.raft.IpAuthHandlerTest;
 import org.apache.hugegraph.pd.raft.RaftEngineIpAuthIntegrationTest;
@@ -30,6 +31,7 @@ import lombok.extern.slf4j.Slf4j;
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
         MetadataKeyHelperTest.class,
+        MonitorDataBlockTest.class,
         HgKVStoreImplTest.class,
         PDConfigTest.class,
         ConfigServiceTest.class,
@@ -37,6 +39,7 @@ import lombok.extern.slf4j.Slf4j;
         KvServiceTest.class,
         LogServiceTest.class,
         PartitionServiceTest.class,
+        PartitionLoadServiceTest.class,
         StoreMonitorDataServiceTest.class,
         StoreServiceTest.class,
         TaskScheduleServiceTest.class,
@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hugegraph.pd.core;
+
+import java.util.List;
+
+import org.apache.hugegraph.pd.PartitionLoadService;
+import org.apache.hugegraph.pd.config.PDConfig;
+import org.apache.hugegraph.pd.grpc.Metapb;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PartitionLoadServiceTest {
+
+    private PartitionLoadService loadService;
+
+    @Before
+    public void setUp() {
+        PDConfig config = new PDConfig();
+        PDConfig.Partition partition = new PDConfig().new Partition();
+        partition.setHotQpsThreshold(1000);
+        partition.setHotBytesThreshold(1024 * 1024);
+        partition.setHotDetectRounds(3);
+        config.setPartition(partition);
+        this.loadService = new PartitionLoadService(config);
+    }
+
+    @Test
+    public void testHotPartitionDetected() {
+        for (int i = 0; i < 3; i++) {
+            // 5000 ops in 1s
+            this.loadService.record(stats(1, 1L, 4000, 1000, 0, 1000));
+            // 100 ops in 1s
+            this.loadService.record(stats(2, 2L, 50, 50, 0, 1000));
+        }
+
+        List<PartitionLoadService.PartitionLoad> hot = this.loadService.getHotPartitions();
+        Assert.assertEquals(1, hot.size());
+        Assert.assertEquals(1, hot.get(0).getPartitionId());
+        Assert.assertEquals(1L, hot.get(0).getLeaderStoreId());
+        Assert.assertTrue(hot.get(0).getQps() >= 1000);
+    }
+
+    @Test
+    public void testHotRoundsResetWhenCooled() {
+        this.loadService.record(stats(1, 1L, 5000, 0, 0, 1000));
+        this.loadService.record(stats(1, 1L, 5000, 0, 0, 1000));
+        // The smoothed qps falls below the threshold
+        this.loadService.record(stats(1, 1L, 0, 0, 0, 1000));
+        this.loadService.record(stats(1, 1L, 0, 0, 0, 1000));
+        this.loadService.record(stats(1, 1L, 5000, 0, 0, 1000));
+
+        Assert.assertTrue(this.loadService.getHotPartitions().isEmpty());
+        Assert.assertEquals(1, this.loadService.getLoad(1).getHotRounds());
+    }
+
+    @Test
+    public void testHotByBytes() {
+        for (int i = 0; i < 3; i++) {
+            this.loadService.record(stats(3, 1L, 10, 0, 4 * 1024 * 1024, 1000));
+        }
+        Assert.assertEquals(1, this.loadService.getHotPartitions().size());
+
+        this.loadService.reset(3);
+        Assert.assertNull(this.loadService.getLoad(3));
+        Assert.assertTrue(this.loadService.getHotPartitions().isEmpty());
+    }
+
+    @Test
+    public void testIgnoreStatsWithoutInterval() {
+        this.loadService.record(stats(4, 1L, 100000, 0, 0, 0));
+        Assert.assertNull(this.loadService.getLoad(4));
+    }
+
+    @Test
+    public void testRepeatUnchangedLoad() {
+        // Unknown partitions are ignored until their stats are reported
+        this.loadService.repeat(5);
+        Assert.assertNull(this.loadService.getLoad(5));
+
+        this.loadService.record(stats(5, 1L, 4000, 0, 0, 1000));
+        this.loadService.record(stats(5, 1L, 4000, 0, 0, 1000));
+        double qps = this.loadService.getLoad(5).getQps();
+        this.loadService.repeat(5);
+        Assert.assertEquals(qps, this.loadService.getLoad(5).getQps(), 0.0);
+        Assert.assertEquals(3, this.loadService.getLoad(5).getHotRounds());
+        Assert.assertEquals(1, this.loadService.getHotPartitions().size());
+    }
+
+    private static Metapb.PartitionStats stats(int id, long leader, long reads, long writes,
+                                               long bytes, long intervalMs) {
+        return Metapb.PartitionStats.newBuilder()
+                                    .setId(id)
+                                    .setLeader(Metapb.Shard.newBuilder().setStoreId(leader)
+                                                           .setRole(Metapb.ShardRole.Leader))
+                                    .setReadCount(reads)
+                                    .setWriteCount(writes)
+                                    .setBytesRead(bytes)
+                                    .setIntervalMs(intervalMs)
+                                    .build();
+    }
+}
@@ -18,6 +18,7 @@
 package org.apache.hugegraph.pd.core;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -29,6 +30,7 @@ import org.apache.hugegraph.pd.grpc.MetaTask;
 import org.apache.hugegraph.pd.grpc.Metapb;
 import org.apache.hugegraph.pd.grpc.pulse.CleanPartition;
 import org.apache.hugegraph.pd.grpc.pulse.CleanType;
+import org.apache.hugegraph.pd.grpc.pulse.PartitionStatsBatch;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -153,4 +155,59 @@ public class PartitionServiceTest extends PDCoreTestBase {
         Collections.shuffle(shardList2);
         shardList2.forEach(shard -> System.out.println(shard.getStoreId()));
     }
+
+    @Test
+    public void testPartitionHeartbeatBatch() throws PDException, InterruptedException {
+        for (int id : new int[]{200, 201}) {
+            getStoreNodeService().getStoreInfoMeta().updateShardGroup(
+                    Metapb.ShardGroup.newBuilder()
+                                     .setId(id)
+                                     .setState(Metapb.PartitionState.PState_Normal)
+                                     .addShards(partitionStats(id, 0).getLeader())
+                                     .build());
+        }
+
+        try {
+            this.service.partitionHeartbeat(PartitionStatsBatch.newBuilder()
+                                                               .setStoreId(99)
+                                                               .setFull(true)
+                                                               .addStates(partitionStats(200, 5))
+                                                               .addStates(partitionStats(201, 7))
+                                                               .build());
+            var stats0 = this.service.getPartitionStats("", 200);
+            var stats1 = this.service.getPartitionStats("", 201);
+            assertEquals(7, stats1.getReadCount());
+
+            Thread.sleep(5);
+            // the unchanged partition renews the timestamp of its stats
+            this.service.partitionHeartbeat(PartitionStatsBatch.newBuilder()
+                                                               .setStoreId(99)
+                                                               .addStates(partitionStats(200, 50))
+                                                               .addUnchangedIds(201)
+                                                               .build());
+            var newStats0 = this.service.getPartitionStats("", 200);
+            var newStats1 = this.service.getPartitionStats("", 201);
+            assertEquals(50, newStats0.getReadCount());
+            assertTrue(newStats0.getTimestamp() > stats0.getTimestamp());
+            assertEquals(7, newStats1.getReadCount());
+            assertTrue(newStats1.getTimestamp() > stats1.getTimestamp());
+        } finally {
+            getStoreNodeService().getStoreInfoMeta().deleteShardGroup(200);
+            getStoreNodeService().getStoreInfoMeta().deleteShardGroup(201);
+        }
+    }
+
+    private static Metapb.PartitionStats partitionStats(int id, long reads) {
+        Metapb.Shard leader = Metapb.Shard.newBuilder()
+                                          .setStoreId(99)
+                                          .setRole(Metapb.ShardRole.Leader)
+                                          .build();
+        return Metapb.PartitionStats.newBuilder()
+                                    .setId(id)
+                                    .setLeader(leader)
+                                    .addShard(leader)
+                                    .setReadCount(reads)
+                                    .setIntervalMs(1000)
+                                    .build();
+    }
 }
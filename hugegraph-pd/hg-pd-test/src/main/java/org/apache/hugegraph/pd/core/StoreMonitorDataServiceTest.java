@@ -67,9 +67,39 @@ public class StoreMonitorDataServiceTest extends PDCoreTestBase {
         assertEquals(0, this.service.getStoreMonitorData(1).size());
     }
 
+    @Test
+    public void testLeaderChange() throws InterruptedException, PDException {
+        long storeId = 2L;
+        for (int i = 0; i < 2; i++) {
+            this.service.saveMonitorData(genStats(storeId));
+            Thread.sleep(1100);
+        }
+
+        // the open block is written ahead of stepping down
+        this.service.flushMonitorData();
+        StoreMonitorDataService other = new StoreMonitorDataService(getPdConfig());
+        assertEquals(2, other.getStoreMonitorData(storeId).size());
+
+        // the new leader continues the block, the old one drops its stale copy
+        other.saveMonitorData(genStats(storeId));
+        other.flushMonitorData();
+        Thread.sleep(1100);
+        assertEquals(2, this.service.getStoreMonitorData(storeId).size());
+        this.service.onRaftLeaderChanged();
+        assertEquals(3, this.service.getStoreMonitorData(storeId).size());
+
+        long now = System.currentTimeMillis() / 1000;
+        other.removeExpiredMonitorData(storeId, now + 1);
+        assertEquals(0, other.getStoreMonitorData(storeId).size());
+    }
+
     private Metapb.StoreStats genStats() {
+        return genStats(1);
+    }
+
+    private Metapb.StoreStats genStats(long storeId) {
         return Metapb.StoreStats.newBuilder()
-                                .setStoreId(1)
+                                .setStoreId(storeId)
                                 .addSystemMetrics(
                                         Metapb.RecordPair.newBuilder().setKey("key1").setValue(1)
                                                          .build())
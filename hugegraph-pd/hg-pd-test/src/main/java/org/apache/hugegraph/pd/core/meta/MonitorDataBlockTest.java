@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.hugegraph.pd.core.meta;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.apache.hugegraph.pd.meta.MonitorDataBlock;
+import org.junit.Test;
+
+public class MonitorDataBlockTest {
+
+    @Test
+    public void testRoundTrip() {
+        Random random = new Random(7);
+        MonitorDataBlock block = new MonitorDataBlock(3600L);
+        List<MonitorDataBlock.Sample> expected = new ArrayList<>();
+        long ts = 3600L;
+        for (int i = 0; i < 200; i++) {
+            // Mostly regular with some jitter and a few gaps
+            ts += i % 50 == 49 ? 3000 : 60 + random.nextInt(3) - 1;
+            Map<String, Long> metrics = new HashMap<>();
+            metrics.put("cpu", (long) random.nextInt(100));
+            metrics.put("disk", 1L << 40 | i);
+            metrics.put("neg", -i * 17L);
+            if (i % 3 == 0) {
+                metrics.put("sparse", random.nextLong());
+            }
+            if (i > 100) {
+                metrics.put("late", (long) i);
+            }
+            assertTrue(block.append(ts, metrics));
+            expected.add(new MonitorDataBlock.Sample(ts, metrics));
+        }
+        assertEquals(200, block.size());
+        assertEquals(ts, block.lastTimestamp());
+
+        byte[] bytes = block.toBytes();
+        assertEquals(3600L, MonitorDataBlock.startOf(bytes));
+        assertEquals(200, MonitorDataBlock.sizeOf(bytes));
+        assertSamples(expected, MonitorDataBlock.decode(bytes, Long.MIN_VALUE, Long.MAX_VALUE));
+
+        // The rebuilt block keeps appending
+        MonitorDataBlock rebuilt = MonitorDataBlock.fromBytes(bytes);
+        Map<String, Long> metrics = Map.of("cpu", 1L);
+        assertTrue(rebuilt.append(ts + 60, metrics));
+        expected.add(new MonitorDataBlock.Sample(ts + 60, metrics));
+        assertSamples(expected, MonitorDataBlock.decode(rebuilt.toBytes(), 0L, Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testCompression() {
+        MonitorDataBlock block = new MonitorDataBlock(0L);
+        for (int i = 0; i < 60; i++) {
+            Map<String, Long> metrics = new HashMap<>();
+            for (int j = 0; j < 10; j++) {
+                metrics.put("metric" + j, 1000L + j + (i / 10));
+            }
+            block.append(i * 60L, metrics);
+        }
+        // Raw longs would take 60 * 11 * 8 bytes
+        assertTrue(block.toBytes().length < 60 * 11 * 8 / 10);
+    }
+
+    @Test
+    public void testDecodeRange() {
+        MonitorDataBlock block = new MonitorDataBlock(0L);
+        for (int i = 0; i < 10; i++) {
+            block.append(i * 10L, Map.of("v", (long) i));
+        }
+        List<MonitorDataBlock.Sample> samples = MonitorDataBlock.decode(block.toBytes(), 25L, 60L);
+        assertEquals(4, samples.size());
+        assertEquals(30L, samples.get(0).getTimestamp());
+        assertEquals(3L, (long) samples.get(0).getMetrics().get("v"));
+        assertEquals(60L, samples.get(3).getTimestamp());
+        assertTrue(MonitorDataBlock.decode(block.toBytes(), 91L, 100L).isEmpty());
+
+        MonitorDataBlock rest = block.since(50L);
+        assertEquals(5, rest.size());
+        assertEquals(0L, rest.start());
+    }
+
+    @Test
+    public void testOutOfOrderIsDropped() {
+        MonitorDataBlock block = new MonitorDataBlock(0L);
+        assertTrue(block.append(10L, Map.of("v", 1L)));
+        assertFalse(block.append(10L, Map.of("v", 2L)));
+        assertFalse(block.append(5L, Map.of("v", 2L)));
+        assertEquals(1, block.size());
+    }
+
+    @Test
+    public void testDownsample() {
+        List<MonitorDataBlock.Sample> samples = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            samples.add(new MonitorDataBlock.Sample(i * 60L, Map.of("v", (long) i)));
+        }
+        List<MonitorDataBlock.Sample> rollups = MonitorDataBlock.downsample(samples, 300L);
+        assertEquals(2, rollups.size());
+        assertEquals(0L, rollups.get(0).getTimestamp());
+        assertEquals(2L, (long) rollups.get(0).getMetrics().get("v"));
+        assertEquals(300L, rollups.get(1).getTimestamp());
+        assertEquals(7L, (long) rollups.get(1).getMetrics().get("v"));
+    }
+
+    private static void assertSamples(List<MonitorDataBlock.Sample> expected,
+                                      List<MonitorDataBlock.Sample> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getTimestamp(), actual.get(i).getTimestamp());
+            assertEquals(expected.get(i).getMetrics(), actual.get(i).getMetrics());
+        }
+    }
+}
@@ -31,6 +31,7 @@ import org.apache.hugegraph.config.HugeConfig;
 import org.apache.hugegraph.config.ServerOptions;
 import org.apache.hugegraph.core.GraphManager;
 import org.apache.hugegraph.metrics.MetricsUtil;
+import org.apache.hugegraph.perf.PerfSampler;
 import org.apache.hugegraph.util.Log;
 import org.slf4j.Logger;
 
@@ -109,6 +110,8 @@ public class AccessLogFilter implements ContainerResponseFilter {
     @Override
     public void filter(ContainerRequestContext requestContext,
                        ContainerResponseContext responseContext) throws IOException {
+        PerfSampler.endRequest();
+
         // Grab corresponding request / response info from context;
         URI uri = requestContext.getUriInfo().getRequestUri();
         String method = requestContext.getMethod();
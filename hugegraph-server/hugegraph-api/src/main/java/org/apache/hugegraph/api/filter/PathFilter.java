@@ -24,6 +24,7 @@ import java.util.Set;
 
 import org.apache.hugegraph.config.HugeConfig;
 import org.apache.hugegraph.config.ServerOptions;
+import org.apache.hugegraph.perf.PerfSampler;
 import org.apache.hugegraph.util.E;
 import org.apache.hugegraph.util.Log;
 import org.slf4j.Logger;
@@ -91,6 +92,8 @@ public class PathFilter implements ContainerRequestFilter {
     public void filter(ContainerRequestContext context)
             throws IOException {
         context.setProperty(REQUEST_TIME, System.currentTimeMillis());
+        // Ended in AccessLogFilter
+        PerfSampler.beginRequest();
 
         List<PathSegment> segments = context.getUriInfo().getPathSegments();
         E.checkArgument(segments.size() > 0, "Invalid request uri '%s'",
@@ -109,7 +109,8 @@ public class FusiformSimilarityAPI extends API {
                 request.minSimilars, request.top,
                 request.groupProperty, request.minGroups,
                 request.maxDegree, request.capacity,
-                request.limit, request.withIntermediary);
+                request.limit, request.withIntermediary,
+                request.approximate);
 
         CloseableIterator.closeIterator(sources);
 
@@ -159,6 +160,8 @@ public class FusiformSimilarityAPI extends API {
         public boolean withIntermediary = false;
         @JsonProperty("with_vertex")
         public boolean withVertex = false;
+        @JsonProperty("approximate")
+        public boolean approximate = false;
 
         @Override
         public String toString() {
@@ -167,13 +170,15 @@ public class FusiformSimilarityAPI extends API {
                                  "alpha=%s,minSimilars=%s,top=%s," +
                                  "groupProperty=%s,minGroups=%s," +
                                  "maxDegree=%s,capacity=%s,limit=%s," +
-                                 "withIntermediary=%s,withVertex=%s}",
+                                 "withIntermediary=%s,withVertex=%s," +
+                                 "approximate=%s}",
                                  this.sources, this.label, this.direction,
                                  this.minNeighbors, this.alpha,
                                  this.minSimilars, this.top,
                                  this.groupProperty, this.minGroups,
                                  this.maxDegree, this.capacity, this.limit,
-                                 this.withIntermediary, this.withVertex);
+                                 this.withIntermediary, this.withVertex,
+                                 this.approximate);
         }
     }
 }
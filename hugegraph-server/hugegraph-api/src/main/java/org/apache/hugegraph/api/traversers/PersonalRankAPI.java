@@ -81,6 +81,11 @@ public class PersonalRankAPI extends API {
         E.checkArgument(request.limit > 0L || request.limit == NO_LIMIT,
                         "The limit of rank request must be > 0 or == -1, " +
                         "but got: %s", request.limit);
+        E.checkArgument(request.walks >= 0 &&
+                        request.walks <= PersonalRankTraverser.MAX_WALKS,
+                        "The walks of rank request must be in range " +
+                        "[0, %s], but got: %s",
+                        PersonalRankTraverser.MAX_WALKS, request.walks);
         E.checkArgument(request.maxDepth > 1L &&
                         request.maxDepth <= DEFAULT_MAX_DEPTH,
                         "The max depth of rank request must be " +
@@ -89,19 +94,29 @@ public class PersonalRankAPI extends API {
 
         LOG.debug("Graph [{}] get personal rank from '{}' with " +
                   "edge label '{}', alpha '{}', maxDegree '{}', " +
-                  "max depth '{}' and sorted '{}'",
+                  "max depth '{}', walks '{}' and sorted '{}'",
                   graph, request.source, request.label, request.alpha,
-                  request.maxDegree, request.maxDepth, request.sorted);
+                  request.maxDegree, request.maxDepth, request.walks,
+                  request.sorted);
 
         Id sourceId = HugeVertex.getIdValue(request.source);
         HugeGraph g = graph(manager, graphSpace, graph);
 
-        PersonalRankTraverser traverser;
-        traverser = new PersonalRankTraverser(g, request.alpha, request.maxDegree,
-                                              request.maxDepth);
-        Map<Id, Double> ranks = traverser.personalRank(sourceId, request.label,
-                                                       request.withLabel);
-        ranks = HugeTraverser.topN(ranks, request.sorted, request.limit);
+        Map<Id, Double> ranks;
+        try (PersonalRankTraverser traverser = new PersonalRankTraverser(
+                g, request.alpha, request.maxDegree,
+                request.maxDepth, request.walks)) {
+            if (request.sorted) {
+                // Only keep the top ranks instead of sorting all of them
+                ranks = traverser.personalRank(sourceId, request.label,
+                                               request.withLabel,
+                                               request.limit);
+            } else {
+                ranks = traverser.personalRank(sourceId, request.label,
+                                               request.withLabel);
+                ranks = HugeTraverser.topN(ranks, false, request.limit);
+            }
+        }
         return manager.serializer().writeMap(ranks);
     }
 
@@ -127,15 +142,20 @@ public class PersonalRankAPI extends API {
                 PersonalRankTraverser.WithLabel.BOTH_LABEL;
         @JsonProperty("sorted")
         private boolean sorted = true;
+        // Estimate the ranks by the random walks if > 0
+        @JsonProperty("walks")
+        private int walks = 0;
 
         @Override
         public String toString() {
             return String.format("RankRequest{source=%s,label=%s,alpha=%s," +
                                  "maxDiff=%s,maxDegree=%s,limit=%s," +
-                                 "maxDepth=%s,withLabel=%s,sorted=%s}",
+                                 "maxDepth=%s,withLabel=%s,sorted=%s," +
+                                 "walks=%s}",
                                  this.source, this.label, this.alpha,
                                  this.maxDiff, this.maxDegree, this.limit,
-                                 this.maxDepth, this.withLabel, this.sorted);
+                                 this.maxDepth, this.withLabel, this.sorted,
+                                 this.walks);
         }
     }
 }
@@ -33,6 +33,7 @@ import org.apache.hugegraph.backend.query.QueryResults;
 import org.apache.hugegraph.core.GraphManager;
 import org.apache.hugegraph.traversal.algorithm.HugeTraverser;
 import org.apache.hugegraph.traversal.algorithm.SingleSourceShortestPathTraverser;
+import org.apache.hugegraph.traversal.algorithm.WeightedShortestPathTraverser;
 import org.apache.hugegraph.type.define.Directions;
 import org.apache.hugegraph.util.E;
 import org.apache.hugegraph.util.Log;
@@ -90,30 +91,56 @@ public class WeightedShortestPathAPI extends API {
                       @DefaultValue("false") boolean withEdge,
                       @Parameter(description = "The capacity of the traversal")
                       @QueryParam("capacity")
-                      @DefaultValue(DEFAULT_CAPACITY) long capacity) {
+                      @DefaultValue(DEFAULT_CAPACITY) long capacity,
+                      @Parameter(description = "Whether to search by " +
+                                               "bidirectional dijkstra")
+                      @QueryParam("bidirectional")
+                      @DefaultValue("false") boolean bidirectional,
+                      @Parameter(description = "The property prefix of the " +
+                                               "landmarks computed by the " +
+                                               "landmarks algorithm, used by " +
+                                               "bidirectional search")
+                      @QueryParam("landmarks") String landmarks) {
         LOG.debug("Graph [{}] get weighted shortest path between '{}' and " +
                   "'{}' with direction {}, edge label {}, weight property {}, " +
                   "max degree '{}', skip degree '{}', capacity '{}', " +
-                  "with_vertex '{}' and with_edge '{}'",
+                  "with_vertex '{}', with_edge '{}', bidirectional '{}' " +
+                  "and landmarks '{}'",
                   graph, source, target, direction, edgeLabel, weight,
-                  maxDegree, skipDegree, capacity, withVertex, withEdge);
+                  maxDegree, skipDegree, capacity, withVertex, withEdge,
+                  bidirectional, landmarks);
 
         ApiMeasurer measure = new ApiMeasurer();
         Id sourceId = VertexAPI.checkAndParseVertexId(source);
         Id targetId = VertexAPI.checkAndParseVertexId(target);
         Directions dir = Directions.convert(EdgeAPI.parseDirection(direction));
         E.checkArgumentNotNull(weight, "The weight property can't be null");
+        E.checkArgument(landmarks == null || bidirectional,
+                        "The landmarks can only be used by bidirectional " +
+                        "search");
 
         HugeGraph g = graph(manager, graphSpace, graph);
-        SingleSourceShortestPathTraverser traverser =
-                new SingleSourceShortestPathTraverser(g);
-
-        SingleSourceShortestPathTraverser.NodeWithWeight node =
-                traverser.weightedShortestPath(sourceId, targetId,
-                                               dir, edgeLabel, weight,
-                                               maxDegree, skipDegree, capacity);
-        measure.addIterCount(traverser.vertexIterCounter.get(),
-                             traverser.edgeIterCounter.get());
+        SingleSourceShortestPathTraverser.NodeWithWeight node;
+        if (bidirectional) {
+            try (WeightedShortestPathTraverser traverser =
+                         new WeightedShortestPathTraverser(g)) {
+                node = traverser.weightedShortestPath(sourceId, targetId,
+                                                      dir, edgeLabel, weight,
+                                                      maxDegree, skipDegree,
+                                                      capacity, landmarks);
+                measure.addIterCount(traverser.vertexIterCounter.get(),
+                                     traverser.edgeIterCounter.get());
+            }
+        } else {
+            SingleSourceShortestPathTraverser traverser =
+                    new SingleSourceShortestPathTraverser(g);
+            node = traverser.weightedShortestPath(sourceId, targetId,
+                                                  dir, edgeLabel, weight,
+                                                  maxDegree, skipDegree,
+                                                  capacity);
+            measure.addIterCount(traverser.vertexIterCounter.get(),
+                                 traverser.edgeIterCounter.get());
+        }
 
         if (node == null) {
             return manager.serializer(g, measure.measures())
@@ -564,6 +564,12 @@ public final class HugeGraphAuthProxy implements HugeGraph {
         this.hugegraph.removeVertexProperty(property);
     }
 
+    @Override
+    public void writeOlapProperties(PropertyKey pkey, Map<Id, Object> values) {
+        this.verifyPermission(HugePermission.WRITE, ResourceType.VERTEX);
+        this.hugegraph.writeOlapProperties(pkey, values);
+    }
+
     @Override
     public Edge addEdge(Edge edge) {
         return verifyElemPermission(HugePermission.WRITE, () -> {
@@ -657,6 +657,34 @@ public class ServerOptions extends OptionHolder {
                     nonNegativeInt(),
                     1000L
             );
+    public static final ConfigOption<Integer> PERF_SAMPLE_RATE =
+            new ConfigOption<>(
+                    "perf.sample_rate",
+                    "Sample one in N requests of each worker thread to " +
+                    "profile the latencies of serialize, backend query, " +
+                    "index lookup, cache hit/miss and commit, which are " +
+                    "exposed as histograms(us) in metrics, " +
+                    "0 means profiling is disabled.",
+                    nonNegativeInt(),
+                    0
+            );
+    public static final ConfigOption<Integer> PERF_MAX_OPERATIONS =
+            new ConfigOption<>(
+                    "perf.max_operations",
+                    "The max operations profiled by each thread, the " +
+                    "others are merged into one.",
+                    positiveInt(),
+                    64
+            );
+    public static final ConfigOption<Integer> PERF_DRAIN_PERIOD =
+            new ConfigOption<>(
+                    "perf.drain_period",
+                    "The period in seconds to merge the latencies sampled " +
+                    "by the threads into the metrics, the percentiles in " +
+                    "metrics are of the latest period.",
+                    positiveInt(),
+                    60
+            );
     public static final ConfigOption<Double> JVM_MEMORY_MONITOR_THRESHOLD =
             new ConfigOption<>(
                     "memory_monitor.threshold",
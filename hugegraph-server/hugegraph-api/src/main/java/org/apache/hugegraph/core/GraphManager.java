@@ -59,6 +59,8 @@ import org.apache.hugegraph.backend.cache.Cache;
 import org.apache.hugegraph.backend.cache.CacheManager;
 import org.apache.hugegraph.backend.store.AbstractBackendStoreProvider;
 import org.apache.hugegraph.backend.store.BackendStoreInfo;
+import org.apache.hugegraph.concurrent.LockManager;
+import org.apache.hugegraph.concurrent.LockStats;
 import org.apache.hugegraph.config.ConfigOption;
 import org.apache.hugegraph.config.CoreOptions;
 import org.apache.hugegraph.config.HugeConfig;
@@ -85,6 +87,7 @@ import org.apache.hugegraph.meta.MetaManager;
 import org.apache.hugegraph.meta.PdMetaDriver;
 import org.apache.hugegraph.meta.lock.LockResult;
 import org.apache.hugegraph.metrics.MetricsUtil;
+import org.apache.hugegraph.metrics.PerfSamplerMetrics;
 import org.apache.hugegraph.metrics.ServerReporter;
 import org.apache.hugegraph.pd.client.DiscoveryClientImpl;
 import org.apache.hugegraph.pd.client.PDClient;
@@ -1508,6 +1511,7 @@ public final class GraphManager {
         }
         this.destroyRpcServer();
         this.unlistenChanges();
+        PerfSamplerMetrics.stop();
         if (this.roleStateMachine != null) {
             this.roleStateMachine.shutdown();
         }
@@ -1796,6 +1800,96 @@ public final class GraphManager {
         MetricsUtil.registerGauge(TaskManager.class, "pending-tasks", () -> {
             return TaskManager.instance().pendingTasks();
         });
+
+        // Add metrics for the lanes of the ordered event hubs
+        registerEventLaneMetrics();
+        final AtomicInteger lastLanesSize = new AtomicInteger(eventLanes());
+        MetricsUtil.registerGauge(EventHub.class, "lanes", () -> {
+            int count = eventLanes();
+            if (count != lastLanesSize.get()) {
+                // Update if lanes changed (effect in the next report period)
+                registerEventLaneMetrics();
+                lastLanesSize.set(count);
+            }
+            return count;
+        });
+
+        // Add metrics for the contention of key locks and row locks
+        MetricsUtil.registerGauge(LockManager.class, "contended", () -> {
+            return totalLockStats().contended();
+        });
+        MetricsUtil.registerGauge(LockManager.class, "timeouts", () -> {
+            return totalLockStats().timeouts();
+        });
+        MetricsUtil.registerGauge(LockManager.class, "wait-time-ms", () -> {
+            return totalLockStats().waitTime(TimeUnit.MILLISECONDS);
+        });
+
+        // Add metrics for the sampled requests
+        int sampleRate = config.get(ServerOptions.PERF_SAMPLE_RATE);
+        if (sampleRate > 0) {
+            PerfSamplerMetrics.start(sampleRate,
+                                     config.get(ServerOptions.PERF_MAX_OPERATIONS),
+                                     config.get(ServerOptions.PERF_DRAIN_PERIOD));
+        }
+    }
+
+    private static int eventLanes() {
+        int count = 0;
+        for (EventHub hub : EventHub.orderedHubs()) {
+            count += hub.laneStats().size();
+        }
+        return count;
+    }
+
+    private static void registerEventLaneMetrics() {
+        Set<String> names = MetricManager.INSTANCE.getRegistry().getNames();
+        for (EventHub hub : EventHub.orderedHubs()) {
+            String hubName = hub.name();
+            for (String event : hub.laneStats().keySet()) {
+                String depth = String.format("%s.%s.%s", hubName, event,
+                                             "depth");
+                // Avoid registering multiple times
+                if (names.stream().anyMatch(name -> name.endsWith(depth))) {
+                    continue;
+                }
+                MetricsUtil.registerGauge(EventHub.class, depth, () -> {
+                    return laneStats(hubName, event).depth();
+                });
+                MetricsUtil.registerGauge(EventHub.class, String.format(
+                                          "%s.%s.%s", hubName, event,
+                                          "avg-latency-ms"), () -> {
+                    return laneStats(hubName, event).avgLatencyMs();
+                });
+                MetricsUtil.registerGauge(EventHub.class, String.format(
+                                          "%s.%s.%s", hubName, event,
+                                          "max-latency-ms"), () -> {
+                    return laneStats(hubName, event).maxLatencyMs();
+                });
+            }
+        }
+    }
+
+    private static EventHub.LaneStats laneStats(String hubName,
+                                                String event) {
+        for (EventHub hub : EventHub.orderedHubs()) {
+            if (hub.name().equals(hubName)) {
+                EventHub.LaneStats stats = hub.laneStats().get(event);
+                if (stats != null) {
+                    return stats;
+                }
+            }
+        }
+        // The graph of the hub has been dropped
+        return EventHub.LaneStats.EMPTY;
+    }
+
+    private static LockStats totalLockStats() {
+        LockStats total = new LockStats();
+        for (LockStats stats : LockManager.instance().stats().values()) {
+            total.add(stats);
+        }
+        return total;
     }
 
     private void listenChanges() {
@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hugegraph.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hugegraph.perf.LatencyHistogram;
+import org.apache.hugegraph.perf.PerfSampler;
+import org.apache.hugegraph.util.ExecutorUtil;
+import org.apache.hugegraph.util.Log;
+import org.slf4j.Logger;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Snapshot;
+import com.codahale.metrics.UniformReservoir;
+import com.codahale.metrics.WeightedSnapshot;
+import com.codahale.metrics.WeightedSnapshot.WeightedSample;
+
+/**
+ * Drain the latencies sampled by PerfSampler periodically, and expose them
+ * as a histogram in microseconds per operation. The count of a histogram is
+ * the total count, and its snapshot is of the latest period.
+ */
+public final class PerfSamplerMetrics {
+
+    private static final Logger LOG = Log.logger(PerfSamplerMetrics.class);
+
+    private static final String DRAIN_WORKER = "perf-sampler-drain";
+
+    private static final Map<String, SampledHistogram> HISTOGRAMS =
+            new ConcurrentHashMap<>();
+
+    private static ScheduledExecutorService executor = null;
+
+    private PerfSamplerMetrics() {
+        // pass
+    }
+
+    public static synchronized void start(int sampleRate, int maxOperations,
+                                          int drainPeriod) {
+        if (executor != null) {
+            return;
+        }
+        PerfSampler.enable(sampleRate, maxOperations);
+        executor = ExecutorUtil.newScheduledThreadPool(DRAIN_WORKER);
+        executor.scheduleWithFixedDelay(PerfSamplerMetrics::drain,
+                                        drainPeriod, drainPeriod,
+                                        TimeUnit.SECONDS);
+        LOG.info("Sample one in {} requests to profile, drain period {}s",
+                 sampleRate, drainPeriod);
+    }
+
+    public static synchronized void stop() {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        executor = null;
+        PerfSampler.disable();
+    }
+
+    static void drain() {
+        try {
+            Map<String, LatencyHistogram> drained = PerfSampler.drain();
+            for (Map.Entry<String, SampledHistogram> e : HISTOGRAMS.entrySet()) {
+                if (!drained.containsKey(e.getKey())) {
+                    e.getValue().update(new LatencyHistogram());
+                }
+            }
+            for (Map.Entry<String, LatencyHistogram> e : drained.entrySet()) {
+                HISTOGRAMS.computeIfAbsent(e.getKey(), op -> {
+                    String name = MetricRegistry.name(PerfSampler.class, op);
+                    return MetricsUtil.REGISTRY.register(name,
+                                                         new SampledHistogram());
+                }).update(e.getValue());
+            }
+        } catch (Throwable e) {
+            LOG.warn("Failed to drain the sampled latencies", e);
+        }
+    }
+
+    private static class SampledHistogram extends Histogram {
+
+        private static final Snapshot EMPTY =
+                new WeightedSnapshot(Collections.emptyList());
+
+        private volatile long count;
+        private volatile Snapshot snapshot;
+
+        public SampledHistogram() {
+            // The reservoir is not used
+            super(new UniformReservoir(1));
+            this.count = 0L;
+            this.snapshot = EMPTY;
+        }
+
+        // Only called by the drain worker
+        private void update(LatencyHistogram latest) {
+            this.count += latest.count();
+            if (latest.count() == 0L) {
+                this.snapshot = EMPTY;
+                return;
+            }
+            List<WeightedSample> samples = new ArrayList<>();
+            for (int i = 0; i < LatencyHistogram.BUCKETS; i++) {
+                long count = latest.bucketCount(i);
+                if (count == 0L) {
+                    continue;
+                }
+                long nanos = Math.max(latest.min(),
+                                      Math.min(LatencyHistogram.bucketValue(i),
+                                               latest.max()));
+                samples.add(new WeightedSample(TimeUnit.NANOSECONDS
+                                                       .toMicros(nanos),
+                                               count));
+            }
+            this.snapshot = new WeightedSnapshot(samples);
+        }
+
+        @Override
+        public void update(long value) {
+            throw new UnsupportedOperationException(
+                      "The sampled histogram is updated by PerfSampler");
+        }
+
+        @Override
+        public long getCount() {
+            return this.count;
+        }
+
+        @Override
+        public Snapshot getSnapshot() {
+            return this.snapshot;
+        }
+    }
+}
@@ -23,6 +23,7 @@ import java.util.Date;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.apache.commons.lang3.tuple.Pair;
@@ -162,6 +163,8 @@ public interface HugeGraph extends Graph {
 
     <V> void removeVertexProperty(VertexProperty<V> property);
 
+    void writeOlapProperties(PropertyKey pkey, Map<Id, Object> values);
+
     Edge addEdge(Edge edge);
 
     void canAddEdge(Edge edge);
@@ -22,6 +22,7 @@ import java.util.Collection;
 import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Future;
@@ -157,6 +158,8 @@ public class StandardHugeGraph implements HugeGraph {
             CoreOptions.OLTP_QUERY_BATCH_AVG_DEGREE_RATIO,
             CoreOptions.OLTP_QUERY_BATCH_EXPECT_DEGREE,
             CoreOptions.SCHEMA_INDEX_REBUILD_USING_PUSHDOWN,
+            CoreOptions.TASK_REBUILD_INDEX_WORKERS,
+            CoreOptions.TASK_REBUILD_INDEX_SHARD_SIZE,
             CoreOptions.QUERY_TRUST_INDEX,
             CoreOptions.QUERY_MAX_INDEXES_AVAILABLE,
             CoreOptions.QUERY_DEDUP_OPTION
@@ -196,10 +199,6 @@ public class StandardHugeGraph implements HugeGraph {
         this.configuration = config;
         this.graphSpace = config.get(CoreOptions.GRAPH_SPACE);
 
-        this.schemaEventHub = new EventHub("schema");
-        this.graphEventHub = new EventHub("graph");
-        this.indexEventHub = new EventHub("index");
-
         this.localCounter = new LocalCounter();
 
         final int writeLimit = config.get(CoreOptions.RATE_LIMIT_WRITE);
@@ -226,6 +225,15 @@ public class StandardHugeGraph implements HugeGraph {
         this.taskManager = TaskManager.instance();
         this.name = config.get(CoreOptions.STORE);
 
+        // The hubs are named after the graph, their lanes are reported by name
+        final int laneCapacity = config.get(CoreOptions.EVENT_LANE_CAPACITY);
+        this.schemaEventHub = newEventHub(this.eventHubName("schema"),
+                                          laneCapacity);
+        this.graphEventHub = newEventHub(this.eventHubName("graph"),
+                                         laneCapacity);
+        this.indexEventHub = newEventHub(this.eventHubName("index"),
+                                         laneCapacity);
+
         // Keep old config files upgrade-safe while ignoring the legacy scheduler.
         if (config.containsKey("task.scheduler_type")) {
             LOG.warn("Config key 'task.scheduler_type' is deprecated and " +
@@ -591,6 +599,17 @@ public class StandardHugeGraph implements HugeGraph {
         LOG.info("Graph '{}' has resumed from snapshot", this.spaceGraphName());
     }
 
+    private String eventHubName(String name) {
+        return this.spaceGraphName() + "." + name;
+    }
+
+    private static EventHub newEventHub(String name, int laneCapacity) {
+        if (laneCapacity > 0) {
+            return EventHub.ordered(name, laneCapacity);
+        }
+        return new EventHub(name);
+    }
+
     private void clearVertexCache() {
         Future<?> future = this.graphEventHub.notify(Events.CACHE, "clear",
                                                      HugeType.VERTEX);
@@ -773,6 +792,11 @@ public class StandardHugeGraph implements HugeGraph {
         this.graphTransaction().removeVertexProperty((HugeVertexProperty<V>) p);
     }
 
+    @Override
+    public void writeOlapProperties(PropertyKey pkey, Map<Id, Object> values) {
+        this.graphTransaction().writeOlapProperties(pkey, values);
+    }
+
     @Override
     public Edge addEdge(Edge edge) {
         return this.graphTransaction().addEdge((HugeEdge) edge);
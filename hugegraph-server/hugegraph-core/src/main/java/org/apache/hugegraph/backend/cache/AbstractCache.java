@@ -22,8 +22,10 @@ import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 
+import org.apache.hugegraph.perf.PerfSampler;
 import org.apache.hugegraph.perf.PerfUtil.Watched;
 import org.apache.hugegraph.util.Log;
+import org.apache.hugegraph.util.PerfOperations;
 import org.slf4j.Logger;
 
 public abstract class AbstractCache<K, V> implements Cache<K, V> {
@@ -73,7 +75,7 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
             return null;
         }
 
-        V value = this.access(id);
+        V value = this.sampledAccess(id);
 
         if (this.enabledMetrics) {
             this.collectMetrics(id, value);
@@ -89,7 +91,7 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
             return null;
         }
 
-        V value = this.access(id);
+        V value = this.sampledAccess(id);
 
         if (this.enabledMetrics) {
             this.collectMetrics(id, value);
@@ -104,6 +106,14 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
         return value;
     }
 
+    private V sampledAccess(K id) {
+        long start = PerfSampler.start();
+        V value = this.access(id);
+        PerfSampler.stop(value != null ? PerfOperations.CACHE_HIT :
+                                         PerfOperations.CACHE_MISS, start);
+        return value;
+    }
+
     private void collectMetrics(K key, V value) {
         if (value == null) {
             this.miss.add(1L);
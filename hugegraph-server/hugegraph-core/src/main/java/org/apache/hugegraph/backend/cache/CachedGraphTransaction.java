@@ -23,6 +23,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -47,6 +48,7 @@ import org.apache.hugegraph.iterator.ExtendableIterator;
 import org.apache.hugegraph.iterator.ListIterator;
 import org.apache.hugegraph.perf.PerfUtil.Watched;
 import org.apache.hugegraph.schema.IndexLabel;
+import org.apache.hugegraph.schema.PropertyKey;
 import org.apache.hugegraph.structure.HugeEdge;
 import org.apache.hugegraph.structure.HugeVertex;
 import org.apache.hugegraph.type.HugeType;
@@ -494,6 +496,23 @@ public final class CachedGraphTransaction extends GraphTransaction {
         }
     }
 
+    @Override
+    public void writeOlapProperties(PropertyKey pkey, Map<Id, Object> values) {
+        try {
+            super.writeOlapProperties(pkey, values);
+        } finally {
+            // The cached vertices may be with the olap properties
+            if (this.enableCacheVertex() && !values.isEmpty()) {
+                Id[] vertexIds = values.keySet().toArray(new Id[0]);
+                for (Id id : vertexIds) {
+                    this.verticesCache.invalidate(id);
+                }
+                this.notifyChanges(Cache.ACTION_INVALID, HugeType.VERTEX,
+                                   vertexIds);
+            }
+        }
+    }
+
     @Override
     public void removeIndex(IndexLabel indexLabel) {
         try {
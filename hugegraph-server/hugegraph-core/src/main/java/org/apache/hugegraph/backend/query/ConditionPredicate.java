@@ -0,0 +1,396 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hugegraph.backend.query;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import org.apache.hugegraph.backend.id.Id;
+import org.apache.hugegraph.backend.id.IdGenerator;
+import org.apache.hugegraph.backend.query.Condition.RelationType;
+import org.apache.hugegraph.backend.query.Condition.Relation;
+import org.apache.hugegraph.backend.query.Condition.UserpropRelation;
+import org.apache.hugegraph.structure.HugeElement;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * ConditionPredicate is compiled from the conditions of a ConditionQuery,
+ * it tests an element without walking the condition tree:
+ *  - the conditions joined by `and` are tested in the order of selectivity,
+ *    and return false as soon as one of them is not matched;
+ *  - the numbers and dates are compared as primitive long or double values
+ *    if the property value is of the same kind as the condition value;
+ *  - the values of `in` and `notin` are hashed into a set;
+ *  - the user property is read by the slot of its key.
+ * The other relations fall back to Relation.test(element).
+ *
+ * The compiled predicates are cached by the conditions normalized into a set,
+ * so the queries of equal conditions in any order share a predicate, like the
+ * adjacent edges queries of each vertex with the same property filter.
+ */
+public abstract class ConditionPredicate implements Predicate<HugeElement> {
+
+    private static final int IN_SET_THRESHOLD = 8;
+    private static final int CACHE_CAPACITY = 1000;
+
+    private static final Cache<Set<Condition>, ConditionPredicate> CACHE =
+            CacheBuilder.newBuilder().maximumSize(CACHE_CAPACITY)
+                        .softValues().build();
+
+    /**
+     * Get the predicate of the conditions joined by `and`, it's compiled
+     * from the copies of the conditions once for the equal conditions,
+     * since a Relation of a query may be updated after compiled
+     */
+    public static ConditionPredicate compile(List<Condition> conditions) {
+        Set<Condition> key = ImmutableSet.copyOf(conditions);
+        ConditionPredicate predicate = CACHE.getIfPresent(key);
+        if (predicate != null) {
+            return predicate;
+        }
+
+        List<Condition> copies = new ArrayList<>(key.size());
+        for (Condition condition : key) {
+            copies.add(condition.copy());
+        }
+        if (copies.size() == 1) {
+            predicate = compile(copies.get(0));
+        } else {
+            List<ConditionPredicate> predicates = new ArrayList<>();
+            for (Condition condition : copies) {
+                collectAnd(predicates, compile(condition));
+            }
+            predicate = new AndPredicate(predicates);
+        }
+        CACHE.put(ImmutableSet.copyOf(copies), predicate);
+        return predicate;
+    }
+
+    private static ConditionPredicate compile(Condition condition) {
+        switch (condition.type()) {
+            case AND:
+                Condition.And and = (Condition.And) condition;
+                List<ConditionPredicate> predicates = new ArrayList<>();
+                collectAnd(predicates, compile(and.left()));
+                collectAnd(predicates, compile(and.right()));
+                return new AndPredicate(predicates);
+            case OR:
+                Condition.Or or = (Condition.Or) condition;
+                return new OrPredicate(compile(or.left()), compile(or.right()));
+            case NOT:
+                Condition.Not not = (Condition.Not) condition;
+                return new NotPredicate(compile(not.condition()));
+            case RELATION:
+                return compileRelation((Relation) condition);
+            default:
+                throw new AssertionError(String.format(
+                          "Unknown condition type '%s'", condition.type()));
+        }
+    }
+
+    private static void collectAnd(List<ConditionPredicate> predicates,
+                                   ConditionPredicate predicate) {
+        // Flatten the nested `and` to sort all of them by rank
+        if (predicate instanceof AndPredicate) {
+            Collections.addAll(predicates, ((AndPredicate) predicate).predicates);
+        } else {
+            predicates.add(predicate);
+        }
+    }
+
+    private static ConditionPredicate compileRelation(Relation relation) {
+        if (!(relation instanceof UserpropRelation) ||
+            !(relation.key() instanceof IdGenerator.LongId)) {
+            return new RelationPredicate(relation);
+        }
+        UserpropRelation userprop = (UserpropRelation) relation;
+        Object value = relation.value();
+        switch (relation.relation()) {
+            case EQ:
+            case NEQ:
+            case GT:
+            case GTE:
+            case LT:
+            case LTE:
+                if (isIntegral(value) || isFloating(value) ||
+                    value instanceof Date && value.getClass() == Date.class) {
+                    return new CompareLeaf(userprop);
+                }
+                if (relation.relation() == RelationType.EQ &&
+                    value instanceof String) {
+                    return new StringEqualLeaf(userprop);
+                }
+                return new UserpropLeaf(userprop);
+            case IN:
+            case NOT_IN:
+                if (value instanceof Collection &&
+                    ((Collection<?>) value).size() >= IN_SET_THRESHOLD) {
+                    return new InSetLeaf(userprop);
+                }
+                return new UserpropLeaf(userprop);
+            default:
+                return new UserpropLeaf(userprop);
+        }
+    }
+
+    private static boolean isIntegral(Object value) {
+        return value instanceof Long || value instanceof Integer ||
+               value instanceof Short || value instanceof Byte;
+    }
+
+    private static boolean isFloating(Object value) {
+        return value instanceof Double || value instanceof Float;
+    }
+
+    /**
+     * The lower rank is tested earlier in `and`, which means it's cheaper
+     * or more likely to filter an element out
+     */
+    protected abstract int rank();
+
+    private static final class AndPredicate extends ConditionPredicate {
+
+        private final ConditionPredicate[] predicates;
+
+        public AndPredicate(List<ConditionPredicate> predicates) {
+            predicates.sort(Comparator.comparingInt(ConditionPredicate::rank));
+            this.predicates = predicates.toArray(new ConditionPredicate[0]);
+        }
+
+        @Override
+        public boolean test(HugeElement element) {
+            for (ConditionPredicate predicate : this.predicates) {
+                if (!predicate.test(element)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        protected int rank() {
+            int rank = 0;
+            for (ConditionPredicate predicate : this.predicates) {
+                rank = Math.max(rank, predicate.rank());
+            }
+            return rank;
+        }
+    }
+
+    private static final class OrPredicate extends ConditionPredicate {
+
+        private final ConditionPredicate left;
+        private final ConditionPredicate right;
+
+        public OrPredicate(ConditionPredicate left, ConditionPredicate right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public boolean test(HugeElement element) {
+            return this.left.test(element) || this.right.test(element);
+        }
+
+        @Override
+        protected int rank() {
+            return Math.max(this.left.rank(), this.right.rank()) + 1;
+        }
+    }
+
+    private static final class NotPredicate extends ConditionPredicate {
+
+        private final ConditionPredicate predicate;
+
+        public NotPredicate(ConditionPredicate predicate) {
+            this.predicate = predicate;
+        }
+
+        @Override
+        public boolean test(HugeElement element) {
+            return !this.predicate.test(element);
+        }
+
+        @Override
+        protected int rank() {
+            return this.predicate.rank() + 1;
+        }
+    }
+
+    private static class RelationPredicate extends ConditionPredicate {
+
+        protected final Relation relation;
+
+        public RelationPredicate(Relation relation) {
+            this.relation = relation;
+        }
+
+        @Override
+        public boolean test(HugeElement element) {
+            return this.relation.test(element);
+        }
+
+        @Override
+        protected int rank() {
+            switch (this.relation.relation()) {
+                case EQ:
+                    return 0;
+                case IN:
+                    return 1;
+                case GT:
+                case GTE:
+                case LT:
+                case LTE:
+                    return 2;
+                case NEQ:
+                case NOT_IN:
+                    return 3;
+                default:
+                    return 4;
+            }
+        }
+    }
+
+    private static class UserpropLeaf extends RelationPredicate {
+
+        private final int slot;
+
+        public UserpropLeaf(UserpropRelation relation) {
+            super(relation);
+            this.slot = HugeElement.intFromId((Id) relation.key());
+        }
+
+        @Override
+        public final boolean test(HugeElement element) {
+            Object value = element.getPropertyValue(this.slot);
+            // Same as UserpropRelation.test(), see fix #611
+            return value != null && this.testValue(value);
+        }
+
+        protected boolean testValue(Object value) {
+            return this.relation.test(value);
+        }
+    }
+
+    private static final class CompareLeaf extends UserpropLeaf {
+
+        private final RelationType type;
+        private final boolean integral;
+        private final boolean date;
+        private final Class<?> clazz;
+        private final long longValue;
+        private final double doubleValue;
+
+        public CompareLeaf(UserpropRelation relation) {
+            super(relation);
+            Object value = relation.value();
+            this.type = relation.relation();
+            this.clazz = value.getClass();
+            this.integral = isIntegral(value);
+            this.date = value instanceof Date;
+            if (this.date) {
+                this.longValue = ((Date) value).getTime();
+                this.doubleValue = 0D;
+            } else {
+                this.longValue = ((Number) value).longValue();
+                this.doubleValue = ((Number) value).doubleValue();
+            }
+        }
+
+        @Override
+        protected boolean testValue(Object value) {
+            int cmp;
+            if (this.integral && isIntegral(value)) {
+                cmp = Long.compare(((Number) value).longValue(),
+                                   this.longValue);
+            } else if (this.date && value.getClass() == Date.class) {
+                cmp = Long.compare(((Date) value).getTime(), this.longValue);
+            } else if (!this.integral && !this.date &&
+                       value.getClass() == this.clazz) {
+                // Float compared as double keeps the order of Float.compare
+                cmp = Double.compare(((Number) value).doubleValue(),
+                                     this.doubleValue);
+            } else {
+                // The mixed types are compared as BigDecimal
+                return super.testValue(value);
+            }
+            switch (this.type) {
+                case EQ:
+                    return cmp == 0;
+                case NEQ:
+                    return cmp != 0;
+                case GT:
+                    return cmp > 0;
+                case GTE:
+                    return cmp >= 0;
+                case LT:
+                    return cmp < 0;
+                case LTE:
+                    return cmp <= 0;
+                default:
+                    throw new AssertionError(String.format(
+                              "Unsupported relation '%s'", this.type));
+            }
+        }
+    }
+
+    private static final class StringEqualLeaf extends UserpropLeaf {
+
+        private final String expected;
+
+        public StringEqualLeaf(UserpropRelation relation) {
+            super(relation);
+            this.expected = (String) relation.value();
+        }
+
+        @Override
+        protected boolean testValue(Object value) {
+            if (value instanceof String) {
+                return this.expected.equals(value);
+            }
+            return super.testValue(value);
+        }
+    }
+
+    private static final class InSetLeaf extends UserpropLeaf {
+
+        private final boolean in;
+        private final Set<Object> values;
+
+        public InSetLeaf(UserpropRelation relation) {
+            super(relation);
+            this.in = relation.relation() == RelationType.IN;
+            this.values = new HashSet<>((Collection<?>) relation.value());
+        }
+
+        @Override
+        protected boolean testValue(Object value) {
+            return this.values.contains(value) == this.in;
+        }
+    }
+}
@@ -90,6 +90,9 @@ public class ConditionQuery extends IdQuery {
     private OptimizedType optimizedType = OptimizedType.NONE;
     private ResultsFilter resultsFilter = null;
     private Element2IndexValueMap element2IndexValueMap = null;
+    // Compiled from conditions lazily, it's shared by the copied queries
+    private transient ConditionPredicate predicate = null;
+    private transient List<Condition> predicateConditions = null;
 
     public ConditionQuery(HugeType resultType) {
         super(resultType);
@@ -626,6 +629,10 @@ public class ConditionQuery extends IdQuery {
             return this.resultsFilter.test(element);
         }
 
+        if (this.element2IndexValueMap == null) {
+            return this.predicate().test(element);
+        }
+
         /*
          * NOTE: seems need to keep call checkRangeIndex() for each condition,
          * so don't break early even if test() return false.
@@ -645,6 +652,35 @@ public class ConditionQuery extends IdQuery {
         return valid;
     }
 
+    private ConditionPredicate predicate() {
+        ConditionPredicate predicate = this.predicate;
+        if (predicate == null || !this.predicateCompiledFrom(this.conditions)) {
+            // Recompile if the conditions are changed
+            List<Condition> conditions = ImmutableList.copyOf(this.conditions);
+            predicate = ConditionPredicate.compile(conditions);
+            this.predicateConditions = conditions;
+            this.predicate = predicate;
+        }
+        return predicate;
+    }
+
+    /**
+     * The conditions are compared by reference since a Relation may be
+     * updated after copied
+     */
+    private boolean predicateCompiledFrom(List<Condition> conditions) {
+        List<Condition> compiled = this.predicateConditions;
+        if (compiled == null || compiled.size() != conditions.size()) {
+            return false;
+        }
+        for (int i = 0; i < conditions.size(); i++) {
+            if (compiled.get(i) != conditions.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public void checkFlattened() {
         E.checkState(this.isFlattened(),
                      "Query has none-flatten condition: %s", this);
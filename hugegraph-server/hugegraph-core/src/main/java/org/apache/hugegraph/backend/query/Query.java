@@ -19,12 +19,14 @@ package org.apache.hugegraph.backend.query;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 
 import org.apache.hugegraph.backend.BackendException;
 import org.apache.hugegraph.backend.id.Id;
+import org.apache.hugegraph.backend.id.IdGenerator;
 import org.apache.hugegraph.backend.query.Aggregate.AggregateFunc;
 import org.apache.hugegraph.exception.LimitExceedException;
 import org.apache.hugegraph.structure.HugeElement;
@@ -55,6 +57,13 @@ public class Query implements Cloneable {
     protected static final Query NONE = new Query(HugeType.UNKNOWN);
 
     private static final Set<Id> EMPTY_OLAP_PKS = ImmutableSet.of();
+    private static final List<Id> EMPTY_SELECTS = ImmutableList.of();
+
+    /*
+     * No property key is allocated with id 0, select it alone means that
+     * none of the properties is needed, like `g.V().outE().id()`
+     */
+    public static final Id NO_PROPERTIES = IdGenerator.ZERO;
 
     private HugeType resultType;
     private Map<HugeKeys, Order> orders;
@@ -72,6 +81,13 @@ public class Query implements Cloneable {
     private boolean withProperties;
     private OrderType orderType;
     private Set<Id> olapPks;
+    /*
+     * Property keys to be returned by the backend, empty means all of them.
+     * It's pushed down with the query to let the backend skip the unused
+     * properties of each element, note the field name must be kept the same
+     * as the one of the store-side query.
+     */
+    private List<Id> selects;
 
     private Aggregate aggregate;
 
@@ -106,6 +122,7 @@ public class Query implements Cloneable {
         this.showExpired = false;
         this.olap = false;
         this.olapPks = EMPTY_OLAP_PKS;
+        this.selects = EMPTY_SELECTS;
     }
 
     public void copyBasic(Query query) {
@@ -122,6 +139,7 @@ public class Query implements Cloneable {
         this.aggregate = query.aggregate();
         this.showExpired = query.showExpired();
         this.olap = query.olap();
+        this.selects = query.selects;
         if (query.orders != null) {
             this.orders(query.orders);
         }
@@ -416,6 +434,30 @@ public class Query implements Cloneable {
         return this.olapPks;
     }
 
+    public void select(Id pkey) {
+        if (this.selects.contains(pkey)) {
+            return;
+        }
+        // Copy on write, the list may be shared with a cloned query
+        List<Id> selects = InsertionOrderUtil.newList(this.selects);
+        selects.add(pkey);
+        this.selects = selects;
+    }
+
+    public void selects(Collection<Id> pkeys) {
+        for (Id pkey : pkeys) {
+            this.select(pkey);
+        }
+    }
+
+    public List<Id> selects() {
+        return Collections.unmodifiableList(this.selects);
+    }
+
+    public void resetSelects() {
+        this.selects = EMPTY_SELECTS;
+    }
+
     public long capacity() {
         return this.capacity;
     }
@@ -555,6 +597,7 @@ public class Query implements Cloneable {
                Objects.equals(this.page, other.page) &&
                this.ids().equals(other.ids()) &&
                this.conditions().equals(other.conditions()) &&
+               this.selects.equals(other.selects) &&
                this.withProperties == other.withProperties;
     }
 
@@ -567,6 +610,7 @@ public class Query implements Cloneable {
                Objects.hashCode(this.page) ^
                this.ids().hashCode() ^
                this.conditions().hashCode() ^
+               this.selects.hashCode() ^
                Boolean.hashCode(this.withProperties);
     }
 
@@ -585,6 +629,9 @@ public class Query implements Cloneable {
         if (!this.orders().isEmpty()) {
             pairs.put("order by", this.orders());
         }
+        if (!this.selects.isEmpty()) {
+            pairs.put("select", this.selects);
+        }
 
         StringBuilder sb = new StringBuilder(128);
         sb.append("`Query ");
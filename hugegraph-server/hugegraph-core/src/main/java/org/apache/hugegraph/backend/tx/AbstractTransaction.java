@@ -36,6 +36,7 @@ import org.apache.hugegraph.backend.store.BackendFeatures;
 import org.apache.hugegraph.backend.store.BackendMutation;
 import org.apache.hugegraph.backend.store.BackendStore;
 import org.apache.hugegraph.exception.NotFoundException;
+import org.apache.hugegraph.perf.PerfSampler;
 import org.apache.hugegraph.perf.PerfUtil.Watched;
 import org.apache.hugegraph.schema.PropertyKey;
 import org.apache.hugegraph.type.HugeType;
@@ -44,6 +45,7 @@ import org.apache.hugegraph.type.define.CollectionType;
 import org.apache.hugegraph.type.define.GraphMode;
 import org.apache.hugegraph.util.E;
 import org.apache.hugegraph.util.Log;
+import org.apache.hugegraph.util.PerfOperations;
 import org.apache.hugegraph.util.collection.IdSet;
 import org.slf4j.Logger;
 
@@ -158,7 +160,12 @@ public abstract class AbstractTransaction implements Transaction {
         this.beforeRead();
         try {
             this.injectOlapPkIfNeeded(squery);
-            return new QueryResults<>(this.store.query(squery), query);
+            long start = PerfSampler.start();
+            try {
+                return new QueryResults<>(this.store.query(squery), query);
+            } finally {
+                PerfSampler.stop(PerfOperations.BACKEND_QUERY, start);
+            }
         } finally {
             this.afterRead(); // TODO: not complete the iteration currently
         }
@@ -313,11 +320,13 @@ public abstract class AbstractTransaction implements Transaction {
         this.committing2Backend = true;
 
         // If an exception occurred, catch in the upper layer and rollback
+        long start = PerfSampler.start();
         this.store.beginTx();
         for (BackendMutation mutation : mutations) {
             this.store.mutate(mutation);
         }
         this.store.commitTx();
+        PerfSampler.stop(PerfOperations.COMMIT, start);
 
         this.committing2Backend = false;
     }
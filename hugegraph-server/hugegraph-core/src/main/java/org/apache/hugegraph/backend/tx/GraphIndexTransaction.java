@@ -66,6 +66,7 @@ import org.apache.hugegraph.exception.NotSupportException;
 import org.apache.hugegraph.iterator.Metadatable;
 import org.apache.hugegraph.job.EphemeralJob;
 import org.apache.hugegraph.job.system.DeleteExpiredJob;
+import org.apache.hugegraph.perf.PerfSampler;
 import org.apache.hugegraph.perf.PerfUtil.Watched;
 import org.apache.hugegraph.schema.EdgeLabel;
 import org.apache.hugegraph.schema.IndexLabel;
@@ -88,6 +89,7 @@ import org.apache.hugegraph.util.InsertionOrderUtil;
 import org.apache.hugegraph.util.LockUtil;
 import org.apache.hugegraph.util.LongEncoding;
 import org.apache.hugegraph.util.NumericUtil;
+import org.apache.hugegraph.util.PerfOperations;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.util.CloseableIterator;
@@ -381,6 +383,15 @@ public class GraphIndexTransaction extends AbstractTransaction {
      */
     @Watched(prefix = "index")
     public IdHolderList queryIndex(ConditionQuery query) {
+        long start = PerfSampler.start();
+        try {
+            return this.doQueryIndex(query);
+        } finally {
+            PerfSampler.stop(PerfOperations.INDEX_LOOKUP, start);
+        }
+    }
+
+    private IdHolderList doQueryIndex(ConditionQuery query) {
         // Index query must have been flattened in Graph tx
         query.checkFlattened();
 
@@ -21,6 +21,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -57,6 +58,7 @@ import org.apache.hugegraph.backend.query.QueryResults;
 import org.apache.hugegraph.backend.store.BackendEntry;
 import org.apache.hugegraph.backend.store.BackendMutation;
 import org.apache.hugegraph.backend.store.BackendStore;
+import org.apache.hugegraph.backend.store.Shard;
 import org.apache.hugegraph.config.CoreOptions;
 import org.apache.hugegraph.config.HugeConfig;
 import org.apache.hugegraph.exception.LimitExceedException;
@@ -69,6 +71,7 @@ import org.apache.hugegraph.iterator.LimitIterator;
 import org.apache.hugegraph.iterator.ListIterator;
 import org.apache.hugegraph.iterator.MapperIterator;
 import org.apache.hugegraph.job.system.DeleteExpiredJob;
+import org.apache.hugegraph.perf.PerfSampler;
 import org.apache.hugegraph.perf.PerfUtil.Watched;
 import org.apache.hugegraph.schema.EdgeLabel;
 import org.apache.hugegraph.schema.IndexLabel;
@@ -89,9 +92,11 @@ import org.apache.hugegraph.type.define.Action;
 import org.apache.hugegraph.type.define.Directions;
 import org.apache.hugegraph.type.define.HugeKeys;
 import org.apache.hugegraph.type.define.IdStrategy;
+import org.apache.hugegraph.type.define.WriteType;
 import org.apache.hugegraph.util.E;
 import org.apache.hugegraph.util.InsertionOrderUtil;
 import org.apache.hugegraph.util.LockUtil;
+import org.apache.hugegraph.util.PerfOperations;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Graph;
@@ -102,6 +107,7 @@ import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterators;
+import com.google.common.util.concurrent.RateLimiter;
 
 import jakarta.ws.rs.ForbiddenException;
 
@@ -306,6 +312,7 @@ public class GraphTransaction extends IndexableTransaction {
     @Watched(prefix = "tx")
     @Override
     protected BackendMutation prepareCommit() {
+        long start = PerfSampler.start();
         // Serialize and add updates into super.deletions
         if (!this.removedVertices.isEmpty() || !this.removedEdges.isEmpty()) {
             this.prepareDeletions(this.removedVertices, this.removedEdges);
@@ -319,6 +326,7 @@ public class GraphTransaction extends IndexableTransaction {
         if (!this.addedVertices.isEmpty() || !this.addedEdges.isEmpty()) {
             this.prepareAdditions(this.addedVertices, this.addedEdges);
         }
+        PerfSampler.stop(PerfOperations.SERIALIZE, start);
 
         return this.mutation();
     }
@@ -2286,35 +2294,122 @@ public class GraphTransaction extends IndexableTransaction {
             }
         } else {
             // Not support label index, query all and filter by label
-            if (query.paging()) {
-                query.limit(this.pageSize);
-            }
-            String page = null;
-            do {
-                Iterator<T> iter = fetcher.apply(query);
-                try {
-                    while (iter.hasNext()) {
-                        T e = iter.next();
-                        SchemaLabel elemLabel = ((HugeElement) e).schemaLabel();
-                        if (label.equals(elemLabel)) {
-                            consumer.accept(e);
-                            /*
-                             * Commit per batch to avoid too much data in a single
-                             * commit.
-                             */
-                            this.commitIfGtSize(GraphTransaction.COMMIT_BATCH);
-                        }
-                    }
-                    // Commit changes of every page before next page query
-                    this.commit();
-                    if (query.paging()) {
-                        page = PageInfo.pageState(iter).toString();
-                        query.page(page);
+            this.traverseByPage(label, query, fetcher, consumer);
+        }
+    }
+
+    public void traverseVerticesByShard(VertexLabel label, Shard shard,
+                                        Consumer<Vertex> consumer,
+                                        boolean deleting) {
+        this.traverseByShard(label, shard, this::queryVertices,
+                             consumer, deleting);
+    }
+
+    public void traverseEdgesByShard(EdgeLabel label, Shard shard,
+                                     Consumer<Edge> consumer,
+                                     boolean deleting) {
+        this.traverseByShard(label, shard, this::queryEdges,
+                             consumer, deleting);
+    }
+
+    private <T> void traverseByShard(SchemaLabel label, Shard shard,
+                                     Function<Query, Iterator<T>> fetcher,
+                                     Consumer<T> consumer, boolean deleting) {
+        // Scan the OUT edges only, to visit each edge once
+        HugeType type = label.type() == HugeType.VERTEX_LABEL ?
+                        HugeType.VERTEX : HugeType.EDGE_OUT;
+        ConditionQuery query = new ConditionQuery(type);
+        query.scan(shard.start(), shard.end());
+        query.capacity(Query.NO_CAPACITY);
+        query.limit(Query.NO_LIMIT);
+        if (this.store().features().supportsQueryByPage()) {
+            query.page(PageInfo.PAGE_NONE);
+        }
+        if (label.hidden()) {
+            query.showHidden(true);
+        }
+        query.showDeleting(deleting);
+        query.showExpired(deleting);
+
+        // The shard contains elements of all labels, filter by label
+        this.traverseByPage(label, query, fetcher, consumer);
+    }
+
+    private <T> void traverseByPage(SchemaLabel label, Query query,
+                                    Function<Query, Iterator<T>> fetcher,
+                                    Consumer<T> consumer) {
+        if (query.paging()) {
+            query.limit(this.pageSize);
+        }
+        String page = null;
+        do {
+            Iterator<T> iter = fetcher.apply(query);
+            try {
+                while (iter.hasNext()) {
+                    T e = iter.next();
+                    SchemaLabel elemLabel = ((HugeElement) e).schemaLabel();
+                    if (label.equals(elemLabel)) {
+                        consumer.accept(e);
+                        /*
+                         * Commit per batch to avoid too much data in a single
+                         * commit.
+                         */
+                        this.commitIfGtSize(GraphTransaction.COMMIT_BATCH);
                     }
-                } finally {
-                    CloseableIterator.closeIterator(iter);
                 }
-            } while (page != null);
+                // Commit changes of every page before next page query
+                this.commit();
+                if (query.paging()) {
+                    page = PageInfo.pageState(iter).toString();
+                    query.page(page);
+                }
+            } finally {
+                CloseableIterator.closeIterator(iter);
+            }
+        } while (page != null);
+    }
+
+    /**
+     * Write the values of an olap property key into its olap table in a
+     * batch, which bypasses the vertex check, the index update and the tx
+     * buffer since an OLAP_COMMON property key has no index. The entries
+     * are sorted by vertex id, so a large batch is written in key order.
+     * @param values The property values of vertices to write
+     */
+    @Watched(prefix = "graph")
+    public void writeOlapProperties(PropertyKey pkey, Map<Id, Object> values) {
+        this.checkOwnerThread();
+        E.checkArgument(pkey.writeType() == WriteType.OLAP_COMMON,
+                        "Can't write olap property key '%s' with write " +
+                        "type '%s' in bulk", pkey.name(), pkey.writeType());
+        E.checkState(!this.hasUpdate(),
+                     "Can't write olap properties with uncommitted changes");
+        if (values.isEmpty()) {
+            return;
+        }
+
+        List<BackendEntry> entries = new ArrayList<>(values.size());
+        for (Map.Entry<Id, Object> e : values.entrySet()) {
+            HugeVertex vertex = HugeVertex.create(this, e.getKey(),
+                                                  VertexLabel.OLAP_VL);
+            vertex.addProperty(pkey, pkey.validValueOrThrow(e.getValue()));
+            entries.add(this.serializer.writeVertex(vertex));
+        }
+        entries.sort(Comparator.comparing(BackendEntry::id));
+        BackendMutation mutation = new BackendMutation(entries.size());
+        for (BackendEntry entry : entries) {
+            mutation.add(entry, Action.INSERT);
+        }
+
+        RateLimiter rateLimiter = this.params().writeRateLimiter();
+        if (rateLimiter != null) {
+            rateLimiter.acquire(entries.size());
+        }
+        try {
+            this.commitMutation2Backend(mutation);
+        } catch (Throwable e) {
+            this.rollback();
+            throw e;
         }
     }
 
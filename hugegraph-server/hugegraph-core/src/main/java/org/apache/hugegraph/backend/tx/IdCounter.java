@@ -17,32 +17,25 @@
 
 package org.apache.hugegraph.backend.tx;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicLong;
-
 import org.apache.hugegraph.backend.BackendException;
 import org.apache.hugegraph.backend.id.Id;
 import org.apache.hugegraph.backend.id.IdGenerator;
+import org.apache.hugegraph.pd.client.IdAllocator;
 import org.apache.hugegraph.pd.client.PDClient;
-import org.apache.hugegraph.pd.grpc.Pdpb;
-import org.apache.hugegraph.store.term.HgPair;
 import org.apache.hugegraph.type.HugeType;
 import org.apache.hugegraph.util.E;
 
 public class IdCounter {
 
-    private static final int TIMES = 10000;
-    private static final int DELTA = 10000;
     private static final String DELIMITER = "/";
-    private static final Map<String, HgPair<AtomicLong, AtomicLong>> ids =
-        new ConcurrentHashMap<>();
     private final PDClient pdClient;
     private final String graphName;
+    private final IdAllocator allocator;
 
     public IdCounter(PDClient pdClient, String graphName) {
         this.graphName = graphName;
         this.pdClient = pdClient;
+        this.allocator = pdClient.getIdAllocator();
     }
 
     public Id nextId(HugeType type) {
@@ -57,8 +50,7 @@ public class IdCounter {
         if (current >= lowest) {
             return;
         }
-        long increment = lowest - current;
-        this.increaseCounter(type, increment);
+        this.increaseCounter(type, lowest);
     }
 
     public long getCounter(HugeType type) {
@@ -67,24 +59,10 @@ public class IdCounter {
 
     public synchronized void increaseCounter(HugeType type, long lowest) {
         String key = toKey(this.graphName, type);
-        getCounterFromPd(type);
-        HgPair<AtomicLong, AtomicLong> idPair = ids.get(key);
-        AtomicLong currentId = idPair.getKey();
-        AtomicLong maxId = idPair.getValue();
-        if (currentId.longValue() >= lowest) {
-            return;
-        }
-        if (maxId.longValue() >= lowest) {
-            currentId.set(lowest);
-            return;
-        }
-        synchronized (ids) {
-            try {
-                this.pdClient.getIdByKey(key, (int) (lowest - maxId.longValue()));
-                ids.remove(key);
-            } catch (Exception e) {
-                throw new BackendException(e);
-            }
+        try {
+            this.allocator.skipTo(key, lowest);
+        } catch (Exception e) {
+            throw new BackendException(e);
         }
     }
 
@@ -95,48 +73,12 @@ public class IdCounter {
     }
 
     public long getCounterFromPd(HugeType type) {
-        AtomicLong currentId;
-        AtomicLong maxId;
-        HgPair<AtomicLong, AtomicLong> idPair;
         String key = toKey(this.graphName, type);
-        if ((idPair = ids.get(key)) == null) {
-            synchronized (ids) {
-                if ((idPair = ids.get(key)) == null) {
-                    try {
-                        currentId = new AtomicLong(0);
-                        maxId = new AtomicLong(0);
-                        idPair = new HgPair<>(currentId, maxId);
-                        ids.put(key, idPair);
-                    } catch (Exception e) {
-                        throw new BackendException(String.format(
-                                "Failed to get the ID from pd,%s", e));
-                    }
-                }
-            }
-        }
-        currentId = idPair.getKey();
-        maxId = idPair.getValue();
-        for (int i = 0; i < TIMES; i++) {
-            synchronized (currentId) {
-                if ((currentId.incrementAndGet()) <= maxId.longValue()) {
-                    return currentId.longValue();
-                }
-                if (currentId.longValue() > maxId.longValue()) {
-                    try {
-                        Pdpb.GetIdResponse idByKey = pdClient.getIdByKey(key, DELTA);
-                        idPair.getValue().getAndSet(idByKey.getId() +
-                                                    idByKey.getDelta());
-                        idPair.getKey().getAndSet(idByKey.getId());
-                    } catch (Exception e) {
-                        throw new BackendException(String.format(
-                                "Failed to get the ID from pd,%s", e));
-                    }
-                }
-            }
+        try {
+            return this.allocator.nextId(key);
+        } catch (Exception e) {
+            throw new BackendException(String.format(
+                    "Failed to get the ID from pd,%s", e));
         }
-        E.checkArgument(false,
-                        "Having made too many attempts to get the" +
-                        " ID for type '%s'", type.name());
-        return 0L;
     }
 }
@@ -276,6 +276,17 @@ public class CoreOptions extends OptionHolder {
                     rangeInt(0, Integer.MAX_VALUE),
                     0
             );
+    public static final ConfigOption<Integer> EVENT_LANE_CAPACITY =
+            new ConfigOption<>(
+                    "event.lane_capacity",
+                    "The max pending events of each event name of the graph " +
+                    "event hubs, the events of the same name are handled in " +
+                    "order and the duplicate pending ones are coalesced, " +
+                    "the notifiers are blocked when the lane is full, " +
+                    "0 means handling the events concurrently without order.",
+                    rangeInt(0, Integer.MAX_VALUE),
+                    0
+            );
     public static final ConfigOption<Long> TASK_SCHEDULE_PERIOD =
             new ConfigOption<>(
                     "task.schedule_period",
@@ -306,6 +317,34 @@ public class CoreOptions extends OptionHolder {
                     rangeInt(0L, Bytes.GB),
                     16 * Bytes.MB
             );
+    public static final ConfigOption<Integer> TASK_REBUILD_INDEX_WORKERS =
+            new ConfigOption<>(
+                    "task.rebuild_index_workers",
+                    "The number of threads to rebuild index by scanning " +
+                    "shards in parallel, only works for the labels without " +
+                    "label index on backends which support scanning by " +
+                    "key range, 1 means rebuilding by a single thread.",
+                    rangeInt(1, 256),
+                    1
+            );
+    public static final ConfigOption<Long> TASK_REBUILD_INDEX_SHARD_SIZE =
+            new ConfigOption<>(
+                    "task.rebuild_index_shard_size",
+                    "The estimated size in bytes of each shard to scan " +
+                    "when rebuilding index in parallel.",
+                    rangeInt(Bytes.MB, Long.MAX_VALUE),
+                    256 * Bytes.MB
+            );
+    public static final ConfigOption<Long> TASK_CHECKPOINT_INTERVAL =
+            new ConfigOption<>(
+                    "task.checkpoint_interval",
+                    "The interval in seconds to save the checkpoint of " +
+                    "long-running algorithm jobs, the job restored after " +
+                    "restarting will resume from the last checkpoint, " +
+                    "0 means disabling checkpoint.",
+                    rangeInt(0L, Long.MAX_VALUE),
+                    60L
+            );
     public static final ConfigOption<Integer> TASK_TTL_DELETE_BATCH =
             new ConfigOption<>(
                     "task.ttl_delete_batch",
@@ -625,13 +664,6 @@ public class CoreOptions extends OptionHolder {
                     disallowEmpty(),
                     "smart"
             );
-    public static final ConfigOption<String> COMPUTER_CONFIG =
-            new ConfigOption<>(
-                    "computer.config",
-                    "The config file path of computer job.",
-                    disallowEmpty(),
-                    "./conf/computer.yaml"
-            );
     public static final ConfigOption<String> K8S_OPERATOR_TEMPLATE =
             new ConfigOption<>(
                     "k8s.operator_template",
@@ -660,7 +692,8 @@ public class CoreOptions extends OptionHolder {
     );
     public static final ConfigOption<Long> MAX_MEMORY_CAPACITY = new ConfigOption<>(
             "memory.max_capacity",
-            "The maximum memory capacity that can be managed for all queries in HugeGraph.",
+            "The maximum memory capacity that can be managed for all queries and " +
+            "computer jobs in HugeGraph.",
             nonNegativeInt(),
             Bytes.GB
     );
@@ -28,6 +28,8 @@ public class AlgorithmJob extends UserJob<Object> {
 
     public static final String TASK_TYPE = "algorithm";
 
+    private static final String KEY_CHECKPOINT = "checkpoint";
+
     public static boolean check(String name, Map<String, Object> parameters) {
         Algorithm algorithm = AlgorithmPool.instance().find(name);
         if (algorithm == null) {
@@ -44,10 +46,7 @@ public class AlgorithmJob extends UserJob<Object> {
 
     @Override
     public Object execute() throws Exception {
-        String input = this.task().input();
-        E.checkArgumentNotNull(input, "The input can't be null");
-        @SuppressWarnings("unchecked")
-        Map<String, Object> map = JsonUtil.fromJson(input, Map.class);
+        Map<String, Object> map = this.input();
 
         Object value = map.get("algorithm");
         E.checkArgument(value instanceof String,
@@ -66,4 +65,33 @@ public class AlgorithmJob extends UserJob<Object> {
                         "There is no algorithm named '%s'", name);
         return algorithm.call(this, parameters);
     }
+
+    /**
+     * Get the checkpoint saved by the last run of this job, the job restored
+     * after restarting or retried by another server can resume from it
+     * @return the checkpoint state, or null if not saved yet
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> checkpoint() {
+        Object value = this.input().get(KEY_CHECKPOINT);
+        return value instanceof Map ? (Map<String, Object>) value : null;
+    }
+
+    /**
+     * Save the checkpoint state into the task input and persist the task
+     */
+    public void checkpoint(Map<String, Object> checkpoint) {
+        Map<String, Object> map = this.input();
+        map.put(KEY_CHECKPOINT, checkpoint);
+        this.task().input(JsonUtil.toJson(map));
+        this.save();
+    }
+
+    private Map<String, Object> input() {
+        String input = this.task().input();
+        E.checkArgumentNotNull(input, "The input can't be null");
+        @SuppressWarnings("unchecked")
+        Map<String, Object> map = JsonUtil.fromJson(input, Map.class);
+        return map;
+    }
 }
@@ -19,7 +19,6 @@ package org.apache.hugegraph.job;
 
 import java.util.Map;
 
-import org.apache.hugegraph.config.CoreOptions;
 import org.apache.hugegraph.job.computer.Computer;
 import org.apache.hugegraph.job.computer.ComputerPool;
 import org.apache.hugegraph.util.E;
@@ -38,10 +37,6 @@ public class ComputerJob extends SysJob<Object> {
         return true;
     }
 
-    public String computerConfigPath() {
-        return this.params().configuration().get(CoreOptions.COMPUTER_CONFIG);
-    }
-
     @Override
     public String type() {
         return COMPUTER;
@@ -17,45 +17,72 @@
 
 package org.apache.hugegraph.job.algorithm;
 
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 import org.apache.commons.lang3.StringEscapeUtils;
 import org.apache.commons.lang3.mutable.MutableLong;
 import org.apache.hugegraph.HugeException;
+import org.apache.hugegraph.HugeGraph;
 import org.apache.hugegraph.backend.id.Id;
+import org.apache.hugegraph.backend.page.PageInfo;
 import org.apache.hugegraph.backend.query.ConditionQuery;
 import org.apache.hugegraph.backend.query.Query;
+import org.apache.hugegraph.backend.store.Shard;
+import org.apache.hugegraph.config.CoreOptions;
 import org.apache.hugegraph.iterator.FilterIterator;
 import org.apache.hugegraph.iterator.FlatMapperIterator;
-import org.apache.hugegraph.job.UserJob;
+import org.apache.hugegraph.job.AlgorithmJob;
 import org.apache.hugegraph.job.algorithm.Consumers.StopExecution;
+import org.apache.hugegraph.schema.PropertyKey;
+import org.apache.hugegraph.schema.SchemaManager;
+import org.apache.hugegraph.schema.VertexLabel;
+import org.apache.hugegraph.structure.HugeEdge;
+import org.apache.hugegraph.task.TaskCallable;
+import org.apache.hugegraph.task.TaskManager.ContextCallable;
 import org.apache.hugegraph.testutil.Whitebox;
 import org.apache.hugegraph.traversal.algorithm.HugeTraverser;
 import org.apache.hugegraph.type.HugeType;
+import org.apache.hugegraph.type.define.DataType;
 import org.apache.hugegraph.type.define.Directions;
 import org.apache.hugegraph.type.define.HugeKeys;
+import org.apache.hugegraph.type.define.WriteType;
 import org.apache.hugegraph.util.Bytes;
-import org.apache.hugegraph.util.CollectionUtil;
 import org.apache.hugegraph.util.E;
+import org.apache.hugegraph.util.InsertionOrderUtil;
 import org.apache.hugegraph.util.JsonUtil;
 import org.apache.hugegraph.util.ParameterUtil;
+import org.apache.hugegraph.util.collection.TopK;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Property;
+import org.apache.tinkerpop.gremlin.structure.T;
 import org.apache.tinkerpop.gremlin.structure.Transaction;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.util.CloseableIterator;
 
 import com.google.common.base.Objects;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 
 @SuppressWarnings("deprecation") // StringEscapeUtils
 public abstract class AbstractAlgorithm implements Algorithm {
@@ -64,6 +91,9 @@ public abstract class AbstractAlgorithm implements Algorithm {
     public static final long MAX_QUERY_LIMIT = 100000000L; // about 100GB
     public static final long MAX_CAPACITY = MAX_QUERY_LIMIT;
     public static final int BATCH = 500;
+    public static final long SHARD_SIZE = 64L * Bytes.MB;
+    public static final long PAGE_SIZE = 10000L;
+    public static final int OLAP_BATCH = 10000;
 
     public static final String USER_DIR = System.getProperty("user.dir");
     public static final String EXPORT_PATH = USER_DIR + "/export";
@@ -275,21 +305,33 @@ public abstract class AbstractAlgorithm implements Algorithm {
     public static class AlgoTraverser extends HugeTraverser
             implements AutoCloseable {
 
-        private final UserJob<Object> job;
+        private static final String KEY_PAGE = "page";
+        private static final String KEY_PROGRESS = "progress";
+        private static final String KEY_STATE = "state";
+        private static final String KEY_VERTEX = "vertex";
+        private static final String KEY_SUM = "sum";
+        private static final String KEY_VERTEX_COUNT = "vertex_count";
+        private static final String KEY_EDGE_COUNT = "edge_count";
+
+        private final TaskCallable<Object> job;
         protected final ExecutorService executor;
         protected long progress;
+        private long checkpointTime;
 
-        public AlgoTraverser(UserJob<Object> job) {
+        public AlgoTraverser(TaskCallable<Object> job) {
             super(job.graph());
             this.job = job;
             this.executor = null;
+            this.checkpointTime = System.currentTimeMillis();
         }
 
-        protected AlgoTraverser(UserJob<Object> job, String name, int workers) {
+        protected AlgoTraverser(TaskCallable<Object> job, String name,
+                                int workers) {
             super(job.graph());
             this.job = job;
             String prefix = name + "-" + this.jobId();
             this.executor = Consumers.newThreadPool(prefix, workers);
+            this.checkpointTime = System.currentTimeMillis();
         }
 
         public void updateProgress(long progress) {
@@ -347,6 +389,193 @@ public abstract class AbstractAlgorithm implements Algorithm {
             return total;
         }
 
+        /**
+         * Traverse the source vertices page by page like traverse(), and
+         * save the page of the next vertices together with the state
+         * supplied by the caller at each checkpoint interval, the job
+         * restored after restarting (or retried by another server) will
+         * skip the traversed pages and resume from the last checkpoint.
+         * NOTE: the consumer must only accumulate into the state, and the
+         * state must be restored by the caller through checkpointState()
+         * before traversing. It's the same as traverse() if the checkpoint
+         * is disabled or the backend doesn't support paging.
+         */
+        protected long traverseWithCheckpoint(String sourceLabel,
+                                              String sourceCLabel,
+                                              Consumer<Vertex> consumer,
+                                              Supplier<Map<String, Object>>
+                                              state) {
+            if (!this.supportsCheckpoint()) {
+                return this.traverse(sourceLabel, sourceCLabel, consumer);
+            }
+
+            String page = PageInfo.PAGE_NONE;
+            Map<String, Object> checkpoint = this.checkpoint();
+            if (checkpoint != null) {
+                page = (String) checkpoint.get(KEY_PAGE);
+                this.progress = ((Number) checkpoint.get(KEY_PROGRESS))
+                                .longValue();
+                LOG.info("Resume traversing of job {} from progress {}",
+                         this.jobId(), this.progress);
+            }
+
+            long total = 0L;
+            while (page != null) {
+                Iterator<Vertex> vertices = this.vertices(sourceLabel, page,
+                                                          PAGE_SIZE);
+                Iterator<Vertex> iter = vertices;
+                if (sourceCLabel != null) {
+                    iter = this.filter(vertices, C_LABEL, sourceCLabel);
+                }
+
+                Consumers<Vertex> consumers = new Consumers<>(this.executor,
+                                                              consumer);
+                consumers.start("task-" + this.job.task().id());
+                try {
+                    while (iter.hasNext()) {
+                        this.updateProgress(++this.progress);
+                        total++;
+                        consumers.provide(iter.next());
+                    }
+                    page = PageInfo.pageState(vertices).toString();
+                } catch (StopExecution e) {
+                    page = null;
+                } catch (Throwable e) {
+                    throw Consumers.wrapException(e);
+                } finally {
+                    consumers.await();
+                    CloseableIterator.closeIterator(vertices);
+                }
+
+                Throwable e = consumers.exception();
+                if (e instanceof StopExecution) {
+                    break;
+                } else if (e != null) {
+                    throw Consumers.wrapException(e);
+                }
+                if (page != null) {
+                    String next = page;
+                    this.checkpoint(() -> {
+                        return ImmutableMap.of(KEY_PAGE, next,
+                                               KEY_PROGRESS, this.progress,
+                                               KEY_STATE, state.get());
+                    });
+                }
+            }
+            return total;
+        }
+
+        /**
+         * Sum up the function of each vertex of the CsrGraph like
+         * CsrGraph.sum(), by ranges of PAGE_SIZE vertices, and save the
+         * next vertex with the partial sum at each checkpoint interval,
+         * the job restored after restarting (or retried by another server)
+         * will skip the summed vertices if the graph loaded again has the
+         * same size as the one of the checkpoint.
+         * NOTE: the function must not have side effects, which are lost
+         * for the skipped vertices
+         */
+        protected double sumWithCheckpoint(CsrGraph graph,
+                                           IntToDoubleFunction function) {
+            int vertexCount = graph.vertexCount();
+            int from = 0;
+            double sum = 0d;
+            Map<String, Object> checkpoint = this.checkpoint();
+            if (checkpoint != null && checkpoint.containsKey(KEY_VERTEX)) {
+                Number vertices = (Number) checkpoint.get(KEY_VERTEX_COUNT);
+                Number edges = (Number) checkpoint.get(KEY_EDGE_COUNT);
+                if (vertices.intValue() == vertexCount &&
+                    edges.intValue() == graph.edgeCount()) {
+                    from = ((Number) checkpoint.get(KEY_VERTEX)).intValue();
+                    sum = ((Number) checkpoint.get(KEY_SUM)).doubleValue();
+                    this.progress += from;
+                    LOG.info("Resume summing of job {} from vertex {}/{}",
+                             this.jobId(), from, vertexCount);
+                } else {
+                    LOG.info("Ignore the checkpoint of job {} since the " +
+                             "graph has been changed", this.jobId());
+                }
+            }
+
+            while (from < vertexCount) {
+                int to = (int) Math.min(from + PAGE_SIZE, vertexCount);
+                sum += graph.sum(this.executor, from, to, function);
+                this.progress += to - from;
+                this.updateProgress(this.progress);
+                from = to;
+                if (from < vertexCount) {
+                    int next = from;
+                    double partial = sum;
+                    this.checkpoint(() -> {
+                        return ImmutableMap.of(KEY_VERTEX, next,
+                                               KEY_SUM, partial,
+                                               KEY_VERTEX_COUNT, vertexCount,
+                                               KEY_EDGE_COUNT,
+                                               graph.edgeCount());
+                    });
+                }
+            }
+            return sum;
+        }
+
+        /**
+         * Get the state saved by the last checkpoint of
+         * traverseWithCheckpoint()
+         * @return the state, or null if there is no checkpoint
+         */
+        @SuppressWarnings("unchecked")
+        protected Map<String, Object> checkpointState() {
+            Map<String, Object> checkpoint = this.checkpoint();
+            if (checkpoint == null) {
+                return null;
+            }
+            return (Map<String, Object>) checkpoint.get(KEY_STATE);
+        }
+
+        /**
+         * Get the checkpoint saved by the last run of the job
+         * @return the checkpoint, or null if not saved or unsupported
+         */
+        protected Map<String, Object> checkpoint() {
+            if (!this.supportsCheckpoint()) {
+                return null;
+            }
+            return ((AlgorithmJob) this.job).checkpoint();
+        }
+
+        /**
+         * Save the checkpoint supplied if the checkpoint interval elapsed
+         * since the last checkpoint
+         * @return true if saved, otherwise false
+         */
+        protected boolean checkpoint(Supplier<Map<String, Object>> checkpoint) {
+            if (!this.supportsCheckpoint()) {
+                return false;
+            }
+            long interval = this.graph().option(
+                            CoreOptions.TASK_CHECKPOINT_INTERVAL);
+            long now = System.currentTimeMillis();
+            if (now - this.checkpointTime < interval * 1000L) {
+                return false;
+            }
+            ((AlgorithmJob) this.job).checkpoint(checkpoint.get());
+            this.checkpointTime = now;
+            LOG.debug("Saved checkpoint of job {} at progress {}",
+                      this.jobId(), this.progress);
+            return true;
+        }
+
+        /**
+         * The checkpoint depends on the paging of backend to save the
+         * position of scanning, and only works for algorithm jobs
+         */
+        protected boolean supportsCheckpoint() {
+            return this.job instanceof AlgorithmJob &&
+                   this.graph().option(
+                   CoreOptions.TASK_CHECKPOINT_INTERVAL) > 0L &&
+                   this.graph().backendStoreFeatures().supportsQueryByPage();
+        }
+
         protected Iterator<Vertex> vertices() {
             return this.vertices(Query.NO_LIMIT);
         }
@@ -383,6 +612,22 @@ public abstract class AbstractAlgorithm implements Algorithm {
             return this.graph().vertices(query);
         }
 
+        protected Iterator<Vertex> vertices(Object label, String page,
+                                            long pageSize) {
+            Query query;
+            if (label == null) {
+                query = new Query(HugeType.VERTEX);
+            } else {
+                ConditionQuery cq = new ConditionQuery(HugeType.VERTEX);
+                cq.eq(HugeKeys.LABEL, this.getVertexLabelIdOrNull(label));
+                query = cq;
+            }
+            query.capacity(Query.NO_CAPACITY);
+            query.page(page);
+            query.limit(pageSize);
+            return this.graph().vertices(query);
+        }
+
         protected Iterator<Vertex> vertices(Iterator<Object> ids) {
             return new FlatMapperIterator<>(ids, id -> {
                 return this.graph().vertices(id);
@@ -428,6 +673,406 @@ public abstract class AbstractAlgorithm implements Algorithm {
             return this.graph().edges(query);
         }
 
+        protected Iterator<Edge> edges(Directions dir, String page,
+                                       long pageSize) {
+            HugeType type = dir == null ? HugeType.EDGE : dir.type();
+            Query query = new Query(type);
+            query.capacity(Query.NO_CAPACITY);
+            query.page(page);
+            query.limit(pageSize);
+            return this.graph().edges(query);
+        }
+
+        /**
+         * Load the topology into a CsrGraph, the adjacent vertices of each
+         * vertex are the vertices connected by edges in the direction
+         * @param dir       The direction of the adjacent vertices
+         * @param label     The edge label to load, or null to load all
+         * @param weightKey The property key of edge weight, or null to
+         *                  load without weight
+         * @param degree    The max number of adjacent vertices to load
+         *                  for each vertex
+         */
+        protected CsrGraph loadCsrGraph(Directions dir, String label,
+                                        String weightKey, long degree) {
+            return this.loadCsrGraph(null, dir, label, weightKey, degree);
+        }
+
+        /**
+         * Load the topology into a CsrGraph like loadCsrGraph(dir, label,
+         * weightKey, degree), but only with the vertices accepted by the
+         * filter, the edges connected to other vertices are ignored
+         * @param filter The vertex filter, or null to load all vertices
+         */
+        protected CsrGraph loadCsrGraph(Predicate<Vertex> filter,
+                                        Directions dir, String label,
+                                        String weightKey, long degree) {
+            E.checkArgument(dir != null, "The direction can't be null");
+            Id labelId = label == null ? null : this.getEdgeLabelIdOrNull(label);
+            CsrGraph.Builder builder = CsrGraph.builder(degree,
+                                                        weightKey != null);
+
+            List<List<Id>> shardVertices = new ArrayList<>();
+            this.<Vertex>scan(HugeType.VERTEX, () -> {
+                List<Id> vertices = new ArrayList<>();
+                synchronized (shardVertices) {
+                    shardVertices.add(vertices);
+                }
+                return vertex -> {
+                    if (filter == null || filter.test(vertex)) {
+                        vertices.add((Id) vertex.id());
+                        this.loaded(HugeType.VERTEX);
+                    }
+                };
+            });
+            for (List<Id> vertices : shardVertices) {
+                for (Id vertex : vertices) {
+                    builder.addVertex(vertex);
+                }
+            }
+
+            // Scan the OUT edges only, to visit each edge once
+            this.<HugeEdge>scan(HugeType.EDGE_OUT, () -> {
+                CsrGraph.EdgeBuffer buffer = builder.newEdgeBuffer();
+                return edge -> {
+                    if (labelId != null && !labelId.equals(edge.schemaLabel().id())) {
+                        return;
+                    }
+                    double weight = 1.0D;
+                    if (weightKey != null) {
+                        Property<Number> p = edge.property(weightKey);
+                        if (p.isPresent()) {
+                            weight = p.value().doubleValue();
+                        }
+                    }
+                    Id source = edge.ownerVertex().id();
+                    Id target = edge.otherVertex().id();
+                    if (dir != Directions.IN) {
+                        buffer.add(source, target, weight);
+                        this.loaded(HugeType.EDGE);
+                    }
+                    if (dir != Directions.OUT) {
+                        buffer.add(target, source, weight);
+                        this.loaded(HugeType.EDGE);
+                    }
+                };
+            });
+
+            CsrGraph graph = builder.build();
+            LOG.info("Loaded {} with direction {} for job {}",
+                     graph, dir, this.jobId());
+            return graph;
+        }
+
+        /**
+         * Called by the scanning threads of loadCsrGraph() after a vertex or
+         * an adjacent edge is loaded, like to account the memory while
+         * loading rather than counting by scanning once more
+         * @param type HugeType.VERTEX or HugeType.EDGE
+         */
+        protected void loaded(HugeType type) {
+            // Nothing to do by default
+        }
+
+        /**
+         * Scan all vertices or edges, by shards in parallel if the executor
+         * is available and the backend supports scanning by key range
+         * @param consumers Create a consumer for each shard, which is called
+         *                  by a single thread
+         */
+        @SuppressWarnings("unchecked")
+        protected <T> void scan(HugeType type,
+                                Supplier<Consumer<T>> consumers) {
+            assert type == HugeType.VERTEX || type == HugeType.EDGE_OUT;
+            List<Shard> shards = this.shards(type);
+            if (shards.size() <= 1) {
+                Query query = new Query(type);
+                query.capacity(Query.NO_CAPACITY);
+                query.limit(Query.NO_LIMIT);
+                this.consume((Iterator<T>) this.elements(query),
+                             consumers.get());
+                return;
+            }
+
+            List<Future<?>> futures = new ArrayList<>(shards.size());
+            for (Shard shard : shards) {
+                futures.add(this.executor.submit(new ContextCallable<>(() -> {
+                    ConditionQuery query = new ConditionQuery(type);
+                    query.scan(shard.start(), shard.end());
+                    query.capacity(Query.NO_CAPACITY);
+                    query.limit(Query.NO_LIMIT);
+                    try {
+                        this.consume((Iterator<T>) this.elements(query),
+                                     consumers.get());
+                    } finally {
+                        // Close the tx of the worker thread
+                        Transaction tx = this.graph().tx();
+                        if (tx.isOpen()) {
+                            tx.close();
+                        }
+                    }
+                    return null;
+                })));
+            }
+            try {
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } catch (InterruptedException e) {
+                futures.forEach(future -> future.cancel(true));
+                throw new HugeException("Interrupted while scanning %s", e, type);
+            } catch (ExecutionException e) {
+                futures.forEach(future -> future.cancel(true));
+                throw Consumers.wrapException(e.getCause());
+            }
+        }
+
+        /**
+         * Get the source vertices of the CsrGraph with the vertex label and
+         * the c-label, all vertices are the sources if both of them are null
+         */
+        protected BitSet sourceVertices(CsrGraph graph, String sourceLabel,
+                                        String sourceCLabel) {
+            BitSet sources = new BitSet(graph.vertexCount());
+            if (sourceLabel == null && sourceCLabel == null) {
+                sources.set(0, graph.vertexCount());
+                return sources;
+            }
+            Iterator<Vertex> vertices = this.vertices(sourceLabel, sourceCLabel,
+                                                      Query.NO_LIMIT);
+            try {
+                while (vertices.hasNext()) {
+                    int index = graph.index((Id) vertices.next().id());
+                    if (index >= 0) {
+                        sources.set(index);
+                    }
+                }
+            } finally {
+                CloseableIterator.closeIterator(vertices);
+            }
+            return sources;
+        }
+
+        /**
+         * Get the values of the vertices in descending order
+         * @param topN The max number of vertices to return, return the values
+         *             of all vertices without sorting if it's 0
+         */
+        protected Map<Id, Double> topValues(CsrGraph graph, BitSet vertices,
+                                            double[] values, long topN) {
+            if (topN > 0L || topN == NO_LIMIT) {
+                // Only the ids of the admitted vertices are got
+                TopK<Id> tops = new TopK<>(topN);
+                vertices.stream().forEach(vertex -> {
+                    if (tops.admits(values[vertex])) {
+                        tops.offer(graph.id(vertex), values[vertex]);
+                    }
+                });
+                return tops.toMap();
+            }
+            Map<Id, Double> results = new HashMap<>();
+            vertices.stream().forEach(vertex -> {
+                results.put(graph.id(vertex), values[vertex]);
+            });
+            return results;
+        }
+
+        /**
+         * Run the task by each worker of the executor, or by the current
+         * thread if the executor is null, and wait for all of them.
+         * The tasks should fetch their work from a shared queue or counter.
+         * @return The results of all tasks
+         */
+        protected <V> List<V> runByWorkers(Callable<V> task) {
+            if (this.executor == null) {
+                try {
+                    return ImmutableList.of(task.call());
+                } catch (Exception e) {
+                    throw Consumers.wrapException(e);
+                }
+            }
+            int workers = Consumers.THREADS;
+            if (this.executor instanceof ThreadPoolExecutor) {
+                workers = ((ThreadPoolExecutor) this.executor).getCorePoolSize();
+            }
+            List<Future<V>> futures = new ArrayList<>(workers);
+            for (int i = 0; i < workers; i++) {
+                futures.add(this.executor.submit(new ContextCallable<>(task)));
+            }
+            List<V> results = new ArrayList<>(workers);
+            try {
+                for (Future<V> future : futures) {
+                    results.add(future.get());
+                }
+            } catch (InterruptedException e) {
+                futures.forEach(future -> future.cancel(true));
+                throw new HugeException("Interrupted while running %s",
+                                        e, task);
+            } catch (ExecutionException e) {
+                futures.forEach(future -> future.cancel(true));
+                throw Consumers.wrapException(e.getCause());
+            }
+            return results;
+        }
+
+        /**
+         * Write the property of the vertices in the CsrGraph back to the
+         * backend like writeBackProperty(key, count, ids, values)
+         */
+        protected void writeBackProperty(CsrGraph graph, String key,
+                                         IntFunction<Object> values) {
+            this.writeBackProperty(key, graph.vertexCount(), graph::id, values);
+        }
+
+        /**
+         * Write the property of the vertices back to the backend. The values
+         * of an OLAP_COMMON property key are written into its olap table in
+         * bulk by the workers in parallel, otherwise the vertices are
+         * updated through the transaction in batches.
+         * @param count  The number of vertices
+         * @param ids    Get the id of each vertex by the index
+         * @param values Get the property value of each vertex by the index,
+         *               the vertex is skipped if the value is null
+         */
+        protected void writeBackProperty(String key, int count,
+                                         IntFunction<Id> ids,
+                                         IntFunction<Object> values) {
+            PropertyKey pkey = this.graph().propertyKey(key);
+            if (pkey.writeType() == WriteType.OLAP_COMMON) {
+                this.writeBackOlapProperty(pkey, count, ids, values);
+                return;
+            }
+
+            Map<Id, Object> batch = new HashMap<>();
+            for (int i = 0; i < count; i++) {
+                Object value = values.apply(i);
+                if (value == null) {
+                    continue;
+                }
+                if (pkey.olap()) {
+                    // The olap property key with index needs to update index
+                    this.graph().addVertex(T.id, ids.apply(i), key, value);
+                    this.updateProgress(++this.progress);
+                    this.commitIfNeeded();
+                    continue;
+                }
+                batch.put(ids.apply(i), value);
+                if (batch.size() >= BATCH) {
+                    this.writeBackProperty(key, batch);
+                }
+            }
+            this.writeBackProperty(key, batch);
+            this.graph().tx().commit();
+        }
+
+        /**
+         * Create the property key to write back the results if not exists,
+         * and append it to all vertex labels as a nullable key. Nothing is
+         * changed if it has been created as an olap property key, then the
+         * results are written into its olap table rather than the vertices.
+         */
+        protected void initResultProperty(String key, DataType dataType) {
+            HugeGraph graph = this.graph();
+            if (graph.existsPropertyKey(key) && graph.propertyKey(key).olap()) {
+                return;
+            }
+            SchemaManager schema = graph.schema();
+            schema.propertyKey(key).dataType(dataType).ifNotExist().create();
+            for (VertexLabel vl : schema.getVertexLabels()) {
+                schema.vertexLabel(vl.name()).properties(key)
+                      .nullableKeys(key).append();
+            }
+        }
+
+        private void writeBackOlapProperty(PropertyKey pkey, int count,
+                                           IntFunction<Id> ids,
+                                           IntFunction<Object> values) {
+            // Each worker takes the next range of vertices to write a batch
+            AtomicInteger cursor = new AtomicInteger(0);
+            List<Long> written = this.runByWorkers(() -> {
+                HugeGraph graph = this.graph();
+                Map<Id, Object> batch = new HashMap<>(OLAP_BATCH);
+                long total = 0L;
+                int start;
+                try {
+                    while ((start = cursor.getAndAdd(OLAP_BATCH)) < count) {
+                        int end = Math.min(start + OLAP_BATCH, count);
+                        for (int i = start; i < end; i++) {
+                            Object value = values.apply(i);
+                            if (value != null) {
+                                batch.put(ids.apply(i), value);
+                            }
+                        }
+                        graph.writeOlapProperties(pkey, batch);
+                        total += batch.size();
+                        batch.clear();
+                    }
+                } finally {
+                    if (this.executor != null) {
+                        // Close the tx of the worker thread
+                        Transaction tx = graph.tx();
+                        if (tx.isOpen()) {
+                            tx.close();
+                        }
+                    }
+                }
+                return total;
+            });
+            long total = 0L;
+            for (long size : written) {
+                total += size;
+            }
+            this.progress += total;
+            this.updateProgress(this.progress);
+            LOG.info("Written olap property '{}' of {} vertices for job {}",
+                     pkey.name(), total, this.jobId());
+        }
+
+        private void writeBackProperty(String key, Map<Id, Object> batch) {
+            if (batch.isEmpty()) {
+                return;
+            }
+            Iterator<Vertex> vertices = this.graph().vertices(
+                                        batch.keySet().toArray());
+            try {
+                while (vertices.hasNext()) {
+                    Vertex vertex = vertices.next();
+                    vertex.property(key, batch.get((Id) vertex.id()));
+                    this.updateProgress(++this.progress);
+                }
+            } finally {
+                CloseableIterator.closeIterator(vertices);
+            }
+            this.commitIfNeeded();
+            batch.clear();
+        }
+
+        private List<Shard> shards(HugeType type) {
+            if (this.executor == null ||
+                !this.graph().backendStoreFeatures().supportsScanKeyRange()) {
+                return ImmutableList.of();
+            }
+            return this.graph().metadata(type, "splits", SHARD_SIZE);
+        }
+
+        private Iterator<?> elements(Query query) {
+            if (query.resultType().isVertex()) {
+                return this.graph().vertices(query);
+            } else {
+                return this.graph().edges(query);
+            }
+        }
+
+        private <T> void consume(Iterator<T> elements, Consumer<T> consumer) {
+            try {
+                while (elements.hasNext()) {
+                    consumer.accept(elements.next());
+                }
+            } finally {
+                CloseableIterator.closeIterator(elements);
+            }
+        }
+
         protected void drop(GraphTraversal<?, ? extends Element> traversal) {
             this.execute(traversal, () -> {
                 while (traversal.hasNext()) {
@@ -477,57 +1122,31 @@ public abstract class AbstractAlgorithm implements Algorithm {
 
     public static final class TopMap<K> {
 
-        private final long topN;
-        private Map<K, MutableLong> tops;
+        // Keep the top n keys by a bounded heap, it's null if topN is 0
+        private final TopK<K> tops;
 
         public TopMap(long topN) {
-            this.topN = topN;
-            this.tops = new HashMap<>();
+            this.tops = topN == 0L ? null : new TopK<>(topN);
         }
 
         public int size() {
-            return this.tops.size();
-        }
-
-        public MutableLong get(K key) {
-            return this.tops.get(key);
-        }
-
-        public void add(K key, long value) {
-            MutableLong mlong = this.tops.get(key);
-            if (mlong == null) {
-                mlong = new MutableLong(value);
-                this.tops.put(key, mlong);
-            }
-            mlong.add(value);
+            return this.tops == null ? 0 : this.tops.size();
         }
 
         public void put(K key, long value) {
-            assert this.topN != 0L;
-            this.tops.put(key, new MutableLong(value));
-            // keep 2x buffer
-            if (this.tops.size() > this.topN * 2 &&
-                this.topN != HugeTraverser.NO_LIMIT) {
-                this.shrinkIfNeeded(this.topN);
-            }
+            assert this.tops != null;
+            this.tops.offer(key, value);
         }
 
         public Set<Map.Entry<K, MutableLong>> entrySet() {
-            if (this.tops.size() <= this.topN) {
-                this.tops = CollectionUtil.sortByValue(this.tops, false);
-            } else {
-                this.shrinkIfNeeded(this.topN);
-            }
-            return this.tops.entrySet();
-        }
-
-        private void shrinkIfNeeded(long limit) {
-            assert limit != 0L;
-            if (this.tops.size() >= limit &&
-                (limit > 0L || limit == HugeTraverser.NO_LIMIT)) {
-                // Just do sort if limit=NO_LIMIT, else do sort and shrink
-                this.tops = HugeTraverser.topN(this.tops, true, limit);
+            Map<K, MutableLong> results = InsertionOrderUtil.newMap();
+            if (this.tops != null) {
+                for (Map.Entry<K, Double> top : this.tops.toMap().entrySet()) {
+                    results.put(top.getKey(),
+                                new MutableLong(top.getValue().longValue()));
+                }
             }
+            return results.entrySet();
         }
     }
 
@@ -20,6 +20,8 @@ package org.apache.hugegraph.job.algorithm;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
+import org.apache.hugegraph.job.algorithm.cent.ApproxBetweennessCentralityAlgorithm;
+import org.apache.hugegraph.job.algorithm.cent.ApproxClosenessCentralityAlgorithm;
 import org.apache.hugegraph.job.algorithm.cent.BetweennessCentralityAlgorithm;
 import org.apache.hugegraph.job.algorithm.cent.BetweennessCentralityAlgorithmV2;
 import org.apache.hugegraph.job.algorithm.cent.ClosenessCentralityAlgorithm;
@@ -34,6 +36,7 @@ import org.apache.hugegraph.job.algorithm.comm.LouvainAlgorithm;
 import org.apache.hugegraph.job.algorithm.comm.LpaAlgorithm;
 import org.apache.hugegraph.job.algorithm.comm.TriangleCountAlgorithm;
 import org.apache.hugegraph.job.algorithm.comm.WeakConnectedComponent;
+import org.apache.hugegraph.job.algorithm.path.LandmarksAlgorithm;
 import org.apache.hugegraph.job.algorithm.path.RingsDetectAlgorithm;
 import org.apache.hugegraph.job.algorithm.rank.PageRankAlgorithm;
 import org.apache.hugegraph.job.algorithm.similarity.FusiformSimilarityAlgorithm;
@@ -70,6 +73,11 @@ public class AlgorithmPool {
         INSTANCE.register(new StressCentralityAlgorithmV2());
         INSTANCE.register(new BetweennessCentralityAlgorithmV2());
         INSTANCE.register(new ClosenessCentralityAlgorithmV2());
+
+        INSTANCE.register(new ApproxBetweennessCentralityAlgorithm());
+        INSTANCE.register(new ApproxClosenessCentralityAlgorithm());
+
+        INSTANCE.register(new LandmarksAlgorithm());
     }
 
     private final Map<String, Algorithm> algorithms;
@@ -165,6 +165,10 @@ public class Consumers<V> {
         }
     }
 
+    public Throwable exception() {
+        return this.exception;
+    }
+
     public static ExecutorService newThreadPool(String prefix, int workers) {
         if (workers == 0) {
             return null;
@@ -0,0 +1,623 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hugegraph.job.algorithm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.IntConsumer;
+import java.util.function.IntToDoubleFunction;
+
+import org.apache.hugegraph.HugeException;
+import org.apache.hugegraph.backend.id.Id;
+import org.apache.hugegraph.backend.id.IdGenerator;
+import org.apache.hugegraph.traversal.algorithm.HugeTraverser;
+import org.apache.hugegraph.util.E;
+import org.eclipse.collections.impl.map.mutable.primitive.IntDoubleHashMap;
+import org.eclipse.collections.impl.map.mutable.primitive.ObjectIntHashMap;
+
+/**
+ * CsrGraph is a read-only snapshot of the graph topology in the compressed
+ * sparse row format. The vertices are numbered by dense int indexes, and the
+ * adjacent vertices of vertex i are targets[offsets[i], offsets[i + 1]).
+ *
+ * It's loaded once by AlgoTraverser.loadCsrGraph(), so iterative algorithms
+ * can keep their state in primitive arrays indexed by vertex, and don't need
+ * to scan the edges from the backend for each iteration.
+ */
+public final class CsrGraph {
+
+    private static final int NOT_FOUND = -1;
+    // Split the vertices into more chunks than workers to balance the load
+    private static final int CHUNKS_PER_WORKER = 4;
+    private static final int MIN_CHUNK_SIZE = 1024;
+    // Gallop if the larger adjacency is larger than the smaller one by times
+    private static final int GALLOP_RATIO = 16;
+
+    private final Id[] ids;
+    private final ObjectIntHashMap<Id> indexes;
+    private final int[] offsets;
+    private final int[] targets;
+    private final double[] weights;
+
+    private CsrGraph(Id[] ids, ObjectIntHashMap<Id> indexes,
+                     int[] offsets, int[] targets, double[] weights) {
+        assert offsets.length == ids.length + 1;
+        assert weights == null || weights.length == targets.length;
+        this.ids = ids;
+        this.indexes = indexes;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    public int vertexCount() {
+        return this.ids.length;
+    }
+
+    public int edgeCount() {
+        return this.targets.length;
+    }
+
+    public Id id(int vertex) {
+        return this.ids[vertex];
+    }
+
+    /**
+     * Get the index of the vertex id
+     * @return The index, or -1 if the vertex doesn't exist in the snapshot
+     */
+    public int index(Id id) {
+        return this.indexes.getIfAbsent(id, NOT_FOUND);
+    }
+
+    public int degree(int vertex) {
+        return this.offsets[vertex + 1] - this.offsets[vertex];
+    }
+
+    /**
+     * The first edge of the vertex, the edges of the vertex are numbered
+     * from edgeStart(vertex) to edgeEnd(vertex) exclusively
+     */
+    public int edgeStart(int vertex) {
+        return this.offsets[vertex];
+    }
+
+    public int edgeEnd(int vertex) {
+        return this.offsets[vertex + 1];
+    }
+
+    public int target(int edge) {
+        return this.targets[edge];
+    }
+
+    public boolean weighted() {
+        return this.weights != null;
+    }
+
+    public double weight(int edge) {
+        return this.weights == null ? 1.0D : this.weights[edge];
+    }
+
+    /**
+     * Reverse the direction of all edges, like converting the OUT
+     * adjacency to the IN adjacency
+     */
+    public CsrGraph transpose() {
+        int vertexCount = this.vertexCount();
+        int[] offsets = new int[vertexCount + 1];
+        for (int target : this.targets) {
+            offsets[target + 1]++;
+        }
+        for (int i = 0; i < vertexCount; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+
+        int[] cursors = Arrays.copyOf(offsets, vertexCount);
+        int[] targets = new int[this.targets.length];
+        double[] weights = this.weights == null ?
+                           null : new double[this.weights.length];
+        for (int source = 0; source < vertexCount; source++) {
+            for (int e = this.offsets[source]; e < this.offsets[source + 1]; e++) {
+                int pos = cursors[this.targets[e]]++;
+                targets[pos] = source;
+                if (weights != null) {
+                    weights[pos] = this.weights[e];
+                }
+            }
+        }
+        return new CsrGraph(this.ids, this.indexes, offsets, targets, weights);
+    }
+
+    /**
+     * Apply the action to each vertex, the vertices are split into chunks
+     * and run by the executor in parallel, then wait for all of them.
+     * NOTE: the action of different vertices must be independent.
+     * @param executor The executor to run chunks, run in the current thread
+     *                 if it's null
+     */
+    public void forEach(ExecutorService executor, IntConsumer action) {
+        this.sum(executor, vertex -> {
+            action.accept(vertex);
+            return 0.0D;
+        });
+    }
+
+    /**
+     * Apply the function to each vertex in parallel like forEach(), and
+     * sum up the results of all vertices
+     */
+    public double sum(ExecutorService executor, IntToDoubleFunction function) {
+        return sum(executor, this.vertexCount(), function);
+    }
+
+    /**
+     * Apply the function to each vertex in [from, to) in parallel like
+     * sum(), and sum up the results of these vertices
+     */
+    public double sum(ExecutorService executor, int from, int to,
+                      IntToDoubleFunction function) {
+        E.checkArgument(0 <= from && from <= to && to <= this.vertexCount(),
+                        "Invalid vertex range [%s, %s) of %s vertices",
+                        from, to, this.vertexCount());
+        return sum(executor, to - from, i -> {
+            return function.applyAsDouble(from + i);
+        });
+    }
+
+    /**
+     * Contract the vertices of each group into a vertex, the contracted
+     * graph has a weighted edge between two groups with the total weight of
+     * the edges between their members, and the edges between the members of
+     * the same group are contracted into a self-loop of the group.
+     * The vertex ids of the contracted graph are the group indexes.
+     * @param groups     The group index of each vertex, or -1 if the vertex
+     *                   is excluded from the contracted graph
+     * @param groupCount The number of groups
+     */
+    public CsrGraph contract(ExecutorService executor,
+                             int[] groups, int groupCount) {
+        E.checkArgument(groups.length == this.vertexCount(),
+                        "The groups size must be equal to vertex count %s, " +
+                        "but got %s", this.vertexCount(), groups.length);
+        // Collect the members of each group
+        int[] memberOffsets = new int[groupCount + 1];
+        for (int group : groups) {
+            if (group != NOT_FOUND) {
+                memberOffsets[group + 1]++;
+            }
+        }
+        for (int i = 0; i < groupCount; i++) {
+            memberOffsets[i + 1] += memberOffsets[i];
+        }
+        int[] cursors = Arrays.copyOf(memberOffsets, groupCount);
+        int[] members = new int[memberOffsets[groupCount]];
+        for (int vertex = 0; vertex < groups.length; vertex++) {
+            if (groups[vertex] != NOT_FOUND) {
+                members[cursors[groups[vertex]]++] = vertex;
+            }
+        }
+
+        // Sum the weights of edges between groups, group by group
+        int[][] groupTargets = new int[groupCount][];
+        double[][] groupWeights = new double[groupCount][];
+        sum(executor, groupCount, group -> {
+            IntDoubleHashMap adjacency = new IntDoubleHashMap();
+            for (int m = memberOffsets[group]; m < memberOffsets[group + 1]; m++) {
+                int member = members[m];
+                for (int e = this.offsets[member]; e < this.offsets[member + 1]; e++) {
+                    int target = groups[this.targets[e]];
+                    if (target != NOT_FOUND) {
+                        adjacency.addToValue(target, this.weight(e));
+                    }
+                }
+            }
+            int[] targets = adjacency.keysView().toSortedArray();
+            double[] weights = new double[targets.length];
+            for (int i = 0; i < targets.length; i++) {
+                weights[i] = adjacency.get(targets[i]);
+            }
+            groupTargets[group] = targets;
+            groupWeights[group] = weights;
+            return 0.0D;
+        });
+
+        int[] offsets = new int[groupCount + 1];
+        long edgeCount = 0L;
+        for (int i = 0; i < groupCount; i++) {
+            edgeCount += groupTargets[i].length;
+            offsets[i + 1] = (int) edgeCount;
+        }
+        assert edgeCount <= this.edgeCount();
+        int[] targets = new int[(int) edgeCount];
+        double[] weights = new double[(int) edgeCount];
+        for (int i = 0; i < groupCount; i++) {
+            System.arraycopy(groupTargets[i], 0, targets, offsets[i],
+                             groupTargets[i].length);
+            System.arraycopy(groupWeights[i], 0, weights, offsets[i],
+                             groupWeights[i].length);
+        }
+
+        Id[] ids = new Id[groupCount];
+        ObjectIntHashMap<Id> indexes = new ObjectIntHashMap<>(groupCount);
+        for (int i = 0; i < groupCount; i++) {
+            ids[i] = IdGenerator.of(i);
+            indexes.put(ids[i], i);
+        }
+        return new CsrGraph(ids, indexes, offsets, targets, weights);
+    }
+
+    /**
+     * Convert to a simple graph, the targets of each vertex are sorted in
+     * ascending order without duplicated targets and self-loops, which is
+     * required by orient() and intersect(). The weights are dropped.
+     */
+    public CsrGraph simplify(ExecutorService executor) {
+        int vertexCount = this.vertexCount();
+        int[][] adjacency = new int[vertexCount][];
+        this.forEach(executor, vertex -> {
+            int[] targets = Arrays.copyOfRange(this.targets,
+                                               this.offsets[vertex],
+                                               this.offsets[vertex + 1]);
+            Arrays.sort(targets);
+            int size = 0;
+            for (int target : targets) {
+                if (target == vertex ||
+                    (size > 0 && targets[size - 1] == target)) {
+                    continue;
+                }
+                targets[size++] = target;
+            }
+            adjacency[vertex] = size == targets.length ?
+                                targets : Arrays.copyOf(targets, size);
+        });
+
+        int[] offsets = new int[vertexCount + 1];
+        for (int i = 0; i < vertexCount; i++) {
+            offsets[i + 1] = offsets[i] + adjacency[i].length;
+        }
+        int[] targets = new int[offsets[vertexCount]];
+        for (int i = 0; i < vertexCount; i++) {
+            System.arraycopy(adjacency[i], 0, targets, offsets[i],
+                             adjacency[i].length);
+        }
+        return new CsrGraph(this.ids, this.indexes, offsets, targets, null);
+    }
+
+    /**
+     * Orient each edge from the vertex with lower degree to the vertex with
+     * higher degree (ties are broken by index), so each triangle of an
+     * undirected graph is enumerated once from its lowest vertex, and a hub
+     * vertex only keeps the edges to the vertices with higher degree.
+     * The graph must be simplified, and the order of targets is kept.
+     */
+    public CsrGraph orient(ExecutorService executor) {
+        int vertexCount = this.vertexCount();
+        int[] offsets = new int[vertexCount + 1];
+        this.forEach(executor, vertex -> {
+            int count = 0;
+            for (int e = this.offsets[vertex]; e < this.offsets[vertex + 1]; e++) {
+                if (this.precedes(vertex, this.targets[e])) {
+                    count++;
+                }
+            }
+            offsets[vertex + 1] = count;
+        });
+        for (int i = 0; i < vertexCount; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+
+        int[] targets = new int[offsets[vertexCount]];
+        this.forEach(executor, vertex -> {
+            int pos = offsets[vertex];
+            for (int e = this.offsets[vertex]; e < this.offsets[vertex + 1]; e++) {
+                if (this.precedes(vertex, this.targets[e])) {
+                    targets[pos++] = this.targets[e];
+                }
+            }
+            assert pos == offsets[vertex + 1];
+        });
+        return new CsrGraph(this.ids, this.indexes, offsets, targets, null);
+    }
+
+    /**
+     * Count the common targets of the vertex in this graph and the other
+     * vertex in the other graph, the targets of both must be sorted like
+     * simplify(). It merges the two sorted targets if they have similar
+     * degrees, otherwise gallops through the larger one for each target of
+     * the smaller one, so intersecting with a hub vertex of degree D costs
+     * O(d * log(D)) rather than O(D).
+     * @param common Accept each common target, or null to count only
+     */
+    public int intersect(int vertex, CsrGraph other, int otherVertex,
+                         IntConsumer common) {
+        int[] small = this.targets;
+        int smallFrom = this.offsets[vertex];
+        int smallTo = this.offsets[vertex + 1];
+        int[] large = other.targets;
+        int largeFrom = other.offsets[otherVertex];
+        int largeTo = other.offsets[otherVertex + 1];
+        if (smallTo - smallFrom > largeTo - largeFrom) {
+            small = other.targets;
+            smallFrom = other.offsets[otherVertex];
+            smallTo = other.offsets[otherVertex + 1];
+            large = this.targets;
+            largeFrom = this.offsets[vertex];
+            largeTo = this.offsets[vertex + 1];
+        }
+
+        int count = 0;
+        if ((long) (smallTo - smallFrom) * GALLOP_RATIO < largeTo - largeFrom) {
+            int lo = largeFrom;
+            for (int i = smallFrom; i < smallTo && lo < largeTo; i++) {
+                int target = small[i];
+                // Find the range (lo + bound / 2, lo + bound] of the target
+                int bound = 1;
+                while (lo + bound < largeTo && large[lo + bound] < target) {
+                    bound <<= 1;
+                }
+                int pos = Arrays.binarySearch(large, lo + (bound >> 1),
+                                              Math.min(lo + bound + 1, largeTo),
+                                              target);
+                if (pos >= 0) {
+                    count++;
+                    if (common != null) {
+                        common.accept(target);
+                    }
+                    lo = pos + 1;
+                } else {
+                    lo = -pos - 1;
+                }
+            }
+        } else {
+            int i = smallFrom;
+            int j = largeFrom;
+            while (i < smallTo && j < largeTo) {
+                if (small[i] < large[j]) {
+                    i++;
+                } else if (small[i] > large[j]) {
+                    j++;
+                } else {
+                    count++;
+                    if (common != null) {
+                        common.accept(small[i]);
+                    }
+                    i++;
+                    j++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private boolean precedes(int vertex, int other) {
+        int degree = this.degree(vertex);
+        int otherDegree = this.degree(other);
+        return degree < otherDegree ||
+               (degree == otherDegree && vertex < other);
+    }
+
+    /**
+     * Apply the function to each index in [0, count) in parallel, and sum
+     * up the results of all indexes
+     */
+    private static double sum(ExecutorService executor, int count,
+                              IntToDoubleFunction function) {
+        int chunks = chunks(executor, count);
+        if (chunks <= 1) {
+            return sumRange(function, 0, count);
+        }
+
+        int chunkSize = (count + chunks - 1) / chunks;
+        List<Future<Double>> futures = new ArrayList<>(chunks);
+        for (int start = 0; start < count; start += chunkSize) {
+            int from = start;
+            int to = Math.min(start + chunkSize, count);
+            futures.add(executor.submit(() -> sumRange(function, from, to)));
+        }
+
+        double sum = 0.0D;
+        try {
+            for (Future<Double> future : futures) {
+                sum += future.get();
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw new HugeException("Interrupted while iterating vertices", e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw Consumers.wrapException(e.getCause());
+        }
+        return sum;
+    }
+
+    private static double sumRange(IntToDoubleFunction function,
+                                   int from, int to) {
+        double sum = 0.0D;
+        for (int vertex = from; vertex < to; vertex++) {
+            sum += function.applyAsDouble(vertex);
+        }
+        return sum;
+    }
+
+    private static int chunks(ExecutorService executor, int count) {
+        if (executor == null || count < 2 * MIN_CHUNK_SIZE) {
+            return 1;
+        }
+        int workers = Consumers.THREADS;
+        if (executor instanceof ThreadPoolExecutor) {
+            workers = ((ThreadPoolExecutor) executor)
+                      .getCorePoolSize();
+        }
+        return Math.min(workers * CHUNKS_PER_WORKER,
+                        count / MIN_CHUNK_SIZE);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CsrGraph{vertices=%s, edges=%s, weighted=%s}",
+                             this.vertexCount(), this.edgeCount(),
+                             this.weighted());
+    }
+
+    public static Builder builder(long degree, boolean weighted) {
+        return new Builder(degree, weighted);
+    }
+
+    /**
+     * Build the CsrGraph by adding all vertices firstly, then adding edges
+     * through the edge buffers, which can be filled by multiple threads
+     * and each buffer must be used by a single thread.
+     */
+    public static final class Builder {
+
+        private final long degree;
+        private final boolean weighted;
+        private final List<Id> ids;
+        private final ObjectIntHashMap<Id> indexes;
+        private final List<EdgeBuffer> buffers;
+
+        private Builder(long degree, boolean weighted) {
+            E.checkArgument(degree > 0L || degree == HugeTraverser.NO_LIMIT,
+                            "The degree must be > 0 or == %s, but got %s",
+                            HugeTraverser.NO_LIMIT, degree);
+            this.degree = degree == HugeTraverser.NO_LIMIT ?
+                          Long.MAX_VALUE : degree;
+            this.weighted = weighted;
+            this.ids = new ArrayList<>();
+            this.indexes = new ObjectIntHashMap<>();
+            this.buffers = new ArrayList<>();
+        }
+
+        public int addVertex(Id id) {
+            E.checkState(this.buffers.isEmpty(),
+                         "Can't add vertex after adding edges");
+            int index = this.indexes.getIfAbsent(id, NOT_FOUND);
+            if (index == NOT_FOUND) {
+                index = this.ids.size();
+                this.ids.add(id);
+                this.indexes.put(id, index);
+            }
+            return index;
+        }
+
+        public synchronized EdgeBuffer newEdgeBuffer() {
+            EdgeBuffer buffer = new EdgeBuffer(this.indexes, this.weighted);
+            this.buffers.add(buffer);
+            return buffer;
+        }
+
+        public synchronized CsrGraph build() {
+            int vertexCount = this.ids.size();
+            long[] counts = new long[vertexCount];
+            for (EdgeBuffer buffer : this.buffers) {
+                for (int i = 0; i < buffer.size; i++) {
+                    counts[buffer.sources[i]]++;
+                }
+            }
+
+            // Keep at most `degree` edges for each vertex
+            int[] offsets = new int[vertexCount + 1];
+            long edgeCount = 0L;
+            for (int i = 0; i < vertexCount; i++) {
+                edgeCount += Math.min(counts[i], this.degree);
+                E.checkArgument(edgeCount <= Integer.MAX_VALUE - 8,
+                                "Too many edges to load into CsrGraph");
+                offsets[i + 1] = (int) edgeCount;
+            }
+
+            int[] cursors = Arrays.copyOf(offsets, vertexCount);
+            int[] targets = new int[(int) edgeCount];
+            double[] weights = this.weighted ? new double[(int) edgeCount] : null;
+            for (EdgeBuffer buffer : this.buffers) {
+                for (int i = 0; i < buffer.size; i++) {
+                    int source = buffer.sources[i];
+                    if (cursors[source] >= offsets[source + 1]) {
+                        continue;
+                    }
+                    int pos = cursors[source]++;
+                    targets[pos] = buffer.targets[i];
+                    if (weights != null) {
+                        weights[pos] = buffer.weights[i];
+                    }
+                }
+            }
+            this.buffers.clear();
+
+            Id[] ids = this.ids.toArray(new Id[0]);
+            return new CsrGraph(ids, this.indexes, offsets, targets, weights);
+        }
+    }
+
+    public static final class EdgeBuffer {
+
+        private static final int INIT_CAPACITY = 1024;
+
+        private final ObjectIntHashMap<Id> indexes;
+        private int[] sources;
+        private int[] targets;
+        private double[] weights;
+        private int size;
+
+        private EdgeBuffer(ObjectIntHashMap<Id> indexes, boolean weighted) {
+            this.indexes = indexes;
+            this.sources = new int[INIT_CAPACITY];
+            this.targets = new int[INIT_CAPACITY];
+            this.weights = weighted ? new double[INIT_CAPACITY] : null;
+            this.size = 0;
+        }
+
+        /**
+         * Add an edge from source to target, ignore it if any vertex of
+         * the edge doesn't exist in the snapshot
+         * @return true if added
+         */
+        public boolean add(Id source, Id target, double weight) {
+            // NOTE: the indexes won't be changed while adding edges
+            int sourceIndex = this.indexes.getIfAbsent(source, NOT_FOUND);
+            int targetIndex = this.indexes.getIfAbsent(target, NOT_FOUND);
+            if (sourceIndex == NOT_FOUND || targetIndex == NOT_FOUND) {
+                return false;
+            }
+            if (this.size == this.sources.length) {
+                int capacity = this.size << 1;
+                E.checkState(capacity > 0, "Too many edges in a buffer");
+                this.sources = Arrays.copyOf(this.sources, capacity);
+                this.targets = Arrays.copyOf(this.targets, capacity);
+                if (this.weights != null) {
+                    this.weights = Arrays.copyOf(this.weights, capacity);
+                }
+            }
+            this.sources[this.size] = sourceIndex;
+            this.targets[this.size] = targetIndex;
+            if (this.weights != null) {
+                this.weights[this.size] = weight;
+            }
+            this.size++;
+            return true;
+        }
+
+        public int size() {
+            return this.size;
+        }
+    }
+}
@@ -0,0 +1,252 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hugegraph.job.algorithm.cent;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.hugegraph.job.UserJob;
+import org.apache.hugegraph.job.algorithm.CsrGraph;
+import org.apache.hugegraph.traversal.algorithm.HugeTraverser;
+import org.apache.hugegraph.type.define.Directions;
+import org.apache.hugegraph.util.InsertionOrderUtil;
+
+/**
+ * Estimate the betweenness centrality by the Brandes algorithm from the
+ * sampled source vertices, the dependencies of each source are scaled by
+ * sources/samples. The BFS of sources run by workers in parallel over the
+ * in-memory CsrGraph.
+ */
+public class ApproxBetweennessCentralityAlgorithm extends AbstractCentAlgorithm {
+
+    public static final String ALGO_NAME = "approx_betweenness_centrality";
+
+    @Override
+    public String name() {
+        return ALGO_NAME;
+    }
+
+    @Override
+    public void checkParameters(Map<String, Object> parameters) {
+        super.checkParameters(parameters);
+        workers(parameters);
+    }
+
+    @Override
+    public Object call(UserJob<Object> job, Map<String, Object> parameters) {
+        int workers = workers(parameters);
+        try (Traverser traverser = new Traverser(job, workers)) {
+            return traverser.betweennessCentrality(direction(parameters),
+                                                   edgeLabel(parameters),
+                                                   depth(parameters),
+                                                   degree(parameters),
+                                                   sourceLabel(parameters),
+                                                   sourceSample(parameters),
+                                                   sourceCLabel(parameters),
+                                                   top(parameters));
+        }
+    }
+
+    /**
+     * Select the samples from the sources randomly, or all the sources if
+     * the sample is NO_LIMIT or not less than the number of sources
+     */
+    public static int[] sample(BitSet sources, long sourceSample,
+                               Random random) {
+        int[] all = sources.stream().toArray();
+        if (sourceSample == HugeTraverser.NO_LIMIT ||
+            sourceSample >= all.length) {
+            return all;
+        }
+        // Partial Fisher-Yates shuffle to select the samples
+        int samples = (int) sourceSample;
+        for (int i = 0; i < samples; i++) {
+            int j = i + random.nextInt(all.length - i);
+            int tmp = all[i];
+            all[i] = all[j];
+            all[j] = tmp;
+        }
+        return Arrays.copyOf(all, samples);
+    }
+
+    private static class Traverser extends AlgoTraverser {
+
+        private static final int UNREACHED = -1;
+
+        public Traverser(UserJob<Object> job, int workers) {
+            super(job, ALGO_NAME, workers);
+        }
+
+        public Object betweennessCentrality(Directions direction,
+                                            String label,
+                                            int depth,
+                                            long degree,
+                                            String sourceLabel,
+                                            long sourceSample,
+                                            String sourceCLabel,
+                                            long topN) {
+            assert depth > 0;
+            assert degree > 0L || degree == NO_LIMIT;
+            assert topN >= 0L || topN == NO_LIMIT;
+
+            long startTime = System.currentTimeMillis();
+            if (direction == null) {
+                direction = Directions.BOTH;
+            }
+            CsrGraph graph = this.loadCsrGraph(direction, label, null, degree);
+            BitSet sources = this.sourceVertices(graph, sourceLabel,
+                                                 sourceCLabel);
+            int[] samples = sample(sources, sourceSample, new Random());
+            double scale = samples.length == 0 ?
+                           0d : (double) sources.cardinality() / samples.length;
+            long loadedTime = System.currentTimeMillis();
+
+            // Each worker accumulates the betweenness of its own sources
+            AtomicInteger cursor = new AtomicInteger();
+            List<double[]> partials = this.runByWorkers(() -> {
+                Brandes brandes = new Brandes(graph, depth);
+                int next;
+                while ((next = cursor.getAndIncrement()) < samples.length) {
+                    brandes.compute(samples[next]);
+                    this.updateProgress(next + 1);
+                }
+                return brandes.betweennesses();
+            });
+
+            this.progress = samples.length;
+
+            double[] betweennesses = new double[graph.vertexCount()];
+            for (double[] partial : partials) {
+                for (int i = 0; i < betweennesses.length; i++) {
+                    betweennesses[i] += partial[i] * scale;
+                }
+            }
+
+            BitSet vertices = new BitSet(graph.vertexCount());
+            vertices.set(0, graph.vertexCount());
+            Map<String, Object> results = InsertionOrderUtil.newMap();
+            results.put("sources", sources.cardinality());
+            results.put("samples", samples.length);
+            results.put("load_time", loadedTime - startTime);
+            results.put("compute_time", System.currentTimeMillis() - loadedTime);
+            results.put("betweenness", this.topValues(graph, vertices,
+                                                      betweennesses, topN));
+            return results;
+        }
+    }
+
+    /**
+     * The Brandes algorithm of a single thread, the arrays are reused by
+     * all the sources computed by the thread
+     */
+    public static class Brandes {
+
+        private final CsrGraph graph;
+        private final int depth;
+        private final double[] betweennesses;
+
+        private final int[] distances;
+        private final double[] pathCounts;
+        private final double[] dependencies;
+        // The traversed vertices in BFS order, also used as the queue
+        private final int[] traversed;
+
+        public Brandes(CsrGraph graph, int depth) {
+            int size = graph.vertexCount();
+            this.graph = graph;
+            this.depth = depth;
+            this.betweennesses = new double[size];
+            this.distances = new int[size];
+            this.pathCounts = new double[size];
+            this.dependencies = new double[size];
+            this.traversed = new int[size];
+            Arrays.fill(this.distances, Traverser.UNREACHED);
+        }
+
+        /**
+         * The betweenness accumulated from the computed sources, not scaled
+         */
+        public double[] betweennesses() {
+            return this.betweennesses;
+        }
+
+        public void compute(int source) {
+            int count = this.traverse(source);
+            this.backtrack(source, count);
+            // Reset the state of the traversed vertices only
+            for (int i = 0; i < count; i++) {
+                int vertex = this.traversed[i];
+                this.distances[vertex] = Traverser.UNREACHED;
+                this.pathCounts[vertex] = 0d;
+                this.dependencies[vertex] = 0d;
+            }
+        }
+
+        private int traverse(int source) {
+            int head = 0;
+            int tail = 0;
+            this.traversed[tail++] = source;
+            this.distances[source] = 0;
+            this.pathCounts[source] = 1d;
+            while (head < tail) {
+                int vertex = this.traversed[head++];
+                int distance = this.distances[vertex];
+                if (distance >= this.depth) {
+                    continue;
+                }
+                for (int e = this.graph.edgeStart(vertex);
+                     e < this.graph.edgeEnd(vertex); e++) {
+                    int target = this.graph.target(e);
+                    if (this.distances[target] == Traverser.UNREACHED) {
+                        this.distances[target] = distance + 1;
+                        this.traversed[tail++] = target;
+                    }
+                    if (this.distances[target] == distance + 1) {
+                        this.pathCounts[target] += this.pathCounts[vertex];
+                    }
+                }
+            }
+            return tail;
+        }
+
+        private void backtrack(int source, int count) {
+            // The successors are finished before a vertex in reverse order
+            for (int i = count - 1; i > 0; i--) {
+                int vertex = this.traversed[i];
+                int distance = this.distances[vertex];
+                double dependency = 0d;
+                for (int e = this.graph.edgeStart(vertex);
+                     e < this.graph.edgeEnd(vertex); e++) {
+                    int target = this.graph.target(e);
+                    if (this.distances[target] == distance + 1) {
+                        dependency += this.pathCounts[vertex] /
+                                      this.pathCounts[target] *
+                                      (1d + this.dependencies[target]);
+                    }
+                }
+                this.dependencies[vertex] = dependency;
+                assert vertex != source;
+                this.betweennesses[vertex] += dependency;
+            }
+        }
+    }
+}
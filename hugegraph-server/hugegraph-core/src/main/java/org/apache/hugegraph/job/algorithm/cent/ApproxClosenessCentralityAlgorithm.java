@@ -0,0 +1,235 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hugegraph.job.algorithm.cent;
+
+import java.util.BitSet;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+
+import org.apache.hugegraph.job.UserJob;
+import org.apache.hugegraph.job.algorithm.CsrGraph;
+import org.apache.hugegraph.type.define.Directions;
+import org.apache.hugegraph.util.E;
+import org.apache.hugegraph.util.InsertionOrderUtil;
+import org.apache.hugegraph.util.ParameterUtil;
+import org.apache.hugegraph.util.collection.HyperLogLog;
+
+/**
+ * Estimate the closeness centrality(the sum of 1/distance to the reachable
+ * vertices, same as closeness_centrality) by HyperBall: each vertex keeps a
+ * HyperLogLog counter of the vertices within distance t, and the counters of
+ * t + 1 are the union of the counters of its adjacent vertices.
+ * The relative standard error of each counter is about 1.04/sqrt(registers),
+ * and each vertex takes 2 * registers bytes of memory.
+ */
+public class ApproxClosenessCentralityAlgorithm extends AbstractCentAlgorithm {
+
+    public static final String ALGO_NAME = "approx_closeness_centrality";
+
+    public static final double DEFAULT_RELATIVE_ERROR = 0.15D;
+    private static final int MIN_LOG2M = HyperLogLog.MIN_LOG2M;
+    private static final int MAX_LOG2M = HyperLogLog.MAX_LOG2M;
+
+    @Override
+    public String name() {
+        return ALGO_NAME;
+    }
+
+    @Override
+    public void checkParameters(Map<String, Object> parameters) {
+        super.checkParameters(parameters);
+        log2m(parameters);
+        workers(parameters);
+    }
+
+    @Override
+    public Object call(UserJob<Object> job, Map<String, Object> parameters) {
+        int workers = workers(parameters);
+        try (Traverser traverser = new Traverser(job, workers)) {
+            return traverser.closenessCentrality(direction(parameters),
+                                                 edgeLabel(parameters),
+                                                 depth(parameters),
+                                                 degree(parameters),
+                                                 log2m(parameters),
+                                                 sourceLabel(parameters),
+                                                 sourceCLabel(parameters),
+                                                 top(parameters));
+        }
+    }
+
+    /**
+     * The number of registers of each counter is the min power of 2 which
+     * meets the expected relative error specified by the precision parameter
+     */
+    protected static int log2m(Map<String, Object> parameters) {
+        double error = DEFAULT_RELATIVE_ERROR;
+        if (parameters.containsKey(KEY_PRECISION)) {
+            error = ParameterUtil.parameterDouble(parameters, KEY_PRECISION);
+            E.checkArgument(0d < error && error < 1d,
+                            "The %s parameter must be in range(0,1), " +
+                            "but got: %s", KEY_PRECISION, error);
+        }
+        double registers = Math.pow(1.04D / error, 2);
+        int log2m = (int) Math.ceil(Math.log(registers) / Math.log(2));
+        return Math.min(Math.max(log2m, MIN_LOG2M), MAX_LOG2M);
+    }
+
+    private static class Traverser extends AlgoTraverser {
+
+        public Traverser(UserJob<Object> job, int workers) {
+            super(job, ALGO_NAME, workers);
+        }
+
+        public Object closenessCentrality(Directions direction,
+                                          String label,
+                                          int depth,
+                                          long degree,
+                                          int log2m,
+                                          String sourceLabel,
+                                          String sourceCLabel,
+                                          long topN) {
+            assert depth > 0;
+            assert degree > 0L || degree == NO_LIMIT;
+            assert topN >= 0L || topN == NO_LIMIT;
+
+            long startTime = System.currentTimeMillis();
+            if (direction == null) {
+                direction = Directions.BOTH;
+            }
+            CsrGraph graph = this.loadCsrGraph(direction, label, null, degree);
+            BitSet sources = this.sourceVertices(graph, sourceLabel,
+                                                 sourceCLabel);
+            long loadedTime = System.currentTimeMillis();
+
+            HyperBall ball = new HyperBall(graph, log2m);
+            int times = 0;
+            for (int distance = 1; distance <= depth; distance++) {
+                times = distance;
+                double changed = ball.expand(this.executor, distance);
+                this.progress += graph.vertexCount();
+                this.updateProgress(this.progress);
+                if (changed == 0d) {
+                    break;
+                }
+            }
+
+            Map<String, Object> results = InsertionOrderUtil.newMap();
+            results.put("registers", ball.registers());
+            results.put("relative_error", 1.04D / Math.sqrt(ball.registers()));
+            results.put("iteration_times", times);
+            results.put("load_time", loadedTime - startTime);
+            results.put("compute_time", System.currentTimeMillis() - loadedTime);
+            results.put("closeness", this.topValues(graph, sources,
+                                                    ball.closenesses(), topN));
+            return results;
+        }
+    }
+
+    /**
+     * The HyperLogLog counters of all vertices, which are expanded step by
+     * step, and the estimated closeness of each vertex
+     */
+    public static class HyperBall {
+
+        private final CsrGraph graph;
+        private final int log2m;
+        private final int registers;
+
+        // The counters of all vertices, each takes `registers` bytes
+        private byte[] counters;
+        private byte[] nextCounters;
+        private final double[] sizes;
+        private final double[] closenesses;
+
+        public HyperBall(CsrGraph graph, int log2m) {
+            int vertexCount = graph.vertexCount();
+            long bytes = (long) vertexCount << log2m;
+            E.checkArgument(bytes <= Integer.MAX_VALUE - 8,
+                            "Too many vertices %s to estimate with %s " +
+                            "registers", vertexCount, 1 << log2m);
+            this.graph = graph;
+            this.log2m = log2m;
+            this.registers = 1 << log2m;
+            this.counters = new byte[(int) bytes];
+            this.nextCounters = new byte[(int) bytes];
+            this.sizes = new double[vertexCount];
+            this.closenesses = new double[vertexCount];
+
+            // Each counter contains the vertex itself at the beginning
+            for (int vertex = 0; vertex < vertexCount; vertex++) {
+                long hash = HyperLogLog.mix(vertex);
+                int register = HyperLogLog.index(hash, log2m);
+                this.counters[(vertex << log2m) + register] =
+                        HyperLogLog.rank(hash, log2m);
+                this.sizes[vertex] = this.estimate(this.counters, vertex);
+            }
+        }
+
+        public int registers() {
+            return this.registers;
+        }
+
+        public double[] closenesses() {
+            return this.closenesses;
+        }
+
+        /**
+         * Expand the balls of all vertices by one step in parallel
+         * @return The number of changed counters
+         */
+        public double expand(ExecutorService executor,
+                             int distance) {
+            byte[] current = this.counters;
+            byte[] next = this.nextCounters;
+            double changed = this.graph.sum(executor, vertex -> {
+                int offset = vertex << this.log2m;
+                System.arraycopy(current, offset, next, offset, this.registers);
+                boolean updated = false;
+                for (int e = this.graph.edgeStart(vertex);
+                     e < this.graph.edgeEnd(vertex); e++) {
+                    int other = this.graph.target(e) << this.log2m;
+                    for (int i = 0; i < this.registers; i++) {
+                        if (current[other + i] > next[offset + i]) {
+                            next[offset + i] = current[other + i];
+                            updated = true;
+                        }
+                    }
+                }
+                if (!updated) {
+                    return 0d;
+                }
+                // The vertices first reached at the distance
+                double size = this.estimate(next, vertex);
+                double reached = size - this.sizes[vertex];
+                if (reached > 0d) {
+                    this.closenesses[vertex] += reached / distance;
+                    this.sizes[vertex] = size;
+                }
+                return 1d;
+            });
+            this.counters = next;
+            this.nextCounters = current;
+            return changed;
+        }
+
+        private double estimate(byte[] counters, int vertex) {
+            return HyperLogLog.estimate(counters, vertex << this.log2m,
+                                        this.log2m);
+        }
+    }
+}
@@ -21,7 +21,6 @@ import java.util.Map;
 
 import org.apache.hugegraph.job.UserJob;
 import org.apache.hugegraph.type.define.Directions;
-import org.apache.hugegraph.util.E;
 import org.apache.hugegraph.util.InsertionOrderUtil;
 
 public class ClusterCoefficientAlgorithm extends AbstractCommAlgorithm {
@@ -37,27 +36,17 @@ public class ClusterCoefficientAlgorithm extends AbstractCommAlgorithm {
     public void checkParameters(Map<String, Object> parameters) {
         direction(parameters);
         degree(parameters);
-        workersWhenBoth(parameters);
+        workers(parameters);
     }
 
     @Override
     public Object call(UserJob<Object> job, Map<String, Object> parameters) {
-        int workers = workersWhenBoth(parameters);
+        int workers = workers(parameters);
         try (Traverser traverser = new Traverser(job, workers)) {
             return traverser.clusterCoefficient(direction(parameters), degree(parameters));
         }
     }
 
-    protected static int workersWhenBoth(Map<String, Object> parameters) {
-        Directions direction = direction(parameters);
-        int workers = workers(parameters);
-        E.checkArgument(direction == Directions.BOTH || workers <= 0,
-                        "The workers must be not set when direction!=BOTH, " +
-                        "but got workers=%s and direction=%s",
-                        workers, direction);
-        return workers;
-    }
-
     private static class Traverser extends TriangleCountAlgorithm.Traverser {
 
         public Traverser(UserJob<Object> job, int workers) {
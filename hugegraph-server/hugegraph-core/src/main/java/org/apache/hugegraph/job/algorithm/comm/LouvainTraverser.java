@@ -22,34 +22,28 @@ import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
-import java.util.Objects;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 
-import org.apache.commons.lang.mutable.MutableFloat;
-import org.apache.commons.lang3.mutable.MutableInt;
-import org.apache.commons.lang3.tuple.Pair;
 import org.apache.hugegraph.backend.id.Id;
 import org.apache.hugegraph.backend.id.IdGenerator;
 import org.apache.hugegraph.exception.ExistedException;
-import org.apache.hugegraph.iterator.ListIterator;
 import org.apache.hugegraph.job.UserJob;
 import org.apache.hugegraph.job.algorithm.AbstractAlgorithm;
 import org.apache.hugegraph.job.algorithm.AbstractAlgorithm.AlgoTraverser;
 import org.apache.hugegraph.job.algorithm.Consumers;
+import org.apache.hugegraph.job.algorithm.CsrGraph;
 import org.apache.hugegraph.schema.SchemaLabel;
 import org.apache.hugegraph.schema.SchemaManager;
 import org.apache.hugegraph.schema.VertexLabel;
-import org.apache.hugegraph.structure.HugeEdge;
 import org.apache.hugegraph.structure.HugeVertex;
 import org.apache.hugegraph.type.define.Directions;
 import org.apache.hugegraph.util.InsertionOrderUtil;
@@ -60,9 +54,12 @@ import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSo
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.T;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.eclipse.collections.api.iterator.IntIterator;
+import org.eclipse.collections.impl.map.mutable.primitive.IntDoubleHashMap;
 import org.slf4j.Logger;
 
 import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.AtomicDoubleArray;
 
 public class LouvainTraverser extends AlgoTraverser {
 
@@ -82,9 +79,8 @@ public class LouvainTraverser extends AlgoTraverser {
     private final long degree;
     private final boolean skipIsolated;
 
-    private final Cache cache;
+    private final ThreadLocal<IntDoubleHashMap> nbCommunities;
 
-    private long m;
     private String passLabel;
 
     public LouvainTraverser(UserJob<Object> job, int workers, long degree,
@@ -96,10 +92,9 @@ public class LouvainTraverser extends AlgoTraverser {
         this.sourceCLabel = sourceCLabel;
         this.degree = degree;
         this.skipIsolated = skipIsolated;
-        this.m = 1L;
         this.passLabel = "";
 
-        this.cache = new Cache();
+        this.nbCommunities = ThreadLocal.withInitial(IntDoubleHashMap::new);
     }
 
     private void defineSchemaOfPk() {
@@ -117,8 +112,6 @@ public class LouvainTraverser extends AlgoTraverser {
               .ifNotExist().create();
         schema.propertyKey(C_WEIGHT).asFloat()
               .ifNotExist().create();
-
-        this.m = this.g.E().count().next();
     }
 
     private void defineSchemaOfPassN(int pass) {
@@ -166,24 +159,6 @@ public class LouvainTraverser extends AlgoTraverser {
         return C_PASS + n;
     }
 
-    private float weightOfEdge(Edge e) {
-        if (e.label().startsWith(C_PASS)) {
-            assert e.property(C_WEIGHT).isPresent();
-            return e.value(C_WEIGHT);
-        } else if (e.property(C_WEIGHT).isPresent()) {
-            return e.value(C_WEIGHT);
-        }
-        return 1f;
-    }
-
-    private float weightOfEdges(List<Edge> edges) {
-        float weight = 0f;
-        for (Edge edge : edges) {
-            weight += weightOfEdge(edge);
-        }
-        return weight;
-    }
-
     private Vertex newCommunityNode(Id cid, float cweight,
                                     int kin, List<String> members) {
         assert !members.isEmpty() : members;
@@ -206,275 +181,133 @@ public class LouvainTraverser extends AlgoTraverser {
         return source.addEdge(this.passLabel, target, C_WEIGHT, weight);
     }
 
-    private void insertNewCommunity(int pass, Id cid, float cweight,
-                                    int kin, List<String> members,
-                                    Map<Id, MutableFloat> cedges) {
-        // create backend vertex if it's the first time
-        Id vid = this.cache.genId(pass, cid);
-        Vertex node = this.newCommunityNode(vid, cweight, kin, members);
-        commitIfNeeded();
-        // update backend vertex edges
-        for (Map.Entry<Id, MutableFloat> e : cedges.entrySet()) {
-            float weight = e.getValue().floatValue();
-            vid = this.cache.genId(pass, e.getKey());
-            Vertex targetV = this.makeCommunityNode(vid);
-            this.newCommunityEdge(node, targetV, weight);
-            commitIfNeeded();
-        }
-        LOG.debug("Add new comm: {} kin={} size={}", node, kin, members.size());
-    }
-
-    private boolean needSkipVertex(int pass, Vertex v) {
-        // skip the old intermediate data when first pass
+    private boolean isSourceVertex(Vertex v) {
+        // skip the old intermediate data
         String label = v.label();
         if (label.startsWith(C_PASS)) {
-            if (pass == 0) {
-                return true;
-            }
-            String lastPassLabel = labelOfPassN(pass - 1);
-            if (!label.equals(lastPassLabel)) {
-                return true;
-            }
-        }
-        // skip the vertex with unmatched clabel
-        return this.sourceCLabel != null && !match(v, this.sourceCLabel);
-    }
-
-    private Iterator<Vertex> sourceVertices(int pass) {
-        if (pass > 0) {
-            // all vertices of merged community
-            String lastPassLabel = labelOfPassN(pass - 1);
-            return this.vertices(lastPassLabel, LIMIT);
-        } else {
-            assert pass == 0;
-            // all vertices at the first time
-            return this.vertices(this.sourceLabel, LIMIT);
-        }
-    }
-
-    private List<Edge> neighbors(Id vid) {
-        Iterator<Edge> nbs = this.edgesOfVertex(vid, Directions.BOTH,
-                                                (Id) null, this.degree);
-        @SuppressWarnings("resource")
-        ListIterator<Edge> list = new ListIterator<>(LIMIT, nbs);
-        return (List<Edge>) list.list();
-    }
-
-    private float weightOfVertex(Vertex v, List<Edge> edges) {
-        // degree/weight of vertex
-        Float value = this.cache.vertexWeight((Id) v.id());
-        if (value != null) {
-            return value;
-        }
-        if (edges == null) {
-            edges = neighbors((Id) v.id());
-        }
-        float weight = weightOfEdges(edges);
-        this.cache.vertexWeight((Id) v.id(), weight);
-        return weight;
-    }
-
-    private int kinOfVertex(Vertex v) {
-        if (v.label().startsWith(C_PASS) && v.property(C_KIN).isPresent()) {
-            return v.value(C_KIN);
-        }
-        return 0;
-    }
-
-    private float cweightOfVertex(Vertex v) {
-        if (v.label().startsWith(C_PASS) && v.property(C_WEIGHT).isPresent()) {
-            return v.value(C_WEIGHT);
+            return false;
         }
-        return 1f;
-    }
-
-    private Community communityOfVertex(Vertex v, List<Edge> nbs) {
-        Id vid = (Id) v.id();
-        Community c = this.cache.vertex2Community(vid);
-        // ensure source vertex exist in cache
-        if (c == null) {
-            c = this.wrapCommunity(v, nbs);
-            assert c != null;
+        if (this.sourceLabel != null && !this.sourceLabel.equals(label)) {
+            return false;
         }
-        return c;
+        // skip the vertex with unmatched clabel
+        return this.sourceCLabel == null || match(v, this.sourceCLabel);
     }
 
-    // 1: wrap original vertex as community node
-    // 2: add original vertices to community node,
-    //    and save as community vertex when merge()
-    // 3: wrap community vertex as community node,
-    //    and repeat step 2 and step 3.
-    private Community wrapCommunity(Vertex v, List<Edge> nbs) {
-        Id vid = (Id) v.id();
-        Community comm = this.cache.vertex2Community(vid);
-        if (comm != null) {
-            return comm;
+    private boolean moveCommunity(Level level, int v) {
+        // move vertex to neighbor community if needed
+        int c = level.communities.get(v);
+        if (c == Level.EXCLUDED) {
+            return false;
         }
-
-        comm = new Community(vid);
-        comm.add(this, v, nbs);
-        comm = this.cache.vertex2CommunityIfAbsent(vid, comm);
-        return comm;
-    }
-
-    private Collection<Pair<Community, MutableInt>> nbCommunities(int pass, List<Edge> edges) {
-        // comms is a map of cid:[community,weight]
-        Map<Id, Pair<Community, MutableInt>> comms = new HashMap<>();
-        for (Edge edge : edges) {
-            Vertex otherV = ((HugeEdge) edge).otherVertex();
-            if (needSkipVertex(pass, otherV)) {
-                // skip the old intermediate data, or filter clabel
+        CsrGraph graph = level.graph;
+        // weight between v and each neighbor community
+        IntDoubleHashMap nbCommunities = this.nbCommunities.get();
+        nbCommunities.clear();
+        for (int e = graph.edgeStart(v); e < graph.edgeEnd(v); e++) {
+            int other = graph.target(e);
+            if (other == v) {
+                // the inner edges of v
                 continue;
             }
-            // will traverse the neighbors of otherV
-            Community c = this.wrapCommunity(otherV, null);
-            if (!comms.containsKey(c.cid)) {
-                comms.put(c.cid, Pair.of(c, new MutableInt(0)));
-            }
-            // calc weight between source vertex and neighbor community
-            comms.get(c.cid).getRight().add(2 * weightOfEdge(edge));
+            nbCommunities.addToValue(level.communities.get(other),
+                                     graph.weight(e));
         }
-        return comms.values();
-    }
-
-    private void doMoveCommunity(Vertex v, List<Edge> nbs, Community newC) {
-        Id vid = (Id) v.id();
-
-        // update community of v (return the origin one)
-        Community oldC = this.cache.vertex2Community(vid, newC);
-
-        // remove v from old community. should synchronized (vid)?
-        if (oldC != null) {
-            oldC.remove(this, v, nbs);
-        }
-
-        // add v to new community
-        newC.add(this, v, nbs);
-        LOG.debug("Move {} to community: {}", v, newC);
-    }
-
-    private boolean moveCommunity(Vertex v, int pass) {
-        // move vertex to neighbor community if needed
-        List<Edge> nbs = neighbors((Id) v.id());
-        if (this.skipIsolated && pass == 0 && nbs.isEmpty()) {
+        if (nbCommunities.isEmpty()) {
             return false;
         }
-        Community c = communityOfVertex(v, nbs);
-        double ki = kinOfVertex(v) + weightOfVertex(v, nbs);
-        // update community of v if △Q changed
-        double maxDeltaQ = 0d;
-        Community bestComm = null;
-        // list all neighbor communities of v
-        for (Pair<Community, MutableInt> nbc : nbCommunities(pass, nbs)) {
-            // △Q = (Ki_in - Ki * Etot / m) / 2m
-            Community otherC = nbc.getLeft();
-            if (otherC.size() >= MAX_COMM_SIZE) {
-                LOG.info("Skip community {} for {} due to its size >= {}",
-                         otherC.cid, v, MAX_COMM_SIZE);
+
+        double ki = level.weights[v];
+        /*
+         * △Q = (Ki_in - Ki * Etot / m) / 2m, tot of the origin community
+         * exclude v itself. expect tot >= 0, but multi-threads may cause
+         * tot < 0 due to concurrent update the community
+         */
+        double tot = Math.max(level.totals.get(c) - ki, 0d);
+        double maxDeltaQ = nbCommunities.get(c) - ki * tot / level.m;
+        int bestComm = c;
+        IntIterator iter = nbCommunities.keySet().intIterator();
+        while (iter.hasNext()) {
+            int otherC = iter.next();
+            if (otherC == c) {
                 continue;
             }
-            // weight between c and otherC
-            double kiin = nbc.getRight().floatValue();
-            // weight of otherC
-            double tot = otherC.kin() + otherC.kout();
-            if (c.equals(otherC)) {
-                assert c == otherC;
-                if (tot < ki) {
-                    /*
-                     * expect tot >= ki, but multi-threads may
-                     * cause tot < ki due to concurrent update otherC
-                     */
-                    LOG.warn("Changing vertex: {}(ki={}, kiin={}, pass={}), otherC: {}",
-                             v, ki, kiin, pass, otherC);
-                }
-                tot -= ki;
-                // assert tot >= 0d : otherC + ", tot=" + tot + ", ki=" + ki;
-                // expect tot >= 0, but may be something wrong?
-                if (tot < 0d) {
-                    tot = 0d;
-                }
+            if (level.sizes.get(otherC) >= MAX_COMM_SIZE) {
+                LOG.debug("Skip community {} for {} due to its size >= {}",
+                          otherC, v, MAX_COMM_SIZE);
+                continue;
             }
-            double deltaQ = kiin - ki * tot / this.m;
+            double deltaQ = nbCommunities.get(otherC) -
+                            ki * level.totals.get(otherC) / level.m;
             if (deltaQ > maxDeltaQ) {
-                // TODO: cache otherC for neighbors the same community
                 maxDeltaQ = deltaQ;
                 bestComm = otherC;
             }
         }
-        if (maxDeltaQ > 0d && !c.equals(bestComm)) {
-            // move v to the community of maxQ neighbor
-            doMoveCommunity(v, nbs, bestComm);
-            return true;
+        if (bestComm == c) {
+            return false;
         }
-        return false;
+        /*
+         * Two single vertices may swap their communities with each other
+         * when moving in parallel, only move to the smaller one to avoid it
+         */
+        if (level.sizes.get(c) == 1 && level.sizes.get(bestComm) == 1 &&
+            bestComm > c) {
+            return false;
+        }
+
+        // move v to the community of maxQ neighbor
+        level.communities.set(v, bestComm);
+        level.totals.addAndGet(c, -ki);
+        level.totals.addAndGet(bestComm, ki);
+        level.sizes.decrementAndGet(c);
+        level.sizes.incrementAndGet(bestComm);
+        return true;
     }
 
-    private double moveCommunities(int pass) {
+    private double moveCommunities(Level level, int pass) {
         LOG.info("Detect community for pass {}", pass);
-        Iterator<Vertex> vertices = this.sourceVertices(pass);
-
-        // shuffle
-        //r = r.order().by(shuffle);
-
-        long total = 0L;
-        AtomicLong moved = new AtomicLong(0L);
-
-        Consumers<Vertex> consumers = new Consumers<>(this.executor, v -> {
-            // called by multi-threads
-            if (this.moveCommunity(v, pass)) {
-                moved.incrementAndGet();
-            }
+        // move all vertices in parallel, return the number of moved
+        double moved = level.graph.sum(this.executor, v -> {
+            return this.moveCommunity(level, v) ? 1d : 0d;
         });
 
-        consumers.start("louvain-move-pass-" + pass);
-        try {
-            while (vertices.hasNext()) {
-                this.updateProgress(++this.progress);
-                Vertex v = vertices.next();
-                if (needSkipVertex(pass, v)) {
-                    // skip the old intermediate data, or filter clabel
-                    continue;
-                }
-                total++;
-                consumers.provide(v);
-            }
-        } catch (Throwable e) {
-            throw Consumers.wrapException(e);
-        } finally {
-            consumers.await();
-        }
+        long total = level.total;
+        this.progress += total;
+        this.updateProgress(this.progress);
 
         // maybe always shocking when set degree limited
-        return total == 0L ? 0d : moved.doubleValue() / total;
+        return total == 0L ? 0d : moved / total;
     }
 
-    private void mergeCommunities(int pass) {
-        LOG.info("Merge community for pass {}", pass);
-        // merge each community as a vertex
-        Collection<Pair<Community, Set<Id>>> comms = this.cache.communities();
-        assert this.skipIsolated || this.allMembersExist(comms, pass - 1);
-        this.cache.resetVertexWeight();
+    private void insertCommunities(int pass, Level level, Level merged) {
+        LOG.info("Save community for pass {}", pass);
+        // the members of each community
+        List<List<String>> members = new ArrayList<>(merged.graph.vertexCount());
+        for (int i = 0; i < merged.graph.vertexCount(); i++) {
+            members.add(new ArrayList<>());
+        }
+        for (int v = 0; v < level.graph.vertexCount(); v++) {
+            int cid = level.merged[v];
+            if (cid != Level.EXCLUDED) {
+                members.get(cid).add(this.idOfNode(pass - 1, level, v));
+            }
+        }
 
-        Consumers<Pair<Community, Set<Id>>> consumers = new Consumers<>(
-                this.executor, pair -> {
+        Consumers<Integer> consumers = new Consumers<>(this.executor, cid -> {
             // called by multi-threads
-            this.mergeCommunity(pass, pair.getLeft(), pair.getRight());
+            this.insertNewCommunity(pass, merged, cid, members.get(cid));
         }, () -> {
             // commit when finished
             this.graph().tx().commit();
         });
 
-        consumers.start("louvain-merge-pass-" + pass);
+        consumers.start("louvain-save-pass-" + pass);
         try {
-            for (Pair<Community, Set<Id>> pair : comms) {
-                Community c = pair.getLeft();
-                if (c.empty()) {
-                    continue;
-                }
-                this.progress += pair.getRight().size();
+            for (int cid = 0; cid < merged.graph.vertexCount(); cid++) {
+                this.progress += members.get(cid).size();
                 this.updateProgress(this.progress);
-                //this.mergeCommunity(pass, pair.getLeft(), pair.getRight());
-                consumers.provide(pair);
+                consumers.provide(cid);
             }
         } catch (Throwable e) {
             throw Consumers.wrapException(e);
@@ -483,81 +316,47 @@ public class LouvainTraverser extends AlgoTraverser {
         }
 
         this.graph().tx().commit();
-        assert this.skipIsolated || this.allMembersExist(pass);
-
-        // reset communities
-        this.cache.reset();
     }
 
-    private void mergeCommunity(int pass, Community c, Set<Id> cvertices) {
-        // update kin and edges between communities
-        int kin = c.kin();
-        int membersSize = cvertices.size();
-        assert !cvertices.isEmpty();
-        assert membersSize == c.size();
-        List<String> members = new ArrayList<>(membersSize);
-        Map<Id, MutableFloat> cedges = new HashMap<>(membersSize);
-        for (Id v : cvertices) {
-            members.add(v.toString());
-            // collect edges between this community and other communities
-            List<Edge> neighbors = neighbors(v);
-            for (Edge edge : neighbors) {
-                Vertex otherV = ((HugeEdge) edge).otherVertex();
-                if (cvertices.contains(otherV.id())) {
-                    // inner edges of this community, will be calc twice
-                    // due to both e-in and e-out are in vertices,
-                    kin += (int) weightOfEdge(edge);
-                    continue;
-                }
-                assert this.cache.vertex2Community(otherV.id()) != null;
-                Id otherCid = communityOfVertex(otherV, null).cid;
-                if (otherCid.compareTo(c.cid) < 0) {
-                    // skip if it should be collected by otherC
-                    continue;
-                }
-                if (!cedges.containsKey(otherCid)) {
-                    cedges.putIfAbsent(otherCid, new MutableFloat(0f));
-                }
-                // update edge weight
-                cedges.get(otherCid).add(weightOfEdge(edge));
+    private void insertNewCommunity(int pass, Level merged, int cid,
+                                    List<String> members) {
+        /*
+         * kin: weight of all edges in the community(2X), including the kin
+         *      of members, it's the self-loop of the merged vertex
+         * cweight: members size(all pass) of the community
+         */
+        CsrGraph graph = merged.graph;
+        int kin = 0;
+        for (int e = graph.edgeStart(cid); e < graph.edgeEnd(cid); e++) {
+            if (graph.target(e) == cid) {
+                kin = (int) graph.weight(e);
             }
         }
-
-        // insert new community vertex and edges into storage
-        this.insertNewCommunity(pass, c.cid, c.weight(), kin, members, cedges);
-    }
-
-    private boolean allMembersExist(Collection<Pair<Community, Set<Id>>> comms,
-                                    int lastPass) {
-        String lastLabel = labelOfPassN(lastPass);
-        GraphTraversal<Vertex, Object> t = lastPass < 0 ? this.g.V().id() :
-                                           this.g.V().hasLabel(lastLabel).id();
-        Set<Object> all = this.execute(t, t::toSet);
-        for (Pair<Community, Set<Id>> comm : comms) {
-            all.removeAll(comm.getRight());
-        }
-        if (!all.isEmpty()) {
-            LOG.warn("Lost members of last pass: {}", all);
+        Id vid = IdGenerator.of(this.idOfNode(pass, merged, cid));
+        Vertex node = this.newCommunityNode(vid, (float) merged.cweights[cid],
+                                            kin, members);
+        commitIfNeeded();
+        // the edges between communities, collected by the smaller one
+        for (int e = graph.edgeStart(cid); e < graph.edgeEnd(cid); e++) {
+            int other = graph.target(e);
+            if (other <= cid) {
+                continue;
+            }
+            vid = IdGenerator.of(this.idOfNode(pass, merged, other));
+            Vertex targetV = this.makeCommunityNode(vid);
+            this.newCommunityEdge(node, targetV, (float) graph.weight(e));
+            commitIfNeeded();
         }
-        return all.isEmpty();
+        LOG.debug("Add new comm: {} kin={} size={}", node, kin, members.size());
     }
 
-    private boolean allMembersExist(int pass) {
-        String label = labelOfPassN(pass);
-        int lastPass = pass - 1;
-        Number expected;
-        if (lastPass < 0) {
-            expected = tryNext(this.g.V().count()).longValue() -
-                       tryNext(this.g.V().hasLabel(label).count()).longValue();
-        } else {
-            expected = tryNext(this.g.V().hasLabel(labelOfPassN(lastPass))
-                                     .values(C_WEIGHT).sum());
+    private String idOfNode(int pass, Level level, int v) {
+        if (pass < 0) {
+            // the origin vertex
+            return level.graph.id(v).toString();
         }
-        Number actual = tryNext(this.g.V().hasLabel(label)
-                                      .values(C_WEIGHT).sum());
-        boolean allExist = actual.floatValue() == expected.floatValue();
-        assert allExist : actual + "!=" + expected;
-        return allExist;
+        // the community vertex of the pass
+        return pass + "~" + (v + 1);
     }
 
     public Object louvain(int maxTimes, int stableTimes, double precision) {
@@ -566,6 +365,12 @@ public class LouvainTraverser extends AlgoTraverser {
 
         this.defineSchemaOfPk();
 
+        CsrGraph graph = this.loadCsrGraph(this::isSourceVertex,
+                                           Directions.BOTH, null,
+                                           C_WEIGHT, this.degree);
+        Level level = new Level(graph, null, this.skipIsolated);
+        List<Level> levels = new ArrayList<>();
+
         /*
          * iterate until it has stabilized or
          * the maximum number of times is reached
@@ -579,7 +384,7 @@ public class LouvainTraverser extends AlgoTraverser {
             boolean finished = true;
             lastMovedPercent = 1d;
             int tinyChanges = 0;
-            while ((movedPercent = this.moveCommunities(i)) > 0d) {
+            while ((movedPercent = this.moveCommunities(level, i)) > 0d) {
                 movedTimes++;
                 finished = false;
                 if (lastMovedPercent - movedPercent < precision) {
@@ -599,11 +404,20 @@ public class LouvainTraverser extends AlgoTraverser {
                 times = i;
                 break;
             } else {
-                this.defineSchemaOfPassN(i);
-                this.mergeCommunities(i);
+                // merge each community as a vertex in memory
+                LOG.info("Merge community for pass {}", i);
+                levels.add(level);
+                level = level.merge(this.executor);
             }
         }
 
+        // only save the communities of each pass when all passes finished
+        for (int pass = 0; pass < levels.size(); pass++) {
+            Level merged = pass + 1 < levels.size() ? levels.get(pass + 1) : level;
+            this.defineSchemaOfPassN(pass);
+            this.insertCommunities(pass, levels.get(pass), merged);
+        }
+
         Map<String, Object> results = InsertionOrderUtil.newMap();
         results.putAll(ImmutableMap.of("pass_times", times,
                                        "phase1_times", movedTimes,
@@ -611,10 +425,10 @@ public class LouvainTraverser extends AlgoTraverser {
                                        "times", maxTimes));
         Number communities = 0L;
         Number modularity = -1L;
-        String commLabel = this.passLabel;
-        if (!commLabel.isEmpty()) {
-            communities = tryNext(this.g.V().hasLabel(commLabel).count());
-            modularity = this.modularity(commLabel);
+        if (!levels.isEmpty()) {
+            // each vertex of the last merged level is a community
+            communities = level.graph.vertexCount();
+            modularity = level.modularity();
         }
         results.putAll(ImmutableMap.of("communities", communities,
                                        "modularity", modularity));
@@ -750,171 +564,114 @@ public class LouvainTraverser extends AlgoTraverser {
         return this.progress;
     }
 
-    private static class Community {
-
-        // community id (stored as a backend vertex)
-        private final Id cid;
-        // community members size of last pass [just for skip large community]
-        private int size = 0;
-        // community members size of origin vertex [just for debug members lost]
-        private float weight = 0f;
-        /*
-         * weight of all edges in community(2X), sum of kin of new members
-         *  [each is from the last pass, stored in backend vertex]
-         */
-        private int kin = 0;
-        /*
-         * weight of all edges between communities, sum of kout of new members
-         * [each is last pass, calculated in real time by neighbors]
-         */
-        private float kout = 0f;
-
-        public Community(Id cid) {
-            this.cid = cid;
-        }
-
-        public boolean empty() {
-            return this.size <= 0;
-        }
-
-        public int size() {
-            return this.size;
-        }
-
-        public float weight() {
-            return this.weight;
-        }
-
-        public synchronized void add(LouvainTraverser t,
-                                     Vertex v, List<Edge> nbs) {
-            this.size++;
-            this.weight += t.cweightOfVertex(v);
-            this.kin += t.kinOfVertex(v);
-            this.kout += t.weightOfVertex(v, nbs);
-        }
-
-        public synchronized void remove(LouvainTraverser t,
-                                        Vertex v, List<Edge> nbs) {
-            this.size--;
-            this.weight -= t.cweightOfVertex(v);
-            this.kin -= t.kinOfVertex(v);
-            this.kout -= t.weightOfVertex(v, nbs);
-        }
-
-        public synchronized int kin() {
-            return this.kin;
-        }
-
-        public synchronized float kout() {
-            return this.kout;
-        }
-
-        @Override
-        public boolean equals(Object object) {
-            if (!(object instanceof Community)) {
-                return false;
-            }
-            Community other = (Community) object;
-            return Objects.equals(this.cid, other.cid);
-        }
-
-        @Override
-        public String toString() {
-            return String.format("[%s](size=%s weight=%s kin=%s kout=%s)",
-                                 this.cid, this.size, this.weight,
-                                 this.kin, this.kout);
-        }
-    }
-
-    private static class Cache {
-
-        private final Map<Id, Float> vertexWeightCache;
-        private final Map<Id, Community> vertex2Community;
-        private final Map<Id, Integer> genIds;
-
-        public Cache() {
-            this.vertexWeightCache = new ConcurrentHashMap<>();
-            this.vertex2Community = new ConcurrentHashMap<>();
-            this.genIds = new ConcurrentHashMap<>();
-        }
-
-        public Community vertex2Community(Object id) {
-            assert id instanceof Id;
-            return this.vertex2Community.get(id);
-        }
-
-        public Community vertex2Community(Id id, Community c) {
-            return this.vertex2Community.put(id, c);
-        }
-
-        public Community vertex2CommunityIfAbsent(Id id, Community c) {
-            Community old = this.vertex2Community.putIfAbsent(id, c);
-            if (old != null) {
-                c = old;
+    /**
+     * The vertices and communities of a pass in memory, the vertices of the
+     * first pass are the origin vertices, and the vertices of the next pass
+     * are the merged communities of the last pass
+     */
+    private static class Level {
+
+        private static final int EXCLUDED = -1;
+
+        private final CsrGraph graph;
+        // members size of origin vertex of each vertex
+        private final double[] cweights;
+        // weight of all edges of each vertex, including the inner edges
+        private final double[] weights;
+        // weight of all edges(2X), it's constant for all passes
+        private final double m;
+        // number of vertices to move
+        private final long total;
+
+        // community of each vertex, the community id is a vertex index
+        private final AtomicIntegerArray communities;
+        // weight of all edges of each community
+        private final AtomicDoubleArray totals;
+        // members size of each community
+        private final AtomicIntegerArray sizes;
+        // merged community index of each vertex after merge()
+        private int[] merged;
+
+        public Level(CsrGraph graph, double[] cweights, boolean skipIsolated) {
+            int size = graph.vertexCount();
+            this.graph = graph;
+            this.cweights = cweights;
+            this.weights = new double[size];
+            this.communities = new AtomicIntegerArray(size);
+            this.totals = new AtomicDoubleArray(size);
+            this.sizes = new AtomicIntegerArray(size);
+
+            double m = 0d;
+            long total = 0L;
+            for (int v = 0; v < size; v++) {
+                double weight = 0d;
+                for (int e = graph.edgeStart(v); e < graph.edgeEnd(v); e++) {
+                    weight += graph.weight(e);
+                }
+                this.weights[v] = weight;
+                m += weight;
+                if (skipIsolated && graph.degree(v) == 0) {
+                    this.communities.set(v, EXCLUDED);
+                    continue;
+                }
+                // each vertex is a community at the beginning
+                this.communities.set(v, v);
+                this.totals.set(v, weight);
+                this.sizes.set(v, 1);
+                total++;
             }
-            return c;
-        }
-
-        public Float vertexWeight(Id id) {
-            return this.vertexWeightCache.get(id);
-        }
-
-        public void vertexWeight(Id id, float weight) {
-            this.vertexWeightCache.put(id, weight);
-        }
-
-        public void reset() {
-            this.vertexWeightCache.clear();
-            this.vertex2Community.clear();
-            this.genIds.clear();
+            this.m = m;
+            this.total = total;
         }
 
-        public void resetVertexWeight() {
-            this.vertexWeightCache.clear();
+        public double cweight(int v) {
+            return this.cweights == null ? 1d : this.cweights[v];
         }
 
-        public Id genId(int pass, Id cid) {
-            synchronized (this.genIds) {
-                if (!this.genIds.containsKey(cid)) {
-                    this.genIds.putIfAbsent(cid, this.genIds.size() + 1);
+        public Level merge(ExecutorService executor) {
+            int size = this.graph.vertexCount();
+            // renumber the non-empty communities
+            int[] indexes = new int[size];
+            Arrays.fill(indexes, EXCLUDED);
+            int[] merged = new int[size];
+            int count = 0;
+            for (int v = 0; v < size; v++) {
+                int c = this.communities.get(v);
+                if (c == EXCLUDED) {
+                    merged[v] = EXCLUDED;
+                    continue;
+                }
+                if (indexes[c] == EXCLUDED) {
+                    indexes[c] = count++;
                 }
-                String id = pass + "~" + this.genIds.get(cid);
-                return IdGenerator.of(id);
+                merged[v] = indexes[c];
             }
-        }
+            this.merged = merged;
 
-        @SuppressWarnings("unused")
-        public Id genId2(int pass, Id cid) {
-            // gen id for merge-community vertex
-            String id = cid.toString();
-            if (pass == 0) {
-                // concat pass with cid
-                id = pass + "~" + id;
-            } else {
-                // replace last pass with current pass
-                String lastPass = String.valueOf(pass - 1);
-                assert id.startsWith(lastPass);
-                id = id.substring(lastPass.length());
-                id = pass + id;
+            double[] cweights = new double[count];
+            for (int v = 0; v < size; v++) {
+                if (merged[v] != EXCLUDED) {
+                    cweights[merged[v]] += this.cweight(v);
+                }
             }
-            return IdGenerator.of(id);
-        }
-
-        public Collection<Pair<Community, Set<Id>>> communities() {
-            // TODO: get communities from backend store instead of ram
-            Map<Id, Pair<Community, Set<Id>>> comms = new HashMap<>();
-            for (Entry<Id, Community> e : this.vertex2Community.entrySet()) {
-                Community c = e.getValue();
-                if (c.empty()) {
-                    continue;
+            CsrGraph graph = this.graph.contract(executor, merged, count);
+            return new Level(graph, cweights, false);
+        }
+
+        public double modularity() {
+            // Q = ∑(I/M - ((2I+O)/2M)^2), each vertex is a community
+            double q = 0d;
+            for (int v = 0; v < this.graph.vertexCount(); v++) {
+                double cin = 0d;
+                for (int e = this.graph.edgeStart(v);
+                     e < this.graph.edgeEnd(v); e++) {
+                    if (this.graph.target(e) == v) {
+                        cin += this.graph.weight(e);
+                    }
                 }
-                Pair<Community, Set<Id>> pair = comms.computeIfAbsent(c.cid, k -> {
-                    return Pair.of(c, new HashSet<>());
-                });
-                // collect members joined to the community [current pass]
-                pair.getRight().add(e.getKey());
+                q += cin / this.m - Math.pow(this.weights[v] / this.m, 2);
             }
-            return comms.values();
+            return q;
         }
     }
 }
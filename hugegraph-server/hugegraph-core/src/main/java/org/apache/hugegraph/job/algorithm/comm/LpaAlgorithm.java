@@ -17,24 +17,20 @@
 
 package org.apache.hugegraph.job.algorithm.comm;
 
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.BitSet;
 import java.util.Iterator;
-import java.util.List;
 import java.util.Map;
-import java.util.Random;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.ThreadLocalRandom;
 
-import org.apache.commons.lang3.mutable.MutableInt;
-import org.apache.hugegraph.backend.id.Id;
 import org.apache.hugegraph.job.UserJob;
-import org.apache.hugegraph.schema.SchemaManager;
-import org.apache.hugegraph.schema.VertexLabel;
+import org.apache.hugegraph.job.algorithm.CsrGraph;
+import org.apache.hugegraph.type.define.DataType;
 import org.apache.hugegraph.type.define.Directions;
 import org.apache.hugegraph.util.E;
-import org.apache.tinkerpop.gremlin.process.traversal.Scope;
-import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.eclipse.collections.api.list.primitive.MutableIntList;
+import org.eclipse.collections.impl.map.mutable.primitive.IntIntHashMap;
+import org.eclipse.collections.impl.set.mutable.primitive.IntHashSet;
 
 import com.google.common.collect.ImmutableMap;
 
@@ -85,10 +81,11 @@ public class LpaAlgorithm extends AbstractCommAlgorithm {
 
         private static final long LIMIT = MAX_QUERY_LIMIT;
 
-        private final Random R = new Random();
+        private final ThreadLocal<IntIntHashMap> labelCounts;
 
         public Traverser(UserJob<Object> job, int workers) {
             super(job, ALGO_NAME, workers);
+            this.labelCounts = ThreadLocal.withInitial(IntIntHashMap::new);
         }
 
         public Object lpa(String sourceLabel, String edgeLabel,
@@ -99,6 +96,19 @@ public class LpaAlgorithm extends AbstractCommAlgorithm {
 
             this.initSchema();
 
+            CsrGraph graph = this.loadCsrGraph(dir, edgeLabel, null, degree);
+            BitSet sources = this.sourceVertices(graph, sourceLabel, null);
+            /*
+             * The label of each vertex is the index of a vertex, initialized
+             * with itself. NOTE: the labels are read and updated by multiple
+             * threads without locks, reading a stale label of neighbor is
+             * acceptable just like the asynchronous LPA
+             */
+            int[] labels = new int[graph.vertexCount()];
+            for (int i = 0; i < labels.length; i++) {
+                labels[i] = i;
+            }
+
             int times = maxTimes;
             double changedPercent = 0d;
 
@@ -108,22 +118,27 @@ public class LpaAlgorithm extends AbstractCommAlgorithm {
              *  2.or the maximum number of times is reached
              */
             for (int i = 0; i < maxTimes; i++) {
-                changedPercent = this.detectCommunities(sourceLabel, edgeLabel,
-                                                        dir, degree);
+                changedPercent = this.detectCommunities(graph, sources, labels);
                 if (changedPercent <= precision) {
                     times = i + 1;
                     break;
                 }
             }
 
-            Number communities = tryNext(this.graph().traversal().V()
-                                             .filter(__.properties(C_LABEL))
-                                             .groupCount().by(C_LABEL)
-                                             .count(Scope.local));
+            // Only write the final labels of source vertices
+            this.writeBackProperty(graph, C_LABEL, vertex -> {
+                if (!sources.get(vertex)) {
+                    return null;
+                }
+                return graph.id(labels[vertex]).toString();
+            });
+
+            IntHashSet communities = new IntHashSet();
+            sources.stream().forEach(vertex -> communities.add(labels[vertex]));
             return ImmutableMap.of("iteration_times", times,
                                    "last_precision", changedPercent,
                                    "times", maxTimes,
-                                   "communities", communities);
+                                   "communities", communities.size());
         }
 
         public Object showCommunity(String clabel) {
@@ -142,84 +157,50 @@ public class LpaAlgorithm extends AbstractCommAlgorithm {
             return json.asJson();
         }
 
-        private double detectCommunities(String sourceLabel, String edgeLabel,
-                                         Directions dir, long degree) {
-            // shuffle: r.order().by(shuffle)
-            // r = this.graph().traversal().V().sample((int) LIMIT);
-
-            // detect all vertices
-            AtomicLong changed = new AtomicLong(0L);
-            long total = this.traverse(sourceLabel, null, v -> {
-                // called by multi-threads
-                if (this.voteCommunityAndUpdate(v, edgeLabel, dir, degree)) {
-                    changed.incrementAndGet();
+        private double detectCommunities(CsrGraph graph, BitSet sources,
+                                         int[] labels) {
+            // detect all source vertices in parallel
+            double changed = graph.sum(this.executor, vertex -> {
+                if (!sources.get(vertex)) {
+                    return 0d;
+                }
+                int label = this.voteCommunityOfVertex(graph, vertex, labels);
+                if (label == labels[vertex]) {
+                    return 0d;
                 }
-            }, () -> {
-                // commit when finished
-                this.graph().tx().commit();
+                labels[vertex] = label;
+                return 1d;
             });
 
-            return total == 0L ? 0d : changed.doubleValue() / total;
+            long total = sources.cardinality();
+            this.progress += total;
+            this.updateProgress(this.progress);
+            return total == 0L ? 0d : changed / total;
         }
 
-        private boolean voteCommunityAndUpdate(Vertex vertex, String edgeLabel,
-                                               Directions dir, long degree) {
-            String label = this.voteCommunityOfVertex(vertex, edgeLabel,
-                                                      dir, degree);
-            // update label if it's absent or changed
-            if (!labelPresent(vertex) || !label.equals(labelOfVertex(vertex))) {
-                this.updateLabelOfVertex(vertex, label);
-                return true;
-            }
-            return false;
-        }
-
-        private String voteCommunityOfVertex(Vertex vertex, String edgeLabel,
-                                             Directions dir, long degree) {
-            // neighbors of source vertex v
-            Id source = (Id) vertex.id();
-            Id labelId = this.getEdgeLabelIdOrNull(edgeLabel);
-            Iterator<Id> neighbors = this.adjacentVertices(source, dir,
-                                                           labelId, degree);
-
-            // whether include vertex itself, greatly affects the result.
-            // get a larger number of small communities if include itself
-            //neighbors.inject(v);
-
-            // calculate label frequency
-            Map<String, MutableInt> labels = new HashMap<>();
-            while (neighbors.hasNext()) {
-                String label = this.labelOfVertex(neighbors.next());
-                if (label == null) {
-                    // ignore invalid or not-exist vertex
-                    continue;
-                }
-                MutableInt labelCount = labels.get(label);
-                if (labelCount != null) {
-                    labelCount.increment();
-                } else {
-                    labels.put(label, new MutableInt(1));
-                }
+        private int voteCommunityOfVertex(CsrGraph graph, int vertex,
+                                          int[] labels) {
+            // isolated vertex
+            if (graph.degree(vertex) == 0) {
+                return labels[vertex];
             }
 
-            // isolated vertex
-            if (labels.isEmpty()) {
-                return this.labelOfVertex(vertex);
+            /*
+             * Calculate label frequency of the neighbors, don't include the
+             * vertex itself, it greatly affects the result: get a larger
+             * number of small communities if include itself
+             */
+            IntIntHashMap counts = this.labelCounts.get();
+            counts.clear();
+            for (int e = graph.edgeStart(vertex); e < graph.edgeEnd(vertex); e++) {
+                counts.addToValue(labels[graph.target(e)], 1);
             }
 
             // get the labels with maximum frequency
-            List<String> maxLabels = new ArrayList<>();
-            int maxFreq = 1;
-            for (Map.Entry<String, MutableInt> e : labels.entrySet()) {
-                int value = e.getValue().intValue();
-                if (value > maxFreq) {
-                    maxFreq = value;
-                    maxLabels.clear();
-                }
-                if (value == maxFreq) {
-                    maxLabels.add(e.getKey());
-                }
-            }
+            int maxFreq = counts.max();
+            MutableIntList maxLabels = counts.select((label, freq) -> {
+                return freq == maxFreq;
+            }).keysView().toList();
 
             /*
              * TODO:
@@ -227,45 +208,12 @@ public class LpaAlgorithm extends AbstractCommAlgorithm {
              */
 
             // random choice
-            int selected = this.R.nextInt(maxLabels.size());
+            int selected = ThreadLocalRandom.current().nextInt(maxLabels.size());
             return maxLabels.get(selected);
         }
 
-        private boolean labelPresent(Vertex vertex) {
-            return vertex.property(C_LABEL).isPresent();
-        }
-
-        private String labelOfVertex(Vertex vertex) {
-            if (!labelPresent(vertex)) {
-                return vertex.id().toString();
-            }
-            return vertex.value(C_LABEL);
-        }
-
-        private String labelOfVertex(Id vid) {
-            // TODO: cache with Map<Id, String>
-            Vertex vertex = this.vertex(vid);
-            if (vertex == null) {
-                return null;
-            }
-            return this.labelOfVertex(vertex);
-        }
-
-        private void updateLabelOfVertex(Vertex v, String label) {
-            // TODO: cache with Map<Id, String>
-            v.property(C_LABEL, label);
-            this.commitIfNeeded();
-        }
-
         private void initSchema() {
-            String cl = C_LABEL;
-            SchemaManager schema = this.graph().schema();
-            schema.propertyKey(cl).asText().ifNotExist().create();
-            for (VertexLabel vl : schema.getVertexLabels()) {
-                schema.vertexLabel(vl.name())
-                      .properties(cl).nullableKeys(cl)
-                      .append();
-            }
+            this.initResultProperty(C_LABEL, DataType.TEXT);
         }
     }
 }
@@ -17,21 +17,18 @@
 
 package org.apache.hugegraph.job.algorithm.comm;
 
-import java.util.Iterator;
 import java.util.Map;
-import java.util.Set;
-import java.util.TreeSet;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntConsumer;
+import java.util.function.IntToDoubleFunction;
 
-import org.apache.commons.lang.mutable.MutableLong;
-import org.apache.hugegraph.backend.id.Id;
-import org.apache.hugegraph.backend.id.IdGenerator;
 import org.apache.hugegraph.job.UserJob;
-import org.apache.hugegraph.structure.HugeEdge;
+import org.apache.hugegraph.job.algorithm.CsrGraph;
+import org.apache.hugegraph.schema.SchemaManager;
 import org.apache.hugegraph.type.define.Directions;
-import org.apache.hugegraph.util.E;
+import org.apache.hugegraph.type.define.WriteType;
 import org.apache.hugegraph.util.InsertionOrderUtil;
-import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.hugegraph.util.ParameterUtil;
 
 import com.google.common.collect.ImmutableMap;
 
@@ -39,14 +36,14 @@ public class TriangleCountAlgorithm extends AbstractCommAlgorithm {
 
     public static final String ALGO_NAME = "triangle_count";
 
-    protected static int workersWhenBoth(Map<String, Object> parameters) {
-        Directions direction = direction4Out(parameters);
-        int workers = workers(parameters);
-        E.checkArgument(direction == Directions.BOTH || workers <= 0,
-                        "The workers must be not set when direction!=BOTH, " +
-                        "but got workers=%s and direction=%s",
-                        workers, direction);
-        return workers;
+    public static final String KEY_WRITE_BACK = "write_back";
+    public static final String T_TRIANGLES = "t_triangles";
+
+    protected static boolean writeBack(Map<String, Object> parameters) {
+        if (!parameters.containsKey(KEY_WRITE_BACK)) {
+            return false;
+        }
+        return ParameterUtil.parameterBoolean(parameters, KEY_WRITE_BACK);
     }
 
     @Override
@@ -58,15 +55,17 @@ public class TriangleCountAlgorithm extends AbstractCommAlgorithm {
     public void checkParameters(Map<String, Object> parameters) {
         direction4Out(parameters);
         degree(parameters);
-        workersWhenBoth(parameters);
+        workers(parameters);
+        writeBack(parameters);
     }
 
     @Override
     public Object call(UserJob<Object> job, Map<String, Object> parameters) {
-        int workers = workersWhenBoth(parameters);
+        int workers = workers(parameters);
         try (Traverser traverser = new Traverser(job, workers)) {
             return traverser.triangleCount(direction4Out(parameters),
-                                           degree(parameters));
+                                           degree(parameters),
+                                           writeBack(parameters));
         }
     }
 
@@ -74,6 +73,8 @@ public class TriangleCountAlgorithm extends AbstractCommAlgorithm {
 
         protected static final String KEY_TRIANGLES = "triangles";
         protected static final String KEY_TRIADS = "triads";
+        protected static final String KEY_EDGES = "edges";
+        protected static final String KEY_VERTICES = "vertices";
 
         public Traverser(UserJob<Object> job, int workers) {
             super(job, ALGO_NAME, workers);
@@ -83,12 +84,10 @@ public class TriangleCountAlgorithm extends AbstractCommAlgorithm {
             super(job, name, workers);
         }
 
-        protected static <V> Set<V> newOrderedSet() {
-            return new TreeSet<>();
-        }
-
-        public Object triangleCount(Directions direction, long degree) {
-            Map<String, Long> results = triangles(direction, degree);
+        public Object triangleCount(Directions direction, long degree,
+                                    boolean writeBack) {
+            Map<String, Long> results = this.triangles(direction, degree,
+                                                       writeBack);
             results = InsertionOrderUtil.newMap(results);
             results.remove(KEY_TRIADS);
             return results;
@@ -96,144 +95,144 @@ public class TriangleCountAlgorithm extends AbstractCommAlgorithm {
 
         protected Map<String, Long> triangles(Directions direction,
                                               long degree) {
+            return this.triangles(direction, degree, false);
+        }
+
+        /**
+         * Count triangles over the CsrGraph snapshot with sorted adjacency,
+         * the vertices are counted in parallel by chunks
+         * @param writeBack Whether to write the triangles count of each
+         *                  vertex back as the olap property t_triangles
+         */
+        protected Map<String, Long> triangles(Directions direction,
+                                              long degree, boolean writeBack) {
+            if (writeBack) {
+                // Create the olap property key before counting
+                SchemaManager schema = this.graph().schema();
+                schema.propertyKey(T_TRIANGLES).asLong()
+                      .writeType(WriteType.OLAP_COMMON).ifNotExist().create();
+            }
             if (direction == null || direction == Directions.BOTH) {
-                return this.trianglesForBothDir(degree);
+                return this.trianglesForBothDir(degree, writeBack);
             }
 
             assert direction == Directions.OUT || direction == Directions.IN;
 
-            Iterator<Edge> edges = this.edges(direction);
-
-            long triangles = 0L;
-            long triads = 0L;
-            long totalEdges = 0L;
-            long totalVertices = 0L;
-            Id vertex = null;
-
-            Set<Id> adjVertices = newOrderedSet();
-            while (edges.hasNext()) {
-                HugeEdge edge = (HugeEdge) edges.next();
-                this.updateProgress(++totalEdges);
-
-                Id source = edge.ownerVertex().id();
-                Id target = edge.otherVertex().id();
-                if (vertex == source) {
-                    // Ignore and skip the target vertex if exceed degree
-                    if (adjVertices.size() < degree || degree == NO_LIMIT) {
-                        adjVertices.add(target);
+            /*
+             * Find graph mode like this:
+             * A -> [B,C,D,E,F]
+             *      B -> [D,F]
+             *      E -> [B,C,F]
+             * the adjacent vertices of A are the IN vertices if direction
+             * is IN, and those of B and E are always the OUT vertices
+             */
+            CsrGraph outGraph = this.loadCsrGraph(Directions.OUT, null, null,
+                                                  degree)
+                                    .simplify(this.executor);
+            CsrGraph graph = direction == Directions.OUT ?
+                             outGraph : outGraph.transpose();
+
+            AtomicLongArray counts = writeBack ?
+                                     new AtomicLongArray(graph.vertexCount()) :
+                                     null;
+            IntConsumer counter = counts == null ?
+                                  null : counts::incrementAndGet;
+            long triangles = this.countTriangles(graph, counts, vertex -> {
+                long count = 0L;
+                for (int e = graph.edgeStart(vertex);
+                     e < graph.edgeEnd(vertex); e++) {
+                    int adjVertex = graph.target(e);
+                    int common = outGraph.intersect(adjVertex, graph, vertex,
+                                                    counter);
+                    if (counts != null) {
+                        counts.addAndGet(vertex, common);
+                        counts.addAndGet(adjVertex, common);
                     }
-                    continue;
-                }
-
-                if (vertex != null) {
-                    assert vertex != source;
-                    /*
-                     * Find graph mode like this:
-                     * A -> [B,C,D,E,F]
-                     *      B -> [D,F]
-                     *      E -> [B,C,F]
-                     */
-                    triangles += this.intersect(degree, adjVertices);
-                    triads += this.localTriads(adjVertices.size());
-                    totalVertices++;
-                    // Reset for the next source
-                    adjVertices = newOrderedSet();
+                    count += common;
                 }
-                vertex = source;
-                adjVertices.add(target);
-            }
+                return count;
+            });
+            long triads = (long) graph.sum(this.executor, vertex -> {
+                return this.localTriads(graph.degree(vertex));
+            });
+            long totalVertices = (long) graph.sum(this.executor, vertex -> {
+                return graph.degree(vertex) > 0 ? 1.0D : 0.0D;
+            });
 
-            if (vertex != null) {
-                triangles += this.intersect(degree, adjVertices);
-                triads += this.localTriads(adjVertices.size());
-                totalVertices++;
+            if (counts != null) {
+                this.writeBackTriangles(graph, counts);
             }
 
             String suffix = "_" + direction.string();
-            return ImmutableMap.of("edges" + suffix, totalEdges,
-                                   "vertices" + suffix, totalVertices,
+            return ImmutableMap.of(KEY_EDGES + suffix,
+                                   (long) graph.edgeCount(),
+                                   KEY_VERTICES + suffix, totalVertices,
                                    KEY_TRIANGLES, triangles,
                                    KEY_TRIADS, triads);
         }
 
-        protected Map<String, Long> trianglesForBothDir(long degree) {
-            AtomicLong triangles = new AtomicLong(0L);
-            AtomicLong triads = new AtomicLong(0L);
-            AtomicLong totalEdges = new AtomicLong(0L);
-            AtomicLong totalVertices = new AtomicLong(0L);
-
-            this.traverse(null, null, v -> {
-                Id source = (Id) v.id();
-
-                MutableLong edgesCount = new MutableLong(0L);
-                Set<Id> adjVertices = this.adjacentVertices(source, degree,
-                                                            edgesCount);
-
-                triangles.addAndGet(this.intersect(degree, adjVertices));
-                triads.addAndGet(this.localTriads(adjVertices.size()));
-
-                totalVertices.incrementAndGet();
-                totalEdges.addAndGet(edgesCount.longValue());
+        protected Map<String, Long> trianglesForBothDir(long degree,
+                                                        boolean writeBack) {
+            CsrGraph graph = this.loadCsrGraph(Directions.BOTH, null, null,
+                                               degree)
+                                 .simplify(this.executor);
+            // Each triangle is counted once from its lowest ordered vertex
+            CsrGraph oriented = graph.orient(this.executor);
+
+            AtomicLongArray counts = writeBack ?
+                                     new AtomicLongArray(graph.vertexCount()) :
+                                     null;
+            IntConsumer counter = counts == null ?
+                                  null : counts::incrementAndGet;
+            long triangles = this.countTriangles(oriented, counts, vertex -> {
+                long count = 0L;
+                for (int e = oriented.edgeStart(vertex);
+                     e < oriented.edgeEnd(vertex); e++) {
+                    int adjVertex = oriented.target(e);
+                    int common = oriented.intersect(vertex, oriented,
+                                                    adjVertex, counter);
+                    if (counts != null) {
+                        counts.addAndGet(vertex, common);
+                        counts.addAndGet(adjVertex, common);
+                    }
+                    count += common;
+                }
+                return count;
             });
+            long triads = (long) graph.sum(this.executor, vertex -> {
+                return this.localTriads(graph.degree(vertex));
+            });
+            triads -= triangles * 2L;
 
-            assert totalEdges.get() % 2L == 0L;
-            assert triangles.get() % 3L == 0L;
-            // totalEdges /= 2L
-            totalEdges.getAndAccumulate(2L, (l, w) -> l / w);
-            // triangles /= 3L
-            triangles.getAndAccumulate(3L, (l, w) -> l / w);
-            // triads -= triangles * 2L
-            triads.addAndGet(triangles.get() * -2L);
-
-            return ImmutableMap.of("edges", totalEdges.get(),
-                                   "vertices", totalVertices.get(),
-                                   KEY_TRIANGLES, triangles.get(),
-                                   KEY_TRIADS, triads.get());
-        }
-
-        private Set<Id> adjacentVertices(Id source, long degree,
-                                         MutableLong edgesCount) {
-            Iterator<Id> adjVertices = this.adjacentVertices(source,
-                                                             Directions.BOTH,
-                                                             (Id) null, degree);
-            Set<Id> set = newOrderedSet();
-            while (adjVertices.hasNext()) {
-                edgesCount.increment();
-                set.add(adjVertices.next());
+            if (counts != null) {
+                this.writeBackTriangles(graph, counts);
             }
-            return set;
+
+            return ImmutableMap.of(KEY_EDGES, graph.edgeCount() / 2L,
+                                   KEY_VERTICES, (long) graph.vertexCount(),
+                                   KEY_TRIANGLES, triangles,
+                                   KEY_TRIADS, triads);
         }
 
-        protected long intersect(long degree, Set<Id> adjVertices) {
-            long count = 0L;
-            Directions dir = Directions.OUT;
-            Id empty = IdGenerator.ZERO;
-            Iterator<Id> vertices;
-            for (Id v : adjVertices) {
-                vertices = this.adjacentVertices(v, dir, (Id) null, degree);
-                Id lastVertex = empty;
-                while (vertices.hasNext()) {
-                    Id vertex = vertices.next();
-                    if (lastVertex.equals(vertex)) {
-                        // Skip duplicated target vertex (through sortkeys)
-                        continue;
-                    }
-                    lastVertex = vertex;
-
-                    /*
-                     * FIXME: deduplicate two edges with opposite directions
-                     * between two specified adjacent vertices
-                     */
-                    if (adjVertices.contains(vertex)) {
-                        count++;
-                    }
-                }
+        /**
+         * Count the triangles of all vertices, which can be resumed from
+         * the checkpoint unless the triangles of each vertex are counted
+         * for writing back, since the counts aren't saved by checkpoint
+         */
+        private long countTriangles(CsrGraph graph, AtomicLongArray counts,
+                                    IntToDoubleFunction counter) {
+            if (counts == null) {
+                return (long) this.sumWithCheckpoint(graph, counter);
             }
-            return count;
+            return (long) graph.sum(this.executor, counter);
         }
 
         protected long localTriads(int size) {
             return size * (size - 1L) / 2L;
         }
+
+        private void writeBackTriangles(CsrGraph graph, AtomicLongArray counts) {
+            this.writeBackProperty(graph, T_TRIANGLES, i -> counts.get(i));
+        }
     }
 }
@@ -25,10 +25,9 @@ import java.util.Map;
 
 import org.apache.hugegraph.backend.id.Id;
 import org.apache.hugegraph.job.UserJob;
-import org.apache.hugegraph.schema.SchemaManager;
-import org.apache.hugegraph.schema.VertexLabel;
 import org.apache.hugegraph.structure.HugeEdge;
 import org.apache.hugegraph.structure.HugeVertex;
+import org.apache.hugegraph.type.define.DataType;
 import org.apache.hugegraph.type.define.Directions;
 import org.apache.hugegraph.util.Log;
 import org.apache.tinkerpop.gremlin.structure.Edge;
@@ -126,13 +125,7 @@ public class WeakConnectedComponent extends AbstractCommAlgorithm {
         }
 
         private void initSchema() {
-            String cl = C_LABEL;
-            SchemaManager schema = this.graph().schema();
-            schema.propertyKey(cl).asText().ifNotExist().create();
-            for (VertexLabel vl : schema.getVertexLabels()) {
-                schema.vertexLabel(vl.name()).properties(cl)
-                      .nullableKeys(cl).append();
-            }
+            this.initResultProperty(C_LABEL, DataType.TEXT);
         }
 
         private void initVertexComponentMap() {
@@ -198,7 +191,11 @@ public class WeakConnectedComponent extends AbstractCommAlgorithm {
          */
         private int writeBackValue() {
             Map<Id, Integer> componentIndexMap = new HashMap<>();
+            int size = this.vertexComponentMap.size();
+            Id[] vertices = new Id[size];
+            String[] components = new String[size];
             int index = 0;
+            int i = 0;
             for (Map.Entry<Id, Id> entry : this.vertexComponentMap.entrySet()) {
                 Id comp = entry.getValue();
                 Integer componentIndex = componentIndexMap.get(comp);
@@ -207,13 +204,12 @@ public class WeakConnectedComponent extends AbstractCommAlgorithm {
                     componentIndexMap.put(comp, componentIndex);
                     index++;
                 }
-                Vertex vertex = this.vertex(entry.getKey());
-                if (vertex != null) {
-                    vertex.property(C_LABEL, String.valueOf(componentIndex));
-                    this.commitIfNeeded();
-                }
+                vertices[i] = entry.getKey();
+                components[i] = String.valueOf(componentIndex);
+                i++;
             }
-            this.graph().tx().commit();
+            this.writeBackProperty(C_LABEL, size, v -> vertices[v],
+                                   v -> components[v]);
             return index;
         }
     }
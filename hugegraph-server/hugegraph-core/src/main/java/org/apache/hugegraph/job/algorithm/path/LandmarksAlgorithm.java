@@ -0,0 +1,300 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hugegraph.job.algorithm.path;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.hugegraph.HugeGraph;
+import org.apache.hugegraph.backend.id.Id;
+import org.apache.hugegraph.job.UserJob;
+import org.apache.hugegraph.job.algorithm.AbstractAlgorithm;
+import org.apache.hugegraph.job.algorithm.CsrGraph;
+import org.apache.hugegraph.schema.SchemaManager;
+import org.apache.hugegraph.traversal.algorithm.HugeTraverser;
+import org.apache.hugegraph.traversal.algorithm.WeightedShortestPathTraverser;
+import org.apache.hugegraph.type.define.Directions;
+import org.apache.hugegraph.type.define.WriteType;
+import org.apache.hugegraph.util.E;
+import org.apache.hugegraph.util.InsertionOrderUtil;
+import org.apache.hugegraph.util.ParameterUtil;
+import org.apache.hugegraph.util.collection.IntMinHeap;
+
+/**
+ * Select landmarks by the farthest point strategy and compute the weighted
+ * distances between each landmark and all vertices, which are written as
+ * the olap properties "<prefix>_from" and "<prefix>_to" (only for OUT
+ * direction), they're used as the ALT lower bounds of weighted shortest
+ * path queries with the same edge label and weight property.
+ *
+ * NOTE: the lower bounds are only valid if the landmarks are recomputed
+ * after the edges or the weights are changed.
+ */
+public class LandmarksAlgorithm extends AbstractAlgorithm {
+
+    public static final String ALGO_NAME = "landmarks";
+
+    public static final String KEY_WEIGHT = "weight";
+    public static final String KEY_LANDMARKS = "landmarks";
+    public static final String KEY_PREFIX = "prefix";
+
+    public static final int DEFAULT_LANDMARKS = 16;
+    public static final int MAX_LANDMARKS = 64;
+    public static final String DEFAULT_PREFIX = "landmarks";
+
+    @Override
+    public String category() {
+        return CATEGORY_PATH;
+    }
+
+    @Override
+    public String name() {
+        return ALGO_NAME;
+    }
+
+    @Override
+    public void checkParameters(Map<String, Object> parameters) {
+        direction4Out(parameters);
+        edgeLabel(parameters);
+        weight(parameters);
+        landmarksDegree(parameters);
+        landmarks(parameters);
+        prefix(parameters);
+        workers(parameters);
+    }
+
+    @Override
+    public Object call(UserJob<Object> job, Map<String, Object> parameters) {
+        int workers = workers(parameters);
+        try (Traverser traverser = new Traverser(job, workers)) {
+            return traverser.landmarks(direction4Out(parameters),
+                                       edgeLabel(parameters),
+                                       weight(parameters),
+                                       landmarksDegree(parameters),
+                                       landmarks(parameters),
+                                       prefix(parameters));
+        }
+    }
+
+    protected static String weight(Map<String, Object> parameters) {
+        E.checkArgument(parameters.containsKey(KEY_WEIGHT),
+                        "The %s parameter is required", KEY_WEIGHT);
+        return ParameterUtil.parameterString(parameters, KEY_WEIGHT);
+    }
+
+    /**
+     * The distances must be computed with all edges by default, otherwise
+     * they may exceed the distances of the queries with a larger degree
+     */
+    protected static long landmarksDegree(Map<String, Object> parameters) {
+        if (!parameters.containsKey(KEY_DEGREE)) {
+            return HugeTraverser.NO_LIMIT;
+        }
+        return degree(parameters);
+    }
+
+    protected static int landmarks(Map<String, Object> parameters) {
+        if (!parameters.containsKey(KEY_LANDMARKS)) {
+            return DEFAULT_LANDMARKS;
+        }
+        int landmarks = ParameterUtil.parameterInt(parameters, KEY_LANDMARKS);
+        E.checkArgument(landmarks > 0 && landmarks <= MAX_LANDMARKS,
+                        "The %s parameter must be in range (0, %s], " +
+                        "but got %s", KEY_LANDMARKS, MAX_LANDMARKS, landmarks);
+        return landmarks;
+    }
+
+    protected static String prefix(Map<String, Object> parameters) {
+        if (!parameters.containsKey(KEY_PREFIX)) {
+            return DEFAULT_PREFIX;
+        }
+        return ParameterUtil.parameterString(parameters, KEY_PREFIX);
+    }
+
+    private static class Traverser extends AlgoTraverser {
+
+        public Traverser(UserJob<Object> job, int workers) {
+            super(job, ALGO_NAME, workers);
+        }
+
+        public Object landmarks(Directions direction, String label,
+                                String weight, long degree, int count,
+                                String prefix) {
+            // The distances to landmarks of IN direction are the distances
+            // from landmarks of OUT direction, so both are computed as OUT
+            boolean directed = direction != Directions.BOTH;
+            String fromKey = prefix +
+                             WeightedShortestPathTraverser.LANDMARKS_FROM_SUFFIX;
+            String toKey = prefix +
+                           WeightedShortestPathTraverser.LANDMARKS_TO_SUFFIX;
+            HugeGraph graph = this.graph();
+            if (!directed) {
+                E.checkArgument(!graph.existsPropertyKey(toKey),
+                                "The landmarks '%s' have been computed with " +
+                                "OUT direction, please use another prefix",
+                                prefix);
+            }
+            SchemaManager schema = graph.schema();
+            schema.propertyKey(fromKey).asDouble().valueList()
+                  .writeType(WriteType.OLAP_COMMON).ifNotExist().create();
+            if (directed) {
+                schema.propertyKey(toKey).asDouble().valueList()
+                      .writeType(WriteType.OLAP_COMMON).ifNotExist().create();
+            }
+
+            long startTime = System.currentTimeMillis();
+            CsrGraph csr = this.loadCsrGraph(directed ? Directions.OUT :
+                                             Directions.BOTH,
+                                             label, weight, degree);
+            for (int e = 0; e < csr.edgeCount(); e++) {
+                E.checkArgument(csr.weight(e) >= 0.0D,
+                                "The weight of edges must be >= 0, " +
+                                "but got %s", csr.weight(e));
+            }
+            long loadedTime = System.currentTimeMillis();
+
+            // The distances from landmarks are computed by the selection
+            List<double[]> distances = new ArrayList<>(count);
+            int[] landmarks = this.selectLandmarks(csr, count, distances);
+            double[][] from = distances.toArray(new double[0][]);
+            double[][] to = directed ? new double[landmarks.length][] : from;
+            if (directed) {
+                CsrGraph transposed = csr.transpose();
+                AtomicInteger cursor = new AtomicInteger(0);
+                this.runByWorkers(() -> {
+                    IntMinHeap heap = new IntMinHeap();
+                    int i;
+                    while ((i = cursor.getAndIncrement()) < landmarks.length) {
+                        to[i] = new double[csr.vertexCount()];
+                        dijkstra(transposed, landmarks[i], to[i], heap);
+                    }
+                    return null;
+                });
+            }
+            long computedTime = System.currentTimeMillis();
+
+            this.writeBackProperty(csr, fromKey, v -> distances(from, v));
+            if (directed) {
+                this.writeBackProperty(csr, toKey, v -> distances(to, v));
+            }
+
+            List<Id> landmarkIds = new ArrayList<>(landmarks.length);
+            for (int landmark : landmarks) {
+                landmarkIds.add(csr.id(landmark));
+            }
+            Map<String, Object> results = InsertionOrderUtil.newMap();
+            results.put("landmarks", landmarkIds);
+            results.put("vertices", csr.vertexCount());
+            results.put("edges", csr.edgeCount());
+            results.put("load_time", loadedTime - startTime);
+            results.put("compute_time", computedTime - loadedTime);
+            results.put("write_time", System.currentTimeMillis() - computedTime);
+            return results;
+        }
+
+        /**
+         * Select the first landmark as the farthest vertex from the vertex
+         * with max degree, and each next one as the vertex whose min
+         * distance from the selected landmarks is the max
+         * @param selectedDistances The distances from each landmark
+         */
+        private int[] selectLandmarks(CsrGraph graph, int count,
+                                      List<double[]> selectedDistances) {
+            int vertexCount = graph.vertexCount();
+            if (vertexCount == 0) {
+                return new int[0];
+            }
+            IntMinHeap heap = new IntMinHeap();
+            int start = 0;
+            for (int v = 1; v < vertexCount; v++) {
+                if (graph.degree(v) > graph.degree(start)) {
+                    start = v;
+                }
+            }
+            double[] minDistances = new double[vertexCount];
+            dijkstra(graph, start, minDistances, heap);
+
+            int[] landmarks = new int[Math.min(count, vertexCount)];
+            int selected = 0;
+            while (selected < landmarks.length) {
+                int farthest = -1;
+                for (int v = 0; v < vertexCount; v++) {
+                    double distance = minDistances[v];
+                    if (distance != Double.POSITIVE_INFINITY &&
+                        distance > 0.0D && (farthest < 0 ||
+                        distance > minDistances[farthest])) {
+                        farthest = v;
+                    }
+                }
+                if (farthest < 0) {
+                    // All reachable vertices are landmarks
+                    break;
+                }
+                double[] distances = new double[vertexCount];
+                dijkstra(graph, farthest, distances, heap);
+                landmarks[selected++] = farthest;
+                selectedDistances.add(distances);
+                for (int v = 0; v < vertexCount; v++) {
+                    if (selected == 1) {
+                        minDistances[v] = distances[v];
+                    } else {
+                        minDistances[v] = Math.min(minDistances[v],
+                                                   distances[v]);
+                    }
+                }
+                this.updateProgress(++this.progress);
+            }
+            return Arrays.copyOf(landmarks, selected);
+        }
+
+        private static List<Double> distances(double[][] distances,
+                                              int vertex) {
+            List<Double> values = new ArrayList<>(distances.length);
+            for (double[] landmark : distances) {
+                double distance = landmark[vertex];
+                values.add(distance == Double.POSITIVE_INFINITY ?
+                           -1.0D : distance);
+            }
+            return values;
+        }
+
+        private static void dijkstra(CsrGraph graph, int source,
+                                     double[] distances, IntMinHeap heap) {
+            Arrays.fill(distances, Double.POSITIVE_INFINITY);
+            distances[source] = 0.0D;
+            heap.clear();
+            heap.offer(source, 0.0D);
+            while (!heap.isEmpty()) {
+                double distance = heap.peekPriority();
+                int vertex = heap.poll();
+                for (int e = graph.edgeStart(vertex);
+                     e < graph.edgeEnd(vertex); e++) {
+                    int target = graph.target(e);
+                    double newDistance = distance + graph.weight(e);
+                    if (newDistance < distances[target]) {
+                        distances[target] = newDistance;
+                        heap.offer(target, newDistance);
+                    }
+                }
+            }
+        }
+    }
+}
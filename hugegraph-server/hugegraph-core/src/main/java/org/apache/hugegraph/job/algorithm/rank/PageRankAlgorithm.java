@@ -18,34 +18,31 @@
 package org.apache.hugegraph.job.algorithm.rank;
 
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Iterator;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
 
-import org.apache.hugegraph.backend.id.Id;
 import org.apache.hugegraph.job.UserJob;
+import org.apache.hugegraph.job.algorithm.CsrGraph;
 import org.apache.hugegraph.job.algorithm.comm.AbstractCommAlgorithm;
-import org.apache.hugegraph.schema.SchemaManager;
-import org.apache.hugegraph.schema.VertexLabel;
-import org.apache.hugegraph.structure.HugeEdge;
-import org.apache.hugegraph.structure.HugeVertex;
-import org.apache.hugegraph.traversal.algorithm.HugeTraverser;
+import org.apache.hugegraph.type.define.DataType;
 import org.apache.hugegraph.type.define.Directions;
 import org.apache.hugegraph.util.Log;
-import org.apache.tinkerpop.gremlin.structure.Edge;
-import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.slf4j.Logger;
 
 import com.google.common.collect.ImmutableMap;
 
 public class PageRankAlgorithm extends AbstractCommAlgorithm {
 
+    public static final String ALGO_NAME = "page_rank";
+
     protected static final Logger LOG = Log.logger(PageRankAlgorithm.class);
 
     @Override
     public String name() {
-        return "page_rank";
+        return ALGO_NAME;
     }
 
     @Override
@@ -61,11 +58,13 @@ public class PageRankAlgorithm extends AbstractCommAlgorithm {
         degree(parameters);
         directionOutIn(parameters);
         top(parameters);
+        workers(parameters);
     }
 
     @Override
     public Object call(UserJob<Object> job, Map<String, Object> parameters) {
-        try (Traverser traverser = new Traverser(job)) {
+        int workers = workers(parameters);
+        try (Traverser traverser = new Traverser(job, workers)) {
             return traverser.pageRank(alpha(parameters),
                                       times(parameters),
                                       precision(parameters),
@@ -80,15 +79,12 @@ public class PageRankAlgorithm extends AbstractCommAlgorithm {
 
     private static class Traverser extends AlgoTraverser {
 
-        /*
-         * DoublePair.left is rank computed by previous step,
-         * DoublePair.right is rank computed by current step.
-         */
-        private final Map<Id, DoublePair> vertexRankMap;
+        // The rank computed by previous step, indexed by CsrGraph vertex
+        private double[] ranks;
 
-        public Traverser(UserJob<Object> job) {
-            super(job);
-            this.vertexRankMap = new HashMap<>();
+        public Traverser(UserJob<Object> job, int workers) {
+            super(job, ALGO_NAME, workers);
+            this.ranks = null;
         }
 
         /**
@@ -102,57 +98,75 @@ public class PageRankAlgorithm extends AbstractCommAlgorithm {
                                 long topN) {
             this.initSchema();
 
+            /*
+             * Load the adjacency once instead of scanning edges for each
+             * iteration, a vertex contributes its rank to at most `degree`
+             * adjacent vertices, and each vertex pulls the contributions
+             * from the transposed adjacency, so no synchronization needed.
+             */
+            CsrGraph adjacency = this.loadCsrGraph(direction, null,
+                                                   null, degree);
+            CsrGraph contributors = adjacency.transpose();
+            int numOfVertices = adjacency.vertexCount();
+            if (numOfVertices == 0) {
+                return ImmutableMap.of("alpha", alpha,
+                                       "iteration_times", 0,
+                                       "last_changed_rank", 0.0,
+                                       "times", maxTimes);
+            }
+
+            double[] ranks = new double[numOfVertices];
+            double[] nextRanks = new double[numOfVertices];
+            // The rank distributed to each adjacent vertex
+            double[] distributed = new double[numOfVertices];
+            Arrays.fill(ranks, 1.0 / numOfVertices);
+
             int times;
             double changedRank = 0.0;
-            long numOfVertices = this.initRankMap();
-
+            double oneMinusAlpha = 1.0 - alpha;
+            double baseRank = alpha / numOfVertices;
             for (times = 0; times < maxTimes; times++) {
-                Id currentSourceVertexId = null;
-                // the edges are ordered by ownerVertex
-                Iterator<Edge> edges = this.edges(direction);
-                List<Id> adjacentVertices = new ArrayList<>();
-
-                while (edges.hasNext()) {
-                    HugeEdge edge = (HugeEdge) edges.next();
-                    Id sourceVertexId = edge.ownerVertex().id();
-                    Id targetVertexId = edge.otherVertex().id();
-
-                    if (currentSourceVertexId == null) {
-                        currentSourceVertexId = sourceVertexId;
-                        adjacentVertices.add(targetVertexId);
-                    } else if (currentSourceVertexId.equals(sourceVertexId)) {
-                        if (adjacentVertices.size() < degree) {
-                            adjacentVertices.add(targetVertexId);
-                        }
-                    } else {
-                        this.contributeToAdjacentVertices(currentSourceVertexId,
-                                                          adjacentVertices);
-                        adjacentVertices = new ArrayList<>();
-                        currentSourceVertexId = sourceVertexId;
-                        adjacentVertices.add(targetVertexId);
+                double[] currentRanks = ranks;
+                double[] updatingRanks = nextRanks;
+                adjacency.forEach(this.executor, vertex -> {
+                    int degreeOfVertex = adjacency.degree(vertex);
+                    distributed[vertex] = degreeOfVertex == 0 ? 0.0 :
+                                          currentRanks[vertex] / degreeOfVertex;
+                });
+
+                double sumRank = contributors.sum(this.executor, vertex -> {
+                    double received = 0.0;
+                    for (int e = contributors.edgeStart(vertex),
+                         end = contributors.edgeEnd(vertex); e < end; e++) {
+                        received += distributed[contributors.target(e)];
                     }
-                }
-
-                // deal with the last vertex
-                this.contributeToAdjacentVertices(currentSourceVertexId,
-                                                  adjacentVertices);
-
-                double sumRank = this.computeRank(alpha, numOfVertices);
-
-                double compensatedRank = 1.0 - sumRank;
-                changedRank = this.compensateRank(compensatedRank /
-                                                  numOfVertices);
+                    double rank = baseRank + received * oneMinusAlpha;
+                    updatingRanks[vertex] = rank;
+                    return rank;
+                });
+
+                double compensatedRank = (1.0 - sumRank) / numOfVertices;
+                changedRank = contributors.sum(this.executor, vertex -> {
+                    updatingRanks[vertex] += compensatedRank;
+                    return Math.abs(currentRanks[vertex] -
+                                    updatingRanks[vertex]);
+                });
+
+                // Swap the ranks of previous step and current step
+                ranks = updatingRanks;
+                nextRanks = currentRanks;
                 LOG.debug("PageRank execution times:{}, changedRank:{} ",
                           times, changedRank);
                 if (changedRank < precision) {
                     break;
                 }
             }
+            this.ranks = ranks;
 
-            this.writeBackRankValues();
+            this.writeBackRankValues(adjacency);
 
             if (topN > 0) {
-                Object topNJson = this.getTopRank(topN);
+                Object topNJson = this.getTopRank(adjacency, topN);
                 return ImmutableMap.of("alpha", alpha,
                                        "iteration_times", times,
                                        "last_changed_rank", changedRank,
@@ -165,102 +179,37 @@ public class PageRankAlgorithm extends AbstractCommAlgorithm {
                                    "times", maxTimes);
         }
 
-        private Object getTopRank(long topN) {
+        private Object getTopRank(CsrGraph graph, long topN) {
+            // Keep the indexes of top ranks by a min-heap
+            Comparator<Integer> comparator = Comparator.comparingDouble(
+                                             vertex -> this.ranks[vertex]);
+            PriorityQueue<Integer> tops = new PriorityQueue<>(comparator);
+            for (int vertex = 0; vertex < graph.vertexCount(); vertex++) {
+                if (tops.size() < topN) {
+                    tops.add(vertex);
+                } else if (this.ranks[vertex] > this.ranks[tops.peek()]) {
+                    tops.poll();
+                    tops.add(vertex);
+                }
+            }
+            List<Integer> sorted = new ArrayList<>(tops);
+            sorted.sort(comparator.reversed());
+
             JsonMap jsonMap = new JsonMap();
             jsonMap.startObject();
-            Map<Id, DoublePair> topNMap =
-                    HugeTraverser.topN(this.vertexRankMap, true, topN);
-            for (Map.Entry<Id, DoublePair> e : topNMap.entrySet()) {
-                jsonMap.append(e.getKey().toString(), e.getValue().left);
+            for (int vertex : sorted) {
+                jsonMap.append(graph.id(vertex).toString(), this.ranks[vertex]);
             }
             jsonMap.endObject();
             return jsonMap.asJson();
         }
 
-        private long initRankMap() {
-            long vertexCount = 0;
-            Iterator<Vertex> vertices = this.vertices();
-            while (vertices.hasNext()) {
-                Id vertex = ((HugeVertex) vertices.next()).id();
-                DoublePair pair = new DoublePair(0.0, 0.0);
-                this.vertexRankMap.put(vertex, pair);
-                vertexCount++;
-            }
-
-            double initValue = 1.0 / vertexCount;
-            for (DoublePair pair : this.vertexRankMap.values()) {
-                pair.left(initValue);
-            }
-            return vertexCount;
-        }
-
-        private void contributeToAdjacentVertices(Id sourceVertexId,
-                                                  List<Id> adjacentVertices) {
-            if (adjacentVertices.isEmpty()) {
-                return;
-            }
-            DoublePair sourcePair = this.vertexRankMap.get(sourceVertexId);
-            // sourceVertexId not in vertices.
-            if (sourcePair == null) {
-                LOG.info("source vertex {} not exists.", sourceVertexId);
-                return;
-            }
-            double distributedValue = sourcePair.left() /
-                                      adjacentVertices.size();
-            for (Id targetId : adjacentVertices) {
-                DoublePair targetPair = this.vertexRankMap.get(targetId);
-                if (targetPair == null) {
-                    // targetId not in vertices
-                    LOG.warn("target vertex {} not exists.", targetId);
-                    continue;
-                }
-                targetPair.addRight(distributedValue);
-            }
-        }
-
-        private double compensateRank(double compensatedRank) {
-            double changedRank = 0.0;
-            for (DoublePair pair : this.vertexRankMap.values()) {
-                double previousRank = pair.left();
-                double currentRank = pair.right() + compensatedRank;
-                changedRank += Math.abs(previousRank - currentRank);
-                pair.left(currentRank);
-                pair.right(0.0);
-            }
-            return changedRank;
-        }
-
         private void initSchema() {
-            SchemaManager schema = this.graph().schema();
-            schema.propertyKey(R_RANK).asDouble().ifNotExist().create();
-            for (VertexLabel vl : schema.getVertexLabels()) {
-                schema.vertexLabel(vl.name()).properties(R_RANK)
-                      .nullableKeys(R_RANK).append();
-            }
+            this.initResultProperty(R_RANK, DataType.DOUBLE);
         }
 
-        private void writeBackRankValues() {
-            for (Map.Entry<Id, DoublePair> e : this.vertexRankMap.entrySet()) {
-                Id vertexId = e.getKey();
-                Vertex vertex = this.vertex(vertexId);
-                if (vertex != null) {
-                    vertex.property(R_RANK, e.getValue().left());
-                    this.commitIfNeeded();
-                }
-            }
-            this.graph().tx().commit();
-        }
-
-        private double computeRank(double alpha, long numOfVertices) {
-            double oneMinusAlpha = 1.0 - alpha;
-            double sum = 0.0;
-            double baseRank = alpha / numOfVertices;
-            for (DoublePair pair : this.vertexRankMap.values()) {
-                double rankValue = baseRank + pair.right() * oneMinusAlpha;
-                pair.right(rankValue);
-                sum += rankValue;
-            }
-            return sum;
+        private void writeBackRankValues(CsrGraph graph) {
+            this.writeBackProperty(graph, R_RANK, i -> this.ranks[i]);
         }
     }
 
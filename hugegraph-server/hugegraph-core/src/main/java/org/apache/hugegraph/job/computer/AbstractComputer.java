@@ -17,49 +17,35 @@
 
 package org.apache.hugegraph.job.computer;
 
-import java.io.File;
-import java.io.InputStreamReader;
-import java.io.LineNumberReader;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
 
-import org.apache.commons.configuration2.HierarchicalConfiguration;
-import org.apache.commons.configuration2.YAMLConfiguration;
-import org.apache.commons.configuration2.io.FileHandler;
-import org.apache.commons.configuration2.tree.ImmutableNode;
-import org.apache.commons.configuration2.tree.NodeHandler;
-import org.apache.commons.configuration2.tree.NodeModel;
-import org.apache.hugegraph.HugeException;
-import org.apache.hugegraph.job.ComputerJob;
+import org.apache.hugegraph.backend.id.Id;
 import org.apache.hugegraph.job.Job;
+import org.apache.hugegraph.job.algorithm.AbstractAlgorithm.AlgoTraverser;
+import org.apache.hugegraph.job.algorithm.CsrGraph;
+import org.apache.hugegraph.task.TaskCallable;
 import org.apache.hugegraph.traversal.algorithm.HugeTraverser;
+import org.apache.hugegraph.type.HugeType;
+import org.apache.hugegraph.type.define.DataType;
 import org.apache.hugegraph.type.define.Directions;
 import org.apache.hugegraph.util.E;
 import org.apache.hugegraph.util.Log;
 import org.apache.hugegraph.util.ParameterUtil;
+import org.apache.tinkerpop.gremlin.structure.Property;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.slf4j.Logger;
 
+/**
+ * The computer runs a VertexProgram by the ComputeEngine in the current
+ * process, over the topology loaded into a CsrGraph, and writes the
+ * results back to the vertices or the olap table of the result key.
+ */
 public abstract class AbstractComputer implements Computer {
 
     private static final Logger LOG = Log.logger(AbstractComputer.class);
 
-    private static final String HADOOP_HOME = "HADOOP_HOME";
-    private static final String COMMON = "common";
-    private static final String ENV = "env";
-    private static final String COMPUTER_HOME = "computer_home";
-    private static final String MINUS_C = "-C";
-    private static final String EQUAL = "=";
-    private static final String SPACE = " ";
-
-    // TODO: 2022/11/18 wait computer project adapt
-    private static final String MAIN_COMMAND =
-            "%s/bin/hadoop jar hugegraph-computer.jar " +
-            "com.baidu.hugegraph.Computer " +
-            "-D libjars=./hugegraph-computer-core.jar";
-
     public static final String MAX_STEPS = "max_steps";
     public static final int DEFAULT_MAX_STEPS = 5;
     public static final String PRECISION = "precision";
@@ -69,13 +55,14 @@ public abstract class AbstractComputer implements Computer {
     public static final String DIRECTION = "direction";
     public static final String DEGREE = "degree";
     public static final long DEFAULT_DEGREE = 100L;
+    public static final String WORKERS = "workers";
+
+    public static final String KEY_SUPERSTEPS = "supersteps";
+    public static final String KEY_VERTICES = "vertices";
 
     protected static final String CATEGORY_RANK = "rank";
     protected static final String CATEGORY_COMM = "community";
 
-    private YAMLConfiguration config;
-    private Map<String, Object> commonConfig = new HashMap<>();
-
     @Override
     public void checkParameters(Map<String, Object> parameters) {
         E.checkArgument(parameters.isEmpty(),
@@ -84,121 +71,20 @@ public abstract class AbstractComputer implements Computer {
 
     @Override
     public Object call(Job<Object> job, Map<String, Object> parameters) {
-        this.checkAndCollectParameters(parameters);
-        // Read configuration
-        try {
-            this.initializeConfig((ComputerJob) job);
-        } catch (Exception e) {
-            throw new HugeException(
-                    "Failed to initialize computer config file", e);
-        }
-
-        // Set current computer job's specified parameters
-        Map<String, Object> configs = new HashMap<>();
-        configs.putAll(this.commonConfig);
-        configs.putAll(this.checkAndCollectParameters(parameters));
-
-        // Construct shell command for computer job
-        String[] command = this.constructShellCommands(configs);
-        LOG.info("Execute computer job: {}", String.join(SPACE, command));
-
-        // Execute current computer
-        try {
-            ProcessBuilder builder = new ProcessBuilder(command);
-            builder.redirectErrorStream(true);
-            builder.directory(new File(executeDir()));
-
-            Process process = builder.start();
-
-            StringBuilder output = new StringBuilder();
-            try (LineNumberReader reader = new LineNumberReader(
-                    new InputStreamReader(
-                            process.getInputStream()))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    output.append(line).append("\n");
-                }
-            }
-
-            int exitCode = process.waitFor();
-            if (exitCode == 0) {
-                return 0;
-            }
-
-            throw new HugeException("The computer job exit with code %s: %s",
-                                    exitCode, output);
-        } catch (HugeException e) {
-            throw e;
-        } catch (Throwable e) {
-            throw new HugeException("Failed to execute computer job", e);
-        }
-    }
-
-    private String executeDir() {
-        Map<String, Object> envs = this.readEnvConfig();
-        E.checkState(envs.containsKey(COMPUTER_HOME),
-                     "Expect '%s' in '%s' section", COMPUTER_HOME, ENV);
-        return (String) envs.get(COMPUTER_HOME);
-    }
-
-    private void initializeConfig(ComputerJob job) throws Exception {
-        // Load computer config file
-        String configPath = job.computerConfigPath();
-        E.checkArgument(configPath.endsWith(".yaml"),
-                        "Expect a yaml config file.");
-
-        this.config = new YAMLConfiguration();
-        FileHandler fileHandler = new FileHandler(this.config);
-        fileHandler.load(configPath);
-
-        // Read common and computer specified parameters
-        this.commonConfig = this.readCommonConfig();
-    }
-
-    private Map<String, Object> readCommonConfig() {
-        return this.readSubConfig(COMMON);
-    }
-
-    private Map<String, Object> readEnvConfig() {
-        return this.readSubConfig(ENV);
-    }
-
-    private Map<String, Object> readSubConfig(String sub) {
-        List<HierarchicalConfiguration<ImmutableNode>> nodes =
-                this.config.childConfigurationsAt(sub);
-
-        E.checkArgument(nodes.size() >= 1,
-                        "'%s' must be contained in config '%s'", sub);
-
-        ImmutableNode root = null;
-        NodeHandler<ImmutableNode> nodeHandler;
-        Map<String, Object> results = new HashMap<>(nodes.size());
-        for (HierarchicalConfiguration<ImmutableNode> node : nodes) {
-            NodeModel<ImmutableNode> nodeModel = node.getNodeModel();
-            E.checkArgument(nodeModel != null &&
-                            (nodeHandler = nodeModel.getNodeHandler()) != null &&
-                            (root = nodeHandler.getRootNode()) != null,
-                            "Node '%s' must contain root", node);
-            results.put(root.getNodeName(), root.getValue());
-        }
-
-        return results;
-    }
-
-    private String[] constructShellCommands(Map<String, Object> configs) {
-        String hadoopHome = System.getenv(HADOOP_HOME);
-        String commandPrefix = String.format(MAIN_COMMAND, hadoopHome);
-        List<String> command = new ArrayList<>(Arrays.asList(commandPrefix.split(SPACE)));
-        command.add(this.name());
-        for (Map.Entry<String, Object> entry : configs.entrySet()) {
-            command.add(MINUS_C);
-            command.add(entry.getKey() + EQUAL + entry.getValue());
+        this.checkParameters(parameters);
+        E.checkArgument(job instanceof TaskCallable,
+                        "Invalid computer job '%s'", job);
+        @SuppressWarnings("unchecked")
+        TaskCallable<Object> callable = (TaskCallable<Object>) job;
+        try (ComputerTraverser traverser = new ComputerTraverser(
+                                           callable, this.name(),
+                                           workers(parameters))) {
+            return this.compute(traverser, parameters);
         }
-        return command.toArray(new String[0]);
     }
 
-    protected abstract Map<String, Object> checkAndCollectParameters(
-            Map<String, Object> parameters);
+    protected abstract Object compute(ComputerTraverser traverser,
+                                      Map<String, Object> parameters);
 
     protected static int maxSteps(Map<String, Object> parameters) {
         if (!parameters.containsKey(MAX_STEPS)) {
@@ -250,6 +136,15 @@ public abstract class AbstractComputer implements Computer {
         return degree;
     }
 
+    protected static int workers(Map<String, Object> parameters) {
+        if (!parameters.containsKey(WORKERS)) {
+            return -1;
+        }
+        int workers = ParameterUtil.parameterInt(parameters, WORKERS);
+        HugeTraverser.checkNonNegativeOrNoLimit(workers, WORKERS);
+        return workers;
+    }
+
     protected static Directions parseDirection(Object direction) {
         if (direction.equals(Directions.BOTH.toString())) {
             return Directions.BOTH;
@@ -263,4 +158,123 @@ public abstract class AbstractComputer implements Computer {
                     "but got '%s'", direction));
         }
     }
+
+    protected static class ComputerTraverser extends AlgoTraverser {
+
+        // Reserve the memory once every so many elements are loaded
+        private static final long RESERVE_BATCH_MASK = (1L << 12) - 1L;
+
+        private final int workers;
+        private final AtomicLong loadedVertices;
+        private final AtomicLong loadedEdges;
+        private long degree;
+        private long reservedBytes;
+
+        public ComputerTraverser(TaskCallable<Object> job, String name,
+                                 int workers) {
+            super(job, name, workers);
+            this.workers = workers;
+            this.loadedVertices = new AtomicLong(0L);
+            this.loadedEdges = new AtomicLong(0L);
+            this.degree = HugeTraverser.NO_LIMIT;
+            this.reservedBytes = 0L;
+        }
+
+        /**
+         * Load the graph while reserving the estimated memory of the loaded
+         * vertices and edges with the state of the program, so the job fails
+         * early rather than running out of memory while loading. The memory
+         * is released when the traverser closed.
+         */
+        public CsrGraph load(Directions dir, long degree) {
+            E.checkState(this.loadedVertices.get() == 0L,
+                         "The graph of job %s can only be loaded once",
+                         this.jobId());
+            this.degree = degree;
+            CsrGraph graph = this.loadCsrGraph(dir, null, null, degree);
+            this.reserveLoaded();
+            LOG.info("Reserved {} bytes for {} vertices and {} adjacent " +
+                     "edges of job {}", this.reservedBytes,
+                     this.loadedVertices.get(), this.loadedEdges.get(),
+                     this.jobId());
+            return graph;
+        }
+
+        @Override
+        protected void loaded(HugeType type) {
+            long count = type == HugeType.VERTEX ?
+                         this.loadedVertices.incrementAndGet() :
+                         this.loadedEdges.incrementAndGet();
+            if ((count & RESERVE_BATCH_MASK) == 0L) {
+                this.reserveLoaded();
+            }
+        }
+
+        private synchronized void reserveLoaded() {
+            long bytes = ComputeEngine.estimateBytes(this.loadedVertices.get(),
+                                                     this.loadedEdges.get(),
+                                                     this.degree, false);
+            if (bytes > this.reservedBytes) {
+                ComputeEngine.reserve(bytes - this.reservedBytes,
+                                      "compute " + this.jobId());
+                this.reservedBytes = bytes;
+            }
+        }
+
+        /**
+         * Convert the graph loaded by load() to a simple graph which keeps
+         * the edges from the lower vertex to the higher only, like
+         * CsrGraph.orient()
+         */
+        public CsrGraph orient(CsrGraph graph) {
+            return graph.simplify(this.executor).orient(this.executor);
+        }
+
+        public CsrGraph contract(CsrGraph graph, int[] groups, int count) {
+            return graph.contract(this.executor, groups, count);
+        }
+
+        public ComputeEngine engine(CsrGraph graph, VertexProgram program) {
+            return new ComputeEngine(graph, program, this.workers);
+        }
+
+        /**
+         * Get the property value of each vertex in the graph
+         * @return The values indexed by vertex, the value is null if the
+         *         vertex doesn't have the property
+         */
+        public Object[] values(CsrGraph graph, String key) {
+            // Check the property key exists
+            this.graph().propertyKey(key);
+            Object[] values = new Object[graph.vertexCount()];
+            this.<Vertex>scan(HugeType.VERTEX, () -> vertex -> {
+                int index = graph.index((Id) vertex.id());
+                Property<Object> property = vertex.property(key);
+                if (index >= 0 && property.isPresent()) {
+                    values[index] = property.value();
+                }
+            });
+            return values;
+        }
+
+        public void writeBack(String key, DataType dataType, CsrGraph graph,
+                              IntFunction<Object> values) {
+            this.initResultProperty(key, dataType);
+            this.writeBackProperty(graph, key, values);
+        }
+
+        @Override
+        public void close() {
+            try {
+                super.close();
+            } finally {
+                synchronized (this) {
+                    if (this.reservedBytes > 0L) {
+                        ComputeEngine.release(this.reservedBytes);
+                        this.reservedBytes = 0L;
+                    }
+                }
+            }
+        }
+    }
 }
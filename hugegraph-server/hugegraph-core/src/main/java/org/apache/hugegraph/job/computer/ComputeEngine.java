@@ -0,0 +1,379 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hugegraph.job.computer;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.function.IntPredicate;
+
+import org.apache.hugegraph.job.algorithm.Consumers;
+import org.apache.hugegraph.job.algorithm.CsrGraph;
+import org.apache.hugegraph.memory.MemoryManager;
+import org.apache.hugegraph.memory.util.OutOfMemoryException;
+import org.apache.hugegraph.traversal.algorithm.HugeTraverser;
+import org.apache.hugegraph.util.E;
+import org.apache.hugegraph.util.Log;
+import org.slf4j.Logger;
+
+/**
+ * Run a VertexProgram over a CsrGraph in bulk synchronous supersteps in the
+ * current process. The vertices are split into partitions of index ranges
+ * and computed by a fork-join pool, the value and the combined message of
+ * each vertex are kept in primitive arrays indexed by vertex.
+ *
+ * The memory of a computer job is estimated by estimateBytes() and reserved
+ * by reserve() from the MemoryManager while loading the graph, so the
+ * computer jobs and the queries share memory.max_capacity of the server.
+ */
+public final class ComputeEngine implements AutoCloseable {
+
+    private static final Logger LOG = Log.logger(ComputeEngine.class);
+
+    private static final int MIN_PARTITION_SIZE = 1024;
+    private static final int PARTITIONS_PER_WORKER = 4;
+
+    // The Id object of each vertex
+    private static final long ID_BYTES = 32L;
+    // The references to the Id in the id list and array, and the entry of
+    // the id-to-index map with the load factor 0.5
+    private static final long INDEX_BYTES = 8L + 8L + 2L * (8L + 4L);
+
+    private final CsrGraph graph;
+    private final VertexProgram program;
+    private final MessageCombiner combiner;
+    private final ForkJoinPool pool;
+    private final int partitionSize;
+
+    private final long[] values;
+    private final long[] lastValues;
+    private final boolean[] halted;
+    // The messages received in the last superstep and sent in this one
+    private AtomicLongArray messages;
+    private AtomicLongArray received;
+    private AtomicLongArray nextMessages;
+    private AtomicLongArray nextReceived;
+
+    private final DoubleAdder[] aggregators;
+    private final double[] aggregated;
+    private int superstep;
+
+    /**
+     * @param workers The parallelism of the fork-join pool, run by a single
+     *                worker if it's 0, or by Consumers.THREADS workers if
+     *                it's -1
+     */
+    public ComputeEngine(CsrGraph graph, VertexProgram program, int workers) {
+        E.checkArgumentNotNull(graph, "The graph can't be null");
+        E.checkArgumentNotNull(program, "The vertex program can't be null");
+        this.graph = graph;
+        this.program = program;
+        this.combiner = program.combiner();
+
+        int vertexCount = graph.vertexCount();
+
+        int parallelism = workers < 0 ? Consumers.THREADS : Math.max(workers, 1);
+        this.pool = new ForkJoinPool(parallelism);
+        this.partitionSize = Math.max(MIN_PARTITION_SIZE, vertexCount /
+                                      (parallelism * PARTITIONS_PER_WORKER));
+
+        this.values = new long[vertexCount];
+        this.lastValues = program.readNeighborValues() ?
+                          new long[vertexCount] : null;
+        this.halted = new boolean[vertexCount];
+        if (this.combiner != null) {
+            int words = (vertexCount >>> 6) + 1;
+            this.messages = new AtomicLongArray(vertexCount);
+            this.received = new AtomicLongArray(words);
+            this.nextMessages = new AtomicLongArray(vertexCount);
+            this.nextReceived = new AtomicLongArray(words);
+            long identity = this.combiner.identity();
+            for (int i = 0; i < vertexCount; i++) {
+                this.messages.set(i, identity);
+                this.nextMessages.set(i, identity);
+            }
+        }
+
+        this.aggregators = new DoubleAdder[program.aggregators()];
+        for (int i = 0; i < this.aggregators.length; i++) {
+            this.aggregators[i] = new DoubleAdder();
+        }
+        this.aggregated = new double[this.aggregators.length];
+        this.superstep = 0;
+    }
+
+    public CsrGraph graph() {
+        return this.graph;
+    }
+
+    public int vertexCount() {
+        return this.graph.vertexCount();
+    }
+
+    public int superstep() {
+        return this.superstep;
+    }
+
+    public long value(int vertex) {
+        return this.values[vertex];
+    }
+
+    public void value(int vertex, long value) {
+        this.values[vertex] = value;
+    }
+
+    public double doubleValue(int vertex) {
+        return Double.longBitsToDouble(this.values[vertex]);
+    }
+
+    public void doubleValue(int vertex, double value) {
+        this.values[vertex] = Double.doubleToRawLongBits(value);
+    }
+
+    /**
+     * Get the value of a vertex at the end of the last superstep, it can be
+     * called for any vertex if the program readNeighborValues()
+     */
+    public long lastValue(int vertex) {
+        E.checkState(this.lastValues != null,
+                     "The vertex program doesn't read neighbor values");
+        return this.lastValues[vertex];
+    }
+
+    public void sendMessage(int target, long message) {
+        E.checkState(this.combiner != null,
+                     "The vertex program doesn't send messages");
+        MessageCombiner combiner = this.combiner;
+        this.nextMessages.accumulateAndGet(target, message,
+                                           combiner::combine);
+        long bit = 1L << target;
+        int word = target >>> 6;
+        if ((this.nextReceived.get(word) & bit) == 0L) {
+            this.nextReceived.getAndAccumulate(word, bit, (w, b) -> w | b);
+        }
+    }
+
+    public void sendMessageToNeighbors(int vertex, long message) {
+        for (int e = this.graph.edgeStart(vertex);
+             e < this.graph.edgeEnd(vertex); e++) {
+            this.sendMessage(this.graph.target(e), message);
+        }
+    }
+
+    /**
+     * The vertex is not computed in the next superstep unless it receives
+     * messages, the computing stops if all vertices are halted and there
+     * is no message
+     */
+    public void voteToHalt(int vertex) {
+        this.halted[vertex] = true;
+    }
+
+    public void aggregate(int aggregator, double value) {
+        this.aggregators[aggregator].add(value);
+    }
+
+    /**
+     * Get the aggregated value of the last superstep
+     */
+    public double aggregated(int aggregator) {
+        return this.aggregated[aggregator];
+    }
+
+    /**
+     * Run the supersteps until all vertices are halted without messages,
+     * or the program stops it, or the max number of supersteps is reached
+     * @return The number of supersteps which have been run
+     */
+    public int run(int maxSteps) {
+        E.checkArgument(maxSteps > 0,
+                        "The max steps must be > 0, but got %s", maxSteps);
+        this.parallel(vertex -> {
+            this.program.init(this, vertex);
+            return true;
+        });
+
+        for (this.superstep = 0; this.superstep < maxSteps;) {
+            if (this.lastValues != null) {
+                System.arraycopy(this.values, 0, this.lastValues, 0,
+                                 this.values.length);
+            }
+            this.program.beforeSuperstep(this);
+            long active = this.parallel(this::compute);
+            long messages = this.swapMessages();
+            for (int i = 0; i < this.aggregators.length; i++) {
+                this.aggregated[i] = this.aggregators[i].sumThenReset();
+            }
+            LOG.debug("Computed superstep {} of {}: active={}, messages={}",
+                      this.superstep, this.graph, active, messages);
+
+            boolean goOn = this.program.afterSuperstep(this);
+            this.superstep++;
+            if (!goOn || active == 0L && messages == 0L) {
+                break;
+            }
+        }
+        return this.superstep;
+    }
+
+    @Override
+    public void close() {
+        this.pool.shutdownNow();
+    }
+
+    private boolean compute(int vertex) {
+        boolean received = false;
+        long message = 0L;
+        if (this.combiner != null) {
+            received = (this.received.get(vertex >>> 6) &
+                        (1L << vertex)) != 0L;
+            message = this.messages.get(vertex);
+        }
+        if (this.halted[vertex] && !received) {
+            return false;
+        }
+        this.halted[vertex] = false;
+        this.program.compute(this, vertex, received, message);
+        return !this.halted[vertex];
+    }
+
+    /**
+     * Make the messages sent in this superstep as the received messages of
+     * the next superstep, and clear the received messages of this one
+     * @return The number of vertices which received messages
+     */
+    private long swapMessages() {
+        if (this.combiner == null) {
+            return 0L;
+        }
+        AtomicLongArray messages = this.messages;
+        AtomicLongArray received = this.received;
+        this.messages = this.nextMessages;
+        this.received = this.nextReceived;
+        this.nextMessages = messages;
+        this.nextReceived = received;
+
+        long identity = this.combiner.identity();
+        this.parallel(vertex -> {
+            messages.set(vertex, identity);
+            return false;
+        });
+        long count = 0L;
+        for (int i = 0; i < received.length(); i++) {
+            received.set(i, 0L);
+            count += Long.bitCount(this.received.get(i));
+        }
+        return count;
+    }
+
+    /**
+     * Apply the action to each vertex by the partitions in parallel
+     * @return The number of vertices which the action returns true
+     */
+    private long parallel(IntPredicate action) {
+        return this.pool.invoke(new Partition(action, 0,
+                                              this.graph.vertexCount()));
+    }
+
+    /**
+     * Estimate the memory to load a graph and run a program over it, which
+     * includes the vertex ids with the id-to-index map, the edges buffered
+     * while loading, the CsrGraph and the state of the program. The state
+     * is estimated for the program which reads the values of the last
+     * superstep and combines messages, since it isn't known before loading.
+     * @param vertices The number of vertices
+     * @param edges    The number of adjacent edges of all vertices, like
+     *                 twice the number of edges if loaded in both directions
+     * @param degree   The max number of adjacent edges kept for each vertex
+     */
+    public static long estimateBytes(long vertices, long edges, long degree,
+                                     boolean weighted) {
+        long weightBytes = weighted ? Double.BYTES : 0L;
+        // The vertex ids and the id-to-index map
+        long bytes = (ID_BYTES + INDEX_BYTES) * vertices;
+        // The sources and targets buffered while loading
+        bytes += (2L * Integer.BYTES + weightBytes) * edges;
+        // The degree counts, the offsets and the edges kept of the CsrGraph
+        long kept = edges;
+        if (degree != HugeTraverser.NO_LIMIT && vertices > 0L &&
+            degree < edges / vertices) {
+            kept = degree * vertices;
+        }
+        bytes += (Long.BYTES + Integer.BYTES) * vertices + Integer.BYTES;
+        bytes += (Integer.BYTES + weightBytes) * kept;
+        // The values, last values and halted flags
+        bytes += (2L * Long.BYTES + 1L) * vertices;
+        // Two buffers of messages and received flags
+        bytes += 2L * Long.BYTES * (vertices + (vertices >>> 6) + 1L);
+        return bytes;
+    }
+
+    /**
+     * Reserve the memory of a computer job from the MemoryManager, which
+     * must be released by release() when the job is done
+     * @throws OutOfMemoryException if the available memory isn't enough
+     */
+    public static void reserve(long bytes, String action) {
+        E.checkArgument(bytes >= 0L,
+                        "The reserved bytes must be >= 0, but got %s", bytes);
+        if (!MemoryManager.getInstance().tryConsumeAvailableMemory(bytes)) {
+            throw new OutOfMemoryException(
+                      "There isn't enough memory to %s, which requires " +
+                      "%s bytes more, please increase memory.max_capacity",
+                      action, bytes);
+        }
+    }
+
+    public static void release(long bytes) {
+        MemoryManager.getInstance().returnReclaimedTaskMemory(bytes);
+    }
+
+    private class Partition extends RecursiveTask<Long> {
+
+        private static final long serialVersionUID = -6011962716364406536L;
+
+        private final IntPredicate action;
+        private final int from;
+        private final int to;
+
+        public Partition(IntPredicate action, int from, int to) {
+            this.action = action;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Long compute() {
+            if (this.to - this.from <= ComputeEngine.this.partitionSize) {
+                long count = 0L;
+                for (int vertex = this.from; vertex < this.to; vertex++) {
+                    if (this.action.test(vertex)) {
+                        count++;
+                    }
+                }
+                return count;
+            }
+            int middle = (this.from + this.to) >>> 1;
+            Partition left = new Partition(this.action, this.from, middle);
+            Partition right = new Partition(this.action, middle, this.to);
+            left.fork();
+            return right.compute() + left.join();
+        }
+    }
+}
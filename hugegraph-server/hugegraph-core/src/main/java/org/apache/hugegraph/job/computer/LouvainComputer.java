@@ -17,16 +17,27 @@
 
 package org.apache.hugegraph.job.computer;
 
+import java.util.Arrays;
 import java.util.Map;
 
+import org.apache.hugegraph.job.algorithm.AbstractAlgorithm;
+import org.apache.hugegraph.job.algorithm.CsrGraph;
 import org.apache.hugegraph.traversal.algorithm.HugeTraverser;
 import org.apache.hugegraph.util.E;
+import org.apache.hugegraph.type.define.DataType;
+import org.apache.hugegraph.util.InsertionOrderUtil;
+import org.apache.hugegraph.util.Log;
 import org.apache.hugegraph.util.ParameterUtil;
+import org.eclipse.collections.api.iterator.IntIterator;
+import org.eclipse.collections.impl.map.mutable.primitive.IntDoubleHashMap;
+import org.slf4j.Logger;
 
 import com.google.common.collect.ImmutableMap;
 
 public class LouvainComputer extends AbstractComputer {
 
+    private static final Logger LOG = Log.logger(LouvainComputer.class);
+
     public static final String LOUVAIN = "louvain";
 
     public static final String KEY_STABLE_TIMES = "stable_times";
@@ -39,6 +50,7 @@ public class LouvainComputer extends AbstractComputer {
 
     public static final long DEFAULT_STABLE_TIMES = 3L;
     private static final int MAX_TIMES = 2048;
+    private static final int EXCLUDED = -1;
 
     @Override
     public String name() {
@@ -61,15 +73,122 @@ public class LouvainComputer extends AbstractComputer {
         exportCommunity(parameters);
         skipIsolated(parameters);
         clearPass(parameters);
+        workers(parameters);
     }
 
     @Override
-    protected Map<String, Object> checkAndCollectParameters(
-            Map<String, Object> parameters) {
-        return ImmutableMap.of(TIMES, times(parameters),
-                               PRECISION, precision(parameters),
-                               DIRECTION, direction(parameters),
-                               DEGREE, degree(parameters));
+    protected Object compute(ComputerTraverser traverser,
+                             Map<String, Object> parameters) {
+        int times = times(parameters);
+        int stableTimes = stableTimes(parameters);
+        double precision = precision(parameters);
+        CsrGraph origin = traverser.load(direction(parameters),
+                                         degree(parameters));
+
+        // The vertex of the current pass which each origin vertex belongs to
+        int[] members = new int[origin.vertexCount()];
+        boolean skipIsolated = skipIsolated(parameters);
+        for (int v = 0; v < members.length; v++) {
+            members[v] = skipIsolated && origin.degree(v) == 0 ? EXCLUDED : v;
+        }
+
+        /*
+         * Move the vertices to the neighbor communities by supersteps until
+         * it has stabilized, then merge each community as a vertex of the
+         * next pass, until no vertex is moved or the max times is reached
+         */
+        CsrGraph graph = origin;
+        int passes = 0;
+        int supersteps = 0;
+        for (; passes < times; passes++) {
+            LouvainProgram program = new LouvainProgram(graph, passes,
+                                                        stableTimes, precision);
+            int[] groups;
+            int count = 0;
+            try (ComputeEngine engine = traverser.engine(graph, program)) {
+                supersteps += engine.run(MAX_TIMES);
+                if (program.moved == 0L) {
+                    break;
+                }
+                // Renumber the non-empty communities
+                groups = new int[graph.vertexCount()];
+                int[] indexes = new int[graph.vertexCount()];
+                Arrays.fill(indexes, EXCLUDED);
+                for (int v = 0; v < groups.length; v++) {
+                    int c = (int) engine.value(v);
+                    if (indexes[c] == EXCLUDED) {
+                        indexes[c] = count++;
+                    }
+                    groups[v] = indexes[c];
+                }
+            }
+            if (passes == 0 && skipIsolated) {
+                for (int v = 0; v < groups.length; v++) {
+                    if (members[v] == EXCLUDED) {
+                        groups[v] = EXCLUDED;
+                    }
+                }
+            }
+            for (int v = 0; v < members.length; v++) {
+                if (members[v] != EXCLUDED) {
+                    members[v] = groups[members[v]];
+                }
+            }
+            LOG.info("Merge {} communities for pass {}", count, passes);
+            graph = traverser.contract(graph, groups, count);
+        }
+
+        // Label each community by the id of its first member
+        int[] firsts = new int[graph.vertexCount()];
+        Arrays.fill(firsts, EXCLUDED);
+        for (int v = 0; v < members.length; v++) {
+            if (members[v] != EXCLUDED && firsts[members[v]] == EXCLUDED) {
+                firsts[members[v]] = v;
+            }
+        }
+        traverser.writeBack(AbstractAlgorithm.C_LABEL, DataType.TEXT, origin,
+                            v -> members[v] == EXCLUDED ? null :
+                                 origin.id(firsts[members[v]]).toString());
+
+        long communities = 0L;
+        for (int first : firsts) {
+            if (first != EXCLUDED) {
+                communities++;
+            }
+        }
+        Map<String, Object> results = InsertionOrderUtil.newMap();
+        results.putAll(ImmutableMap.of("pass_times", passes,
+                                       KEY_SUPERSTEPS, supersteps,
+                                       "times", times));
+        results.putAll(ImmutableMap.of("communities", communities,
+                                       "modularity", modularity(graph)));
+        return results;
+    }
+
+    /**
+     * Q = ∑(I/M - ((2I+O)/2M)^2), each vertex of the graph is a community
+     */
+    private static double modularity(CsrGraph graph) {
+        double m = 0.0D;
+        double[] weights = new double[graph.vertexCount()];
+        double[] inners = new double[graph.vertexCount()];
+        for (int v = 0; v < graph.vertexCount(); v++) {
+            for (int e = graph.edgeStart(v); e < graph.edgeEnd(v); e++) {
+                weights[v] += graph.weight(e);
+                if (graph.target(e) == v) {
+                    inners[v] += graph.weight(e);
+                }
+            }
+            m += weights[v];
+        }
+        if (m == 0.0D) {
+            return 0.0D;
+        }
+        double q = 0.0D;
+        for (int v = 0; v < graph.vertexCount(); v++) {
+            q += inners[v] / m - Math.pow(weights[v] / m, 2);
+        }
+        return q;
     }
 
     protected static int stableTimes(Map<String, Object> parameters) {
@@ -124,4 +243,153 @@ public class LouvainComputer extends AbstractComputer {
         HugeTraverser.checkNonNegativeOrNoLimit(pass, KEY_CLEAR);
         return pass;
     }
+
+    /**
+     * Each vertex moves to the neighbor community which gains the max
+     * modularity, by the communities of the last superstep. Only half of
+     * the vertices can move in a superstep, to avoid the adjacent vertices
+     * moving into the communities of each other at the same time.
+     */
+    private static class LouvainProgram extends VertexProgram {
+
+        // The number of moved vertices
+        private static final int MOVED = 0;
+
+        private final int pass;
+        private final int stableTimes;
+        private final double precision;
+        // Weight of all edges of each vertex, including the inner edges
+        private final double[] weights;
+        // Weight of all edges(2X)
+        private final double m;
+        // Weight of all edges and the members size of each community
+        private final double[] totals;
+        private final int[] sizes;
+        private final ThreadLocal<IntDoubleHashMap> nbCommunities;
+
+        private long moved;
+        private int tinyChanges;
+        private int idleSteps;
+        private double lastMovedPercent;
+
+        public LouvainProgram(CsrGraph graph, int pass,
+                              int stableTimes, double precision) {
+            int size = graph.vertexCount();
+            this.pass = pass;
+            this.stableTimes = stableTimes;
+            this.precision = precision;
+            this.weights = new double[size];
+            double m = 0.0D;
+            for (int v = 0; v < size; v++) {
+                for (int e = graph.edgeStart(v); e < graph.edgeEnd(v); e++) {
+                    this.weights[v] += graph.weight(e);
+                }
+                m += this.weights[v];
+            }
+            this.m = m;
+            this.totals = new double[size];
+            this.sizes = new int[size];
+            this.nbCommunities = ThreadLocal.withInitial(IntDoubleHashMap::new);
+            this.moved = 0L;
+            this.tinyChanges = 0;
+            this.idleSteps = 0;
+            this.lastMovedPercent = 1.0D;
+        }
+
+        @Override
+        public boolean readNeighborValues() {
+            return true;
+        }
+
+        @Override
+        public int aggregators() {
+            return 1;
+        }
+
+        @Override
+        public void init(ComputeEngine engine, int vertex) {
+            // Each vertex is a community at the beginning
+            engine.value(vertex, vertex);
+        }
+
+        @Override
+        public void beforeSuperstep(ComputeEngine engine) {
+            Arrays.fill(this.totals, 0.0D);
+            Arrays.fill(this.sizes, 0);
+            for (int v = 0; v < this.weights.length; v++) {
+                int c = (int) engine.lastValue(v);
+                this.totals[c] += this.weights[v];
+                this.sizes[c]++;
+            }
+        }
+
+        @Override
+        public void compute(ComputeEngine engine, int vertex,
+                            boolean received, long message) {
+            if ((vertex + engine.superstep()) % 2 != 0) {
+                return;
+            }
+            CsrGraph graph = engine.graph();
+            IntDoubleHashMap nbCommunities = this.nbCommunities.get();
+            nbCommunities.clear();
+            for (int e = graph.edgeStart(vertex); e < graph.edgeEnd(vertex); e++) {
+                int other = graph.target(e);
+                if (other != vertex) {
+                    nbCommunities.addToValue((int) engine.lastValue(other),
+                                             graph.weight(e));
+                }
+            }
+            if (nbCommunities.isEmpty()) {
+                return;
+            }
+
+            // △Q = (Ki_in - Ki * Etot / m) / 2m, Etot excludes the vertex
+            int c = (int) engine.lastValue(vertex);
+            double ki = this.weights[vertex];
+            double tot = Math.max(this.totals[c] - ki, 0.0D);
+            double maxDeltaQ = nbCommunities.get(c) - ki * tot / this.m;
+            int bestComm = c;
+            IntIterator iter = nbCommunities.keySet().intIterator();
+            while (iter.hasNext()) {
+                int otherC = iter.next();
+                double deltaQ = nbCommunities.get(otherC) -
+                                ki * this.totals[otherC] / this.m;
+                if (otherC != c && deltaQ > maxDeltaQ) {
+                    maxDeltaQ = deltaQ;
+                    bestComm = otherC;
+                }
+            }
+            if (bestComm == c || this.sizes[c] == 1 &&
+                this.sizes[bestComm] == 1 && bestComm > c) {
+                // Two single vertices may swap, only move to the smaller one
+                return;
+            }
+            engine.value(vertex, bestComm);
+            engine.aggregate(MOVED, 1.0D);
+        }
+
+        @Override
+        public boolean afterSuperstep(ComputeEngine engine) {
+            long moved = (long) engine.aggregated(MOVED);
+            this.moved += moved;
+            if (moved == 0L) {
+                // Each vertex has a chance to move in two supersteps
+                return ++this.idleSteps < 2;
+            }
+            this.idleSteps = 0;
+
+            double movedPercent = (double) moved / engine.vertexCount();
+            if (this.pass == 0 && movedPercent < this.precision) {
+                // Stop the first pass early
+                return false;
+            }
+            if (this.lastMovedPercent - movedPercent < this.precision &&
+                ++this.tinyChanges >= this.stableTimes) {
+                // Maybe always shaking and falling into a dead loop
+                return false;
+            }
+            this.lastMovedPercent = movedPercent;
+            return true;
+        }
+    }
 }
@@ -18,10 +18,18 @@
 package org.apache.hugegraph.job.computer;
 
 import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
 
+import org.apache.hugegraph.job.algorithm.AbstractAlgorithm;
+import org.apache.hugegraph.job.algorithm.CsrGraph;
+import org.apache.hugegraph.type.define.DataType;
 import org.apache.hugegraph.util.E;
 import org.apache.hugegraph.util.ParameterUtil;
 
+import org.eclipse.collections.api.iterator.IntIterator;
+import org.eclipse.collections.impl.map.mutable.primitive.IntIntHashMap;
+import org.eclipse.collections.impl.map.mutable.primitive.ObjectIntHashMap;
+
 import com.google.common.collect.ImmutableMap;
 
 public class LpaComputer extends AbstractComputer {
@@ -48,16 +56,60 @@ public class LpaComputer extends AbstractComputer {
         precision(parameters);
         direction(parameters);
         degree(parameters);
+        workers(parameters);
     }
 
     @Override
-    protected Map<String, Object> checkAndCollectParameters(
-            Map<String, Object> parameters) {
-        return ImmutableMap.of(TIMES, times(parameters),
-                               PROPERTY, property(parameters),
-                               PRECISION, precision(parameters),
-                               DIRECTION, direction(parameters),
-                               DEGREE, degree(parameters));
+    protected Object compute(ComputerTraverser traverser,
+                             Map<String, Object> parameters) {
+        CsrGraph graph = traverser.load(direction(parameters),
+                                        degree(parameters));
+        String property = property(parameters);
+        Object[] values = null;
+        if (!DEFAULT_PROPERTY.equals(property)) {
+            values = traverser.values(graph, property);
+        }
+        LpaProgram program = new LpaProgram(labels(values),
+                                            precision(parameters));
+        try (ComputeEngine engine = traverser.engine(graph, program)) {
+            int steps = engine.run(times(parameters));
+            /*
+             * The label is an index of the vertex which has the label value
+             * of the property, or the vertex id if the property is "id"
+             */
+            Object[] labels = values;
+            traverser.writeBack(AbstractAlgorithm.C_LABEL, DataType.TEXT, graph,
+                                v -> {
+                int label = (int) engine.value(v);
+                if (labels != null && labels[label] != null) {
+                    return labels[label].toString();
+                }
+                return graph.id(label).toString();
+            });
+            return ImmutableMap.of(KEY_SUPERSTEPS, steps,
+                                   KEY_VERTICES, graph.vertexCount(),
+                                   "last_precision", engine.aggregated(
+                                                     LpaProgram.CHANGED) /
+                                                     graph.vertexCount());
+        }
+    }
+
+    /**
+     * Get the initial label of each vertex, which is the index of the first
+     * vertex with the same label value, or the vertex itself if the value
+     * is null
+     */
+    private static int[] labels(Object[] values) {
+        if (values == null) {
+            return null;
+        }
+        int[] labels = new int[values.length];
+        ObjectIntHashMap<Object> firsts = new ObjectIntHashMap<>();
+        for (int v = 0; v < values.length; v++) {
+            labels[v] = values[v] == null ? v :
+                        firsts.getIfAbsentPut(values[v], v);
+        }
+        return labels;
     }
 
     private static String property(Map<String, Object> parameters) {
@@ -69,4 +121,89 @@ public class LpaComputer extends AbstractComputer {
                         "The value of %s can not be null or empty", PROPERTY);
         return property;
     }
+
+    /**
+     * Each vertex takes the most frequent label of the adjacent vertices in
+     * the last superstep, and the ties are broken randomly
+     */
+    private static class LpaProgram extends VertexProgram {
+
+        // The number of vertices which changed the label
+        private static final int CHANGED = 0;
+
+        private final int[] labels;
+        private final double precision;
+        private final ThreadLocal<IntIntHashMap> counts;
+
+        public LpaProgram(int[] labels, double precision) {
+            this.labels = labels;
+            this.precision = precision;
+            this.counts = ThreadLocal.withInitial(IntIntHashMap::new);
+        }
+
+        @Override
+        public boolean readNeighborValues() {
+            return true;
+        }
+
+        @Override
+        public int aggregators() {
+            return 1;
+        }
+
+        @Override
+        public void init(ComputeEngine engine, int vertex) {
+            engine.value(vertex, this.labels == null ?
+                                 vertex : this.labels[vertex]);
+        }
+
+        @Override
+        public void compute(ComputeEngine engine, int vertex,
+                            boolean received, long message) {
+            CsrGraph graph = engine.graph();
+            if (graph.degree(vertex) == 0) {
+                engine.voteToHalt(vertex);
+                return;
+            }
+            IntIntHashMap counts = this.counts.get();
+            counts.clear();
+            for (int e = graph.edgeStart(vertex); e < graph.edgeEnd(vertex); e++) {
+                counts.addToValue((int) engine.lastValue(graph.target(e)), 1);
+            }
+
+            int current = (int) engine.lastValue(vertex);
+            int label = current;
+            int maxCount = 0;
+            int ties = 0;
+            IntIterator iter = counts.keySet().intIterator();
+            while (iter.hasNext()) {
+                int other = iter.next();
+                int count = counts.get(other);
+                if (count > maxCount) {
+                    maxCount = count;
+                    label = other;
+                    ties = 1;
+                } else if (count == maxCount &&
+                           ThreadLocalRandom.current().nextInt(++ties) == 0) {
+                    // Choose one of the tied labels with the same probability
+                    label = other;
+                }
+            }
+            // Keep the current label if it's one of the most frequent,
+            // which avoids oscillating between the tied labels
+            if (counts.get(current) == maxCount) {
+                label = current;
+            }
+            if (label != current) {
+                engine.value(vertex, label);
+                engine.aggregate(CHANGED, 1.0D);
+            }
+        }
+
+        @Override
+        public boolean afterSuperstep(ComputeEngine engine) {
+            return engine.aggregated(CHANGED) / engine.vertexCount() >
+                   this.precision;
+        }
+    }
 }
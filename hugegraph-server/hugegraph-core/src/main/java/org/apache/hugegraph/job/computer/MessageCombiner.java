@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hugegraph.job.computer;
+
+import java.util.function.LongBinaryOperator;
+
+/**
+ * Combine the messages sent to a vertex in a superstep into one message,
+ * so each vertex only keeps a primitive message. The messages are encoded
+ * as long values, like the raw long bits of a double value.
+ */
+public interface MessageCombiner {
+
+    MessageCombiner SUM = of(0L, Long::sum);
+
+    MessageCombiner MIN = of(Long.MAX_VALUE, Math::min);
+
+    MessageCombiner DOUBLE_SUM = of(Double.doubleToRawLongBits(0.0D),
+                                    (m1, m2) -> Double.doubleToRawLongBits(
+                                                Double.longBitsToDouble(m1) +
+                                                Double.longBitsToDouble(m2)));
+
+    /**
+     * The message which doesn't change any message when combined with it,
+     * the combined message of a vertex starts from it in each superstep
+     */
+    long identity();
+
+    /**
+     * Combine two messages, it must be commutative and associative since
+     * the messages are combined in any order by multiple threads
+     */
+    long combine(long message1, long message2);
+
+    static MessageCombiner of(long identity, LongBinaryOperator combiner) {
+        return new MessageCombiner() {
+
+            @Override
+            public long identity() {
+                return identity;
+            }
+
+            @Override
+            public long combine(long message1, long message2) {
+                return combiner.applyAsLong(message1, message2);
+            }
+        };
+    }
+}
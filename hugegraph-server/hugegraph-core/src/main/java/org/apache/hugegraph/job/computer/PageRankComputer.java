@@ -19,6 +19,11 @@ package org.apache.hugegraph.job.computer;
 
 import java.util.Map;
 
+import org.apache.hugegraph.job.algorithm.AbstractAlgorithm;
+import org.apache.hugegraph.job.algorithm.CsrGraph;
+import org.apache.hugegraph.traversal.algorithm.HugeTraverser;
+import org.apache.hugegraph.type.define.DataType;
+import org.apache.hugegraph.type.define.Directions;
 import org.apache.hugegraph.util.E;
 import org.apache.hugegraph.util.ParameterUtil;
 
@@ -46,14 +51,25 @@ public class PageRankComputer extends AbstractComputer {
         maxSteps(parameters);
         alpha(parameters);
         precision(parameters);
+        workers(parameters);
     }
 
     @Override
-    protected Map<String, Object> checkAndCollectParameters(
-            Map<String, Object> parameters) {
-        return ImmutableMap.of(MAX_STEPS, maxSteps(parameters),
-                               ALPHA, alpha(parameters),
-                               PRECISION, precision(parameters));
+    protected Object compute(ComputerTraverser traverser,
+                             Map<String, Object> parameters) {
+        CsrGraph graph = traverser.load(Directions.OUT,
+                                        HugeTraverser.NO_LIMIT);
+        PageRankProgram program = new PageRankProgram(alpha(parameters),
+                                                      precision(parameters));
+        try (ComputeEngine engine = traverser.engine(graph, program)) {
+            int steps = engine.run(maxSteps(parameters));
+            traverser.writeBack(AbstractAlgorithm.R_RANK, DataType.DOUBLE,
+                                graph, engine::doubleValue);
+            return ImmutableMap.of(KEY_SUPERSTEPS, steps,
+                                   KEY_VERTICES, graph.vertexCount(),
+                                   "last_precision", engine.aggregated(
+                                                     PageRankProgram.DIFF));
+        }
     }
 
     private static double alpha(Map<String, Object> parameters) {
@@ -66,4 +82,68 @@ public class PageRankComputer extends AbstractComputer {
                         ALPHA, alpha);
         return alpha;
     }
+
+    /**
+     * Each vertex sends its rank to the out adjacent vertices evenly, and
+     * the rank of the dangling vertices is sent to all vertices evenly
+     */
+    private static class PageRankProgram extends VertexProgram {
+
+        // The rank of the dangling vertices
+        private static final int DANGLING = 0;
+        // The sum of the rank changes of all vertices
+        private static final int DIFF = 1;
+
+        private final double alpha;
+        private final double precision;
+
+        public PageRankProgram(double alpha, double precision) {
+            this.alpha = alpha;
+            this.precision = precision;
+        }
+
+        @Override
+        public MessageCombiner combiner() {
+            return MessageCombiner.DOUBLE_SUM;
+        }
+
+        @Override
+        public int aggregators() {
+            return 2;
+        }
+
+        @Override
+        public void init(ComputeEngine engine, int vertex) {
+            engine.doubleValue(vertex, 1.0D / engine.vertexCount());
+        }
+
+        @Override
+        public void compute(ComputeEngine engine, int vertex,
+                            boolean received, long message) {
+            int count = engine.vertexCount();
+            double rank = engine.doubleValue(vertex);
+            if (engine.superstep() > 0) {
+                double sum = Double.longBitsToDouble(message) +
+                             engine.aggregated(DANGLING) / count;
+                double newRank = this.alpha / count + (1.0D - this.alpha) * sum;
+                engine.aggregate(DIFF, Math.abs(newRank - rank));
+                engine.doubleValue(vertex, newRank);
+                rank = newRank;
+            }
+
+            int degree = engine.graph().degree(vertex);
+            if (degree == 0) {
+                engine.aggregate(DANGLING, rank);
+            } else {
+                engine.sendMessageToNeighbors(vertex, Double.doubleToRawLongBits(
+                                                      rank / degree));
+            }
+        }
+
+        @Override
+        public boolean afterSuperstep(ComputeEngine engine) {
+            return engine.superstep() == 0 ||
+                   engine.aggregated(DIFF) >= this.precision;
+        }
+    }
 }
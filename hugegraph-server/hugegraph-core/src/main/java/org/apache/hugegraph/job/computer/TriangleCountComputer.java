@@ -19,6 +19,12 @@ package org.apache.hugegraph.job.computer;
 
 import java.util.Map;
 
+import org.apache.hugegraph.job.algorithm.CsrGraph;
+import org.apache.hugegraph.job.algorithm.comm.TriangleCountAlgorithm;
+import org.apache.hugegraph.type.define.DataType;
+import org.apache.hugegraph.type.define.Directions;
+import org.apache.hugegraph.util.E;
+
 import com.google.common.collect.ImmutableMap;
 
 public class TriangleCountComputer extends AbstractComputer {
@@ -37,14 +43,74 @@ public class TriangleCountComputer extends AbstractComputer {
 
     @Override
     public void checkParameters(Map<String, Object> parameters) {
-        direction(parameters);
+        Directions dir = direction(parameters);
+        E.checkArgument(dir == Directions.BOTH,
+                        "The triangles are counted ignoring the direction " +
+                        "of edges, expect direction BOTH, but got %s", dir);
         degree(parameters);
+        workers(parameters);
     }
 
     @Override
-    protected Map<String, Object> checkAndCollectParameters(
-            Map<String, Object> parameters) {
-        return ImmutableMap.of(DIRECTION, direction(parameters),
-                               DEGREE, degree(parameters));
+    protected Object compute(ComputerTraverser traverser,
+                             Map<String, Object> parameters) {
+        CsrGraph graph = traverser.orient(traverser.load(Directions.BOTH,
+                                                         degree(parameters)));
+        try (ComputeEngine engine = traverser.engine(graph,
+                                                     new TriangleProgram())) {
+            int steps = engine.run(2);
+            traverser.writeBack(TriangleCountAlgorithm.T_TRIANGLES,
+                                DataType.LONG, graph, engine::value);
+            // Each triangle is counted by its three vertices
+            long triangles = 0L;
+            for (int v = 0; v < graph.vertexCount(); v++) {
+                triangles += engine.value(v);
+            }
+            return ImmutableMap.of(KEY_SUPERSTEPS, steps,
+                                   KEY_VERTICES, graph.vertexCount(),
+                                   "triangles", triangles / 3L);
+        }
+    }
+
+    /**
+     * Each vertex finds the triangles with its higher adjacent vertices by
+     * the oriented graph in the first superstep, and sends one to each
+     * vertex of the triangles, then sums them up in the second superstep
+     */
+    private static class TriangleProgram extends VertexProgram {
+
+        @Override
+        public MessageCombiner combiner() {
+            return MessageCombiner.SUM;
+        }
+
+        @Override
+        public void init(ComputeEngine engine, int vertex) {
+            engine.value(vertex, 0L);
+        }
+
+        @Override
+        public void compute(ComputeEngine engine, int vertex,
+                            boolean received, long message) {
+            if (engine.superstep() == 0) {
+                CsrGraph graph = engine.graph();
+                long triangles = 0L;
+                for (int e = graph.edgeStart(vertex);
+                     e < graph.edgeEnd(vertex); e++) {
+                    int other = graph.target(e);
+                    triangles += graph.intersect(vertex, graph, other,
+                                                 third -> {
+                        engine.sendMessage(other, 1L);
+                        engine.sendMessage(third, 1L);
+                    });
+                }
+                if (triangles > 0L) {
+                    engine.sendMessage(vertex, triangles);
+                }
+            } else {
+                engine.value(vertex, message);
+            }
+            engine.voteToHalt(vertex);
+        }
     }
 }
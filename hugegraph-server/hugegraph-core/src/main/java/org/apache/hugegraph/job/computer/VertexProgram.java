@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hugegraph.job.computer;
+
+/**
+ * A vertex-centric program run by the ComputeEngine in supersteps. Each
+ * vertex keeps a long value, and it's computed with the message combined
+ * from the messages sent to it in the last superstep.
+ *
+ * The compute() of different vertices is called by multiple threads, it can
+ * only update the value of the vertex itself, and read the values of other
+ * vertices through ComputeEngine.lastValue() if readNeighborValues().
+ */
+public abstract class VertexProgram {
+
+    /**
+     * The combiner of messages, or null if the program sends no message
+     */
+    public MessageCombiner combiner() {
+        return null;
+    }
+
+    /**
+     * Whether to keep the values of the last superstep, which can be read
+     * by ComputeEngine.lastValue() in a superstep
+     */
+    public boolean readNeighborValues() {
+        return false;
+    }
+
+    /**
+     * The number of double aggregators, which are summed up from all
+     * vertices in a superstep by ComputeEngine.aggregate()
+     */
+    public int aggregators() {
+        return 0;
+    }
+
+    /**
+     * Set the initial value of the vertex before the first superstep
+     */
+    public abstract void init(ComputeEngine engine, int vertex);
+
+    /**
+     * Compute the vertex in the superstep, it's called if the vertex didn't
+     * vote to halt in the last superstep or it received messages
+     * @param received Whether the vertex received messages
+     * @param message  The combined message, or the identity of the combiner
+     *                 if no message is received
+     */
+    public abstract void compute(ComputeEngine engine, int vertex,
+                                 boolean received, long message);
+
+    /**
+     * Called by a single thread before each superstep
+     */
+    public void beforeSuperstep(ComputeEngine engine) {
+        // pass
+    }
+
+    /**
+     * Called by a single thread after each superstep, the aggregated values
+     * of the superstep are available by ComputeEngine.aggregated()
+     * @return false to stop before the next superstep
+     */
+    public boolean afterSuperstep(ComputeEngine engine) {
+        return true;
+    }
+}
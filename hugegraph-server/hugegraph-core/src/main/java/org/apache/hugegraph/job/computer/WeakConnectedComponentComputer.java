@@ -19,6 +19,12 @@ package org.apache.hugegraph.job.computer;
 
 import java.util.Map;
 
+import org.apache.hugegraph.job.algorithm.AbstractAlgorithm;
+import org.apache.hugegraph.job.algorithm.CsrGraph;
+import org.apache.hugegraph.traversal.algorithm.HugeTraverser;
+import org.apache.hugegraph.type.define.DataType;
+import org.apache.hugegraph.type.define.Directions;
+
 import com.google.common.collect.ImmutableMap;
 
 public class WeakConnectedComponentComputer extends AbstractComputer {
@@ -39,12 +45,58 @@ public class WeakConnectedComponentComputer extends AbstractComputer {
     public void checkParameters(Map<String, Object> parameters) {
         maxSteps(parameters);
         precision(parameters);
+        workers(parameters);
     }
 
     @Override
-    protected Map<String, Object> checkAndCollectParameters(
-            Map<String, Object> parameters) {
-        return ImmutableMap.of(MAX_STEPS, maxSteps(parameters),
-                               PRECISION, precision(parameters));
+    protected Object compute(ComputerTraverser traverser,
+                             Map<String, Object> parameters) {
+        CsrGraph graph = traverser.load(Directions.BOTH,
+                                        HugeTraverser.NO_LIMIT);
+        try (ComputeEngine engine = traverser.engine(graph, new WccProgram())) {
+            int steps = engine.run(maxSteps(parameters));
+            // The component is labeled by the id of its min vertex index
+            traverser.writeBack(AbstractAlgorithm.C_LABEL, DataType.TEXT, graph,
+                                v -> graph.id((int) engine.value(v))
+                                          .toString());
+            long components = 0L;
+            for (int v = 0; v < graph.vertexCount(); v++) {
+                if (engine.value(v) == v) {
+                    components++;
+                }
+            }
+            return ImmutableMap.of(KEY_SUPERSTEPS, steps,
+                                   KEY_VERTICES, graph.vertexCount(),
+                                   "components", components);
+        }
+    }
+
+    /**
+     * Each vertex keeps the min vertex index it has seen, and sends it to
+     * the adjacent vertices when it's changed
+     */
+    private static class WccProgram extends VertexProgram {
+
+        @Override
+        public MessageCombiner combiner() {
+            return MessageCombiner.MIN;
+        }
+
+        @Override
+        public void init(ComputeEngine engine, int vertex) {
+            engine.value(vertex, vertex);
+        }
+
+        @Override
+        public void compute(ComputeEngine engine, int vertex,
+                            boolean received, long message) {
+            if (engine.superstep() == 0) {
+                engine.sendMessageToNeighbors(vertex, vertex);
+            } else if (message < engine.value(vertex)) {
+                engine.value(vertex, message);
+                engine.sendMessageToNeighbors(vertex, message);
+            }
+            engine.voteToHalt(vertex);
+        }
     }
 }
@@ -17,30 +17,48 @@
 
 package org.apache.hugegraph.job.schema;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
+import org.apache.hugegraph.HugeException;
+import org.apache.hugegraph.HugeGraph;
 import org.apache.hugegraph.backend.id.Id;
+import org.apache.hugegraph.backend.store.Shard;
 import org.apache.hugegraph.backend.tx.GraphTransaction;
 import org.apache.hugegraph.backend.tx.ISchemaTransaction;
+import org.apache.hugegraph.config.CoreOptions;
 import org.apache.hugegraph.schema.EdgeLabel;
 import org.apache.hugegraph.schema.IndexLabel;
 import org.apache.hugegraph.schema.SchemaElement;
 import org.apache.hugegraph.schema.SchemaLabel;
 import org.apache.hugegraph.schema.VertexLabel;
 import org.apache.hugegraph.structure.HugeElement;
+import org.apache.hugegraph.task.TaskManager.ContextCallable;
 import org.apache.hugegraph.type.HugeType;
 import org.apache.hugegraph.type.define.SchemaStatus;
+import org.apache.hugegraph.util.ExecutorUtil;
+import org.apache.hugegraph.util.JsonUtil;
 import org.apache.hugegraph.util.LockUtil;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 
 public class IndexLabelRebuildJob extends SchemaJob {
 
+    private static final String KEY_SHARDS = "shards";
+
     @Override
     public String type() {
         return REBUILD_INDEX;
@@ -86,12 +104,6 @@ public class IndexLabelRebuildJob extends SchemaJob {
         ISchemaTransaction schemaTx = this.params().schemaTransaction();
         GraphTransaction graphTx = this.params().graphTransaction();
 
-        Consumer<?> indexUpdater = (elem) -> {
-            for (Id id : indexLabelIds) {
-                graphTx.updateIndex(id, (HugeElement) elem, false);
-            }
-        };
-
         LockUtil.Locks locks = new LockUtil.Locks(schemaTx.spaceGraphName());
         try {
             locks.lockWrites(LockUtil.INDEX_LABEL_REBUILD, indexLabelIds);
@@ -99,37 +111,42 @@ public class IndexLabelRebuildJob extends SchemaJob {
             Set<IndexLabel> ils = indexLabelIds.stream()
                                                .map(this.graph()::indexLabel)
                                                .collect(Collectors.toSet());
-            for (IndexLabel il : ils) {
-                if (il.status() == SchemaStatus.CREATING) {
-                    continue;
+            // The shards of the job restored after restarting
+            List<Shard> shards = this.checkpointShards();
+            if (shards == null) {
+                for (IndexLabel il : ils) {
+                    if (il.status() == SchemaStatus.CREATING) {
+                        continue;
+                    }
+                    schemaTx.updateSchemaStatus(il, SchemaStatus.REBUILDING);
                 }
-                schemaTx.updateSchemaStatus(il, SchemaStatus.REBUILDING);
-            }
 
-            this.removeIndex(indexLabelIds);
-            /*
-             * Note: Here must commit index transaction firstly.
-             * Because remove index convert to (id like <?>:personByCity):
-             * `delete from index table where label = ?`,
-             * But append index will convert to (id like Beijing:personByCity):
-             * `update index element_ids += xxx where field_value = ?
-             * and index_label_name = ?`,
-             * They have different id lead to it can't compare and optimize
-             */
-            graphTx.commit();
+                this.removeIndex(indexLabelIds);
+                /*
+                 * Note: Here must commit index transaction firstly.
+                 * Because remove index convert to (id like <?>:personByCity):
+                 * `delete from index table where label = ?`,
+                 * But append index will convert to (id like Beijing:personByCity):
+                 * `update index element_ids += xxx where field_value = ?
+                 * and index_label_name = ?`,
+                 * They have different id lead to it can't compare and optimize
+                 */
+                graphTx.commit();
+
+                shards = this.splitShards(label);
+                if (shards != null) {
+                    this.checkpoint(shards);
+                }
+            } else {
+                LOG.info("Resume rebuilding index of {} from shard {}/{}",
+                         label, this.progress(), shards.size());
+            }
 
             try {
-                if (label.type() == HugeType.VERTEX_LABEL) {
-                    @SuppressWarnings("unchecked")
-                    Consumer<Vertex> consumer = (Consumer<Vertex>) indexUpdater;
-                    graphTx.traverseVerticesByLabel((VertexLabel) label,
-                                                    consumer, false);
+                if (shards == null) {
+                    this.rebuildIndex(graphTx, label, indexLabelIds, null);
                 } else {
-                    assert label.type() == HugeType.EDGE_LABEL;
-                    @SuppressWarnings("unchecked")
-                    Consumer<Edge> consumer = (Consumer<Edge>) indexUpdater;
-                    graphTx.traverseEdgesByLabel((EdgeLabel) label,
-                                                 consumer, false);
+                    this.rebuildIndexByShards(label, indexLabelIds, shards);
                 }
                 graphTx.commit();
             } catch (Throwable e) {
@@ -147,6 +164,144 @@ public class IndexLabelRebuildJob extends SchemaJob {
         }
     }
 
+    private void rebuildIndex(GraphTransaction graphTx, SchemaLabel label,
+                              Collection<Id> indexLabelIds, Shard shard) {
+        Consumer<?> indexUpdater = (elem) -> {
+            for (Id id : indexLabelIds) {
+                graphTx.updateIndex(id, (HugeElement) elem, false);
+            }
+        };
+
+        if (label.type() == HugeType.VERTEX_LABEL) {
+            @SuppressWarnings("unchecked")
+            Consumer<Vertex> consumer = (Consumer<Vertex>) indexUpdater;
+            if (shard == null) {
+                graphTx.traverseVerticesByLabel((VertexLabel) label,
+                                                consumer, false);
+            } else {
+                graphTx.traverseVerticesByShard((VertexLabel) label, shard,
+                                                consumer, false);
+            }
+        } else {
+            assert label.type() == HugeType.EDGE_LABEL;
+            @SuppressWarnings("unchecked")
+            Consumer<Edge> consumer = (Consumer<Edge>) indexUpdater;
+            if (shard == null) {
+                graphTx.traverseEdgesByLabel((EdgeLabel) label,
+                                             consumer, false);
+            } else {
+                graphTx.traverseEdgesByShard((EdgeLabel) label, shard,
+                                             consumer, false);
+            }
+        }
+    }
+
+    private void rebuildIndexByShards(SchemaLabel label,
+                                      Collection<Id> indexLabelIds,
+                                      List<Shard> shards) {
+        // Shards before the progress have been rebuilt before restarting
+        int rebuilt = this.progress();
+        int workers = Math.min(shards.size() - rebuilt,
+                               this.graph().option(
+                               CoreOptions.TASK_REBUILD_INDEX_WORKERS));
+        if (workers <= 0) {
+            return;
+        }
+        ExecutorService executor = ExecutorUtil.newFixedThreadPool(
+                                   workers, "rebuild-index-worker-%d");
+        CompletionService<Integer> completion =
+                new ExecutorCompletionService<>(executor);
+        try {
+            for (int i = rebuilt; i < shards.size(); i++) {
+                final int index = i;
+                completion.submit(new ContextCallable<>(() -> {
+                    // Each worker thread rebuilds with its own transaction
+                    try {
+                        GraphTransaction tx = this.params().graphTransaction();
+                        this.rebuildIndex(tx, label, indexLabelIds,
+                                          shards.get(index));
+                        tx.commit();
+                    } finally {
+                        this.params().closeTx();
+                    }
+                    return index;
+                }));
+            }
+
+            /*
+             * Shards may be finished out of order, only the shards before
+             * the first unfinished one are recorded as the progress
+             */
+            boolean[] finished = new boolean[shards.size()];
+            for (int i = rebuilt; i < shards.size(); i++) {
+                finished[completion.take().get()] = true;
+                while (rebuilt < shards.size() && finished[rebuilt]) {
+                    rebuilt++;
+                }
+                this.updateProgress(rebuilt);
+            }
+        } catch (InterruptedException e) {
+            throw new HugeException("Interrupted while rebuilding index " +
+                                    "of %s", e, label);
+        } catch (ExecutionException e) {
+            throw new HugeException("Failed to rebuild index of %s",
+                                    e.getCause(), label);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private List<Shard> splitShards(SchemaLabel label) {
+        HugeGraph graph = this.graph();
+        /*
+         * A shard contains the elements of all labels, so scanning shards
+         * reads the whole vertex or edge table, which is only worth it if
+         * the label index can't be used to read the label alone
+         */
+        if (label.enableLabelIndex() ||
+            graph.option(CoreOptions.TASK_REBUILD_INDEX_WORKERS) <= 1 ||
+            !graph.backendStoreFeatures().supportsScanKeyRange()) {
+            return null;
+        }
+        HugeType type = label.type() == HugeType.VERTEX_LABEL ?
+                        HugeType.VERTEX : HugeType.EDGE_OUT;
+        long shardSize = graph.option(CoreOptions.TASK_REBUILD_INDEX_SHARD_SIZE);
+        List<Shard> shards = graph.metadata(type, "splits", shardSize);
+        return shards.size() > 1 ? shards : null;
+    }
+
+    private void checkpoint(List<Shard> shards) {
+        /*
+         * Save the shards into the task input, so the job restored after
+         * restarting can skip the rebuilt shards by the progress
+         */
+        List<List<String>> ranges = new ArrayList<>(shards.size());
+        for (Shard shard : shards) {
+            ranges.add(Arrays.asList(shard.start(), shard.end()));
+        }
+        this.task().input(JsonUtil.toJson(ImmutableMap.of(KEY_SHARDS, ranges)));
+        this.task().progress(0);
+        this.save();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Shard> checkpointShards() {
+        String input = this.task().input();
+        if (input == null || input.isEmpty()) {
+            return null;
+        }
+        Map<String, Object> checkpoint = JsonUtil.fromJson(input, Map.class);
+        List<List<String>> ranges = (List<List<String>>) checkpoint.get(KEY_SHARDS);
+        if (ranges == null) {
+            return null;
+        }
+        List<Shard> shards = new ArrayList<>(ranges.size());
+        for (List<String> range : ranges) {
+            shards.add(new Shard(range.get(0), range.get(1), 0L));
+        }
+        return shards;
+    }
+
     private void removeIndex(Collection<Id> indexLabelIds) {
         ISchemaTransaction schemaTx = this.params().schemaTransaction();
         GraphTransaction graphTx = this.params().graphTransaction();
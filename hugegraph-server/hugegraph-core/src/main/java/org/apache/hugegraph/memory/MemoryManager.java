@@ -113,6 +113,20 @@ public class MemoryManager {
         currentAvailableMemoryInBytes.addAndGet(-size);
     }
 
+    /**
+     * Consume the available memory directly rather than by a memory pool, like the memory of a
+     * computer job, which must be returned by returnReclaimedTaskMemory() when it's not used.
+     *
+     * @return false if the available memory isn't enough, nothing is consumed then
+     */
+    public synchronized boolean tryConsumeAvailableMemory(long size) {
+        if (currentAvailableMemoryInBytes.get() < size) {
+            return false;
+        }
+        currentAvailableMemoryInBytes.addAndGet(-size);
+        return true;
+    }
+
     public long triggerLocalArbitration(MemoryPool targetPool, long neededBytes,
                                         MemoryPool requestPool) {
         LOG.info("LocalArbitration triggered by {}: needed bytes={}", targetPool, neededBytes);
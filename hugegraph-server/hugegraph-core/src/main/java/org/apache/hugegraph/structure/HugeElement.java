@@ -246,6 +246,19 @@ public abstract class HugeElement implements Element, GraphType, Idfiable, Compa
         return (V) prop.value();
     }
 
+    /**
+     * Get property value by the slot of property key, the slot is got from
+     * intFromId(key) in advance to avoid converting the key for each element
+     */
+    @SuppressWarnings("unchecked")
+    public <V> V getPropertyValue(int slot) {
+        HugeProperty<?> prop = this.properties.get(slot);
+        if (prop == null) {
+            return null;
+        }
+        return (V) prop.value();
+    }
+
     public boolean hasProperty(Id key) {
         return this.properties.containsKey(intFromId(key));
     }
@@ -32,6 +32,8 @@ import org.apache.hugegraph.type.define.Directions;
 import org.apache.hugegraph.type.define.Frequency;
 import org.apache.hugegraph.util.E;
 import org.apache.hugegraph.util.InsertionOrderUtil;
+import org.apache.hugegraph.util.collection.CountMinSketch;
+import org.apache.hugegraph.util.collection.TopK;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
@@ -45,6 +47,11 @@ import jakarta.ws.rs.core.MultivaluedMap;
 
 public class FusiformSimilarityTraverser extends HugeTraverser {
 
+    private static final int SKETCH_DEPTH = 4;
+    private static final int SKETCH_WIDTH_PER_TOP = 64;
+    private static final int MIN_SKETCH_WIDTH = 1 << 10;
+    private static final int MAX_SKETCH_WIDTH = 1 << 20;
+
     private long accessed = 0L;
 
     public FusiformSimilarityTraverser(HugeGraph graph) {
@@ -72,9 +79,41 @@ public class FusiformSimilarityTraverser extends HugeTraverser {
                                           String groupProperty, int minGroups,
                                           long degree, long capacity, long limit,
                                           boolean withIntermediary) {
+        return this.fusiformSimilarity(vertices, direction, label,
+                                       minNeighbors, alpha, minSimilars, top,
+                                       groupProperty, minGroups, degree,
+                                       capacity, limit, withIntermediary,
+                                       false);
+    }
+
+    /**
+     * @param approximate Whether to count the similars by a count-min sketch
+     *                    and only keep the top similars, the memory of each
+     *                    vertex is O(top) rather than O(similars), but the
+     *                    scores may be over estimated
+     */
+    public SimilarsMap fusiformSimilarity(Iterator<Vertex> vertices,
+                                          Directions direction, String label,
+                                          int minNeighbors, double alpha,
+                                          int minSimilars, int top,
+                                          String groupProperty, int minGroups,
+                                          long degree, long capacity, long limit,
+                                          boolean withIntermediary,
+                                          boolean approximate) {
         checkCapacity(capacity);
         checkLimit(limit);
         checkGroupArgs(groupProperty, minGroups);
+        if (approximate) {
+            E.checkArgument(top > 0,
+                            "Must set top when approximate is true");
+            E.checkArgument(minSimilars <= top,
+                            "The min similar count %s can't be greater " +
+                            "than top %s when approximate is true",
+                            minSimilars, top);
+            E.checkArgument(!withIntermediary,
+                            "Can't get intermediaries when approximate " +
+                            "is true");
+        }
 
         int foundCount = 0;
         SimilarsMap results = new SimilarsMap();
@@ -86,7 +125,7 @@ public class FusiformSimilarityTraverser extends HugeTraverser {
                     vertex, direction, label,
                     minNeighbors, alpha, minSimilars, top,
                     groupProperty, minGroups, degree, capacity,
-                    withIntermediary);
+                    withIntermediary, approximate);
             if (result.isEmpty()) {
                 continue;
             }
@@ -105,7 +144,7 @@ public class FusiformSimilarityTraverser extends HugeTraverser {
             String label, int minNeighbors, double alpha,
             int minSimilars, int top, String groupProperty,
             int minGroups, long degree, long capacity,
-            boolean withIntermediary) {
+            boolean withIntermediary, boolean approximate) {
         boolean matched = this.matchMinNeighborCount(vertex, direction, label,
                                                      minNeighbors, degree);
         if (!matched) {
@@ -113,11 +152,57 @@ public class FusiformSimilarityTraverser extends HugeTraverser {
             return ImmutableSet.of();
         }
         Id labelId = this.getEdgeLabelIdOrNull(label);
+        MultivaluedMap<Id, Id> intermediaries = new MultivaluedHashMap<>();
+        Map<Id, Double> topN;
+        if (approximate) {
+            topN = this.approximateSimilars(vertex.id(), direction, labelId,
+                                            alpha, minSimilars, top,
+                                            degree, capacity);
+        } else {
+            topN = this.exactSimilars(vertex.id(), direction, labelId,
+                                      alpha, minSimilars, top, degree,
+                                      capacity, withIntermediary ?
+                                                intermediaries : null);
+        }
+        if (topN.isEmpty()) {
+            return ImmutableSet.of();
+        }
+
+        // Filter by groupCount by property
+        if (groupProperty != null) {
+            Set<Object> values = newSet();
+            // Add groupProperty value of source vertex
+            values.add(vertex.value(groupProperty));
+            for (Id id : topN.keySet()) {
+                Vertex v = graph().vertices(id).next();
+                values.add(v.value(groupProperty));
+            }
+            if (values.size() < minGroups) {
+                return ImmutableSet.of();
+            }
+        }
+        // Construct result
+        Set<Similar> result = InsertionOrderUtil.newSet();
+        for (Map.Entry<Id, Double> entry : topN.entrySet()) {
+            Id similar = entry.getKey();
+            double score = entry.getValue();
+            List<Id> inters = withIntermediary ?
+                              intermediaries.get(similar) :
+                              ImmutableList.of();
+            result.add(new Similar(similar, score, inters));
+        }
+        return result;
+    }
+
+    private Map<Id, Double> exactSimilars(Id source, Directions direction,
+                                          Id labelId, double alpha,
+                                          int minSimilars, int top,
+                                          long degree, long capacity,
+                                          MultivaluedMap<Id, Id> inters) {
         // Get similar nodes and counts
-        Iterator<Edge> edges = this.edgesOfVertex(vertex.id(), direction,
+        Iterator<Edge> edges = this.edgesOfVertex(source, direction,
                                                   labelId, degree);
         Map<Id, MutableInt> similars = newMap();
-        MultivaluedMap<Id, Id> intermediaries = new MultivaluedHashMap<>();
         Set<Id> neighbors = newIdSet();
         long vertexCount = 1L;
         while (edges.hasNext()) {
@@ -139,8 +224,8 @@ public class FusiformSimilarityTraverser extends HugeTraverser {
                     continue;
                 }
                 currentSimilars.add(node);
-                if (withIntermediary) {
-                    intermediaries.add(node, target);
+                if (inters != null) {
+                    inters.add(node, target);
                 }
 
                 MutableInt count = similars.get(node);
@@ -157,55 +242,89 @@ public class FusiformSimilarityTraverser extends HugeTraverser {
         this.vertexIterCounter.addAndGet(vertexCount);
 
         // Delete source vertex
-        assert similars.containsKey(vertex.id());
-        similars.remove(vertex.id());
+        assert similars.containsKey(source);
+        similars.remove(source);
         if (similars.isEmpty()) {
-            return ImmutableSet.of();
+            return ImmutableMap.of();
         }
-        // Match alpha
+        // Match alpha, and only keep the top ones if needed
         double neighborNum = neighbors.size();
-        Map<Id, Double> matchedAlpha = newMap();
+        Map<Id, Double> matchedAlpha = top > 0 ? null : newMap();
+        TopK<Id> tops = top > 0 ? new TopK<>(top) : null;
+        int matchedCount = 0;
         for (Map.Entry<Id, MutableInt> entry : similars.entrySet()) {
             double score = entry.getValue().intValue() / neighborNum;
             if (score >= alpha) {
-                matchedAlpha.put(entry.getKey(), score);
+                matchedCount++;
+                if (tops != null) {
+                    tops.offer(entry.getKey(), score);
+                } else {
+                    matchedAlpha.put(entry.getKey(), score);
+                }
             }
         }
-        if (matchedAlpha.size() < minSimilars) {
-            return ImmutableSet.of();
+        if (matchedCount < minSimilars) {
+            return ImmutableMap.of();
         }
+        return tops != null ? tops.toMap() : matchedAlpha;
+    }
 
-        // Sorted and topN if needed
-        Map<Id, Double> topN;
-        if (top > 0) {
-            topN = topN(matchedAlpha, true, top);
-        } else {
-            topN = matchedAlpha;
-        }
-        // Filter by groupCount by property
-        if (groupProperty != null) {
-            Set<Object> values = newSet();
-            // Add groupProperty value of source vertex
-            values.add(vertex.value(groupProperty));
-            for (Id id : topN.keySet()) {
-                Vertex v = graph().vertices(id).next();
-                values.add(v.value(groupProperty));
+    /**
+     * Count the similars by a count-min sketch instead of a map of all the
+     * similars, and keep the top ones by their estimated counts as the
+     * candidates, which are the heavy hitters of the similars stream
+     */
+    private Map<Id, Double> approximateSimilars(Id source,
+                                                Directions direction,
+                                                Id labelId, double alpha,
+                                                int minSimilars, int top,
+                                                long degree, long capacity) {
+        long width = (long) top * SKETCH_WIDTH_PER_TOP;
+        width = Math.min(Math.max(width, MIN_SKETCH_WIDTH), MAX_SKETCH_WIDTH);
+        CountMinSketch sketch = new CountMinSketch((int) width, SKETCH_DEPTH);
+        TopK<Id> tops = new TopK<>(top);
+        Iterator<Edge> edges = this.edgesOfVertex(source, direction,
+                                                  labelId, degree);
+        Set<Id> neighbors = newIdSet();
+        long vertexCount = 1L;
+        while (edges.hasNext()) {
+            Id target = ((HugeEdge) edges.next()).id().otherVertexId();
+            if (neighbors.contains(target)) {
+                continue;
             }
-            if (values.size() < minGroups) {
-                return ImmutableSet.of();
+            neighbors.add(target);
+            checkCapacity(capacity, ++this.accessed, "fusiform similarity");
+
+            Directions backDir = direction.opposite();
+            Iterator<Edge> backEdges = this.edgesOfVertex(target, backDir,
+                                                          labelId, degree);
+            vertexCount += 1L;
+            Set<Id> currentSimilars = newIdSet();
+            while (backEdges.hasNext()) {
+                Id node = ((HugeEdge) backEdges.next()).id().otherVertexId();
+                if (node.equals(source) || !currentSimilars.add(node)) {
+                    continue;
+                }
+                // The kept candidate is updated with its new count
+                tops.offer(node, sketch.add(node));
             }
         }
-        // Construct result
-        Set<Similar> result = InsertionOrderUtil.newSet();
-        for (Map.Entry<Id, Double> entry : topN.entrySet()) {
-            Id similar = entry.getKey();
-            double score = entry.getValue();
-            List<Id> inters = withIntermediary ?
-                              intermediaries.get(similar) :
-                              ImmutableList.of();
-            result.add(new Similar(similar, score, inters));
+        this.edgeIterCounter.addAndGet(this.accessed);
+        this.vertexIterCounter.addAndGet(vertexCount);
+
+        // Match alpha with the estimated counts
+        double neighborNum = neighbors.size();
+        Map<Id, Double> matchedAlpha = InsertionOrderUtil.newMap();
+        for (Map.Entry<Id, Double> entry : tops.toMap().entrySet()) {
+            double score = Math.min(entry.getValue() / neighborNum, 1.0D);
+            if (score >= alpha) {
+                matchedAlpha.put(entry.getKey(), score);
+            }
         }
-        return result;
+        if (matchedAlpha.size() < minSimilars) {
+            return ImmutableMap.of();
+        }
+        return matchedAlpha;
     }
 
     private boolean matchMinNeighborCount(HugeVertex vertex,
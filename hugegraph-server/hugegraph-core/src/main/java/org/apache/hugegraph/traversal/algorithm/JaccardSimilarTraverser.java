@@ -21,6 +21,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
 
 import org.apache.hugegraph.HugeException;
 import org.apache.hugegraph.HugeGraph;
@@ -29,10 +30,9 @@ import org.apache.hugegraph.traversal.algorithm.steps.EdgeStep;
 import org.apache.hugegraph.type.define.Directions;
 import org.apache.hugegraph.util.CollectionUtil;
 import org.apache.hugegraph.util.E;
+import org.apache.hugegraph.util.collection.TopK;
 import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
-import com.google.common.collect.ImmutableMap;
-
 public class JaccardSimilarTraverser extends OltpTraverser {
 
     public JaccardSimilarTraverser(HugeGraph graph) {
@@ -83,23 +83,48 @@ public class JaccardSimilarTraverser extends OltpTraverser {
         this.checkVertexExist(source, "source vertex");
         checkCapacity(capacity);
 
-        Map<Id, Double> results;
         int maxDepth = 3;
-        if (maxDepth >= this.concurrentDepth()) {
-            results = this.jaccardSimilarsConcurrent(source, step, capacity);
-        } else {
-            results = this.jaccardSimilarsSingle(source, step, capacity);
+        boolean concurrent = maxDepth >= this.concurrentDepth();
+        if (top <= 0) {
+            if (concurrent) {
+                return this.jaccardSimilarsConcurrent(source, step, capacity);
+            } else {
+                return this.jaccardSimilarsSingle(source, step, capacity);
+            }
         }
 
-        if (top > 0) {
-            results = HugeTraverser.topN(results, true, top);
+        // Only keep the top similars instead of sorting all of them
+        TopK<Id> tops = new TopK<>(top);
+        if (concurrent) {
+            this.jaccardSimilarsConcurrent(source, step, capacity,
+                                           (id, similarity) -> {
+                synchronized (tops) {
+                    tops.offer(id, similarity);
+                }
+            });
+        } else {
+            this.jaccardSimilarsSingle(source, step, capacity, tops::offer);
         }
-
-        return results;
+        return tops.toMap();
     }
 
     public Map<Id, Double> jaccardSimilarsConcurrent(Id source, EdgeStep step,
                                                      long capacity) {
+        Map<Id, Double> results = new ConcurrentHashMap<>();
+        this.jaccardSimilarsConcurrent(source, step, capacity, results::put);
+        return results;
+    }
+
+    public Map<Id, Double> jaccardSimilarsSingle(Id source, EdgeStep step,
+                                                 long capacity) {
+        Map<Id, Double> results = newMap();
+        this.jaccardSimilarsSingle(source, step, capacity, results::put);
+        return results;
+    }
+
+    private void jaccardSimilarsConcurrent(Id source, EdgeStep step,
+                                           long capacity,
+                                           BiConsumer<Id, Double> results) {
         AtomicLong count = new AtomicLong(0L);
         Set<Id> accessed = ConcurrentHashMap.newKeySet();
         accessed.add(source);
@@ -114,10 +139,9 @@ public class JaccardSimilarTraverser extends OltpTraverser {
         reachCapacity(count.get() + layer1s.size(), capacity);
         count.addAndGet(layer1s.size());
         if (layer1s.isEmpty()) {
-            return ImmutableMap.of();
+            return;
         }
 
-        Map<Id, Double> results = new ConcurrentHashMap<>();
         Set<Id> layer2All = ConcurrentHashMap.newKeySet();
 
         this.traverseIds(layer1s.iterator(), id -> {
@@ -131,13 +155,13 @@ public class JaccardSimilarTraverser extends OltpTraverser {
             this.edgeIterCounter.addAndGet(layer2s.size());
 
             if (layer2s.isEmpty()) {
-                results.put(id, 0.0D);
+                results.accept(id, 0.0D);
             }
 
             layer2All.addAll(layer2s);
             reachCapacity(count.get() + layer2All.size(), capacity);
             double jaccardSimilarity = this.jaccardSimilarity(layer1s, layer2s);
-            results.put(id, jaccardSimilarity);
+            results.accept(id, jaccardSimilarity);
             accessed.add(id);
         });
 
@@ -155,19 +179,18 @@ public class JaccardSimilarTraverser extends OltpTraverser {
 
             reachCapacity(count.get() + layer3s.size(), capacity);
             if (layer3s.isEmpty()) {
-                results.put(id, 0.0D);
+                results.accept(id, 0.0D);
             }
 
             double jaccardSimilarity = this.jaccardSimilarity(layer1s, layer3s);
-            results.put(id, jaccardSimilarity);
+            results.accept(id, jaccardSimilarity);
             accessed.add(id);
         });
-
-        return results;
     }
 
-    public Map<Id, Double> jaccardSimilarsSingle(Id source, EdgeStep step,
-                                                 long capacity) {
+    private void jaccardSimilarsSingle(Id source, EdgeStep step,
+                                       long capacity,
+                                       BiConsumer<Id, Double> results) {
         long count = 0L;
         Set<Id> accessed = newIdSet();
         accessed.add(source);
@@ -182,10 +205,9 @@ public class JaccardSimilarTraverser extends OltpTraverser {
         reachCapacity(count + layer1s.size(), capacity);
         count += layer1s.size();
         if (layer1s.isEmpty()) {
-            return ImmutableMap.of();
+            return;
         }
 
-        Map<Id, Double> results = newMap();
         Set<Id> layer2s;
         Set<Id> layer2All = newIdSet();
         double jaccardSimilarity;
@@ -200,14 +222,14 @@ public class JaccardSimilarTraverser extends OltpTraverser {
             this.edgeIterCounter.addAndGet(layer2s.size());
 
             if (layer2s.isEmpty()) {
-                results.put(neighbor, 0.0D);
+                results.accept(neighbor, 0.0D);
                 continue;
             }
 
             layer2All.addAll(layer2s);
             reachCapacity(count + layer2All.size(), capacity);
             jaccardSimilarity = this.jaccardSimilarity(layer1s, layer2s);
-            results.put(neighbor, jaccardSimilarity);
+            results.accept(neighbor, jaccardSimilarity);
             accessed.add(neighbor);
         }
         count += layer2All.size();
@@ -225,15 +247,13 @@ public class JaccardSimilarTraverser extends OltpTraverser {
 
             reachCapacity(count + layer3s.size(), capacity);
             if (layer3s.isEmpty()) {
-                results.put(neighbor, 0.0D);
+                results.accept(neighbor, 0.0D);
                 continue;
             }
 
             jaccardSimilarity = this.jaccardSimilarity(layer1s, layer3s);
-            results.put(neighbor, jaccardSimilarity);
+            results.accept(neighbor, jaccardSimilarity);
             accessed.add(neighbor);
         }
-
-        return results;
     }
 }
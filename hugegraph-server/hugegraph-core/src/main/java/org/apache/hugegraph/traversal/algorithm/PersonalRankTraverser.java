@@ -17,11 +17,14 @@
 
 package org.apache.hugegraph.traversal.algorithm;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.function.BiFunction;
+import java.util.SplittableRandom;
+import java.util.function.ObjDoubleConsumer;
 
 import org.apache.hugegraph.HugeGraph;
 import org.apache.hugegraph.backend.id.Id;
@@ -30,107 +33,110 @@ import org.apache.hugegraph.schema.VertexLabel;
 import org.apache.hugegraph.structure.HugeVertex;
 import org.apache.hugegraph.type.define.Directions;
 import org.apache.hugegraph.util.E;
-import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
+import org.apache.hugegraph.util.collection.TopK;
+import org.apache.tinkerpop.gremlin.structure.util.CloseableIterator;
+import org.eclipse.collections.impl.list.mutable.primitive.IntArrayList;
+import org.eclipse.collections.impl.map.mutable.primitive.ObjectIntHashMap;
 
-public class PersonalRankTraverser extends HugeTraverser {
+/**
+ * Compute the personal rank of the vertices around the source vertex, the
+ * vertices are mapped to int codes in the order of their depths, so the
+ * ranks are kept in primitive arrays and the seeds of each round are a
+ * prefix of the codes. The adjacent vertices of each depth are fetched
+ * together by the oltp executors.
+ *
+ * Each round is a sparse matrix-vector multiplication, which pushes the
+ * ranks of the seeds to their adjacent vertices while the seeds are few,
+ * and lets the vertices pull the ranks from their seeds in parallel after
+ * the seeds become dense.
+ *
+ * The ranks can also be estimated by random walks with restart, only the
+ * adjacent vertices of the walked vertices are fetched.
+ */
+public class PersonalRankTraverser extends OltpTraverser {
+
+    public static final int MAX_WALKS = 10000000;
+
+    // The min number of vertices to pull the ranks in parallel
+    private static final int PARALLEL_PULL_VERTICES = 4096;
+    // Push the ranks if the edges of seeds are less than 1/N of the edges
+    // of all the seeds
+    private static final int PUSH_EDGES_RATIO = 4;
+    private static final int NO_VERTEX = -1;
 
     private final double alpha;
     private final long degree;
     private final int maxDepth;
+    private final int walks;
+
+    private int pullVertices = PARALLEL_PULL_VERTICES;
+    private int pushEdgesRatio = PUSH_EDGES_RATIO;
 
     public PersonalRankTraverser(HugeGraph graph, double alpha,
                                  long degree, int maxDepth) {
+        this(graph, alpha, degree, maxDepth, 0);
+    }
+
+    /**
+     * @param walks The number of random walks to estimate the ranks, or 0
+     *              to compute the exact ranks. The error of each estimated
+     *              rank is at most sqrt(ln(2/p) / (2 * walks)) with
+     *              probability 1 - p, e.g. 0.01 with probability 0.99 by
+     *              26492 walks.
+     */
+    public PersonalRankTraverser(HugeGraph graph, double alpha,
+                                 long degree, int maxDepth, int walks) {
         super(graph);
+        E.checkArgument(maxDepth > 0,
+                        "The max depth must be > 0, but got %s", maxDepth);
+        E.checkArgument(walks >= 0 && walks <= MAX_WALKS,
+                        "The walks must be in range [0, %s], but got %s",
+                        MAX_WALKS, walks);
         this.alpha = alpha;
         this.degree = degree;
         this.maxDepth = maxDepth;
+        this.walks = walks;
     }
 
     public Map<Id, Double> personalRank(Id source, String label,
                                         WithLabel withLabel) {
+        Ranker ranker = this.rank(source, label);
+        Map<Id, Double> ranks = newMap();
+        ranker.collect(withLabel, ranks::put);
+        return ranks;
+    }
+
+    /**
+     * Get the top ranks in descending order, only the top ones are kept
+     * while collecting the ranks
+     * @param top The max number of ranks, or NO_LIMIT to sort all ranks
+     */
+    public Map<Id, Double> personalRank(Id source, String label,
+                                        WithLabel withLabel, long top) {
+        Ranker ranker = this.rank(source, label);
+        TopK<Id> tops = new TopK<>(top);
+        ranker.collect(withLabel, (id, rank) -> {
+            if (tops.admits(rank)) {
+                tops.offer(id, rank);
+            }
+        });
+        return tops.toMap();
+    }
+
+    private Ranker rank(Id source, String label) {
         E.checkNotNull(source, "source vertex id");
         this.checkVertexExist(source, "source vertex");
         E.checkArgumentNotNull(label, "The edge label can't be null");
 
-        Map<Id, Double> ranks = newMap();
-        ranks.put(source, 1.0);
-
         Id labelId = this.getEdgeLabelIdOrNull(label);
         Directions dir = this.getStartDirection(source, label);
-
-        Set<Id> outSeeds = newIdSet();
-        Set<Id> inSeeds = newIdSet();
-        if (dir == Directions.OUT) {
-            outSeeds.add(source);
+        Ranker ranker = new Ranker(source, dir, labelId);
+        if (this.walks > 0) {
+            ranker.walk();
         } else {
-            inSeeds.add(source);
+            ranker.propagate();
         }
-
-        Set<Id> rootAdjacencies = newIdSet();
-        for (long i = 0; i < this.maxDepth; i++) {
-            Map<Id, Double> newRanks = this.calcNewRanks(outSeeds, inSeeds,
-                                                         labelId, ranks);
-            ranks = this.compensateRoot(source, newRanks);
-            if (i == 0) {
-                rootAdjacencies.addAll(ranks.keySet());
-            }
-        }
-        // Remove directly connected neighbors
-        removeAll(ranks, rootAdjacencies);
-        // Remove unnecessary label
-        if (withLabel == WithLabel.SAME_LABEL) {
-            removeAll(ranks, dir == Directions.OUT ? inSeeds : outSeeds);
-        } else if (withLabel == WithLabel.OTHER_LABEL) {
-            removeAll(ranks, dir == Directions.OUT ? outSeeds : inSeeds);
-        }
-        return ranks;
-    }
-
-    private Map<Id, Double> calcNewRanks(Set<Id> outSeeds, Set<Id> inSeeds,
-                                         Id label, Map<Id, Double> ranks) {
-        Map<Id, Double> newRanks = newMap();
-        BiFunction<Set<Id>, Directions, Set<Id>> neighborIncrRanks;
-        neighborIncrRanks = (seeds, dir) -> {
-            Set<Id> tmpSeeds = newIdSet();
-            for (Id seed : seeds) {
-                Double oldRank = ranks.get(seed);
-                E.checkState(oldRank != null, "Expect rank of seed exists");
-
-                Iterator<Id> iter = this.adjacentVertices(seed, dir, label,
-                                                          this.degree);
-                List<Id> neighbors = IteratorUtils.list(iter);
-
-                long degree = neighbors.size();
-                if (degree == 0L) {
-                    newRanks.put(seed, oldRank);
-                    continue;
-                }
-                double incrRank = oldRank * this.alpha / degree;
-
-                // Collect all neighbors increment
-                for (Id neighbor : neighbors) {
-                    tmpSeeds.add(neighbor);
-                    // Assign an initial value when firstly update neighbor rank
-                    double rank = newRanks.getOrDefault(neighbor, 0.0);
-                    newRanks.put(neighbor, rank + incrRank);
-                }
-            }
-            return tmpSeeds;
-        };
-
-        Set<Id> tmpInSeeds = neighborIncrRanks.apply(outSeeds, Directions.OUT);
-        Set<Id> tmpOutSeeds = neighborIncrRanks.apply(inSeeds, Directions.IN);
-
-        outSeeds.addAll(tmpOutSeeds);
-        inSeeds.addAll(tmpInSeeds);
-        return newRanks;
-    }
-
-    private Map<Id, Double> compensateRoot(Id root, Map<Id, Double> newRanks) {
-        double rank = newRanks.getOrDefault(root, 0.0);
-        rank += (1 - this.alpha);
-        newRanks.put(root, rank);
-        return newRanks;
+        return ranker;
     }
 
     private Directions getStartDirection(Id source, String label) {
@@ -155,10 +161,10 @@ public class PersonalRankTraverser extends HugeTraverser {
         }
     }
 
-    private static void removeAll(Map<Id, Double> map, Set<Id> keys) {
-        for (Id key : keys) {
-            map.remove(key);
-        }
+    private static void swap(int[] values, int i, int j) {
+        int value = values[i];
+        values[i] = values[j];
+        values[j] = value;
     }
 
     public enum WithLabel {
@@ -166,4 +172,305 @@ public class PersonalRankTraverser extends HugeTraverser {
         OTHER_LABEL,
         BOTH_LABEL
     }
+
+    private class Ranker {
+
+        private final Directions direction;
+        private final Id label;
+
+        private final ObjectIntHashMap<Id> codes;
+        private final List<Id> ids;
+        // The adjacent vertices of each vertex, or null if not fetched
+        private final List<int[]> adjacencies;
+        // Whether each vertex is at odd depth, it has the other label
+        private final BitSet odds;
+        // The vertices in [0, rootEnd) are the source and its adjacencies
+        private int rootEnd;
+
+        private double[] ranks;
+        // Whether the vertices with rank 0 are ranked, only the walked
+        // vertices are ranked by random walks
+        private boolean zeroRanked;
+
+        public Ranker(Id source, Directions direction, Id label) {
+            this.direction = direction;
+            this.label = label;
+            this.codes = new ObjectIntHashMap<>();
+            this.ids = new ArrayList<>();
+            this.adjacencies = new ArrayList<>();
+            this.odds = new BitSet();
+            this.code(source, false);
+            this.fetch(IntArrayList.newListWith(0));
+            this.rootEnd = this.ids.size();
+        }
+
+        /**
+         * Compute the ranks of maxDepth rounds, the vertices at depth d
+         * (< maxDepth) are seeds since round d, and the ranks of round i
+         * are: ranks[i+1] = alpha * P * ranks[i] + (1 - alpha) * source,
+         * P is the transition matrix of the seeds to their adjacencies.
+         */
+        public void propagate() {
+            // Fetch the adjacencies of the seeds depth by depth, the
+            // vertices at depth d are in [depthEnds[d - 1], depthEnds[d])
+            int[] depthEnds = new int[maxDepth + 1];
+            depthEnds[0] = 1;
+            depthEnds[1] = this.ids.size();
+            for (int d = 1; d < maxDepth; d++) {
+                IntArrayList vertices = new IntArrayList();
+                for (int v = depthEnds[d - 1]; v < depthEnds[d]; v++) {
+                    vertices.add(v);
+                }
+                this.fetch(vertices);
+                depthEnds[d + 1] = this.ids.size();
+            }
+
+            int size = this.ids.size();
+            int seedCount = depthEnds[maxDepth - 1];
+            // The edges of the first v seeds are [0, edgeEnds[v])
+            long[] edgeEnds = new long[seedCount + 1];
+            for (int v = 0; v < seedCount; v++) {
+                edgeEnds[v + 1] = edgeEnds[v] + this.adjacencies.get(v).length;
+            }
+            // Build the transposed adjacencies until the first pull
+            Transposed transposed = null;
+
+            double[] ranks = new double[size];
+            double[] newRanks = new double[size];
+            double[] pushes = new double[seedCount];
+            ranks[0] = 1.0D;
+            for (int i = 0; i < maxDepth; i++) {
+                int seeds = depthEnds[i];
+                int rows = depthEnds[i + 1];
+                for (int v = 0; v < seeds; v++) {
+                    int adjacencies = this.adjacencies.get(v).length;
+                    pushes[v] = adjacencies == 0 ? 0.0D :
+                                ranks[v] * alpha / adjacencies;
+                }
+                Arrays.fill(newRanks, 0, rows, 0.0D);
+
+                long edges = edgeEnds[seeds];
+                if (rows >= pullVertices &&
+                    edges * pushEdgesRatio >= edgeEnds[seedCount]) {
+                    if (transposed == null) {
+                        transposed = new Transposed(size, seedCount);
+                    }
+                    transposed.pull(pushes, seeds, rows, newRanks);
+                } else {
+                    for (int v = 0; v < seeds; v++) {
+                        double push = pushes[v];
+                        for (int target : this.adjacencies.get(v)) {
+                            newRanks[target] += push;
+                        }
+                    }
+                }
+                for (int v = 0; v < seeds; v++) {
+                    if (this.adjacencies.get(v).length == 0) {
+                        // Keep the rank of the vertex without adjacencies
+                        newRanks[v] = ranks[v];
+                    }
+                }
+                newRanks[0] += 1.0D - alpha;
+
+                double[] swap = ranks;
+                ranks = newRanks;
+                newRanks = swap;
+            }
+            this.ranks = ranks;
+            this.zeroRanked = true;
+        }
+
+        /**
+         * Estimate the ranks by the end vertices of random walks: each walk
+         * starts from the source, and stops at each step with probability
+         * 1 - alpha or after maxDepth steps. The walks move step by step
+         * together, so the adjacencies of each step are fetched together.
+         */
+        public void walk() {
+            SplittableRandom random = new SplittableRandom();
+            // The walking ones are in [0, walking), the others are stopped
+            int[] walkers = new int[walks];
+            int walking = walks;
+            BitSet fetching = new BitSet();
+            for (int step = 0; step < maxDepth && walking > 0; step++) {
+                for (int w = 0; w < walking; w++) {
+                    if (random.nextDouble() >= alpha) {
+                        swap(walkers, w--, --walking);
+                    }
+                }
+
+                IntArrayList vertices = new IntArrayList();
+                fetching.clear();
+                for (int w = 0; w < walking; w++) {
+                    int vertex = walkers[w];
+                    if (this.adjacencies.get(vertex) == null &&
+                        !fetching.get(vertex)) {
+                        fetching.set(vertex);
+                        vertices.add(vertex);
+                    }
+                }
+                this.fetch(vertices);
+
+                for (int w = 0; w < walking; w++) {
+                    int[] adjacencies = this.adjacencies.get(walkers[w]);
+                    if (adjacencies.length == 0) {
+                        swap(walkers, w--, --walking);
+                        continue;
+                    }
+                    walkers[w] = adjacencies[random.nextInt(
+                                             adjacencies.length)];
+                }
+            }
+
+            this.ranks = new double[this.ids.size()];
+            double weight = 1.0D / walks;
+            for (int vertex : walkers) {
+                this.ranks[vertex] += weight;
+            }
+            this.zeroRanked = false;
+        }
+
+        /**
+         * Collect the ranks except the source and its adjacencies
+         */
+        public void collect(WithLabel withLabel, ObjDoubleConsumer<Id> consumer) {
+            for (int v = this.rootEnd; v < this.ids.size(); v++) {
+                double rank = this.ranks[v];
+                if (rank == 0.0D && !this.zeroRanked) {
+                    continue;
+                }
+                boolean odd = this.odds.get(v);
+                if (withLabel == WithLabel.SAME_LABEL && odd ||
+                    withLabel == WithLabel.OTHER_LABEL && !odd) {
+                    continue;
+                }
+                consumer.accept(this.ids.get(v), rank);
+            }
+        }
+
+        /**
+         * Fetch the adjacent vertices of the vertices, the adjacent vertices
+         * are coded in the order of the vertices
+         */
+        private void fetch(IntArrayList vertices) {
+            if (vertices.isEmpty()) {
+                return;
+            }
+            @SuppressWarnings("unchecked")
+            List<Id>[] fetched = new List[vertices.size()];
+            if (vertices.size() == 1) {
+                fetched[0] = this.adjacentVertices(vertices.get(0));
+            } else {
+                List<Integer> indexes = new ArrayList<>(vertices.size());
+                for (int i = 0; i < vertices.size(); i++) {
+                    indexes.add(i);
+                }
+                traverseByOne(indexes.iterator(), i -> {
+                    fetched[i] = this.adjacentVertices(vertices.get(i));
+                }, "personal-rank");
+            }
+
+            long edges = 0L;
+            for (int i = 0; i < fetched.length; i++) {
+                int vertex = vertices.get(i);
+                boolean odd = !this.odds.get(vertex);
+                int[] adjacencies = new int[fetched[i].size()];
+                for (int j = 0; j < adjacencies.length; j++) {
+                    adjacencies[j] = this.code(fetched[i].get(j), odd);
+                }
+                this.adjacencies.set(vertex, adjacencies);
+                edges += adjacencies.length;
+            }
+            vertexIterCounter.addAndGet(fetched.length);
+            edgeIterCounter.addAndGet(edges);
+        }
+
+        private List<Id> adjacentVertices(int vertex) {
+            // The vertices at odd depth have the other label
+            Directions dir = this.odds.get(vertex) ?
+                             this.direction.opposite() : this.direction;
+            Iterator<Id> iter = PersonalRankTraverser.this.adjacentVertices(
+                                this.ids.get(vertex), dir, this.label, degree);
+            List<Id> vertices = new ArrayList<>();
+            try {
+                while (iter.hasNext()) {
+                    vertices.add(iter.next());
+                }
+            } finally {
+                CloseableIterator.closeIterator(iter);
+            }
+            return vertices;
+        }
+
+        private int code(Id id, boolean odd) {
+            int code = this.codes.getIfAbsent(id, NO_VERTEX);
+            if (code != NO_VERTEX) {
+                return code;
+            }
+            code = this.ids.size();
+            this.codes.put(id, code);
+            this.ids.add(id);
+            this.adjacencies.add(null);
+            if (odd) {
+                this.odds.set(code);
+            }
+            return code;
+        }
+
+        /**
+         * The transposed adjacencies of the seeds, the sources of each
+         * vertex are in ascending order
+         */
+        private class Transposed {
+
+            private final int[] offsets;
+            private final int[] sources;
+
+            public Transposed(int size, int seedCount) {
+                this.offsets = new int[size + 1];
+                for (int v = 0; v < seedCount; v++) {
+                    for (int target : adjacencies.get(v)) {
+                        this.offsets[target + 1]++;
+                    }
+                }
+                for (int v = 0; v < size; v++) {
+                    this.offsets[v + 1] += this.offsets[v];
+                }
+                this.sources = new int[this.offsets[size]];
+                int[] cursors = Arrays.copyOf(this.offsets, size);
+                for (int v = 0; v < seedCount; v++) {
+                    for (int target : adjacencies.get(v)) {
+                        this.sources[cursors[target]++] = v;
+                    }
+                }
+            }
+
+            /**
+             * Pull the pushed ranks of the seeds [0, seeds) to the vertices
+             * [0, rows) in parallel, each task pulls a range of vertices
+             */
+            public void pull(double[] pushes, int seeds, int rows,
+                             double[] newRanks) {
+                List<Integer> starts = new ArrayList<>();
+                for (int v = 0; v < rows; v += pullVertices) {
+                    starts.add(v);
+                }
+                traverseByOne(starts.iterator(), start -> {
+                    int end = Math.min(start + pullVertices, rows);
+                    for (int v = start; v < end; v++) {
+                        double rank = 0.0D;
+                        for (int e = this.offsets[v];
+                             e < this.offsets[v + 1]; e++) {
+                            int source = this.sources[e];
+                            if (source >= seeds) {
+                                break;
+                            }
+                            rank += pushes[source];
+                        }
+                        newRanks[v] = rank;
+                    }
+                }, "personal-rank");
+            }
+        }
+    }
 }
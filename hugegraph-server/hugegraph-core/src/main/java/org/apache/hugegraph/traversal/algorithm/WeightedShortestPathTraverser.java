@@ -0,0 +1,616 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hugegraph.traversal.algorithm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.hugegraph.HugeGraph;
+import org.apache.hugegraph.backend.id.Id;
+import org.apache.hugegraph.structure.HugeEdge;
+import org.apache.hugegraph.traversal.algorithm.SingleSourceShortestPathTraverser.NodeWithWeight;
+import org.apache.hugegraph.type.define.Directions;
+import org.apache.hugegraph.util.E;
+import org.apache.hugegraph.util.Log;
+import org.apache.hugegraph.util.NumericUtil;
+import org.apache.hugegraph.util.collection.IntMinHeap;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.apache.tinkerpop.gremlin.structure.util.CloseableIterator;
+import org.eclipse.collections.api.list.primitive.MutableIntList;
+import org.eclipse.collections.impl.list.mutable.primitive.IntArrayList;
+import org.eclipse.collections.impl.map.mutable.primitive.IntObjectHashMap;
+import org.eclipse.collections.impl.map.mutable.primitive.ObjectIntHashMap;
+import org.slf4j.Logger;
+
+/**
+ * Find the weighted shortest path between two vertices by bidirectional
+ * Dijkstra, the vertices are mapped to int codes so that the distances
+ * and the parents of each search are kept in primitive arrays, and the
+ * searches are driven by primitive indexed heaps.
+ *
+ * The edges of the vertices at the front of a heap are fetched together
+ * by the oltp executors, since they are likely to be settled soon.
+ *
+ * The searches are optionally guided by ALT (A*, landmarks and triangle
+ * inequality) lower bounds, which are read from the olap properties
+ * written by the landmarks algorithm job.
+ */
+public class WeightedShortestPathTraverser extends OltpTraverser {
+
+    private static final Logger LOG = Log.logger(WeightedShortestPathTraverser.class);
+
+    /*
+     * The olap properties of landmarks, the distances from each landmark
+     * to the vertex are kept in "<prefix>_from", and the distances from the
+     * vertex to each landmark in "<prefix>_to", which only exists if the
+     * landmarks are computed with OUT direction. The distance is -1 if the
+     * vertex is unreachable.
+     */
+    public static final String LANDMARKS_FROM_SUFFIX = "_from";
+    public static final String LANDMARKS_TO_SUFFIX = "_to";
+
+    // The number of vertices at the front of the heap to fetch edges for
+    private static final int PREFETCH_SIZE = 16;
+    private static final int INIT_CAPACITY = 1024;
+    private static final int NO_VERTEX = -1;
+
+    public WeightedShortestPathTraverser(HugeGraph graph) {
+        super(graph);
+    }
+
+    public NodeWithWeight weightedShortestPath(Id sourceV, Id targetV,
+                                               Directions dir, String label,
+                                               String weight, long degree,
+                                               long skipDegree, long capacity,
+                                               String landmarks) {
+        E.checkNotNull(sourceV, "source vertex id");
+        E.checkNotNull(targetV, "target vertex id");
+        this.checkVertexExist(sourceV, "source vertex");
+        this.checkVertexExist(targetV, "target vertex");
+        E.checkNotNull(dir, "direction");
+        E.checkNotNull(weight, "weight property");
+        checkDegree(degree);
+        checkCapacity(capacity);
+        checkSkipDegree(skipDegree, degree, capacity);
+
+        if (sourceV.equals(targetV)) {
+            // No path to the source itself like the unidirectional search
+            return null;
+        }
+
+        Id labelId = this.getEdgeLabelIdOrNull(label);
+        Landmarks alt = landmarks == null ? null :
+                        new Landmarks(landmarks, dir);
+        Traverser traverser = new Traverser(dir, labelId, weight, degree,
+                                            skipDegree, capacity, alt);
+        try {
+            return traverser.search(sourceV, targetV);
+        } finally {
+            this.vertexIterCounter.addAndGet(traverser.vertexCount);
+            this.edgeIterCounter.addAndGet(traverser.edgeCount);
+        }
+    }
+
+    private class Landmarks {
+
+        private final String fromKey;
+        private final String toKey;
+        // Swap the distances from and to landmarks for IN direction
+        private final boolean swap;
+
+        private double[] sourceFrom;
+        private double[] sourceTo;
+        private double[] targetFrom;
+        private double[] targetTo;
+
+        public Landmarks(String prefix, Directions dir) {
+            HugeGraph graph = graph();
+            E.checkArgument(graph.readMode().showOlap(),
+                            "The landmarks '%s' can only be read when the " +
+                            "graph read mode contains olap, but got %s",
+                            prefix, graph.readMode());
+            String fromKey = prefix + LANDMARKS_FROM_SUFFIX;
+            String toKey = prefix + LANDMARKS_TO_SUFFIX;
+            E.checkArgument(graph.existsPropertyKey(fromKey) &&
+                            graph.propertyKey(fromKey).olap(),
+                            "The landmarks '%s' don't exist, please " +
+                            "compute them by the landmarks algorithm first",
+                            prefix);
+            if (graph.existsPropertyKey(toKey)) {
+                // The landmarks are computed with OUT direction
+                E.checkArgument(dir != Directions.BOTH,
+                                "The landmarks '%s' are computed with OUT " +
+                                "direction, they can't be used with BOTH " +
+                                "direction", prefix);
+                this.fromKey = fromKey;
+                this.toKey = toKey;
+            } else {
+                // The distances from and to landmarks are the same for BOTH
+                this.fromKey = fromKey;
+                this.toKey = fromKey;
+            }
+            this.swap = dir == Directions.IN;
+        }
+
+        public String[] keys() {
+            if (this.fromKey.equals(this.toKey)) {
+                return new String[]{this.fromKey};
+            }
+            return new String[]{this.fromKey, this.toKey};
+        }
+
+        public double[] from(Vertex vertex) {
+            return this.distances(vertex, this.swap ? this.toKey : this.fromKey);
+        }
+
+        public double[] to(Vertex vertex) {
+            return this.distances(vertex, this.swap ? this.fromKey : this.toKey);
+        }
+
+        public boolean init(Vertex source, Vertex target) {
+            this.sourceFrom = this.from(source);
+            this.sourceTo = this.to(source);
+            this.targetFrom = this.from(target);
+            this.targetTo = this.to(target);
+            return this.sourceFrom != null && this.sourceTo != null &&
+                   this.targetFrom != null && this.targetTo != null;
+        }
+
+        /**
+         * The potential of the forward search, which is the average of the
+         * lower bound to the target and the negative lower bound from the
+         * source, and the potential of the backward search is the negative
+         * of it, so that both of them are consistent.
+         * @return The potential, or NaN if the vertex has no landmarks
+         */
+        public double potential(double[] from, double[] to) {
+            if (from == null || to == null ||
+                from.length != this.sourceFrom.length ||
+                to.length != this.sourceTo.length) {
+                return Double.NaN;
+            }
+            // d(v, t) >= d(v, L) - d(t, L) and d(L, t) - d(L, v)
+            double toTarget = Math.max(bound(to, this.targetTo),
+                                       bound(this.targetFrom, from));
+            // d(s, v) >= d(s, L) - d(v, L) and d(L, v) - d(L, s)
+            double fromSource = Math.max(bound(this.sourceTo, to),
+                                         bound(from, this.sourceFrom));
+            return (toTarget - fromSource) / 2.0D;
+        }
+
+        private double[] distances(Vertex vertex, String key) {
+            VertexProperty<Object> property = vertex.property(key);
+            if (!property.isPresent()) {
+                return null;
+            }
+            Collection<?> values = (Collection<?>) property.value();
+            double[] distances = new double[values.size()];
+            int i = 0;
+            for (Object value : values) {
+                distances[i++] = NumericUtil.convertToNumber(value)
+                                            .doubleValue();
+            }
+            return distances;
+        }
+
+        /**
+         * The max of d1[i] - d2[i] of all landmarks, and the landmarks which
+         * any vertex is unreachable to or from are skipped
+         */
+        private double bound(double[] d1, double[] d2) {
+            double bound = 0.0D;
+            for (int i = 0; i < d1.length && i < d2.length; i++) {
+                if (d1[i] >= 0.0D && d2[i] >= 0.0D) {
+                    bound = Math.max(bound, d1[i] - d2[i]);
+                }
+            }
+            return bound;
+        }
+    }
+
+    private class Traverser {
+
+        private final Directions direction;
+        private final Id label;
+        private final String weight;
+        private final long degree;
+        private final long skipDegree;
+        private final long capacity;
+        private Landmarks landmarks;
+
+        private final ObjectIntHashMap<Id> codes;
+        private final List<Id> ids;
+        // The potential of each vertex for the forward search
+        private double[] potentials;
+
+        private final Search forward;
+        private final Search backward;
+        private final MutableIntList updated;
+        private double shortest;
+        private int meet;
+
+        private long vertexCount;
+        private long edgeCount;
+
+        public Traverser(Directions dir, Id label, String weight,
+                         long degree, long skipDegree, long capacity,
+                         Landmarks landmarks) {
+            this.direction = dir;
+            this.label = label;
+            this.weight = weight;
+            this.degree = degree;
+            this.skipDegree = skipDegree;
+            this.capacity = capacity;
+            this.landmarks = landmarks;
+
+            this.codes = new ObjectIntHashMap<>();
+            this.ids = new ArrayList<>();
+            this.potentials = new double[INIT_CAPACITY];
+            this.forward = new Search(dir, 1.0D);
+            this.backward = new Search(dir.opposite(), -1.0D);
+            this.updated = new IntArrayList();
+            this.shortest = Double.POSITIVE_INFINITY;
+            this.meet = NO_VERTEX;
+            this.vertexCount = 0L;
+            this.edgeCount = 0L;
+        }
+
+        public NodeWithWeight search(Id sourceV, Id targetV) {
+            int source = this.code(sourceV);
+            int target = this.code(targetV);
+            this.initLandmarks(sourceV, targetV);
+
+            this.forward.reach(source, 0.0D, NO_VERTEX, null);
+            this.forward.offer(source);
+            this.backward.reach(target, 0.0D, NO_VERTEX, null);
+            this.backward.offer(target);
+
+            Search forward = this.forward;
+            Search backward = this.backward;
+            while (!forward.heap.isEmpty() && !backward.heap.isEmpty()) {
+                /*
+                 * The sum of the min keys of both heaps is a lower bound of
+                 * the paths which haven't been found, since the potentials
+                 * of both searches are the negative of each other
+                 */
+                if (forward.heap.peekPriority() +
+                    backward.heap.peekPriority() >= this.shortest) {
+                    break;
+                }
+                // Expand the search with the smaller frontier
+                if (forward.heap.size() <= backward.heap.size()) {
+                    this.expand(forward, backward);
+                } else {
+                    this.expand(backward, forward);
+                }
+            }
+
+            if (this.meet == NO_VERTEX) {
+                return null;
+            }
+            return this.path(source, target);
+        }
+
+        private void expand(Search search, Search other) {
+            search.prefetch();
+            int vertex = search.heap.poll();
+            search.settled[vertex] = true;
+            this.vertexCount++;
+
+            List<HugeEdge> edges = search.adjacencies.remove(vertex);
+            assert edges != null;
+            double distance = search.distances[vertex];
+            this.updated.clear();
+            for (HugeEdge edge : edges) {
+                this.edgeCount++;
+                int adjacent = this.code(edge.id().otherVertexId());
+                if (search.settled[adjacent]) {
+                    continue;
+                }
+                double newDistance = distance + this.edgeWeight(edge);
+                if (newDistance >= search.distances[adjacent]) {
+                    continue;
+                }
+                search.reach(adjacent, newDistance, vertex, edge);
+                this.updated.add(adjacent);
+
+                // Found a shorter path through the adjacent vertex
+                double total = newDistance + other.distances[adjacent];
+                if (total < this.shortest) {
+                    this.shortest = total;
+                    this.meet = adjacent;
+                }
+            }
+
+            this.loadPotentials(this.updated);
+            for (int i = 0; i < this.updated.size(); i++) {
+                search.offer(this.updated.get(i));
+            }
+        }
+
+        private NodeWithWeight path(int source, int target) {
+            MutableIntList vertices = new IntArrayList();
+            Set<Edge> edges = new HashSet<>();
+            for (int v = this.meet; v != source;
+                 v = this.forward.parents[v]) {
+                vertices.add(v);
+                edges.add(this.forward.parentEdges[v]);
+            }
+            vertices.add(source);
+            vertices.reverseThis();
+            for (int v = this.meet; v != target;
+                 v = this.backward.parents[v]) {
+                edges.add(this.backward.parentEdges[v]);
+                vertices.add(this.backward.parents[v]);
+            }
+
+            Node node = null;
+            for (int i = 0; i < vertices.size(); i++) {
+                node = new Node(this.ids.get(vertices.get(i)), node);
+            }
+            NodeWithWeight result = new NodeWithWeight(this.shortest, node);
+            result.setEdges(edges);
+            return result;
+        }
+
+        private int code(Id id) {
+            int code = this.codes.getIfAbsent(id, NO_VERTEX);
+            if (code != NO_VERTEX) {
+                return code;
+            }
+            code = this.ids.size();
+            this.codes.put(id, code);
+            this.ids.add(id);
+            checkCapacity(this.capacity, this.ids.size(),
+                          "weighted shortest path");
+
+            if (code >= this.potentials.length) {
+                int size = this.potentials.length * 2;
+                this.potentials = Arrays.copyOf(this.potentials, size);
+                this.forward.grow(size);
+                this.backward.grow(size);
+            }
+            this.potentials[code] = this.landmarks == null ? 0.0D : Double.NaN;
+            this.forward.init(code);
+            this.backward.init(code);
+            return code;
+        }
+
+        private void initLandmarks(Id source, Id target) {
+            if (this.landmarks == null) {
+                return;
+            }
+            Vertex sourceVertex = graph().vertex(source);
+            Vertex targetVertex = graph().vertex(target);
+            if (!this.landmarks.init(sourceVertex, targetVertex)) {
+                this.disableLandmarks();
+                return;
+            }
+            this.potentials[this.code(source)] = this.landmarks.potential(
+                    this.landmarks.from(sourceVertex),
+                    this.landmarks.to(sourceVertex));
+            this.potentials[this.code(target)] = this.landmarks.potential(
+                    this.landmarks.from(targetVertex),
+                    this.landmarks.to(targetVertex));
+        }
+
+        /**
+         * Read the landmarks of the vertices without potential by a batch
+         * query, the landmarks are disabled if any of them has no landmarks
+         */
+        private void loadPotentials(MutableIntList vertices) {
+            if (this.landmarks == null) {
+                return;
+            }
+            List<Object> ids = new ArrayList<>();
+            for (int i = 0; i < vertices.size(); i++) {
+                int vertex = vertices.get(i);
+                if (Double.isNaN(this.potentials[vertex])) {
+                    ids.add(this.ids.get(vertex));
+                }
+            }
+            if (ids.isEmpty()) {
+                return;
+            }
+
+            Iterator<Vertex> iter = graph().vertices(ids.toArray());
+            try {
+                while (iter.hasNext()) {
+                    Vertex vertex = iter.next();
+                    int code = this.codes.getIfAbsent(vertex.id(), NO_VERTEX);
+                    if (code != NO_VERTEX) {
+                        this.potentials[code] = this.landmarks.potential(
+                                this.landmarks.from(vertex),
+                                this.landmarks.to(vertex));
+                    }
+                }
+            } finally {
+                CloseableIterator.closeIterator(iter);
+            }
+
+            for (int i = 0; i < vertices.size(); i++) {
+                if (Double.isNaN(this.potentials[vertices.get(i)])) {
+                    this.disableLandmarks();
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Search without potentials if some vertices have no landmarks,
+         * like the vertices added after the landmarks are computed. The
+         * settled vertices are still valid, the keys of the vertices in
+         * the heaps are reset to their distances.
+         */
+        private void disableLandmarks() {
+            LOG.info("Disabled the landmarks {} since some vertices have " +
+                     "no landmarks", Arrays.toString(this.landmarks.keys()));
+            this.landmarks = null;
+            Arrays.fill(this.potentials, 0.0D);
+            this.forward.rebuildHeap();
+            this.backward.rebuildHeap();
+        }
+
+        private double edgeWeight(HugeEdge edge) {
+            if (!edge.property(this.weight).isPresent()) {
+                return 1.0D;
+            }
+            double weight = NumericUtil.convertToNumber(edge.value(this.weight))
+                                       .doubleValue();
+            E.checkArgument(weight >= 0.0D,
+                            "The weight of edge '%s' must be >= 0, but got %s",
+                            edge.id(), weight);
+            return weight;
+        }
+
+        private List<HugeEdge> adjacentEdges(Id vertex, Directions dir) {
+            long degree = this.skipDegree > 0L ? this.skipDegree : this.degree;
+            Iterator<Edge> edges = edgesOfVertex(vertex, dir, this.label,
+                                                 degree);
+            List<HugeEdge> results = new ArrayList<>();
+            try {
+                long count = 0L;
+                while (edges.hasNext()) {
+                    if (this.skipDegree > 0L && count >= this.skipDegree) {
+                        // Skip the super vertex
+                        return Collections.emptyList();
+                    }
+                    HugeEdge edge = (HugeEdge) edges.next();
+                    if (this.degree == NO_LIMIT || count < this.degree) {
+                        results.add(edge);
+                    }
+                    count++;
+                }
+            } finally {
+                CloseableIterator.closeIterator(edges);
+            }
+            return results;
+        }
+
+        private class Search {
+
+            private final Directions direction;
+            // The potential of the search is the forward potential * sign
+            private final double sign;
+            private final IntMinHeap heap;
+            // The edges fetched for the vertices in the heap
+            private final IntObjectHashMap<List<HugeEdge>> adjacencies;
+
+            private double[] distances;
+            private int[] parents;
+            private HugeEdge[] parentEdges;
+            private boolean[] settled;
+
+            public Search(Directions direction, double sign) {
+                this.direction = direction;
+                this.sign = sign;
+                this.heap = new IntMinHeap(IntMinHeap.DEFAULT_ARITY,
+                                           INIT_CAPACITY);
+                this.adjacencies = new IntObjectHashMap<>();
+                this.distances = new double[INIT_CAPACITY];
+                this.parents = new int[INIT_CAPACITY];
+                this.parentEdges = new HugeEdge[INIT_CAPACITY];
+                this.settled = new boolean[INIT_CAPACITY];
+            }
+
+            public void init(int vertex) {
+                this.distances[vertex] = Double.POSITIVE_INFINITY;
+                this.parents[vertex] = NO_VERTEX;
+                this.parentEdges[vertex] = null;
+                this.settled[vertex] = false;
+            }
+
+            public void grow(int size) {
+                this.distances = Arrays.copyOf(this.distances, size);
+                this.parents = Arrays.copyOf(this.parents, size);
+                this.parentEdges = Arrays.copyOf(this.parentEdges, size);
+                this.settled = Arrays.copyOf(this.settled, size);
+            }
+
+            public void reach(int vertex, double distance, int parent,
+                              HugeEdge edge) {
+                this.distances[vertex] = distance;
+                this.parents[vertex] = parent;
+                this.parentEdges[vertex] = edge;
+            }
+
+            public void offer(int vertex) {
+                double potential = Traverser.this.potentials[vertex];
+                this.heap.offer(vertex, this.distances[vertex] +
+                                        this.sign * potential);
+            }
+
+            public void rebuildHeap() {
+                int[] vertices = new int[this.heap.size()];
+                for (int i = 0; i < vertices.length; i++) {
+                    vertices[i] = this.heap.element(i);
+                }
+                this.heap.clear();
+                for (int vertex : vertices) {
+                    this.offer(vertex);
+                }
+            }
+
+            /**
+             * Fetch the edges of the vertices at the front of the heap
+             * which haven't been fetched, concurrently if more than one
+             */
+            public void prefetch() {
+                int size = Math.min(this.heap.size(), PREFETCH_SIZE);
+                List<Integer> vertices = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    int vertex = this.heap.element(i);
+                    if (!this.adjacencies.containsKey(vertex)) {
+                        vertices.add(vertex);
+                    }
+                }
+                if (vertices.isEmpty()) {
+                    return;
+                }
+
+                List<Id> ids = Traverser.this.ids;
+                @SuppressWarnings("unchecked")
+                List<HugeEdge>[] fetched = new List[vertices.size()];
+                if (vertices.size() == 1) {
+                    fetched[0] = adjacentEdges(ids.get(vertices.get(0)),
+                                               this.direction);
+                } else {
+                    List<Integer> indexes = new ArrayList<>(vertices.size());
+                    for (int i = 0; i < vertices.size(); i++) {
+                        indexes.add(i);
+                    }
+                    traverseByOne(indexes.iterator(), i -> {
+                        Id id = ids.get(vertices.get(i));
+                        fetched[i] = adjacentEdges(id, this.direction);
+                    }, "weighted-shortest-path");
+                }
+                for (int i = 0; i < fetched.length; i++) {
+                    this.adjacencies.put(vertices.get(i), fetched[i]);
+                }
+            }
+        }
+    }
+}
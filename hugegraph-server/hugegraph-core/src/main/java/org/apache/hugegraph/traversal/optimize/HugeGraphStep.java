@@ -155,6 +155,7 @@ public final class HugeGraphStep<S, E extends Element>
         }
 
         query = this.injectQueryInfo(query);
+        TraversalUtil.fillSelects(query, this.hasContainers, graph);
         return query;
     }
 
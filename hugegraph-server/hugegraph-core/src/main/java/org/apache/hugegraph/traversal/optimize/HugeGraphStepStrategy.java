@@ -66,6 +66,8 @@ public final class HugeGraphStepStrategy
             TraversalUtil.extractRange(newStep, traversal, false);
 
             TraversalUtil.extractCount(newStep, traversal);
+
+            TraversalUtil.extractProjection(newStep, traversal);
         }
     }
 
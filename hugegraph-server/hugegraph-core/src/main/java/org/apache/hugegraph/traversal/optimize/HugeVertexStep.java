@@ -178,10 +178,20 @@ public class HugeVertexStep<E extends Element>
         }
 
         query = this.injectQueryInfo(query);
+        this.injectSelects(query, graph);
 
         return query;
     }
 
+    protected void injectSelects(Query query, HugeGraph graph) {
+        if (this.returnsVertex()) {
+            // The adjacent edges are only used to get the other vertices
+            query.select(Query.NO_PROPERTIES);
+        } else {
+            TraversalUtil.fillSelects(query, this.hasContainers, graph);
+        }
+    }
+
     protected boolean withVertexCondition() {
         return this.returnsVertex() && !this.hasContainers.isEmpty();
     }
@@ -132,6 +132,7 @@ public class HugeVertexStepByBatch<E extends Element>
         }
 
         this.injectQueryInfo(batchQuery);
+        this.injectSelects(batchQuery, TraversalUtil.getGraph(this));
         return this.queryEdges(batchQuery);
     }
 }
@@ -87,6 +87,10 @@ public final class HugeVertexStepStrategy
             TraversalUtil.extractRange(newStep, traversal, true);
 
             TraversalUtil.extractCount(newStep, traversal);
+
+            if (newStep.returnsEdge()) {
+                TraversalUtil.extractProjection(newStep, traversal);
+            }
         }
     }
 
@@ -63,13 +63,18 @@ import org.apache.tinkerpop.gremlin.process.traversal.Step;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
 import org.apache.tinkerpop.gremlin.process.traversal.step.HasContainerHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.LambdaHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.Mutating;
 import org.apache.tinkerpop.gremlin.process.traversal.step.TraversalParent;
 import org.apache.tinkerpop.gremlin.process.traversal.step.filter.FilterStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.filter.HasStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.filter.OrStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.filter.RangeGlobalStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.CountGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.EdgeVertexStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.GraphStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.IdStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.LabelStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.MatchStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.MaxGlobalStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.MeanGlobalStep;
@@ -77,6 +82,7 @@ import org.apache.tinkerpop.gremlin.process.traversal.step.map.MinGlobalStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.NoOpBarrierStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.OrderGlobalStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.PropertiesStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.PropertyMapStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.SumGlobalStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.IdentityStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.ElementValueComparator;
@@ -800,6 +806,105 @@ public final class TraversalUtil {
                  step instanceof NoOpBarrierStep);
     }
 
+    /**
+     * Push down the property keys required by the step following newStep,
+     * so that the backend can skip the other properties of each element.
+     * Only the trivial consumers are recognized: values()/properties() or
+     * valueMap() with explicit keys, and id()/label()/count()/inV()/outV()
+     * which need no property at all.
+     * NOTE: nothing is pushed down if the traversal may update elements,
+     * since the backends which can't update a single property rewrite the
+     * whole element, e.g. properties(k).drop() would drop the other
+     * properties of the projected elements.
+     */
+    public static void extractProjection(Step<?, ?> newStep,
+                                         Traversal.Admin<?, ?> traversal) {
+        QueryHolder holder = (QueryHolder) newStep;
+        if (!newStep.getLabels().isEmpty() ||
+            holder.queryInfo().aggregate() != null) {
+            // The elements may be referenced by select()/path() later
+            return;
+        }
+        if (mayUpdateElements(traversal)) {
+            return;
+        }
+        HugeGraph graph = TraversalUtil.tryGetGraph(newStep);
+        if (graph == null) {
+            return;
+        }
+
+        Step<?, ?> step = newStep.getNextStep();
+        while (step instanceof IdentityStep ||
+               step instanceof NoOpBarrierStep) {
+            if (!step.getLabels().isEmpty()) {
+                return;
+            }
+            step = step.getNextStep();
+        }
+
+        String[] keys;
+        if (step instanceof PropertiesStep) {
+            keys = ((PropertiesStep<?>) step).getPropertyKeys();
+        } else if (step instanceof PropertyMapStep) {
+            keys = ((PropertyMapStep<?, ?>) step).getPropertyKeys();
+        } else if (step instanceof IdStep || step instanceof LabelStep ||
+                   step instanceof CountGlobalStep ||
+                   step instanceof EdgeVertexStep) {
+            holder.queryInfo().select(Query.NO_PROPERTIES);
+            return;
+        } else {
+            return;
+        }
+        if (keys.length == 0) {
+            // All properties are required
+            return;
+        }
+
+        List<Id> pkeys = new ArrayList<>(keys.length);
+        for (String key : keys) {
+            if (!graph.existsPropertyKey(key)) {
+                return;
+            }
+            pkeys.add(graph.propertyKey(key).id());
+        }
+        holder.queryInfo().selects(pkeys);
+    }
+
+    private static boolean mayUpdateElements(Traversal.Admin<?, ?> traversal) {
+        // The lambda steps may update the elements too
+        Traversal.Admin<?, ?> root = TraversalHelper.getRootTraversal(
+                                     traversal);
+        return TraversalHelper.anyStepRecursively(
+               step -> step instanceof Mutating ||
+                       step instanceof LambdaHolder, root);
+    }
+
+    /**
+     * Add the property keys referenced by has-containers to the selected
+     * keys of query since they are needed to filter the results, or
+     * reset the selected keys if some of them can't be resolved
+     */
+    public static void fillSelects(Query query,
+                                   List<HasContainer> hasContainers,
+                                   HugeGraph graph) {
+        if (query.selects().isEmpty()) {
+            return;
+        }
+        for (HasContainer has : hasContainers) {
+            String key = has.getKey();
+            if (T.id.getAccessor().equals(key) ||
+                T.label.getAccessor().equals(key)) {
+                continue;
+            }
+            if (key == null || Graph.Hidden.isHidden(key) ||
+                !graph.existsPropertyKey(key)) {
+                query.resetSelects();
+                return;
+            }
+            query.select(graph.propertyKey(key).id());
+        }
+    }
+
     public static ConditionQuery fillConditionQuery(
             ConditionQuery query,
             List<HasContainer> hasContainers,
@@ -59,6 +59,9 @@ public final class LockUtil {
     public static final String REENTRANT_LOCK = "reentrant_lock";
     public static final String GRAPH_LOCK = "graph_lock";
     public static final long WRITE_WAIT_TIMEOUT = 30L;
+    // Stripes of the key lock of each group
+    private static final int KEY_LOCK_SIZE =
+            Runtime.getRuntime().availableProcessors() << 4;
     private static final Logger LOG = Log.logger(LockUtil.class);
 
     public static void init(String graph) {
@@ -135,8 +138,22 @@ public final class LockUtil {
     private static List<Lock> lockKeys(String graph, String group,
                                        Collection<?> locks) {
         KeyLock keyLock = LockManager.instance().get(join(graph, KEY_LOCK))
-                                     .keyLock(group);
-        return keyLock.lockAll(locks.toArray());
+                                     .keyLock(group, KEY_LOCK_SIZE, true);
+        List<Lock> keyLocks;
+        try {
+            // Lock all the stripes of the keys in one call with sorted order
+            keyLocks = keyLock.tryLockAll(WRITE_WAIT_TIMEOUT, TimeUnit.SECONDS,
+                                          locks.toArray());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HugeException("Interrupted while locking keys [%s:%s]",
+                                    e, group, locks);
+        }
+        if (keyLocks == null) {
+            throw new HugeException("Keys [%s:%s] are locked by other " +
+                                    "operation", group, locks);
+        }
+        return keyLocks;
     }
 
     public static <K extends Comparable<K>> void lockRow(String graph,
@@ -149,7 +166,7 @@ public final class LockUtil {
                                                           String group,
                                                           Set<K> rows) {
         RowLock<K> rowLock = LockManager.instance().get(join(graph, ROW_LOCK))
-                                        .rowLock(group);
+                                        .rowLock(group, true);
         rowLock.lockAll(rows);
     }
 
@@ -163,7 +180,7 @@ public final class LockUtil {
                                                             String group,
                                                             Set<K> rows) {
         RowLock<K> rowLock = LockManager.instance().get(join(graph, ROW_LOCK))
-                                        .rowLock(group);
+                                        .rowLock(group, true);
         rowLock.unlockAll(rows);
     }
 
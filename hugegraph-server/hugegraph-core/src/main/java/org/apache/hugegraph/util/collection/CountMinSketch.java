@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hugegraph.util.collection;
+
+import java.util.Arrays;
+
+import org.apache.hugegraph.util.E;
+
+/**
+ * A count-min sketch to estimate the counts of keys in a stream with
+ * depth * width counters, the estimated count is never less than the real
+ * one, and it exceeds the real one by at most e/width * total count with
+ * probability 1 - e^-depth. It's updated conservatively, which only
+ * increases the min counters of a key, to reduce the over estimation.
+ */
+public class CountMinSketch {
+
+    private final int depth;
+    private final int widthMask;
+    private final long[] counters;
+    private long total;
+
+    /**
+     * @param width The number of counters of each row, which will be
+     *              rounded up to a power of 2
+     * @param depth The number of rows, each with an independent hash
+     */
+    public CountMinSketch(int width, int depth) {
+        E.checkArgument(width > 0 && width <= (1 << 26),
+                        "The width of count-min sketch must be in range " +
+                        "(0, %s], but got %s", 1 << 26, width);
+        E.checkArgument(depth > 0 && depth <= 16,
+                        "The depth of count-min sketch must be in range " +
+                        "(0, 16], but got %s", depth);
+        int roundedWidth = Integer.highestOneBit(width);
+        if (roundedWidth < width) {
+            roundedWidth <<= 1;
+        }
+        this.depth = depth;
+        this.widthMask = roundedWidth - 1;
+        this.counters = new long[roundedWidth * depth];
+        this.total = 0L;
+    }
+
+    public int width() {
+        return this.widthMask + 1;
+    }
+
+    public int depth() {
+        return this.depth;
+    }
+
+    public long total() {
+        return this.total;
+    }
+
+    /**
+     * Add one occurrence of the key
+     * @return The estimated count of the key after adding
+     */
+    public long add(Object key) {
+        return this.add(key, 1L);
+    }
+
+    public long add(Object key, long count) {
+        E.checkArgument(count >= 0L,
+                        "The count to add must be >= 0, but got %s", count);
+        long hash = HyperLogLog.mix(key.hashCode());
+        long estimate = this.estimate(hash) + count;
+        for (int row = 0; row < this.depth; row++) {
+            int index = this.index(hash, row);
+            if (this.counters[index] < estimate) {
+                this.counters[index] = estimate;
+            }
+        }
+        this.total += count;
+        return estimate;
+    }
+
+    public long estimate(Object key) {
+        return this.estimate(HyperLogLog.mix(key.hashCode()));
+    }
+
+    public void clear() {
+        Arrays.fill(this.counters, 0L);
+        this.total = 0L;
+    }
+
+    private long estimate(long hash) {
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < this.depth; row++) {
+            min = Math.min(min, this.counters[this.index(hash, row)]);
+        }
+        return min;
+    }
+
+    private int index(long hash, int row) {
+        // The hash of each row is combined from two halves of the hash
+        int hash1 = (int) hash;
+        int hash2 = (int) (hash >>> 32);
+        int combined = hash1 + row * hash2;
+        return row * (this.widthMask + 1) + (combined & this.widthMask);
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hugegraph.util.collection;
+
+import java.util.Arrays;
+
+import org.apache.hugegraph.util.E;
+
+/**
+ * A HyperLogLog counter to estimate the number of distinct keys with
+ * 2^log2m byte registers, the relative standard error is about
+ * 1.04/sqrt(2^log2m). The static methods work on a slice of registers, so
+ * the counters of many vertices can be kept in one byte array.
+ */
+public class HyperLogLog {
+
+    public static final int MIN_LOG2M = 4;
+    public static final int MAX_LOG2M = 16;
+
+    private final int log2m;
+    private final byte[] registers;
+
+    public HyperLogLog(int log2m) {
+        E.checkArgument(log2m >= MIN_LOG2M && log2m <= MAX_LOG2M,
+                        "The log2m of HyperLogLog must be in range [%s, %s], " +
+                        "but got %s", MIN_LOG2M, MAX_LOG2M, log2m);
+        this.log2m = log2m;
+        this.registers = new byte[1 << log2m];
+    }
+
+    public int log2m() {
+        return this.log2m;
+    }
+
+    public boolean add(Object key) {
+        return this.addHash(mix(key.hashCode()));
+    }
+
+    /**
+     * Add a key by its 64 bits hash, which must be spread well
+     * @return true if any register is changed
+     */
+    public boolean addHash(long hash) {
+        int index = index(hash, this.log2m);
+        byte rank = rank(hash, this.log2m);
+        if (rank > this.registers[index]) {
+            this.registers[index] = rank;
+            return true;
+        }
+        return false;
+    }
+
+    public void merge(HyperLogLog other) {
+        E.checkArgument(other.log2m == this.log2m,
+                        "Can't merge HyperLogLog of log2m %s into %s",
+                        other.log2m, this.log2m);
+        for (int i = 0; i < this.registers.length; i++) {
+            if (other.registers[i] > this.registers[i]) {
+                this.registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    public double cardinality() {
+        return estimate(this.registers, 0, this.log2m);
+    }
+
+    public void clear() {
+        Arrays.fill(this.registers, (byte) 0);
+    }
+
+    /**
+     * The register index of a hash, by the highest log2m bits
+     */
+    public static int index(long hash, int log2m) {
+        return (int) (hash >>> (Long.SIZE - log2m));
+    }
+
+    /**
+     * The rank of a hash, which is the position of the first 1 bit of the
+     * rest bits, it's at most Long.SIZE - log2m + 1
+     */
+    public static byte rank(long hash, int log2m) {
+        long rest = (hash << log2m) | (1L << (log2m - 1));
+        return (byte) (Long.numberOfLeadingZeros(rest) + 1);
+    }
+
+    /**
+     * Estimate the cardinality of the registers [offset, offset + 2^log2m)
+     */
+    public static double estimate(byte[] registers, int offset, int log2m) {
+        int count = 1 << log2m;
+        double sum = 0d;
+        int zeros = 0;
+        for (int i = 0; i < count; i++) {
+            byte rank = registers[offset + i];
+            sum += 1d / (1L << rank);
+            if (rank == 0) {
+                zeros++;
+            }
+        }
+        double estimate = alpha(count) * count * count / sum;
+        if (estimate <= 2.5D * count && zeros > 0) {
+            // Small range correction by linear counting
+            estimate = count * Math.log((double) count / zeros);
+        }
+        return estimate;
+    }
+
+    private static double alpha(int registers) {
+        switch (registers) {
+            case 16:
+                return 0.673D;
+            case 32:
+                return 0.697D;
+            case 64:
+                return 0.709D;
+            default:
+                return 0.7213D / (1D + 1.079D / registers);
+        }
+    }
+
+    /**
+     * The finalizer of SplitMix64 to spread the hash codes or indexes
+     */
+    public static long mix(long value) {
+        long hash = value + 0x9E3779B97F4A7C15L;
+        hash = (hash ^ (hash >>> 30)) * 0xBF58476D1CE4E5B9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94D049BB133111EBL;
+        return hash ^ (hash >>> 31);
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hugegraph.util.collection;
+
+import java.util.Arrays;
+
+import org.apache.hugegraph.util.E;
+
+/**
+ * An indexed d-ary min heap of non-negative int elements with double
+ * priorities, which are kept in primitive arrays. Each element is in the
+ * heap at most once, and its priority can be decreased in O(log_d(n)),
+ * which is what Dijkstra's algorithm needs. A larger arity makes the heap
+ * shallower, so decreasing priorities is cheaper while popping costs more
+ * comparisons.
+ */
+public class IntMinHeap {
+
+    public static final int DEFAULT_ARITY = 4;
+
+    private static final int NOT_IN_HEAP = -1;
+    private static final int INIT_CAPACITY = 16;
+
+    private final int arity;
+    // The elements in heap order and their priorities
+    private int[] elements;
+    private double[] priorities;
+    // The position in the heap of each element, or NOT_IN_HEAP
+    private int[] positions;
+    private int size;
+
+    public IntMinHeap() {
+        this(DEFAULT_ARITY, INIT_CAPACITY);
+    }
+
+    public IntMinHeap(int arity, int capacity) {
+        E.checkArgument(arity >= 2,
+                        "The arity of heap must be >= 2, but got %s", arity);
+        this.arity = arity;
+        capacity = Math.max(capacity, 1);
+        this.elements = new int[capacity];
+        this.priorities = new double[capacity];
+        this.positions = new int[capacity];
+        Arrays.fill(this.positions, NOT_IN_HEAP);
+        this.size = 0;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    public boolean contains(int element) {
+        return element < this.positions.length &&
+               this.positions[element] != NOT_IN_HEAP;
+    }
+
+    /**
+     * Get the element at the position of the heap array, the elements in
+     * the front positions are the ones with lower priorities roughly
+     */
+    public int element(int position) {
+        E.checkArgument(position >= 0 && position < this.size,
+                        "Invalid heap position %s", position);
+        return this.elements[position];
+    }
+
+    public double priority(int element) {
+        E.checkArgument(this.contains(element),
+                        "The element %s is not in heap", element);
+        return this.priorities[this.positions[element]];
+    }
+
+    /**
+     * Add the element with the priority, or decrease the priority of it if
+     * it's already in the heap with a higher priority
+     * @return true if the element is added or its priority is decreased
+     */
+    public boolean offer(int element, double priority) {
+        E.checkArgument(element >= 0,
+                        "The element must be >= 0, but got %s", element);
+        if (this.contains(element)) {
+            int position = this.positions[element];
+            if (priority >= this.priorities[position]) {
+                return false;
+            }
+            this.priorities[position] = priority;
+            this.siftUp(position);
+            return true;
+        }
+
+        this.ensureCapacity(element);
+        int position = this.size++;
+        this.elements[position] = element;
+        this.priorities[position] = priority;
+        this.positions[element] = position;
+        this.siftUp(position);
+        return true;
+    }
+
+    public int peek() {
+        E.checkState(this.size > 0, "The heap is empty");
+        return this.elements[0];
+    }
+
+    public double peekPriority() {
+        E.checkState(this.size > 0, "The heap is empty");
+        return this.priorities[0];
+    }
+
+    /**
+     * Remove the element with the lowest priority
+     */
+    public int poll() {
+        int top = this.peek();
+        this.positions[top] = NOT_IN_HEAP;
+        if (--this.size > 0) {
+            this.move(this.size, 0);
+            this.siftDown(0);
+        }
+        return top;
+    }
+
+    public void clear() {
+        for (int i = 0; i < this.size; i++) {
+            this.positions[this.elements[i]] = NOT_IN_HEAP;
+        }
+        this.size = 0;
+    }
+
+    private void siftUp(int position) {
+        int element = this.elements[position];
+        double priority = this.priorities[position];
+        while (position > 0) {
+            int parent = (position - 1) / this.arity;
+            if (this.priorities[parent] <= priority) {
+                break;
+            }
+            this.move(parent, position);
+            position = parent;
+        }
+        this.set(position, element, priority);
+    }
+
+    private void siftDown(int position) {
+        int element = this.elements[position];
+        double priority = this.priorities[position];
+        while (true) {
+            int first = position * this.arity + 1;
+            if (first >= this.size) {
+                break;
+            }
+            int last = Math.min(first + this.arity, this.size);
+            int min = first;
+            for (int child = first + 1; child < last; child++) {
+                if (this.priorities[child] < this.priorities[min]) {
+                    min = child;
+                }
+            }
+            if (this.priorities[min] >= priority) {
+                break;
+            }
+            this.move(min, position);
+            position = min;
+        }
+        this.set(position, element, priority);
+    }
+
+    private void move(int from, int to) {
+        this.set(to, this.elements[from], this.priorities[from]);
+    }
+
+    private void set(int position, int element, double priority) {
+        this.elements[position] = element;
+        this.priorities[position] = priority;
+        this.positions[element] = position;
+    }
+
+    private void ensureCapacity(int element) {
+        if (element >= this.positions.length) {
+            int length = this.positions.length;
+            int capacity = Math.max(element + 1, length * 2);
+            this.positions = Arrays.copyOf(this.positions, capacity);
+            Arrays.fill(this.positions, length, capacity, NOT_IN_HEAP);
+        }
+        if (this.size >= this.elements.length) {
+            int capacity = this.elements.length * 2;
+            this.elements = Arrays.copyOf(this.elements, capacity);
+            this.priorities = Arrays.copyOf(this.priorities, capacity);
+        }
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hugegraph.util.collection;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import org.apache.hugegraph.util.E;
+import org.apache.hugegraph.util.InsertionOrderUtil;
+import org.eclipse.collections.impl.map.mutable.primitive.ObjectIntHashMap;
+
+/**
+ * Keep the k keys with the highest double scores of a stream, by a binary
+ * min heap of the kept keys over primitive score arrays, so the memory is
+ * O(k) rather than O(keys of the stream). The score of a kept key can be
+ * updated by offering it again.
+ *
+ * The key offered earlier wins if the scores are equal, and the kept keys
+ * are returned in descending order of the scores, which are the same as
+ * sorting all keys by the scores stably and taking the first k of them.
+ */
+public class TopK<K> {
+
+    public static final int UNBOUNDED = -1;
+
+    private static final int INIT_CAPACITY = 16;
+
+    private final int capacity;
+    // The kept keys in heap order with their scores and offered sequences
+    private Object[] keys;
+    private double[] scores;
+    private long[] sequences;
+    // The position of each kept key in the heap
+    private final ObjectIntHashMap<K> positions;
+    private int size;
+    private long sequence;
+
+    /**
+     * @param capacity The max number of keys to keep, or UNBOUNDED to keep
+     *                 all keys, then it just sorts them
+     */
+    public TopK(long capacity) {
+        E.checkArgument(capacity > 0L || capacity == UNBOUNDED,
+                        "The capacity of top k must be > 0 or == %s, " +
+                        "but got %s", UNBOUNDED, capacity);
+        this.capacity = capacity > Integer.MAX_VALUE - 8 ?
+                        UNBOUNDED : (int) capacity;
+        int initCapacity = this.capacity == UNBOUNDED ?
+                           INIT_CAPACITY : Math.min(this.capacity,
+                                                    INIT_CAPACITY);
+        this.keys = new Object[initCapacity];
+        this.scores = new double[initCapacity];
+        this.sequences = new long[initCapacity];
+        this.positions = new ObjectIntHashMap<>();
+        this.size = 0;
+        this.sequence = 0L;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    public boolean full() {
+        return this.capacity != UNBOUNDED && this.size >= this.capacity;
+    }
+
+    /**
+     * Whether a new key with the score would be kept, it can be used to
+     * skip building the key of a low score
+     */
+    public boolean admits(double score) {
+        return !this.full() || score > this.scores[0];
+    }
+
+    /**
+     * The min score of the kept keys, which a new key must exceed to be
+     * kept if full
+     */
+    public double minScore() {
+        E.checkState(this.size > 0, "The top k is empty");
+        return this.scores[0];
+    }
+
+    /**
+     * Offer the key with the score, or update the score of the key if it's
+     * kept, the key with the min score is evicted if exceeding capacity
+     * @return true if the key is kept
+     */
+    public boolean offer(K key, double score) {
+        E.checkArgumentNotNull(key, "The key of top k can't be null");
+        int position = this.positions.getIfAbsent(key, -1);
+        if (position >= 0) {
+            double old = this.scores[position];
+            this.scores[position] = score;
+            if (score < old) {
+                this.siftUp(position);
+            } else {
+                this.siftDown(position);
+            }
+            return true;
+        }
+
+        long sequence = this.sequence++;
+        if (this.full()) {
+            if (score <= this.scores[0]) {
+                return false;
+            }
+            // Replace the key with the min score
+            @SuppressWarnings("unchecked")
+            K evicted = (K) this.keys[0];
+            this.positions.remove(evicted);
+            this.set(0, key, score, sequence);
+            this.siftDown(0);
+            return true;
+        }
+
+        this.ensureCapacity();
+        position = this.size++;
+        this.set(position, key, score, sequence);
+        this.siftUp(position);
+        return true;
+    }
+
+    public void clear() {
+        Arrays.fill(this.keys, 0, this.size, null);
+        this.positions.clear();
+        this.size = 0;
+        this.sequence = 0L;
+    }
+
+    /**
+     * Get the kept keys and scores in descending order of the scores
+     */
+    @SuppressWarnings("unchecked")
+    public Map<K, Double> toMap() {
+        // Sort the indexes in heap of the kept keys
+        Integer[] indexes = new Integer[this.size];
+        for (int i = 0; i < this.size; i++) {
+            indexes[i] = i;
+        }
+        Arrays.sort(indexes, (i, j) -> {
+            return this.lower(j, i) ? -1 : (this.lower(i, j) ? 1 : 0);
+        });
+
+        Map<K, Double> results = InsertionOrderUtil.newMap();
+        for (int index : indexes) {
+            results.put((K) this.keys[index], this.scores[index]);
+        }
+        return results;
+    }
+
+    /**
+     * Whether the key at position i ranks lower than the one at position j,
+     * the key offered later ranks lower if the scores are equal
+     */
+    private boolean lower(int i, int j) {
+        double score1 = this.scores[i];
+        double score2 = this.scores[j];
+        if (score1 != score2) {
+            return score1 < score2;
+        }
+        return this.sequences[i] > this.sequences[j];
+    }
+
+    private void siftUp(int position) {
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (!this.lower(position, parent)) {
+                break;
+            }
+            this.swap(position, parent);
+            position = parent;
+        }
+    }
+
+    private void siftDown(int position) {
+        while (true) {
+            int child = (position << 1) + 1;
+            if (child >= this.size) {
+                break;
+            }
+            if (child + 1 < this.size && this.lower(child + 1, child)) {
+                child++;
+            }
+            if (!this.lower(child, position)) {
+                break;
+            }
+            this.swap(position, child);
+            position = child;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void swap(int i, int j) {
+        Object key = this.keys[i];
+        double score = this.scores[i];
+        long sequence = this.sequences[i];
+        this.set(i, (K) this.keys[j], this.scores[j], this.sequences[j]);
+        this.set(j, (K) key, score, sequence);
+    }
+
+    private void set(int position, K key, double score, long sequence) {
+        this.keys[position] = key;
+        this.scores[position] = score;
+        this.sequences[position] = sequence;
+        this.positions.put(key, position);
+    }
+
+    private void ensureCapacity() {
+        if (this.size < this.keys.length) {
+            return;
+        }
+        int capacity = this.keys.length * 2;
+        if (this.capacity != UNBOUNDED) {
+            capacity = Math.min(capacity, this.capacity);
+        }
+        this.keys = Arrays.copyOf(this.keys, capacity);
+        this.scores = Arrays.copyOf(this.scores, capacity);
+        this.sequences = Arrays.copyOf(this.sequences, capacity);
+    }
+}
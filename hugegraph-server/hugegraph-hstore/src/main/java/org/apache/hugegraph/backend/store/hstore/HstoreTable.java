@@ -557,7 +557,7 @@ public class HstoreTable extends BackendTable<Session, BackendEntry> {
      */
     private ConditionQuery prepareConditionQuery(ConditionQuery conditionQuery) {
         if (CollectionUtils.isEmpty(conditionQuery.userpropConditions())) {
-            return null;
+            return selectsOnly(conditionQuery);
         }
         // only userpropConditions can send to store
         Collection<Condition> conditions = conditionQuery.conditions();
@@ -571,7 +571,7 @@ public class HstoreTable extends BackendTable<Session, BackendEntry> {
             conditionQuery.resetConditions(newConditions);
             return conditionQuery;
         } else {
-            return null;
+            return selectsOnly(conditionQuery);
         }
     }
 
@@ -583,7 +583,7 @@ public class HstoreTable extends BackendTable<Session, BackendEntry> {
      */
     private ConditionQuery prepareConditionQueryList(ConditionQuery conditionQuery) {
         if (!conditionQuery.containsLabelOrUserpropRelation()) {
-            return null;
+            return selectsOnly(conditionQuery);
         }
         // only userpropConditions can send to store
         Collection<Condition> conditions = conditionQuery.conditions();
@@ -597,8 +597,23 @@ public class HstoreTable extends BackendTable<Session, BackendEntry> {
             conditionQuery.resetConditions(newConditions);
             return conditionQuery;
         } else {
+            return selectsOnly(conditionQuery);
+        }
+    }
+
+    /***
+     * Keep a query without conditions just to push down the selected
+     * property keys, then the store will strip the other properties
+     * @param conditionQuery
+     * @return
+     */
+    private static ConditionQuery selectsOnly(ConditionQuery conditionQuery) {
+        if (conditionQuery.selects().isEmpty()) {
             return null;
         }
+        ConditionQuery query = conditionQuery.copy();
+        query.resetConditions();
+        return query;
     }
 
     private boolean onlyOwnerVertex(Condition condition) {
@@ -53,4 +53,21 @@ public class PersonalRankApiTest extends BaseApiTest {
         String content = assertResponseStatus(200, r);
         assertJsonContains(content, peterId);
     }
+
+    @Test
+    public void testPersonalRankByWalks() {
+        Map<String, String> name2Ids = listAllVertexName2Ids();
+        String markoId = name2Ids.get("marko");
+        String peterId = name2Ids.get("peter");
+        String reqBody = String.format("{" +
+                                       "\"source\":\"%s\"," +
+                                       "\"max_depth\":\"%s\"," +
+                                       "\"label\":\"%s\"," +
+                                       "\"alpha\":\"%s\"," +
+                                       "\"walks\":\"%s\"}",
+                                       markoId, 3, "created", 0.85, 1000);
+        Response r = client().post(PATH, reqBody);
+        String content = assertResponseStatus(200, r);
+        assertJsonContains(content, peterId);
+    }
 }
@@ -46,6 +46,9 @@ import org.slf4j.Logger;
         PropertyCoreTest.EdgePropertyCoreTest.class,
         RestoreCoreTest.class,
         TaskCoreTest.class,
+        WeightedShortestPathCoreTest.class,
+        FusiformSimilarityCoreTest.class,
+        PersonalRankCoreTest.class,
         TaskAndResultSchedulerTest.class,
         AuthTest.class,
         MultiGraphsTest.class,
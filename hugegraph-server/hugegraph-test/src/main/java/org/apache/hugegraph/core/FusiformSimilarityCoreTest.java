@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hugegraph.core;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.hugegraph.HugeGraph;
+import org.apache.hugegraph.backend.id.Id;
+import org.apache.hugegraph.backend.id.IdGenerator;
+import org.apache.hugegraph.schema.SchemaManager;
+import org.apache.hugegraph.testutil.Assert;
+import org.apache.hugegraph.traversal.algorithm.FusiformSimilarityTraverser;
+import org.apache.hugegraph.traversal.algorithm.FusiformSimilarityTraverser.Similar;
+import org.apache.hugegraph.traversal.algorithm.FusiformSimilarityTraverser.SimilarsMap;
+import org.apache.hugegraph.traversal.algorithm.HugeTraverser;
+import org.apache.hugegraph.type.define.Directions;
+import org.apache.hugegraph.type.define.IdStrategy;
+import org.apache.hugegraph.util.InsertionOrderUtil;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FusiformSimilarityCoreTest extends BaseCoreTest {
+
+    private static final int ITEMS = 10;
+    private static final int SIMILARS = 8;
+    private static final int PERSONS = 30;
+    private static final int ITEM_ID = 1000;
+    private static final long NO_LIMIT = HugeTraverser.NO_LIMIT;
+
+    @Before
+    public void initSchema() {
+        SchemaManager schema = graph().schema();
+        schema.vertexLabel("person")
+              .idStrategy(IdStrategy.CUSTOMIZE_NUMBER)
+              .create();
+        schema.vertexLabel("item")
+              .idStrategy(IdStrategy.CUSTOMIZE_NUMBER)
+              .create();
+        schema.edgeLabel("like")
+              .sourceLabel("person").targetLabel("item")
+              .create();
+    }
+
+    @Test
+    public void testApproximateSimilars() {
+        this.initGraph();
+
+        // The person k likes k of the items of person 0, and the others 1
+        Map<Id, Double> expected = InsertionOrderUtil.newMap();
+        expected.put(IdGenerator.of(8L), 0.8D);
+        expected.put(IdGenerator.of(7L), 0.7D);
+        expected.put(IdGenerator.of(6L), 0.6D);
+        this.checkSimilars(expected, 0.3D, 1, 3);
+
+        // Only keep the top ones matched alpha
+        expected.remove(IdGenerator.of(6L));
+        this.checkSimilars(expected, 0.65D, 1, 5);
+        this.checkSimilars(expected, 0.65D, 2, 5);
+
+        // Less than the min similar count
+        this.checkSimilars(InsertionOrderUtil.newMap(), 0.65D, 3, 5);
+
+        // All the persons are similars with the top of all
+        Map<Id, Double> all = this.similars(0.0D, 1, PERSONS, false);
+        Assert.assertEquals(PERSONS - 1, all.size());
+        Assert.assertEquals(all, this.similars(0.0D, 1, PERSONS, true));
+    }
+
+    @Test
+    public void testApproximateSimilarsWithInvalidArgs() {
+        this.initGraph();
+        FusiformSimilarityTraverser traverser =
+                new FusiformSimilarityTraverser(graph());
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            traverser.fusiformSimilarity(this.sources(), Directions.OUT,
+                                         "like", ITEMS, 0.3D, 1, 0, null, 0,
+                                         NO_LIMIT, NO_LIMIT, NO_LIMIT,
+                                         false, true);
+        }, e -> {
+            Assert.assertContains("Must set top when approximate is true",
+                                  e.getMessage());
+        });
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            traverser.fusiformSimilarity(this.sources(), Directions.OUT,
+                                         "like", ITEMS, 0.3D, 4, 3, null, 0,
+                                         NO_LIMIT, NO_LIMIT, NO_LIMIT,
+                                         false, true);
+        }, e -> {
+            Assert.assertContains("can't be greater than top 3",
+                                  e.getMessage());
+        });
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            traverser.fusiformSimilarity(this.sources(), Directions.OUT,
+                                         "like", ITEMS, 0.3D, 1, 3, null, 0,
+                                         NO_LIMIT, NO_LIMIT, NO_LIMIT,
+                                         true, true);
+        }, e -> {
+            Assert.assertContains("Can't get intermediaries when " +
+                                  "approximate is true", e.getMessage());
+        });
+
+        // The exact similars can be got without top and with intermediaries
+        SimilarsMap results = traverser.fusiformSimilarity(
+                              this.sources(), Directions.OUT, "like", ITEMS,
+                              0.3D, 1, 0, null, 0, NO_LIMIT, NO_LIMIT,
+                              NO_LIMIT, true, false);
+        Assert.assertEquals(1, results.size());
+        Set<Similar> similars = results.entrySet().iterator().next()
+                                       .getValue();
+        Assert.assertEquals(SIMILARS - 2, similars.size());
+        for (Similar similar : similars) {
+            Assert.assertEquals(similar.score() * ITEMS,
+                                similar.intermediaries().size(), 1e-9);
+        }
+    }
+
+    /**
+     * The person 0 likes the items 0 ~ 9, the person k in 1 ~ 8 likes the
+     * items 0 ~ k-1, and the other persons like one of the items
+     */
+    private void initGraph() {
+        HugeGraph graph = graph();
+        for (int i = 0; i < ITEMS; i++) {
+            graph.addVertex(T.label, "item", T.id, ITEM_ID + i);
+        }
+        for (int k = 0; k < PERSONS; k++) {
+            Vertex person = graph.addVertex(T.label, "person", T.id, k);
+            int likes = k == 0 ? ITEMS : k <= SIMILARS ? k : 1;
+            for (int i = 0; i < likes; i++) {
+                int item = k <= SIMILARS ? i : k % ITEMS;
+                person.addEdge("like", this.item(item));
+            }
+        }
+        graph.tx().commit();
+    }
+
+    private Vertex item(int item) {
+        return graph().vertex(IdGenerator.of(ITEM_ID + item));
+    }
+
+    private Iterator<Vertex> sources() {
+        return graph().vertices(IdGenerator.of(0L));
+    }
+
+    /**
+     * Check the approximate similars are the same as the exact top ones
+     */
+    private void checkSimilars(Map<Id, Double> expected, double alpha,
+                               int minSimilars, int top) {
+        Map<Id, Double> exact = this.similars(alpha, minSimilars, top, false);
+        Map<Id, Double> approximate = this.similars(alpha, minSimilars,
+                                                    top, true);
+        Assert.assertEquals(expected, exact);
+        Assert.assertEquals(expected, approximate);
+        // The similars are ordered by the scores
+        Assert.assertEquals(expected.keySet().toString(),
+                            approximate.keySet().toString());
+    }
+
+    private Map<Id, Double> similars(double alpha, int minSimilars, int top,
+                                     boolean approximate) {
+        FusiformSimilarityTraverser traverser =
+                new FusiformSimilarityTraverser(graph());
+        SimilarsMap results = traverser.fusiformSimilarity(
+                              this.sources(), Directions.OUT, "like",
+                              ITEMS, alpha, minSimilars, top, null, 0,
+                              NO_LIMIT, NO_LIMIT, NO_LIMIT, false,
+                              approximate);
+        Map<Id, Double> similars = InsertionOrderUtil.newMap();
+        for (Map.Entry<Id, Set<Similar>> entry : results.entrySet()) {
+            Assert.assertEquals(IdGenerator.of(0L), entry.getKey());
+            for (Similar similar : entry.getValue()) {
+                similars.put(similar.id(), similar.score());
+            }
+        }
+        return similars;
+    }
+}
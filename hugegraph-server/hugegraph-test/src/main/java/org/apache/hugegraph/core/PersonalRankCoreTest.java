@@ -0,0 +1,231 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hugegraph.core;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.apache.hugegraph.HugeGraph;
+import org.apache.hugegraph.backend.id.Id;
+import org.apache.hugegraph.backend.id.IdGenerator;
+import org.apache.hugegraph.schema.SchemaManager;
+import org.apache.hugegraph.testutil.Assert;
+import org.apache.hugegraph.testutil.Whitebox;
+import org.apache.hugegraph.traversal.algorithm.HugeTraverser;
+import org.apache.hugegraph.traversal.algorithm.PersonalRankTraverser;
+import org.apache.hugegraph.traversal.algorithm.PersonalRankTraverser.WithLabel;
+import org.apache.hugegraph.type.define.Directions;
+import org.apache.hugegraph.type.define.IdStrategy;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PersonalRankCoreTest extends BaseCoreTest {
+
+    private static final int PERSONS = 20;
+    private static final int ITEMS = 15;
+    private static final int EDGES = 60;
+    private static final int ITEM_ID = 1000;
+    private static final double ALPHA = 0.85D;
+    private static final int MAX_DEPTH = 5;
+    private static final long NO_LIMIT = HugeTraverser.NO_LIMIT;
+
+    @Before
+    public void initSchema() {
+        SchemaManager schema = graph().schema();
+        schema.vertexLabel("person")
+              .idStrategy(IdStrategy.CUSTOMIZE_NUMBER)
+              .create();
+        schema.vertexLabel("item")
+              .idStrategy(IdStrategy.CUSTOMIZE_NUMBER)
+              .create();
+        schema.edgeLabel("like")
+              .sourceLabel("person").targetLabel("item")
+              .create();
+    }
+
+    @Test
+    public void testPersonalRankByPush() {
+        this.initGraph(1L);
+        for (Id source : this.sources()) {
+            for (WithLabel withLabel : WithLabel.values()) {
+                PersonalRankTraverser traverser = this.traverser(0);
+                // Never pull the ranks of the small graph
+                Whitebox.setInternalState(traverser, "pullVertices",
+                                          Integer.MAX_VALUE);
+                this.checkRanks(this.expectedRanks(source, withLabel),
+                                traverser.personalRank(source, "like",
+                                                       withLabel));
+            }
+        }
+    }
+
+    @Test
+    public void testPersonalRankByPull() {
+        this.initGraph(2L);
+        for (Id source : this.sources()) {
+            for (WithLabel withLabel : WithLabel.values()) {
+                PersonalRankTraverser traverser = this.traverser(0);
+                // Pull the ranks by ranges of 4 vertices once the ranked
+                // vertices are more than 4
+                Whitebox.setInternalState(traverser, "pullVertices", 4);
+                Whitebox.setInternalState(traverser, "pushEdgesRatio",
+                                          Integer.MAX_VALUE);
+                this.checkRanks(this.expectedRanks(source, withLabel),
+                                traverser.personalRank(source, "like",
+                                                       withLabel));
+            }
+        }
+    }
+
+    @Test
+    public void testPersonalRankByWalks() {
+        this.initGraph(3L);
+        int walks = 100000;
+        // The error of each rank is within the bound with probability
+        // 1 - p, so all the ranks are within it with probability about 1
+        double p = 1e-6;
+        double error = Math.sqrt(Math.log(2.0D / p) / (2.0D * walks));
+        Assert.assertLt(0.01D, error);
+
+        for (Id source : this.sources()) {
+            Map<Id, Double> expected = this.expectedRanks(
+                                       source, WithLabel.BOTH_LABEL);
+            Map<Id, Double> actual = this.traverser(walks).personalRank(
+                                     source, "like", WithLabel.BOTH_LABEL);
+            // Only the walked vertices are ranked
+            Assert.assertTrue(expected.keySet().containsAll(actual.keySet()));
+            for (Map.Entry<Id, Double> entry : expected.entrySet()) {
+                double rank = actual.getOrDefault(entry.getKey(), 0.0D);
+                Assert.assertEquals(entry.getValue(), rank, error);
+            }
+        }
+    }
+
+    /**
+     * Each person likes an item at least, and the other edges link
+     * random persons and items
+     */
+    private void initGraph(long seed) {
+        HugeGraph graph = graph();
+        Random random = new Random(seed);
+        for (int i = 0; i < ITEMS; i++) {
+            graph.addVertex(T.label, "item", T.id, ITEM_ID + i);
+        }
+        Set<Long> added = new HashSet<>();
+        for (int i = 0; i < EDGES; i++) {
+            int person = i < PERSONS ? i : random.nextInt(PERSONS);
+            int item = random.nextInt(ITEMS);
+            if (!added.add((long) person * ITEMS + item)) {
+                continue;
+            }
+            Vertex vertex = i < PERSONS ?
+                            graph.addVertex(T.label, "person", T.id, person) :
+                            graph.vertex(IdGenerator.of(person));
+            vertex.addEdge("like", graph.vertex(IdGenerator.of(ITEM_ID +
+                                                               item)));
+        }
+        graph.tx().commit();
+    }
+
+    private Id[] sources() {
+        // Start from a person and an item liked by the person
+        Id person = IdGenerator.of(0L);
+        Vertex item = graph().vertex(person).vertices(Direction.OUT, "like")
+                             .next();
+        return new Id[]{person, (Id) item.id()};
+    }
+
+    private PersonalRankTraverser traverser(int walks) {
+        return new PersonalRankTraverser(graph(), ALPHA, NO_LIMIT,
+                                         MAX_DEPTH, walks);
+    }
+
+    private void checkRanks(Map<Id, Double> expected, Map<Id, Double> actual) {
+        Assert.assertFalse(expected.isEmpty());
+        Assert.assertEquals(expected.keySet(), actual.keySet());
+        for (Map.Entry<Id, Double> entry : expected.entrySet()) {
+            Assert.assertEquals(entry.getValue(), actual.get(entry.getKey()),
+                                1e-9);
+        }
+    }
+
+    /**
+     * The ranks computed by maps of all the reached vertices round by round,
+     * as the traverser did before the ranks are kept in arrays
+     */
+    private Map<Id, Double> expectedRanks(Id source, WithLabel withLabel) {
+        HugeGraph graph = graph();
+        Directions dir = graph.vertex(source).label().equals("person") ?
+                         Directions.OUT : Directions.IN;
+        Set<Id> sameLabels = new HashSet<>();
+        Set<Id> otherLabels = new HashSet<>();
+        sameLabels.add(source);
+
+        Map<Id, Double> ranks = new HashMap<>();
+        ranks.put(source, 1.0D);
+        Set<Id> rootAdjacencies = new HashSet<>();
+        for (int i = 0; i < MAX_DEPTH; i++) {
+            Map<Id, Double> newRanks = new HashMap<>();
+            Set<Id> newOtherLabels = this.spread(ranks, sameLabels, dir,
+                                                 newRanks);
+            Set<Id> newSameLabels = this.spread(ranks, otherLabels,
+                                                dir.opposite(), newRanks);
+            sameLabels.addAll(newSameLabels);
+            otherLabels.addAll(newOtherLabels);
+            newRanks.merge(source, 1.0D - ALPHA, Double::sum);
+            ranks = newRanks;
+            if (i == 0) {
+                rootAdjacencies.addAll(ranks.keySet());
+            }
+        }
+        ranks.keySet().removeAll(rootAdjacencies);
+        if (withLabel == WithLabel.SAME_LABEL) {
+            ranks.keySet().removeAll(otherLabels);
+        } else if (withLabel == WithLabel.OTHER_LABEL) {
+            ranks.keySet().removeAll(sameLabels);
+        }
+        return ranks;
+    }
+
+    private Set<Id> spread(Map<Id, Double> ranks, Set<Id> seeds,
+                           Directions dir, Map<Id, Double> newRanks) {
+        Set<Id> newSeeds = new HashSet<>();
+        for (Id seed : seeds) {
+            double rank = ranks.get(seed);
+            Iterator<Vertex> iter = graph().vertex(seed)
+                                           .vertices(dir.direction(), "like");
+            Set<Id> adjacencies = new HashSet<>();
+            while (iter.hasNext()) {
+                adjacencies.add((Id) iter.next().id());
+            }
+            for (Id adjacency : adjacencies) {
+                newSeeds.add(adjacency);
+                newRanks.merge(adjacency, rank * ALPHA / adjacencies.size(),
+                               Double::sum);
+            }
+        }
+        return newSeeds;
+    }
+}
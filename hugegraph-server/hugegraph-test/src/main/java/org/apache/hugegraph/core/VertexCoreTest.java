@@ -62,6 +62,7 @@ import org.apache.hugegraph.testutil.FakeObjects;
 import org.apache.hugegraph.testutil.Utils;
 import org.apache.hugegraph.testutil.Whitebox;
 import org.apache.hugegraph.traversal.optimize.ConditionP;
+import org.apache.hugegraph.traversal.optimize.HugeGraphStep;
 import org.apache.hugegraph.traversal.optimize.Text;
 import org.apache.hugegraph.traversal.optimize.TraversalUtil;
 import org.apache.hugegraph.type.HugeType;
@@ -6519,6 +6520,52 @@ public class VertexCoreTest extends BaseCoreTest {
         });
     }
 
+    @Test
+    public void testDropVertexPropertyWithProjection() {
+        HugeGraph graph = graph();
+        initPersonIndex(true);
+
+        graph.addVertex(T.label, "person", "name", "Baby",
+                        "city", "Hongkong", "age", 3);
+        graph.addVertex(T.label, "person", "name", "James",
+                        "city", "Beijing", "age", 19);
+        this.commitTx();
+
+        // Only the selected property is read by the read-only traversal
+        GraphTraversal<Vertex, ?> traversal = graph.traversal().V()
+                                                   .hasLabel("person")
+                                                   .properties("age");
+        Assert.assertEquals(ImmutableList.of(graph.propertyKey("age").id()),
+                            projectedKeys(traversal));
+
+        // The other properties are kept when dropping the selected one
+        traversal = graph.traversal().V().hasLabel("person")
+                         .properties("age").drop();
+        Assert.assertEquals(ImmutableList.of(), projectedKeys(traversal));
+
+        graph.traversal().V().hasLabel("person")
+             .properties("age").drop().iterate();
+        this.commitTx();
+
+        List<Vertex> vertices = graph.traversal().V()
+                                     .has("city", "Hongkong").toList();
+        Assert.assertEquals(1, vertices.size());
+        Vertex vertex = vertices.get(0);
+        Assert.assertEquals("Baby", vertex.value("name"));
+        Assert.assertFalse(vertex.property("age").isPresent());
+        Assert.assertEquals(1L, graph.traversal().V()
+                                     .has("city", "Beijing").count().next());
+        Assert.assertEquals(0L, graph.traversal().V()
+                                     .has("age", P.gte(0)).count().next());
+    }
+
+    private static List<Id> projectedKeys(GraphTraversal<?, ?> traversal) {
+        traversal.asAdmin().applyStrategies();
+        HugeGraphStep<?, ?> step = (HugeGraphStep<?, ?>)
+                                   traversal.asAdmin().getStartStep();
+        return step.queryInfo().selects();
+    }
+
     @Test
     public void testQueryVertexByPropertyWithEmptyString() {
         HugeGraph graph = graph();
@@ -0,0 +1,272 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hugegraph.core;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.hugegraph.HugeGraph;
+import org.apache.hugegraph.backend.id.Id;
+import org.apache.hugegraph.backend.id.IdGenerator;
+import org.apache.hugegraph.job.AlgorithmJob;
+import org.apache.hugegraph.job.JobBuilder;
+import org.apache.hugegraph.job.algorithm.path.LandmarksAlgorithm;
+import org.apache.hugegraph.schema.SchemaManager;
+import org.apache.hugegraph.structure.HugeEdge;
+import org.apache.hugegraph.task.HugeTask;
+import org.apache.hugegraph.task.TaskStatus;
+import org.apache.hugegraph.testutil.Assert;
+import org.apache.hugegraph.traversal.algorithm.HugeTraverser;
+import org.apache.hugegraph.traversal.algorithm.SingleSourceShortestPathTraverser;
+import org.apache.hugegraph.traversal.algorithm.SingleSourceShortestPathTraverser.NodeWithWeight;
+import org.apache.hugegraph.traversal.algorithm.WeightedShortestPathTraverser;
+import org.apache.hugegraph.type.define.Directions;
+import org.apache.hugegraph.type.define.GraphReadMode;
+import org.apache.hugegraph.type.define.IdStrategy;
+import org.apache.hugegraph.util.JsonUtil;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+
+public class WeightedShortestPathCoreTest extends BaseCoreTest {
+
+    private static final int VERTICES = 60;
+    private static final int EDGES = 150;
+    private static final int PAIRS = 40;
+    private static final long NO_LIMIT = HugeTraverser.NO_LIMIT;
+
+    @Before
+    public void initSchema() {
+        SchemaManager schema = graph().schema();
+        schema.propertyKey("weight").asDouble().create();
+        schema.vertexLabel("node")
+              .idStrategy(IdStrategy.CUSTOMIZE_NUMBER)
+              .create();
+        schema.edgeLabel("link")
+              .sourceLabel("node").targetLabel("node")
+              .properties("weight").nullableKeys("weight")
+              .create();
+        schema.edgeLabel("other")
+              .sourceLabel("node").targetLabel("node")
+              .create();
+    }
+
+    @Test
+    public void testBidirectionalSearch() {
+        this.initGraph(1L);
+        for (Directions dir : Directions.values()) {
+            this.checkPaths(dir, "link", null, 2L);
+        }
+        // The edges of all labels without weight are weighted by 1
+        this.checkPaths(Directions.BOTH, null, null, 3L);
+    }
+
+    @Test
+    public void testBidirectionalSearchWithLandmarks()
+                throws TimeoutException {
+        Assume.assumeTrue("Not support olap properties",
+                          storeFeatures().supportsOlapProperties());
+        this.initGraph(4L);
+        this.computeLandmarks(Directions.OUT, "directed");
+        this.computeLandmarks(Directions.BOTH, "undirected");
+
+        HugeGraph graph = graph();
+        GraphReadMode readMode = graph.readMode();
+        graph.readMode(GraphReadMode.ALL);
+        try {
+            // The landmarks guide the searches to settle less vertices
+            Assert.assertLt(this.checkPaths(Directions.OUT, "link", null, 5L),
+                            this.checkPaths(Directions.OUT, "link",
+                                            "directed", 5L));
+            Assert.assertLt(this.checkPaths(Directions.IN, "link", null, 6L),
+                            this.checkPaths(Directions.IN, "link",
+                                            "directed", 6L));
+            Assert.assertLt(this.checkPaths(Directions.BOTH, "link", null, 7L),
+                            this.checkPaths(Directions.BOTH, "link",
+                                            "undirected", 7L));
+
+            // The vertices added after computing the landmarks disable them
+            graph.addVertex(T.label, "node", T.id, VERTICES);
+            Vertex vertex = graph.vertex(IdGenerator.of(VERTICES));
+            vertex.addEdge("link", graph.vertex(IdGenerator.of(0L)),
+                           "weight", 1.0D);
+            graph.vertex(IdGenerator.of(1L)).addEdge("link", vertex,
+                                                     "weight", 1.0D);
+            graph.tx().commit();
+            this.checkPaths(Directions.OUT, "link", "directed", 8L);
+
+            Assert.assertThrows(IllegalArgumentException.class, () -> {
+                this.bidirectional(Directions.BOTH, "link", "directed", 0, 1);
+            }, e -> {
+                Assert.assertContains("can't be used with BOTH direction",
+                                      e.getMessage());
+            });
+        } finally {
+            graph.readMode(readMode);
+        }
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            this.bidirectional(Directions.OUT, "link", "directed", 0, 1);
+        }, e -> {
+            Assert.assertContains("graph read mode contains olap",
+                                  e.getMessage());
+        });
+    }
+
+    private void initGraph(long seed) {
+        HugeGraph graph = graph();
+        Random random = new Random(seed);
+        for (int i = 0; i < VERTICES; i++) {
+            graph.addVertex(T.label, "node", T.id, i);
+        }
+        for (int i = 0; i < EDGES; i++) {
+            Vertex source = graph.vertex(IdGenerator.of(random.nextInt(VERTICES)));
+            Vertex target = graph.vertex(IdGenerator.of(random.nextInt(VERTICES)));
+            if (random.nextInt(10) == 0) {
+                // The edges without weight are weighted by 1
+                source.addEdge("link", target);
+            } else if (random.nextInt(10) == 0) {
+                source.addEdge("other", target);
+            } else {
+                source.addEdge("link", target,
+                               "weight", 1.0D + random.nextInt(20) / 4.0D);
+            }
+        }
+        graph.tx().commit();
+    }
+
+    private void computeLandmarks(Directions dir, String prefix)
+                                  throws TimeoutException {
+        HugeGraph graph = graph();
+        Object input = ImmutableMap.of(
+                       "algorithm", LandmarksAlgorithm.ALGO_NAME,
+                       "parameters", ImmutableMap.of("direction", dir.name(),
+                                                     "label", "link",
+                                                     "weight", "weight",
+                                                     "landmarks", 4,
+                                                     "prefix", prefix));
+        HugeTask<Object> task = JobBuilder.of(graph)
+                                          .name("test-job-landmarks")
+                                          .input(JsonUtil.toJson(input))
+                                          .job(new AlgorithmJob())
+                                          .schedule();
+        task = graph.taskScheduler().waitUntilTaskCompleted(task.id(), 30);
+        Assert.assertEquals(TaskStatus.SUCCESS, task.status());
+    }
+
+    /**
+     * Check the paths of random pairs have the same weights as the paths
+     * found by the unidirectional search, and each path is connected by
+     * its edges from the source to the target
+     * @return The number of vertices settled by the bidirectional searches
+     */
+    private long checkPaths(Directions dir, String label, String landmarks,
+                            long seed) {
+        SingleSourceShortestPathTraverser unidirectional =
+                new SingleSourceShortestPathTraverser(graph());
+        WeightedShortestPathTraverser bidirectional =
+                new WeightedShortestPathTraverser(graph());
+        Random random = new Random(seed);
+        int found = 0;
+        for (int i = 0; i < PAIRS; i++) {
+            int source = random.nextInt(VERTICES);
+            int target = i == 0 ? source : random.nextInt(VERTICES);
+            NodeWithWeight expected = unidirectional.weightedShortestPath(
+                                      IdGenerator.of(source),
+                                      IdGenerator.of(target), dir, label,
+                                      "weight", NO_LIMIT, 0L, NO_LIMIT);
+            NodeWithWeight actual = bidirectional.weightedShortestPath(
+                                    IdGenerator.of(source),
+                                    IdGenerator.of(target), dir, label,
+                                    "weight", NO_LIMIT, 0L, NO_LIMIT,
+                                    landmarks);
+            if (expected == null) {
+                Assert.assertNull(actual);
+                continue;
+            }
+            found++;
+            Assert.assertNotNull(actual);
+            Assert.assertEquals(expected.weight(), actual.weight(), 1e-9);
+            this.checkPath(actual, dir, source, target);
+        }
+        // Most of the pairs are connected
+        Assert.assertGt(PAIRS / 2, found);
+        return bidirectional.vertexIterCounter.get();
+    }
+
+    private NodeWithWeight bidirectional(Directions dir, String label,
+                                         String landmarks, int source,
+                                         int target) {
+        WeightedShortestPathTraverser traverser =
+                new WeightedShortestPathTraverser(graph());
+        return traverser.weightedShortestPath(IdGenerator.of(source),
+                                              IdGenerator.of(target), dir,
+                                              label, "weight", NO_LIMIT, 0L,
+                                              NO_LIMIT, landmarks);
+    }
+
+    private void checkPath(NodeWithWeight path, Directions dir,
+                           int source, int target) {
+        List<Id> vertices = path.node().path();
+        Assert.assertEquals(IdGenerator.of(source), vertices.get(0));
+        Assert.assertEquals(IdGenerator.of(target),
+                            vertices.get(vertices.size() - 1));
+        Assert.assertEquals(vertices.size() - 1, path.getEdges().size());
+
+        double weight = 0.0D;
+        for (int i = 1; i < vertices.size(); i++) {
+            HugeEdge edge = null;
+            for (Edge e : path.getEdges()) {
+                if (connects((HugeEdge) e, dir, vertices.get(i - 1),
+                             vertices.get(i))) {
+                    edge = (HugeEdge) e;
+                }
+            }
+            Assert.assertNotNull(edge);
+            weight += edge.property("weight").isPresent() ?
+                      edge.<Double>value("weight") : 1.0D;
+        }
+        Assert.assertEquals(path.weight(), weight, 1e-9);
+    }
+
+    private static boolean connects(HugeEdge edge, Directions dir,
+                                    Id from, Id to) {
+        Id out = edge.id().ownerVertexId();
+        Id in = edge.id().otherVertexId();
+        if (edge.id().direction() == Directions.IN) {
+            out = edge.id().otherVertexId();
+            in = edge.id().ownerVertexId();
+        }
+        boolean forward = out.equals(from) && in.equals(to);
+        boolean backward = out.equals(to) && in.equals(from);
+        switch (dir) {
+            case OUT:
+                return forward;
+            case IN:
+                return backward;
+            default:
+                return forward || backward;
+        }
+    }
+}
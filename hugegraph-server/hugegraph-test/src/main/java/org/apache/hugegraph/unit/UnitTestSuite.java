@@ -39,16 +39,22 @@ import org.apache.hugegraph.unit.cache.CachedGraphTransactionTest;
 import org.apache.hugegraph.unit.cache.CachedSchemaTransactionTest;
 import org.apache.hugegraph.unit.cache.RamTableTest;
 import org.apache.hugegraph.unit.cmd.InitStoreConfigTest;
+import org.apache.hugegraph.unit.core.AlgorithmCheckpointTest;
+import org.apache.hugegraph.unit.core.AlgorithmWriteBackTest;
 import org.apache.hugegraph.unit.core.AnalyzerTest;
+import org.apache.hugegraph.unit.core.ApproxCentralityTest;
 import org.apache.hugegraph.unit.core.BackendMutationTest;
 import org.apache.hugegraph.unit.core.BackendStoreInfoTest;
 import org.apache.hugegraph.unit.core.ConditionQueryFlattenTest;
 import org.apache.hugegraph.unit.core.ConditionTest;
+import org.apache.hugegraph.unit.core.ComputeEngineTest;
+import org.apache.hugegraph.unit.core.CsrGraphTest;
 import org.apache.hugegraph.unit.core.DataTypeTest;
 import org.apache.hugegraph.unit.core.DirectionsTest;
 import org.apache.hugegraph.unit.core.ExceptionTest;
 import org.apache.hugegraph.unit.core.GraphManagerAdminInitTest;
 import org.apache.hugegraph.unit.core.GraphManagerConfigTest;
+import org.apache.hugegraph.unit.core.IndexLabelRebuildJobTest;
 import org.apache.hugegraph.unit.core.LocksTableTest;
 import org.apache.hugegraph.unit.core.PageStateTest;
 import org.apache.hugegraph.unit.core.QueryTest;
@@ -87,11 +93,15 @@ import org.apache.hugegraph.unit.util.RateLimiterTest;
 import org.apache.hugegraph.unit.util.StringEncodingTest;
 import org.apache.hugegraph.unit.util.VersionTest;
 import org.apache.hugegraph.unit.util.collection.CollectionFactoryTest;
+import org.apache.hugegraph.unit.util.collection.CountMinSketchTest;
+import org.apache.hugegraph.unit.util.collection.HyperLogLogTest;
 import org.apache.hugegraph.unit.util.collection.IdSetTest;
 import org.apache.hugegraph.unit.util.collection.Int2IntsMapTest;
 import org.apache.hugegraph.unit.util.collection.IntMapTest;
+import org.apache.hugegraph.unit.util.collection.IntMinHeapTest;
 import org.apache.hugegraph.unit.util.collection.IntSetTest;
 import org.apache.hugegraph.unit.util.collection.ObjectIntMappingTest;
+import org.apache.hugegraph.unit.util.collection.TopKTest;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 
@@ -154,6 +164,12 @@ import org.junit.runners.Suite;
         BackendStoreInfoTest.class,
         TraversalUtilTest.class,
         TraversalUtilOptimizeTest.class,
+        AlgorithmCheckpointTest.class,
+        AlgorithmWriteBackTest.class,
+        ApproxCentralityTest.class,
+        IndexLabelRebuildJobTest.class,
+        CsrGraphTest.class,
+        ComputeEngineTest.class,
         PageStateTest.class,
         SystemSchemaStoreTest.class,
         ServerInfoManagerTest.class,
@@ -197,6 +213,10 @@ import org.junit.runners.Suite;
         IdSetTest.class,
         IntMapTest.class,
         IntSetTest.class,
+        IntMinHeapTest.class,
+        TopKTest.class,
+        CountMinSketchTest.class,
+        HyperLogLogTest.class,
 
         /* store */
         RamIntObjectMapTest.class
@@ -33,6 +33,7 @@ import org.apache.hugegraph.backend.id.IdGenerator;
 import org.apache.hugegraph.backend.store.BackendStoreProvider;
 import org.apache.hugegraph.event.EventHub;
 import org.apache.hugegraph.event.EventListener;
+import org.apache.hugegraph.schema.PropertyKey;
 import org.apache.hugegraph.schema.VertexLabel;
 import org.apache.hugegraph.structure.HugeEdge;
 import org.apache.hugegraph.structure.HugeVertex;
@@ -40,7 +41,9 @@ import org.apache.hugegraph.structure.HugeVertexProperty;
 import org.apache.hugegraph.testutil.Assert;
 import org.apache.hugegraph.testutil.Whitebox;
 import org.apache.hugegraph.type.HugeType;
+import org.apache.hugegraph.type.define.DataType;
 import org.apache.hugegraph.type.define.IdStrategy;
+import org.apache.hugegraph.type.define.WriteType;
 import org.apache.hugegraph.unit.BaseUnitTest;
 import org.apache.hugegraph.unit.FakeObjects;
 import org.apache.hugegraph.util.Events;
@@ -48,6 +51,8 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import com.google.common.collect.ImmutableMap;
+
 public class CachedGraphTransactionTest extends BaseUnitTest {
 
     private CachedGraphTransaction cache;
@@ -244,6 +249,55 @@ public class CachedGraphTransactionTest extends BaseUnitTest {
         }
     }
 
+    @Test
+    public void testWriteOlapPropertiesInvalidatesVertices() throws Exception {
+        CachedGraphTransaction cache = this.cache();
+
+        cache.addVertex(this.newVertex(IdGenerator.of(1)));
+        cache.addVertex(this.newVertex(IdGenerator.of(2)));
+        cache.commit();
+
+        Assert.assertTrue(cache.queryVertices(IdGenerator.of(1)).hasNext());
+        Assert.assertTrue(cache.queryVertices(IdGenerator.of(2)).hasNext());
+        Assert.assertEquals(2L,
+                            Whitebox.invoke(cache, "verticesCache", "size"));
+
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicReference<Object[]> args = new AtomicReference<>();
+        EventListener listener = event -> {
+            if (Cache.ACTION_INVALID.equals(event.args()[0])) {
+                args.set(event.args());
+                latch.countDown();
+            }
+            return true;
+        };
+        this.params.graphEventHub().listen(Events.CACHE, listener);
+        try {
+            PropertyKey pkey = new PropertyKey(this.graph, IdGenerator.of(100),
+                                               "rank");
+            pkey.dataType(DataType.DOUBLE);
+            pkey.writeType(WriteType.OLAP_COMMON);
+            cache.writeOlapProperties(pkey, ImmutableMap.of(IdGenerator.of(1),
+                                                            0.5D));
+
+            // Only the written vertex is invalidated from the cache
+            Assert.assertTrue(latch.await(1L, TimeUnit.SECONDS));
+            Assert.assertEquals(HugeType.VERTEX, args.get()[1]);
+            Assert.assertArrayEquals(new Id[]{IdGenerator.of(1)},
+                                     (Id[]) args.get()[2]);
+            Assert.assertEquals(1L,
+                                Whitebox.invoke(cache, "verticesCache",
+                                                "size"));
+            Assert.assertTrue(cache.queryVertices(IdGenerator.of(2))
+                                   .hasNext());
+            Assert.assertEquals(1L,
+                                Whitebox.invoke(cache, "verticesCache",
+                                                "size"));
+        } finally {
+            this.params.graphEventHub().unlisten(Events.CACHE, listener);
+        }
+    }
+
     @Test
     public void testClosingNonOwnerKeepsGraphCacheListenerRegistered()
             throws Exception {
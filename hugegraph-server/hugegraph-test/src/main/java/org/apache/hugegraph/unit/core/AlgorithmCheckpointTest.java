@@ -0,0 +1,284 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hugegraph.unit.core;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.hugegraph.HugeException;
+import org.apache.hugegraph.HugeGraph;
+import org.apache.hugegraph.backend.id.IdGenerator;
+import org.apache.hugegraph.backend.page.PageInfo;
+import org.apache.hugegraph.backend.page.PageState;
+import org.apache.hugegraph.backend.store.BackendFeatures;
+import org.apache.hugegraph.config.CoreOptions;
+import org.apache.hugegraph.exception.NotSupportException;
+import org.apache.hugegraph.iterator.Metadatable;
+import org.apache.hugegraph.job.AlgorithmJob;
+import org.apache.hugegraph.job.algorithm.AbstractAlgorithm.AlgoTraverser;
+import org.apache.hugegraph.job.algorithm.CsrGraph;
+import org.apache.hugegraph.task.HugeTask;
+import org.apache.hugegraph.task.TaskScheduler;
+import org.apache.hugegraph.testutil.Assert;
+import org.apache.hugegraph.testutil.Whitebox;
+import org.apache.hugegraph.traversal.algorithm.HugeTraverser;
+import org.apache.hugegraph.type.define.CollectionType;
+import org.apache.hugegraph.unit.FakeObjects;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.google.common.collect.ImmutableMap;
+
+public class AlgorithmCheckpointTest {
+
+    private static final int VERTICES = 95;
+    private static final int PAGE = 10;
+    // The sum of the ids 0 ~ 94
+    private static final long SUM = (long) VERTICES * (VERTICES - 1) / 2;
+
+    private HugeGraph graph;
+    private TaskScheduler scheduler;
+
+    @Before
+    public void setup() {
+        this.graph = new FakeObjects().graph();
+        Mockito.when(this.graph.option(CoreOptions.OLTP_COLLECTION_TYPE))
+               .thenReturn(CollectionType.EC);
+        Mockito.when(this.graph.option(CoreOptions.TASK_CHECKPOINT_INTERVAL))
+               .thenReturn(1L);
+        BackendFeatures features = Mockito.mock(BackendFeatures.class);
+        Mockito.when(features.supportsQueryByPage()).thenReturn(true);
+        Mockito.when(this.graph.backendStoreFeatures()).thenReturn(features);
+        this.scheduler = Mockito.mock(TaskScheduler.class);
+        Mockito.when(this.graph.taskScheduler()).thenReturn(this.scheduler);
+    }
+
+    @Test
+    public void testCheckpoint() {
+        AlgorithmJob job = this.newJob();
+        Assert.assertNull(job.checkpoint());
+
+        job.checkpoint(ImmutableMap.of("page", "abc", "progress", 10));
+        Mockito.verify(this.scheduler).save(job.task());
+        Assert.assertEquals(ImmutableMap.of("page", "abc", "progress", 10),
+                            job.checkpoint());
+        // The input of the algorithm is kept
+        Assert.assertContains("\"algorithm\":\"sum\"", job.task().input());
+    }
+
+    @Test
+    public void testTraverseWithoutInterruption() {
+        AlgorithmJob job = this.newJob();
+        try (SumTraverser traverser = new SumTraverser(job)) {
+            Assert.assertEquals(SUM, traverser.sum(-1L));
+            Assert.assertEquals(VERTICES, traverser.traversed);
+        }
+        // The next page of each full page is saved
+        Mockito.verify(this.scheduler, Mockito.times(VERTICES / PAGE))
+               .save(job.task());
+    }
+
+    @Test
+    public void testResumeFromCheckpoint() {
+        AlgorithmJob job = this.newJob();
+        // Interrupt the job in the middle of the 5th page
+        try (SumTraverser traverser = new SumTraverser(job)) {
+            Assert.assertThrows(HugeException.class, () -> {
+                traverser.sum(45L);
+            }, e -> {
+                Assert.assertContains("Interrupted at 45", e.getMessage());
+            });
+        }
+        Map<String, Object> checkpoint = job.checkpoint();
+        Assert.assertNotNull(checkpoint);
+        Assert.assertEquals(40, ((Number) checkpoint.get("progress")).intValue());
+
+        // The job restored after restarting runs with the saved input
+        AlgorithmJob restored = this.newJob();
+        restored.task().input(job.task().input());
+        try (SumTraverser traverser = new SumTraverser(restored)) {
+            Assert.assertEquals(SUM, traverser.sum(-1L));
+            // Only the vertices after the checkpoint are traversed again
+            Assert.assertEquals(VERTICES - 40, traverser.traversed);
+        }
+    }
+
+    @Test
+    public void testTraverseWithCheckpointDisabled() {
+        Mockito.when(this.graph.option(CoreOptions.TASK_CHECKPOINT_INTERVAL))
+               .thenReturn(0L);
+        AlgorithmJob job = this.newJob();
+        try (SumTraverser traverser = new SumTraverser(job)) {
+            Assert.assertThrows(HugeException.class, () -> {
+                traverser.sum(45L);
+            });
+        }
+        Assert.assertNull(job.checkpoint());
+        Mockito.verify(this.scheduler, Mockito.never()).save(job.task());
+    }
+
+    @Test
+    public void testSumWithCheckpoint() {
+        // The vertices are summed by ranges of PAGE_SIZE (10000) vertices
+        CsrGraph graph = graph(25000);
+        long sum = 25000L * 24999L / 2L;
+
+        AlgorithmJob job = this.newJob();
+        try (SumTraverser traverser = new SumTraverser(job)) {
+            Assert.assertThrows(HugeException.class, () -> {
+                traverser.sum(graph, 15000);
+            }, e -> {
+                Assert.assertContains("Interrupted at 15000", e.getMessage());
+            });
+        }
+        Assert.assertEquals(10000, ((Number) job.checkpoint().get("vertex"))
+                                   .intValue());
+
+        AlgorithmJob restored = this.newJob();
+        restored.task().input(job.task().input());
+        try (SumTraverser traverser = new SumTraverser(restored)) {
+            Assert.assertEquals(sum, traverser.sum(graph, -1));
+            Assert.assertEquals(15000, traverser.summed);
+        }
+
+        // The checkpoint of another graph is ignored
+        CsrGraph changed = graph(24000);
+        restored = this.newJob();
+        restored.task().input(job.task().input());
+        try (SumTraverser traverser = new SumTraverser(restored)) {
+            Assert.assertEquals(24000L * 23999L / 2L,
+                                traverser.sum(changed, -1));
+            Assert.assertEquals(24000, traverser.summed);
+        }
+    }
+
+    private AlgorithmJob newJob() {
+        AlgorithmJob job = new AlgorithmJob();
+        HugeTask<Object> task = new HugeTask<>(IdGenerator.of(1L), null, job);
+        task.input("{\"algorithm\":\"sum\",\"parameters\":{}}");
+        Whitebox.setInternalState(job, "graph", this.graph);
+        Whitebox.setInternalState(job, "task", task);
+        return job;
+    }
+
+    /**
+     * Sum up the ids of the vertices, which are read by pages of PAGE
+     */
+    private static class SumTraverser extends AlgoTraverser {
+
+        private long traversed;
+        private int summed;
+
+        public SumTraverser(AlgorithmJob job) {
+            super(job);
+        }
+
+        public long sum(long interruptAt) {
+            Map<String, Object> state = this.checkpointState();
+            long[] sum = {state == null ? 0L :
+                          ((Number) state.get("sum")).longValue()};
+            this.traversed = this.traverseWithCheckpoint(null, null, v -> {
+                long id = (long) v.id();
+                if (id == interruptAt) {
+                    throw new HugeException("Interrupted at %s", id);
+                }
+                sum[0] += id;
+                // Save the checkpoint at the end of each page
+                Whitebox.setInternalState(this, "checkpointTime", 0L);
+            }, () -> ImmutableMap.of("sum", sum[0]));
+            return sum[0];
+        }
+
+        public long sum(CsrGraph graph, int interruptAt) {
+            AtomicInteger summed = new AtomicInteger();
+            double sum = this.sumWithCheckpoint(graph, vertex -> {
+                if (vertex == interruptAt) {
+                    throw new HugeException("Interrupted at %s", vertex);
+                }
+                summed.incrementAndGet();
+                Whitebox.setInternalState(this, "checkpointTime", 0L);
+                return vertex;
+            });
+            this.summed = summed.get();
+            return (long) sum;
+        }
+
+        @Override
+        protected Iterator<Vertex> vertices(Object label, String page,
+                                            long limit) {
+            if (page == null) {
+                // Called by traverse() with the null clabel, read all
+                return new PageIterator(0, VERTICES);
+            }
+            int start = PageInfo.PAGE_NONE.equals(page) ? 0 :
+                        PageState.fromString(page).offset();
+            return new PageIterator(start, Math.min(start + PAGE, VERTICES));
+        }
+    }
+
+    private static CsrGraph graph(int size) {
+        CsrGraph.Builder builder = CsrGraph.builder(HugeTraverser.NO_LIMIT,
+                                                    false);
+        for (int i = 0; i < size; i++) {
+            builder.addVertex(IdGenerator.of(i));
+        }
+        return builder.build();
+    }
+
+    private static class PageIterator implements Iterator<Vertex>,
+                                                 Metadatable {
+
+        private final int end;
+        private int next;
+
+        public PageIterator(int start, int end) {
+            this.next = start;
+            this.end = end;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.next < this.end;
+        }
+
+        @Override
+        public Vertex next() {
+            if (!this.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Vertex vertex = Mockito.mock(Vertex.class);
+            Mockito.when(vertex.id()).thenReturn((long) this.next++);
+            return vertex;
+        }
+
+        @Override
+        public Object metadata(String meta, Object... args) {
+            if (!PageInfo.PAGE.equals(meta)) {
+                throw new NotSupportException("metadata '%s'", meta);
+            }
+            if (this.end >= VERTICES) {
+                return PageState.EMPTY;
+            }
+            return new PageState(new byte[]{1}, this.end, 0);
+        }
+    }
+}
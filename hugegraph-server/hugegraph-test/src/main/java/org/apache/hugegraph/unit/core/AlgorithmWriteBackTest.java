@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hugegraph.unit.core;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.apache.hugegraph.HugeGraph;
+import org.apache.hugegraph.backend.id.Id;
+import org.apache.hugegraph.backend.id.IdGenerator;
+import org.apache.hugegraph.config.CoreOptions;
+import org.apache.hugegraph.job.AlgorithmJob;
+import org.apache.hugegraph.job.algorithm.AbstractAlgorithm;
+import org.apache.hugegraph.job.algorithm.AbstractAlgorithm.AlgoTraverser;
+import org.apache.hugegraph.schema.PropertyKey;
+import org.apache.hugegraph.task.HugeTask;
+import org.apache.hugegraph.task.TaskManager;
+import org.apache.hugegraph.testutil.Assert;
+import org.apache.hugegraph.testutil.Whitebox;
+import org.apache.hugegraph.type.define.CollectionType;
+import org.apache.hugegraph.type.define.DataType;
+import org.apache.hugegraph.type.define.WriteType;
+import org.apache.hugegraph.unit.FakeObjects;
+import org.apache.tinkerpop.gremlin.structure.Transaction;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+public class AlgorithmWriteBackTest {
+
+    private static final String KEY = "rank";
+    private static final String CONTEXT = "admin";
+    // Write 3 full batches and a partial one
+    private static final int VERTICES = AbstractAlgorithm.OLAP_BATCH * 3 + 10;
+
+    private HugeGraph graph;
+    private Transaction tx;
+    private PropertyKey pkey;
+    private Queue<Map<Id, Object>> batches;
+    private Queue<String> contexts;
+
+    @Before
+    public void setup() {
+        FakeObjects fakeObjects = new FakeObjects();
+        this.graph = fakeObjects.graph();
+        Mockito.when(this.graph.option(CoreOptions.OLTP_COLLECTION_TYPE))
+               .thenReturn(CollectionType.EC);
+        this.pkey = fakeObjects.newPropertyKey(IdGenerator.of(1), KEY,
+                                               DataType.DOUBLE);
+        this.pkey.writeType(WriteType.OLAP_COMMON);
+
+        this.tx = Mockito.mock(Transaction.class);
+        Mockito.when(this.tx.isOpen()).thenReturn(true);
+        Mockito.when(this.graph.tx()).thenReturn(this.tx);
+
+        // The batch is reused by the worker, copy it when written
+        this.batches = new ConcurrentLinkedQueue<>();
+        this.contexts = new ConcurrentLinkedQueue<>();
+        Mockito.doAnswer(invocation -> {
+            Map<Id, Object> batch = invocation.getArgument(1);
+            this.batches.add(new HashMap<>(batch));
+            this.contexts.add(String.valueOf(TaskManager.getContext()));
+            return null;
+        }).when(this.graph).writeOlapProperties(ArgumentMatchers.eq(this.pkey),
+                                                ArgumentMatchers.any());
+
+        TaskManager.setContext(CONTEXT);
+    }
+
+    @After
+    public void teardown() {
+        TaskManager.resetContext();
+    }
+
+    @Test
+    public void testWriteBackOlapPropertyByWorkers() {
+        AlgorithmJob job = this.newJob();
+        try (WriteTraverser traverser = new WriteTraverser(job, 2)) {
+            traverser.write();
+        }
+        this.checkBatches();
+        Assert.assertEquals(VERTICES - VERTICES / 3 - 1, job.progress());
+
+        // Each worker runs with the context and closes its tx
+        Assert.assertEquals(this.batches.size(), this.contexts.size());
+        for (String context : this.contexts) {
+            Assert.assertEquals(CONTEXT, context);
+        }
+        Mockito.verify(this.tx, Mockito.times(2)).close();
+        Mockito.verify(this.graph, Mockito.never())
+               .addVertex(ArgumentMatchers.<Object[]>any());
+    }
+
+    @Test
+    public void testWriteBackOlapPropertyByCurrentThread() {
+        AlgorithmJob job = this.newJob();
+        try (WriteTraverser traverser = new WriteTraverser(job, 0)) {
+            traverser.write();
+        }
+        this.checkBatches();
+        Assert.assertEquals(VERTICES - VERTICES / 3 - 1, job.progress());
+
+        // The tx of the job thread is left to the job
+        Mockito.verify(this.tx, Mockito.never()).close();
+    }
+
+    private void checkBatches() {
+        Map<Id, Object> written = new HashMap<>();
+        for (Map<Id, Object> batch : this.batches) {
+            Assert.assertTrue(batch.size() <= AbstractAlgorithm.OLAP_BATCH);
+            written.putAll(batch);
+        }
+        // Each vertex is written once except the ones without value
+        int size = this.batches.stream().mapToInt(Map::size).sum();
+        Assert.assertEquals(written.size(), size);
+        for (int i = 0; i < VERTICES; i++) {
+            Object value = written.get(IdGenerator.of(i));
+            Assert.assertEquals(value(i), value);
+        }
+    }
+
+    private AlgorithmJob newJob() {
+        AlgorithmJob job = new AlgorithmJob();
+        HugeTask<Object> task = new HugeTask<>(IdGenerator.of(1L), null, job);
+        Whitebox.setInternalState(job, "graph", this.graph);
+        Whitebox.setInternalState(job, "task", task);
+        return job;
+    }
+
+    private static Object value(int vertex) {
+        // Skip every third vertex
+        return vertex % 3 == 0 ? null : (double) vertex;
+    }
+
+    private static class WriteTraverser extends AlgoTraverser {
+
+        public WriteTraverser(AlgorithmJob job, int workers) {
+            super(job, "write", workers);
+        }
+
+        public void write() {
+            this.writeBackProperty(KEY, VERTICES, IdGenerator::of,
+                                   AlgorithmWriteBackTest::value);
+        }
+    }
+}
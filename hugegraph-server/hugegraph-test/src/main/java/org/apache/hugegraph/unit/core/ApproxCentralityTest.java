@@ -0,0 +1,289 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hugegraph.unit.core;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Random;
+
+import org.apache.hugegraph.backend.id.Id;
+import org.apache.hugegraph.backend.id.IdGenerator;
+import org.apache.hugegraph.job.algorithm.CsrGraph;
+import org.apache.hugegraph.job.algorithm.cent.ApproxBetweennessCentralityAlgorithm;
+import org.apache.hugegraph.job.algorithm.cent.ApproxBetweennessCentralityAlgorithm.Brandes;
+import org.apache.hugegraph.job.algorithm.cent.ApproxClosenessCentralityAlgorithm.HyperBall;
+import org.apache.hugegraph.testutil.Assert;
+import org.apache.hugegraph.traversal.algorithm.HugeTraverser;
+import org.junit.Test;
+
+public class ApproxCentralityTest {
+
+    private static final int NO_DEPTH = Integer.MAX_VALUE;
+
+    @Test
+    public void testBetweennessOfPath() {
+        // The betweenness of vertex i of a path is 2 * i * (n - 1 - i)
+        CsrGraph graph = path(10);
+        double[] betweennesses = betweennesses(graph, NO_DEPTH, all(graph));
+        for (int i = 0; i < 10; i++) {
+            Assert.assertEquals(2d * i * (9 - i), betweennesses[i], 1e-9);
+        }
+
+        // The paths longer than the depth are ignored
+        betweennesses = betweennesses(graph, 2, all(graph));
+        Assert.assertEquals(0d, betweennesses[0], 1e-9);
+        Assert.assertEquals(2d, betweennesses[1], 1e-9);
+        Assert.assertEquals(2d, betweennesses[5], 1e-9);
+    }
+
+    @Test
+    public void testBetweennessOfAllSources() {
+        CsrGraph graph = random(60, 150, 1L);
+        double[] exact = exactBetweennesses(graph);
+        double[] betweennesses = betweennesses(graph, NO_DEPTH, all(graph));
+        for (int i = 0; i < exact.length; i++) {
+            Assert.assertEquals(exact[i], betweennesses[i], 1e-6);
+        }
+    }
+
+    @Test
+    public void testBetweennessOfSampledSources() {
+        CsrGraph graph = random(200, 600, 2L);
+        double[] exact = exactBetweennesses(graph);
+
+        BitSet sources = new BitSet();
+        sources.set(0, graph.vertexCount());
+        Assert.assertEquals(graph.vertexCount(),
+                            ApproxBetweennessCentralityAlgorithm.sample(
+                            sources, HugeTraverser.NO_LIMIT,
+                            new Random()).length);
+
+        int[] samples = ApproxBetweennessCentralityAlgorithm.sample(
+                        sources, 100L, new Random(3L));
+        Assert.assertEquals(100, samples.length);
+        Assert.assertEquals(100L, Arrays.stream(samples).distinct().count());
+        double scale = (double) graph.vertexCount() / samples.length;
+        double[] estimated = betweennesses(graph, NO_DEPTH, samples);
+
+        // The estimation is unbiased, check the total and the top vertices
+        double exactTotal = 0d;
+        double estimatedTotal = 0d;
+        for (int i = 0; i < exact.length; i++) {
+            exactTotal += exact[i];
+            estimatedTotal += estimated[i] * scale;
+        }
+        Assert.assertEquals(exactTotal, estimatedTotal, exactTotal * 0.1);
+        int top = argmax(exact);
+        Assert.assertEquals(exact[top], estimated[top] * scale,
+                            exact[top] * 0.2);
+    }
+
+    @Test
+    public void testClosenessWithinRelativeError() {
+        for (int log2m : new int[]{6, 8}) {
+            CsrGraph graph = random(300, 900, 4L);
+            double[] exact = exactClosenesses(graph);
+
+            HyperBall ball = new HyperBall(graph, log2m);
+            for (int distance = 1; distance <= graph.vertexCount();
+                 distance++) {
+                if (ball.expand(null, distance) == 0d) {
+                    break;
+                }
+            }
+            Assert.assertEquals(1 << log2m, ball.registers());
+            double error = 1.04D / Math.sqrt(ball.registers());
+
+            // The mean relative error is within the expected error
+            double[] closenesses = ball.closenesses();
+            double errors = 0d;
+            for (int i = 0; i < exact.length; i++) {
+                double relative = Math.abs(closenesses[i] - exact[i]) /
+                                  exact[i];
+                Assert.assertTrue(relative < 3d * error);
+                errors += relative;
+            }
+            Assert.assertLt(error, errors / exact.length);
+        }
+    }
+
+    @Test
+    public void testClosenessOfPath() {
+        CsrGraph graph = path(5);
+        HyperBall ball = new HyperBall(graph, 8);
+        for (int distance = 1; distance <= 5; distance++) {
+            ball.expand(null, distance);
+        }
+        double error = 1.04D / Math.sqrt(ball.registers());
+        double[] exact = exactClosenesses(graph);
+        for (int i = 0; i < 5; i++) {
+            Assert.assertEquals(exact[i], ball.closenesses()[i],
+                                exact[i] * error);
+        }
+        Assert.assertEquals(1d + 1d / 2 + 1d / 3 + 1d / 4, exact[0], 1e-9);
+    }
+
+    private static double[] betweennesses(CsrGraph graph, int depth,
+                                          int[] sources) {
+        Brandes brandes = new Brandes(graph, depth);
+        for (int source : sources) {
+            brandes.compute(source);
+        }
+        return brandes.betweennesses();
+    }
+
+    /**
+     * The betweenness by definition: the sum of the fractions of the
+     * shortest paths between each pair of vertices passing through a vertex
+     */
+    private static double[] exactBetweennesses(CsrGraph graph) {
+        int size = graph.vertexCount();
+        int[][] distances = new int[size][];
+        double[][] pathCounts = new double[size][];
+        for (int source = 0; source < size; source++) {
+            distances[source] = new int[size];
+            pathCounts[source] = new double[size];
+            bfs(graph, source, distances[source], pathCounts[source]);
+        }
+        double[] betweennesses = new double[size];
+        for (int s = 0; s < size; s++) {
+            for (int t = 0; t < size; t++) {
+                if (s == t || distances[s][t] < 0) {
+                    continue;
+                }
+                for (int v = 0; v < size; v++) {
+                    if (v == s || v == t || distances[s][v] < 0 ||
+                        distances[v][t] < 0 ||
+                        distances[s][v] + distances[v][t] != distances[s][t]) {
+                        continue;
+                    }
+                    betweennesses[v] += pathCounts[s][v] * pathCounts[v][t] /
+                                        pathCounts[s][t];
+                }
+            }
+        }
+        return betweennesses;
+    }
+
+    private static double[] exactClosenesses(CsrGraph graph) {
+        int size = graph.vertexCount();
+        double[] closenesses = new double[size];
+        int[] distances = new int[size];
+        double[] pathCounts = new double[size];
+        for (int source = 0; source < size; source++) {
+            bfs(graph, source, distances, pathCounts);
+            for (int distance : distances) {
+                if (distance > 0) {
+                    closenesses[source] += 1d / distance;
+                }
+            }
+        }
+        return closenesses;
+    }
+
+    private static void bfs(CsrGraph graph, int source, int[] distances,
+                            double[] pathCounts) {
+        Arrays.fill(distances, -1);
+        Arrays.fill(pathCounts, 0d);
+        int[] queue = new int[graph.vertexCount()];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = source;
+        distances[source] = 0;
+        pathCounts[source] = 1d;
+        while (head < tail) {
+            int vertex = queue[head++];
+            for (int e = graph.edgeStart(vertex); e < graph.edgeEnd(vertex);
+                 e++) {
+                int target = graph.target(e);
+                if (distances[target] < 0) {
+                    distances[target] = distances[vertex] + 1;
+                    queue[tail++] = target;
+                }
+                if (distances[target] == distances[vertex] + 1) {
+                    pathCounts[target] += pathCounts[vertex];
+                }
+            }
+        }
+    }
+
+    private static int[] all(CsrGraph graph) {
+        int[] vertices = new int[graph.vertexCount()];
+        for (int i = 0; i < vertices.length; i++) {
+            vertices[i] = i;
+        }
+        return vertices;
+    }
+
+    private static int argmax(double[] values) {
+        int max = 0;
+        for (int i = 1; i < values.length; i++) {
+            if (values[i] > values[max]) {
+                max = i;
+            }
+        }
+        return max;
+    }
+
+    private static CsrGraph path(int size) {
+        CsrGraph.Builder builder = CsrGraph.builder(HugeTraverser.NO_LIMIT,
+                                                    false);
+        for (int i = 0; i < size; i++) {
+            builder.addVertex(id(i));
+        }
+        CsrGraph.EdgeBuffer buffer = builder.newEdgeBuffer();
+        for (int i = 1; i < size; i++) {
+            buffer.add(id(i - 1), id(i), 1.0D);
+            buffer.add(id(i), id(i - 1), 1.0D);
+        }
+        return builder.build();
+    }
+
+    /**
+     * A connected undirected graph of a random spanning tree with the other
+     * edges between random vertices
+     */
+    private static CsrGraph random(int size, int edges, long seed) {
+        Random random = new Random(seed);
+        CsrGraph.Builder builder = CsrGraph.builder(HugeTraverser.NO_LIMIT,
+                                                    false);
+        for (int i = 0; i < size; i++) {
+            builder.addVertex(id(i));
+        }
+        CsrGraph.EdgeBuffer buffer = builder.newEdgeBuffer();
+        BitSet added = new BitSet();
+        for (int i = 0; i < edges; i++) {
+            int source = i < size - 1 ? i + 1 : random.nextInt(size);
+            int target = i < size - 1 ? random.nextInt(i + 1) :
+                         random.nextInt(size);
+            int min = Math.min(source, target);
+            int max = Math.max(source, target);
+            if (source == target || added.get(min * size + max)) {
+                continue;
+            }
+            added.set(min * size + max);
+            buffer.add(id(source), id(target), 1.0D);
+            buffer.add(id(target), id(source), 1.0D);
+        }
+        return builder.build();
+    }
+
+    private static Id id(long id) {
+        return IdGenerator.of(id);
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hugegraph.unit.core;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.hugegraph.backend.id.Id;
+import org.apache.hugegraph.backend.id.IdGenerator;
+import org.apache.hugegraph.job.algorithm.CsrGraph;
+import org.apache.hugegraph.job.computer.ComputeEngine;
+import org.apache.hugegraph.job.computer.MessageCombiner;
+import org.apache.hugegraph.job.computer.VertexProgram;
+import org.apache.hugegraph.memory.MemoryManager;
+import org.apache.hugegraph.memory.util.OutOfMemoryException;
+import org.apache.hugegraph.testutil.Assert;
+import org.apache.hugegraph.traversal.algorithm.HugeTraverser;
+import org.junit.Test;
+
+public class ComputeEngineTest {
+
+    @Test
+    public void testRunWithMessages() {
+        // Two chains 0~2999 and 3000~4999 in both directions
+        CsrGraph graph = chains(5000, 3000);
+        try (ComputeEngine engine = new ComputeEngine(graph, new MinLabel(),
+                                                      4)) {
+            // The label of the chain end is changed in the 3000th superstep
+            int steps = engine.run(10000);
+            Assert.assertEquals(3001, steps);
+            for (int v = 0; v < 3000; v++) {
+                Assert.assertEquals(0L, engine.value(v));
+            }
+            for (int v = 3000; v < 5000; v++) {
+                Assert.assertEquals(3000L, engine.value(v));
+            }
+        }
+
+        // Stop by the max steps
+        try (ComputeEngine engine = new ComputeEngine(graph, new MinLabel(),
+                                                      0)) {
+            Assert.assertEquals(3, engine.run(3));
+            Assert.assertEquals(0L, engine.value(2));
+            Assert.assertEquals(1L, engine.value(3));
+            Assert.assertEquals(3000L, engine.value(3002));
+            Assert.assertEquals(3001L, engine.value(3003));
+        }
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            try (ComputeEngine engine = new ComputeEngine(graph, new MinLabel(),
+                                                          1)) {
+                engine.run(0);
+            }
+        });
+    }
+
+    @Test
+    public void testRunWithAggregatorsAndLastValues() {
+        CsrGraph graph = chains(10, 10);
+        VertexProgram program = new VertexProgram() {
+
+            @Override
+            public boolean readNeighborValues() {
+                return true;
+            }
+
+            @Override
+            public int aggregators() {
+                return 1;
+            }
+
+            @Override
+            public void init(ComputeEngine engine, int vertex) {
+                engine.value(vertex, vertex);
+            }
+
+            @Override
+            public void compute(ComputeEngine engine, int vertex,
+                                boolean received, long message) {
+                Assert.assertFalse(received);
+                // Take the max value of the neighbors in the last superstep
+                CsrGraph graph = engine.graph();
+                long max = engine.lastValue(vertex);
+                for (int e = graph.edgeStart(vertex);
+                     e < graph.edgeEnd(vertex); e++) {
+                    max = Math.max(max, engine.lastValue(graph.target(e)));
+                }
+                if (max != engine.lastValue(vertex)) {
+                    engine.value(vertex, max);
+                    engine.aggregate(0, 1.0D);
+                }
+            }
+
+            @Override
+            public boolean afterSuperstep(ComputeEngine engine) {
+                return engine.aggregated(0) > 0.0D;
+            }
+        };
+        try (ComputeEngine engine = new ComputeEngine(graph, program, 2)) {
+            // The last superstep changes nothing
+            Assert.assertEquals(10, engine.run(100));
+            Assert.assertEquals(0.0D, engine.aggregated(0), 0.0D);
+            for (int v = 0; v < 10; v++) {
+                Assert.assertEquals(9L, engine.value(v));
+            }
+            Assert.assertThrows(IllegalStateException.class, () -> {
+                engine.sendMessage(0, 1L);
+            });
+        }
+    }
+
+    @Test
+    public void testEstimateBytes() {
+        CsrGraph graph = chains(1000, 500);
+        long vertices = graph.vertexCount();
+        long edges = graph.edgeCount();
+        long bytes = ComputeEngine.estimateBytes(vertices, edges,
+                                                 HugeTraverser.NO_LIMIT,
+                                                 false);
+        long expected = 72L * vertices +          // The ids and the map
+                        8L * edges + 4L * edges + // The buffered and kept edges
+                        12L * vertices + 4L +     // The counts and offsets
+                        17L * vertices +          // The values and flags
+                        16L * (vertices + vertices / 64L + 1L);
+        Assert.assertEquals(expected, bytes);
+
+        // The weights of the buffered and kept edges
+        Assert.assertEquals(bytes + 16L * edges,
+                            ComputeEngine.estimateBytes(vertices, edges,
+                                                        HugeTraverser.NO_LIMIT,
+                                                        true));
+        // Only the edges within the degree are kept
+        Assert.assertEquals(ComputeEngine.estimateBytes(vertices, 4000L,
+                                                        HugeTraverser.NO_LIMIT,
+                                                        false) -
+                            4L * (4000L - vertices),
+                            ComputeEngine.estimateBytes(vertices, 4000L, 1L,
+                                                        false));
+        Assert.assertEquals(ComputeEngine.estimateBytes(vertices, 4000L,
+                                                        HugeTraverser.NO_LIMIT,
+                                                        false),
+                            ComputeEngine.estimateBytes(vertices, 4000L, 4L,
+                                                        false));
+    }
+
+    @Test
+    public void testReserveMemory() {
+        AtomicLong available = MemoryManager.getInstance()
+                                            .getCurrentAvailableMemoryInBytes();
+        long rest = available.get();
+        ComputeEngine.reserve(rest - 50L, "compute job 1");
+        try {
+            Assert.assertEquals(50L, available.get());
+            Assert.assertThrows(OutOfMemoryException.class, () -> {
+                ComputeEngine.reserve(100L, "compute job 2");
+            }, e -> {
+                Assert.assertContains("compute job 2, which requires 100 " +
+                                      "bytes more", e.getMessage());
+                Assert.assertContains("memory.max_capacity", e.getMessage());
+            });
+            // Nothing is reserved if failed
+            Assert.assertEquals(50L, available.get());
+            ComputeEngine.reserve(50L, "compute job 2");
+            Assert.assertEquals(0L, available.get());
+            ComputeEngine.release(50L);
+        } finally {
+            ComputeEngine.release(rest - 50L);
+        }
+        Assert.assertEquals(rest, available.get());
+    }
+
+    private static CsrGraph chains(int size, int split) {
+        CsrGraph.Builder builder = CsrGraph.builder(HugeTraverser.NO_LIMIT,
+                                                    false);
+        for (int i = 0; i < size; i++) {
+            builder.addVertex(id(i));
+        }
+        CsrGraph.EdgeBuffer buffer = builder.newEdgeBuffer();
+        for (int i = 1; i < size; i++) {
+            if (i != split) {
+                buffer.add(id(i - 1), id(i), 1.0D);
+                buffer.add(id(i), id(i - 1), 1.0D);
+            }
+        }
+        return builder.build();
+    }
+
+    private static Id id(long id) {
+        return IdGenerator.of(id);
+    }
+
+    private static class MinLabel extends VertexProgram {
+
+        @Override
+        public MessageCombiner combiner() {
+            return MessageCombiner.MIN;
+        }
+
+        @Override
+        public void init(ComputeEngine engine, int vertex) {
+            engine.value(vertex, vertex);
+        }
+
+        @Override
+        public void compute(ComputeEngine engine, int vertex,
+                            boolean received, long message) {
+            if (engine.superstep() == 0) {
+                engine.sendMessageToNeighbors(vertex, vertex);
+            } else if (message < engine.value(vertex)) {
+                engine.value(vertex, message);
+                engine.sendMessageToNeighbors(vertex, message);
+            }
+            engine.voteToHalt(vertex);
+        }
+    }
+}
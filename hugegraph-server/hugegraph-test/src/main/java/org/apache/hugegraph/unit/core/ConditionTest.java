@@ -18,16 +18,21 @@
 package org.apache.hugegraph.unit.core;
 
 import java.util.Date;
+import java.util.List;
 
+import org.apache.hugegraph.backend.id.Id;
 import org.apache.hugegraph.backend.id.IdGenerator;
 import org.apache.hugegraph.backend.query.Condition;
+import org.apache.hugegraph.backend.query.ConditionPredicate;
 import org.apache.hugegraph.backend.query.Condition.Relation;
 import org.apache.hugegraph.backend.query.Condition.RelationType;
 import org.apache.hugegraph.backend.query.Condition.SyspropRelation;
+import org.apache.hugegraph.structure.HugeElement;
 import org.apache.hugegraph.testutil.Assert;
 import org.apache.hugegraph.type.define.HugeKeys;
 import org.apache.hugegraph.unit.BaseUnitTest;
 import org.junit.Test;
+import org.mockito.Mockito;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
@@ -674,4 +679,88 @@ public class ConditionTest extends BaseUnitTest {
         Assert.assertTrue(c3.test(31));
         Assert.assertTrue(c3.test((Object) null)); // null means 0
     }
+
+    @Test
+    public void testConditionPredicate() {
+        Id age = IdGenerator.of(1L);
+        Id name = IdGenerator.of(2L);
+        Id city = IdGenerator.of(3L);
+        HugeElement element = Mockito.mock(HugeElement.class);
+        Mockito.when(element.<Object>getPropertyValue(1)).thenReturn(20);
+        Mockito.when(element.<Object>getPropertyValue(2)).thenReturn("tom");
+
+        // Primitive comparisons of the same kind of values
+        Assert.assertTrue(test(element, Condition.gte(age, 18),
+                               Condition.eq(name, "tom")));
+        Assert.assertTrue(test(element, Condition.eq(age, 20L)));
+        Assert.assertFalse(test(element, Condition.lt(age, (byte) 20)));
+        Assert.assertTrue(test(element, Condition.neq(age, 21)));
+        Assert.assertFalse(test(element, Condition.eq(name, "tony")));
+
+        // Mixed kinds of numbers are compared as BigDecimal
+        Assert.assertTrue(test(element, Condition.gt(age, 19.5D)));
+        Assert.assertFalse(test(element, Condition.gt(age, 20.5F)));
+
+        // Absent property is never matched
+        Assert.assertFalse(test(element, Condition.eq(city, "Beijing")));
+        Assert.assertFalse(test(element, Condition.neq(city, "Beijing")));
+
+        // In a hashed set or a list
+        List<Integer> ages = ImmutableList.of(1, 2, 3, 4, 5, 6, 7, 8, 20);
+        Assert.assertTrue(test(element, Condition.in(age, ages)));
+        Assert.assertFalse(test(element, Condition.nin(age, ages)));
+        Assert.assertFalse(test(element, Condition.in(age,
+                                                      ImmutableList.of(1L,
+                                                                       20L))));
+        Assert.assertTrue(test(element, Condition.in(name,
+                                                     ImmutableList.of("tom"))));
+
+        // Nested and/or/not
+        Condition young = Condition.lt(age, 18);
+        Condition tom = Condition.eq(name, "tom");
+        Assert.assertTrue(test(element, young.or(tom)));
+        Assert.assertFalse(test(element, young.and(tom)));
+        Assert.assertTrue(test(element, Condition.not(young), tom));
+        Assert.assertTrue(test(element));
+    }
+
+    @Test
+    public void testConditionPredicateCache() {
+        Id age = IdGenerator.of(1L);
+        Id name = IdGenerator.of(2L);
+        HugeElement element = Mockito.mock(HugeElement.class);
+        Mockito.when(element.<Object>getPropertyValue(1)).thenReturn(20);
+        Mockito.when(element.<Object>getPropertyValue(2)).thenReturn("tom");
+
+        Relation c1 = Condition.gt(age, 18);
+        Relation c2 = Condition.eq(name, "tom");
+        ConditionPredicate predicate = ConditionPredicate.compile(
+                                       ImmutableList.of(c1, c2));
+        Assert.assertTrue(predicate.test(element));
+
+        // Shared by the equal conditions in any order
+        Assert.assertSame(predicate, ConditionPredicate.compile(
+                                     ImmutableList.of(c2, c1.copy())));
+        Assert.assertSame(predicate, ConditionPredicate.compile(
+                                     ImmutableList.of(Condition.eq(name, "tom"),
+                                                      Condition.gt(age, 18),
+                                                      c2)));
+        Assert.assertNotSame(predicate, ConditionPredicate.compile(
+                                        ImmutableList.of(c1)));
+        Assert.assertNotSame(predicate, ConditionPredicate.compile(
+                                        ImmutableList.of(c1,
+                                                         Condition.eq(name,
+                                                                      "tony"))));
+
+        // The cached predicate isn't changed by updating the relation
+        c1.value(30);
+        Assert.assertFalse(ConditionPredicate.compile(ImmutableList.of(c1, c2))
+                                             .test(element));
+        Assert.assertTrue(predicate.test(element));
+    }
+
+    private static boolean test(HugeElement element, Condition... conditions) {
+        return ConditionPredicate.compile(ImmutableList.copyOf(conditions))
+                                 .test(element);
+    }
 }
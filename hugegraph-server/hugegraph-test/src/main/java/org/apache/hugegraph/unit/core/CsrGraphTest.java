@@ -0,0 +1,284 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hugegraph.unit.core;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.apache.hugegraph.backend.id.Id;
+import org.apache.hugegraph.backend.id.IdGenerator;
+import org.apache.hugegraph.job.algorithm.CsrGraph;
+import org.apache.hugegraph.testutil.Assert;
+import org.apache.hugegraph.traversal.algorithm.HugeTraverser;
+import org.apache.hugegraph.util.ExecutorUtil;
+import org.eclipse.collections.impl.set.mutable.primitive.IntHashSet;
+import org.junit.Test;
+
+public class CsrGraphTest {
+
+    @Test
+    public void testBuild() {
+        CsrGraph.Builder builder = CsrGraph.builder(HugeTraverser.NO_LIMIT,
+                                                    false);
+        Assert.assertEquals(0, builder.addVertex(id(1)));
+        Assert.assertEquals(1, builder.addVertex(id(2)));
+        Assert.assertEquals(2, builder.addVertex(id(3)));
+        Assert.assertEquals(1, builder.addVertex(id(2)));
+
+        CsrGraph.EdgeBuffer buffer1 = builder.newEdgeBuffer();
+        CsrGraph.EdgeBuffer buffer2 = builder.newEdgeBuffer();
+        Assert.assertTrue(buffer1.add(id(1), id(2), 1.0));
+        Assert.assertTrue(buffer2.add(id(1), id(3), 1.0));
+        Assert.assertTrue(buffer2.add(id(3), id(1), 1.0));
+        // The vertex 4 doesn't exist
+        Assert.assertFalse(buffer1.add(id(1), id(4), 1.0));
+        Assert.assertEquals(1, buffer1.size());
+
+        Assert.assertThrows(IllegalStateException.class, () -> {
+            builder.addVertex(id(4));
+        });
+
+        CsrGraph graph = builder.build();
+        Assert.assertEquals(3, graph.vertexCount());
+        Assert.assertEquals(3, graph.edgeCount());
+        Assert.assertFalse(graph.weighted());
+        Assert.assertEquals(id(2), graph.id(1));
+        Assert.assertEquals(2, graph.index(id(3)));
+        Assert.assertEquals(-1, graph.index(id(4)));
+
+        Assert.assertEquals(2, graph.degree(0));
+        Assert.assertEquals(0, graph.degree(1));
+        Assert.assertEquals(1, graph.degree(2));
+        Assert.assertEquals(1, graph.target(graph.edgeStart(0)));
+        Assert.assertEquals(2, graph.target(graph.edgeStart(0) + 1));
+        Assert.assertEquals(0, graph.target(graph.edgeStart(2)));
+        Assert.assertEquals(graph.edgeEnd(0), graph.edgeStart(1));
+        Assert.assertEquals(1.0, graph.weight(0), 0.0);
+    }
+
+    @Test
+    public void testBuildWithDegreeAndWeight() {
+        CsrGraph.Builder builder = CsrGraph.builder(2L, true);
+        for (int i = 0; i < 5; i++) {
+            builder.addVertex(id(i));
+        }
+        CsrGraph.EdgeBuffer buffer = builder.newEdgeBuffer();
+        for (int i = 1; i < 5; i++) {
+            buffer.add(id(0), id(i), i * 0.5);
+        }
+        buffer.add(id(1), id(0), 3.0);
+
+        CsrGraph graph = builder.build();
+        Assert.assertTrue(graph.weighted());
+        Assert.assertEquals(2, graph.degree(0));
+        Assert.assertEquals(3, graph.edgeCount());
+        Assert.assertEquals(1, graph.target(0));
+        Assert.assertEquals(0.5, graph.weight(0), 0.0);
+        Assert.assertEquals(2, graph.target(1));
+        Assert.assertEquals(1.0, graph.weight(1), 0.0);
+        Assert.assertEquals(3.0, graph.weight(graph.edgeStart(1)), 0.0);
+
+        CsrGraph transposed = graph.transpose();
+        Assert.assertEquals(3, transposed.edgeCount());
+        Assert.assertEquals(1, transposed.degree(0));
+        Assert.assertEquals(1, transposed.target(transposed.edgeStart(0)));
+        Assert.assertEquals(3.0, transposed.weight(transposed.edgeStart(0)),
+                            0.0);
+        Assert.assertEquals(1, transposed.degree(1));
+        Assert.assertEquals(0, transposed.target(transposed.edgeStart(1)));
+        Assert.assertEquals(0, transposed.degree(3));
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            CsrGraph.builder(0L, false);
+        });
+    }
+
+    @Test
+    public void testContract() {
+        CsrGraph.Builder builder = CsrGraph.builder(HugeTraverser.NO_LIMIT,
+                                                    true);
+        for (int i = 0; i < 5; i++) {
+            builder.addVertex(id(i));
+        }
+        CsrGraph.EdgeBuffer buffer = builder.newEdgeBuffer();
+        // undirected edges: 0-1, 1-2, 2-3, 0-3, 3-4
+        long[][] edges = {{0, 1}, {1, 2}, {2, 3}, {0, 3}, {3, 4}};
+        for (long[] edge : edges) {
+            buffer.add(id(edge[0]), id(edge[1]), 2.0);
+            buffer.add(id(edge[1]), id(edge[0]), 2.0);
+        }
+        CsrGraph graph = builder.build();
+
+        // groups: {0, 1} -> 0, {2, 3} -> 1, 4 is excluded
+        int[] groups = {0, 0, 1, 1, -1};
+        CsrGraph contracted = graph.contract(null, groups, 2);
+        Assert.assertEquals(2, contracted.vertexCount());
+        Assert.assertEquals(4, contracted.edgeCount());
+        Assert.assertTrue(contracted.weighted());
+        Assert.assertEquals(IdGenerator.of(1L), contracted.id(1));
+        Assert.assertEquals(1, contracted.index(IdGenerator.of(1L)));
+
+        // self-loop of group 0 with the inner edge 0-1 in both directions
+        Assert.assertEquals(0, contracted.target(contracted.edgeStart(0)));
+        Assert.assertEquals(4.0, contracted.weight(contracted.edgeStart(0)),
+                            0.0);
+        // edges 1-2 and 0-3 between the groups
+        Assert.assertEquals(1, contracted.target(contracted.edgeStart(0) + 1));
+        Assert.assertEquals(4.0,
+                            contracted.weight(contracted.edgeStart(0) + 1),
+                            0.0);
+        Assert.assertEquals(0, contracted.target(contracted.edgeStart(1)));
+        Assert.assertEquals(4.0, contracted.weight(contracted.edgeStart(1)),
+                            0.0);
+        // self-loop of group 1, the edge 3-4 is dropped
+        Assert.assertEquals(1, contracted.target(contracted.edgeStart(1) + 1));
+        Assert.assertEquals(4.0,
+                            contracted.weight(contracted.edgeStart(1) + 1),
+                            0.0);
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            graph.contract(null, new int[]{0, 0}, 1);
+        });
+    }
+
+    @Test
+    public void testSimplifyAndOrient() {
+        CsrGraph.Builder builder = CsrGraph.builder(HugeTraverser.NO_LIMIT,
+                                                    true);
+        for (int i = 0; i < 4; i++) {
+            builder.addVertex(id(i));
+        }
+        CsrGraph.EdgeBuffer buffer = builder.newEdgeBuffer();
+        // undirected edges: 0-1, 0-2, 1-2, 2-3, with duplicates and self-loop
+        long[][] edges = {{2, 3}, {0, 2}, {1, 2}, {0, 1}, {0, 2}, {1, 1}};
+        for (long[] edge : edges) {
+            buffer.add(id(edge[0]), id(edge[1]), 1.0);
+            buffer.add(id(edge[1]), id(edge[0]), 1.0);
+        }
+        CsrGraph graph = builder.build().simplify(null);
+        Assert.assertFalse(graph.weighted());
+        Assert.assertEquals(8, graph.edgeCount());
+        Assert.assertEquals(2, graph.degree(0));
+        Assert.assertEquals(2, graph.degree(1));
+        Assert.assertEquals(3, graph.degree(2));
+        int start = graph.edgeStart(2);
+        Assert.assertEquals(0, graph.target(start));
+        Assert.assertEquals(1, graph.target(start + 1));
+        Assert.assertEquals(3, graph.target(start + 2));
+
+        // 3 -> 2, 0 -> 1, 0 -> 2, 1 -> 2 by the order of (degree, index)
+        CsrGraph oriented = graph.orient(null);
+        Assert.assertEquals(4, oriented.edgeCount());
+        Assert.assertEquals(2, oriented.degree(0));
+        Assert.assertEquals(1, oriented.degree(1));
+        Assert.assertEquals(0, oriented.degree(2));
+        Assert.assertEquals(2, oriented.target(oriented.edgeStart(3)));
+
+        // The triangle 0-1-2 is found from the vertex 0 only once
+        Assert.assertEquals(1, oriented.intersect(0, oriented, 1, null));
+        Assert.assertEquals(0, oriented.intersect(1, oriented, 2, null));
+        Assert.assertEquals(2, graph.intersect(0, graph, 1, null) +
+                               graph.intersect(3, graph, 0, null));
+    }
+
+    @Test
+    public void testIntersect() {
+        int count = 1000;
+        CsrGraph.Builder builder = CsrGraph.builder(HugeTraverser.NO_LIMIT,
+                                                    false);
+        for (int i = 0; i < count; i++) {
+            builder.addVertex(id(i));
+        }
+        CsrGraph.EdgeBuffer buffer = builder.newEdgeBuffer();
+        // The vertex 0 is a hub linked to the even vertices
+        for (int i = count - 2; i > 0; i -= 2) {
+            buffer.add(id(0), id(i), 1.0);
+        }
+        // The vertex 1 is linked to the vertices 2, 3, 4, 996, 998, 999
+        long[] targets = {999, 2, 3, 4, 998, 996};
+        for (long target : targets) {
+            buffer.add(id(1), id(target), 1.0);
+        }
+        // The vertex 3 is linked to the vertices [4, 503]
+        for (int i = 4; i < 504; i++) {
+            buffer.add(id(3), id(i), 1.0);
+        }
+        CsrGraph graph = builder.build().simplify(null);
+
+        // Galloping through the hub for the small adjacency
+        IntHashSet common = new IntHashSet();
+        Assert.assertEquals(4, graph.intersect(1, graph, 0, common::add));
+        Assert.assertEquals(IntHashSet.newSetWith(2, 4, 996, 998), common);
+        Assert.assertEquals(4, graph.intersect(0, graph, 1, null));
+
+        // Merging the adjacency with similar degrees
+        common.clear();
+        Assert.assertEquals(250, graph.intersect(0, graph, 3, common::add));
+        Assert.assertEquals(250, common.size());
+        Assert.assertTrue(common.contains(4));
+        Assert.assertTrue(common.contains(502));
+        Assert.assertFalse(common.contains(503));
+
+        Assert.assertEquals(0, graph.intersect(2, graph, 0, null));
+        Assert.assertEquals(0, graph.intersect(0, graph.transpose(), 0,
+                                               null));
+    }
+
+    @Test
+    public void testForEachAndSum() {
+        int count = 10000;
+        CsrGraph.Builder builder = CsrGraph.builder(HugeTraverser.NO_LIMIT,
+                                                    false);
+        for (int i = 0; i < count; i++) {
+            builder.addVertex(id(i));
+        }
+        CsrGraph.EdgeBuffer buffer = builder.newEdgeBuffer();
+        for (int i = 0; i < count; i++) {
+            buffer.add(id(i), id((i + 1) % count), 1.0);
+        }
+        CsrGraph graph = builder.build();
+
+        ExecutorService executor = ExecutorUtil.newFixedThreadPool(
+                                   4, "csr-graph-test-%d");
+        try {
+            AtomicIntegerArray visited = new AtomicIntegerArray(count);
+            graph.forEach(executor, visited::incrementAndGet);
+            for (int i = 0; i < count; i++) {
+                Assert.assertEquals(1, visited.get(i));
+            }
+
+            double expected = (count - 1) * count / 2.0;
+            Assert.assertEquals(expected, graph.sum(executor, v -> v), 0.0);
+            Assert.assertEquals(expected, graph.sum(null, v -> v), 0.0);
+            Assert.assertEquals(count, graph.sum(executor, graph::degree),
+                                0.0);
+
+            Assert.assertThrows(IllegalStateException.class, () -> {
+                graph.forEach(executor, v -> {
+                    throw new IllegalStateException("Fake error");
+                });
+            });
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static Id id(long id) {
+        return IdGenerator.of(id);
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hugegraph.unit.core;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.apache.hugegraph.HugeGraph;
+import org.apache.hugegraph.HugeGraphParams;
+import org.apache.hugegraph.backend.id.Id;
+import org.apache.hugegraph.backend.id.IdGenerator;
+import org.apache.hugegraph.backend.store.BackendFeatures;
+import org.apache.hugegraph.backend.store.Shard;
+import org.apache.hugegraph.backend.tx.GraphTransaction;
+import org.apache.hugegraph.config.CoreOptions;
+import org.apache.hugegraph.job.schema.IndexLabelRebuildJob;
+import org.apache.hugegraph.schema.SchemaLabel;
+import org.apache.hugegraph.schema.VertexLabel;
+import org.apache.hugegraph.task.HugeTask;
+import org.apache.hugegraph.task.TaskScheduler;
+import org.apache.hugegraph.testutil.Assert;
+import org.apache.hugegraph.testutil.Whitebox;
+import org.apache.hugegraph.type.HugeType;
+import org.apache.hugegraph.type.define.IdStrategy;
+import org.apache.hugegraph.unit.FakeObjects;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+public class IndexLabelRebuildJobTest {
+
+    private static final List<Shard> SHARDS = ImmutableList.of(
+                         new Shard("", "AAAA", 0L),
+                         new Shard("AAAA", "BBBB", 0L),
+                         new Shard("BBBB", "CCCC", 0L),
+                         new Shard("CCCC", "", 0L));
+
+    private HugeGraph graph;
+    private HugeGraphParams params;
+    private GraphTransaction graphTx;
+    private TaskScheduler scheduler;
+    private VertexLabel person;
+    private IndexLabelRebuildJob job;
+
+    @Before
+    public void setup() {
+        FakeObjects fakeObjects = new FakeObjects();
+        this.graph = fakeObjects.graph();
+        this.person = fakeObjects.newVertexLabel(IdGenerator.of(1), "person",
+                                                 IdStrategy.CUSTOMIZE_STRING);
+        this.person.enableLabelIndex(false);
+
+        BackendFeatures features = Mockito.mock(BackendFeatures.class);
+        Mockito.when(features.supportsScanKeyRange()).thenReturn(true);
+        Mockito.when(this.graph.backendStoreFeatures()).thenReturn(features);
+        Mockito.when(this.graph.option(CoreOptions.TASK_REBUILD_INDEX_WORKERS))
+               .thenReturn(2);
+        Mockito.when(this.graph.option(
+                     CoreOptions.TASK_REBUILD_INDEX_SHARD_SIZE))
+               .thenReturn(1024L);
+        Mockito.when(this.graph.metadata(HugeType.VERTEX, "splits", 1024L))
+               .thenReturn(SHARDS);
+        this.scheduler = Mockito.mock(TaskScheduler.class);
+        Mockito.when(this.graph.taskScheduler()).thenReturn(this.scheduler);
+
+        this.graphTx = Mockito.mock(GraphTransaction.class);
+        this.params = Mockito.mock(HugeGraphParams.class);
+        Mockito.when(this.params.graphTransaction()).thenReturn(this.graphTx);
+
+        this.job = new IndexLabelRebuildJob();
+        HugeTask<Object> task = new HugeTask<>(IdGenerator.of(1L), null,
+                                               this.job);
+        Whitebox.setInternalState(this.job, "graph", this.graph);
+        Whitebox.setInternalState(this.job, "task", task);
+        Whitebox.setInternalState(this.job, "params", this.params);
+    }
+
+    @Test
+    public void testSplitShards() {
+        Assert.assertEquals(SHARDS, this.splitShards(this.person));
+
+        // Read the label by the label index rather than the whole table
+        this.person.enableLabelIndex(true);
+        Assert.assertNull(this.splitShards(this.person));
+        this.person.enableLabelIndex(false);
+
+        Mockito.when(this.graph.option(CoreOptions.TASK_REBUILD_INDEX_WORKERS))
+               .thenReturn(1);
+        Assert.assertNull(this.splitShards(this.person));
+        Mockito.when(this.graph.option(CoreOptions.TASK_REBUILD_INDEX_WORKERS))
+               .thenReturn(2);
+
+        Mockito.when(this.graph.metadata(HugeType.VERTEX, "splits", 1024L))
+               .thenReturn(ImmutableList.of(new Shard("", "", 0L)));
+        Assert.assertNull(this.splitShards(this.person));
+    }
+
+    @Test
+    public void testRebuildIndexByShards() {
+        this.rebuildIndexByShards(ImmutableSet.of(IdGenerator.of(1)));
+
+        for (Shard shard : SHARDS) {
+            Mockito.verify(this.graphTx).traverseVerticesByShard(
+                    ArgumentMatchers.eq(this.person),
+                    ArgumentMatchers.eq(shard), ArgumentMatchers.any(),
+                    ArgumentMatchers.eq(false));
+        }
+        Mockito.verify(this.graphTx, Mockito.times(SHARDS.size())).commit();
+        Mockito.verify(this.params, Mockito.times(SHARDS.size())).closeTx();
+        Assert.assertEquals(SHARDS.size(), this.job.progress());
+    }
+
+    @Test
+    public void testResumeFromCheckpoint() {
+        Assert.assertNull(this.checkpointShards());
+
+        Whitebox.invoke(IndexLabelRebuildJob.class, new Class[]{List.class},
+                        "checkpoint", this.job, SHARDS);
+        Mockito.verify(this.scheduler).save(this.job.task());
+        Assert.assertEquals(0, this.job.progress());
+
+        // The job restored after restarting gets the saved shards
+        List<Shard> shards = this.checkpointShards();
+        Assert.assertEquals(SHARDS.size(), shards.size());
+        for (int i = 0; i < SHARDS.size(); i++) {
+            Assert.assertEquals(SHARDS.get(i).start(), shards.get(i).start());
+            Assert.assertEquals(SHARDS.get(i).end(), shards.get(i).end());
+        }
+
+        // The first 2 shards have been rebuilt before restarting
+        this.job.task().progress(2);
+        this.rebuildIndexByShards(ImmutableSet.of(IdGenerator.of(1)));
+
+        for (int i = 0; i < SHARDS.size(); i++) {
+            Mockito.verify(this.graphTx, Mockito.times(i < 2 ? 0 : 1))
+                   .traverseVerticesByShard(
+                    ArgumentMatchers.eq(this.person),
+                    ArgumentMatchers.eq(SHARDS.get(i)), ArgumentMatchers.any(),
+                    ArgumentMatchers.eq(false));
+        }
+        Assert.assertEquals(SHARDS.size(), this.job.progress());
+
+        // Nothing to rebuild if all shards have been rebuilt
+        Mockito.reset(this.graphTx);
+        this.rebuildIndexByShards(ImmutableSet.of(IdGenerator.of(1)));
+        Mockito.verifyNoInteractions(this.graphTx);
+    }
+
+    private List<Shard> splitShards(SchemaLabel label) {
+        return Whitebox.invoke(IndexLabelRebuildJob.class,
+                               new Class[]{SchemaLabel.class},
+                               "splitShards", this.job, label);
+    }
+
+    private List<Shard> checkpointShards() {
+        return Whitebox.invoke(IndexLabelRebuildJob.class, new Class[]{},
+                               "checkpointShards", this.job);
+    }
+
+    private void rebuildIndexByShards(Collection<Id> indexLabelIds) {
+        Whitebox.invoke(IndexLabelRebuildJob.class,
+                        new Class[]{SchemaLabel.class, Collection.class,
+                                    List.class},
+                        "rebuildIndexByShards", this.job, this.person,
+                        indexLabelIds, SHARDS);
+    }
+}
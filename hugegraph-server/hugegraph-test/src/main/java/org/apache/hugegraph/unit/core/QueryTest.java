@@ -48,6 +48,35 @@ public class QueryTest {
                             query.orders());
     }
 
+    @Test
+    public void testSelects() {
+        Query query = new Query(HugeType.EDGE);
+        Assert.assertTrue(query.selects().isEmpty());
+
+        query.select(IdGenerator.of(1));
+        query.selects(ImmutableList.of(IdGenerator.of(2), IdGenerator.of(1)));
+        Assert.assertEquals(ImmutableList.of(IdGenerator.of(1),
+                                             IdGenerator.of(2)),
+                            query.selects());
+        Assert.assertEquals("`Query * from EDGE select [1, 2]`",
+                            query.toString());
+
+        // Selected keys must be a part of the cache key
+        Query query2 = new Query(HugeType.EDGE);
+        Assert.assertNotEquals(query, query2);
+        query2.copyBasic(query);
+        Assert.assertEquals(query, query2);
+        Assert.assertEquals(query.hashCode(), query2.hashCode());
+
+        // Copy on write
+        query2.select(Query.NO_PROPERTIES);
+        Assert.assertEquals(2, query.selects().size());
+        Assert.assertEquals(3, query2.selects().size());
+
+        query2.resetSelects();
+        Assert.assertTrue(query2.selects().isEmpty());
+    }
+
     @Test
     public void testConditionWithEqAndIn() {
         Id label1 = IdGenerator.of(1);
@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hugegraph.unit.util.collection;
+
+import java.util.Random;
+
+import org.apache.hugegraph.testutil.Assert;
+import org.apache.hugegraph.unit.BaseUnitTest;
+import org.apache.hugegraph.util.collection.CountMinSketch;
+import org.junit.Test;
+
+public class CountMinSketchTest extends BaseUnitTest {
+
+    @Test
+    public void testAddAndEstimate() {
+        CountMinSketch sketch = new CountMinSketch(1000, 4);
+        Assert.assertEquals(1024, sketch.width());
+        Assert.assertEquals(4, sketch.depth());
+        Assert.assertEquals(0L, sketch.estimate("a"));
+
+        Assert.assertEquals(1L, sketch.add("a"));
+        Assert.assertEquals(2L, sketch.add("a"));
+        Assert.assertEquals(7L, sketch.add("b", 7L));
+        Assert.assertEquals(2L, sketch.estimate("a"));
+        Assert.assertEquals(7L, sketch.estimate("b"));
+        Assert.assertEquals(9L, sketch.total());
+
+        sketch.clear();
+        Assert.assertEquals(0L, sketch.estimate("b"));
+        Assert.assertEquals(0L, sketch.total());
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            new CountMinSketch(0, 4);
+        });
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            sketch.add("a", -1L);
+        });
+    }
+
+    @Test
+    public void testErrorBound() {
+        Random random = new Random(7);
+        int keys = 10000;
+        int[] counts = new int[keys];
+        CountMinSketch sketch = new CountMinSketch(2048, 4);
+        for (int i = 0; i < 100000; i++) {
+            // Skewed counts
+            int key = (int) (keys * Math.pow(random.nextDouble(), 3));
+            counts[key]++;
+            sketch.add(key);
+        }
+        double bound = Math.E / sketch.width() * sketch.total();
+        int exceeded = 0;
+        for (int key = 0; key < keys; key++) {
+            long estimate = sketch.estimate(key);
+            Assert.assertTrue(estimate >= counts[key]);
+            if (estimate - counts[key] > bound) {
+                exceeded++;
+            }
+        }
+        // The probability to exceed the bound is e^-depth
+        Assert.assertTrue(exceeded < keys * Math.exp(-4));
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hugegraph.unit.util.collection;
+
+import java.util.Random;
+
+import org.apache.hugegraph.testutil.Assert;
+import org.apache.hugegraph.unit.BaseUnitTest;
+import org.apache.hugegraph.util.collection.HyperLogLog;
+import org.junit.Test;
+
+public class HyperLogLogTest extends BaseUnitTest {
+
+    @Test
+    public void testCardinality() {
+        HyperLogLog hll = new HyperLogLog(10);
+        Assert.assertEquals(0.0D, hll.cardinality(), 0.0D);
+
+        // Small cardinality by linear counting
+        for (int i = 0; i < 100; i++) {
+            hll.add("v" + i);
+            hll.add("v" + i);
+        }
+        Assert.assertEquals(100.0D, hll.cardinality(), 5.0D);
+
+        for (int i = 0; i < 100000; i++) {
+            hll.add(i);
+        }
+        // The relative standard error is about 1.04/sqrt(1024)
+        Assert.assertEquals(100100.0D, hll.cardinality(), 100100 * 0.1D);
+
+        hll.clear();
+        Assert.assertEquals(0.0D, hll.cardinality(), 0.0D);
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            new HyperLogLog(HyperLogLog.MAX_LOG2M + 1);
+        });
+    }
+
+    @Test
+    public void testMerge() {
+        Random random = new Random(7);
+        HyperLogLog hll1 = new HyperLogLog(12);
+        HyperLogLog hll2 = new HyperLogLog(12);
+        HyperLogLog all = new HyperLogLog(12);
+        for (int i = 0; i < 50000; i++) {
+            long hash = HyperLogLog.mix(random.nextLong());
+            (i % 2 == 0 ? hll1 : hll2).addHash(hash);
+            all.addHash(hash);
+        }
+        hll1.merge(hll2);
+        Assert.assertEquals(all.cardinality(), hll1.cardinality(), 0.0D);
+        Assert.assertEquals(50000.0D, hll1.cardinality(), 50000 * 0.06D);
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            hll1.merge(new HyperLogLog(10));
+        });
+    }
+}
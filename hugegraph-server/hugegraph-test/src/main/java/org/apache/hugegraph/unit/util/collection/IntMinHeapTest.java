@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hugegraph.unit.util.collection;
+
+import java.util.Random;
+
+import org.apache.hugegraph.testutil.Assert;
+import org.apache.hugegraph.unit.BaseUnitTest;
+import org.apache.hugegraph.util.collection.IntMinHeap;
+import org.junit.Test;
+
+public class IntMinHeapTest extends BaseUnitTest {
+
+    @Test
+    public void testOfferAndPoll() {
+        IntMinHeap heap = new IntMinHeap();
+        Assert.assertTrue(heap.isEmpty());
+
+        Assert.assertTrue(heap.offer(3, 3.0D));
+        Assert.assertTrue(heap.offer(1, 1.5D));
+        Assert.assertTrue(heap.offer(100, 0.5D));
+        Assert.assertTrue(heap.offer(7, 2.0D));
+        Assert.assertEquals(4, heap.size());
+        Assert.assertTrue(heap.contains(100));
+        Assert.assertFalse(heap.contains(2));
+        Assert.assertFalse(heap.contains(1000));
+
+        Assert.assertEquals(100, heap.peek());
+        Assert.assertEquals(0.5D, heap.peekPriority(), 0.0D);
+        Assert.assertEquals(100, heap.poll());
+        Assert.assertFalse(heap.contains(100));
+        Assert.assertEquals(1, heap.poll());
+        Assert.assertEquals(7, heap.poll());
+        Assert.assertEquals(3, heap.poll());
+        Assert.assertTrue(heap.isEmpty());
+
+        Assert.assertThrows(IllegalStateException.class, heap::poll, e -> {
+            Assert.assertContains("The heap is empty", e.getMessage());
+        });
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            heap.offer(-1, 1.0D);
+        });
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            new IntMinHeap(1, 16);
+        });
+    }
+
+    @Test
+    public void testDecreasePriority() {
+        IntMinHeap heap = new IntMinHeap(2, 1);
+        heap.offer(1, 5.0D);
+        heap.offer(2, 4.0D);
+        heap.offer(3, 3.0D);
+        Assert.assertEquals(3, heap.peek());
+
+        // Increasing the priority is ignored
+        Assert.assertFalse(heap.offer(2, 6.0D));
+        Assert.assertEquals(4.0D, heap.priority(2), 0.0D);
+
+        Assert.assertTrue(heap.offer(1, 1.0D));
+        Assert.assertEquals(3, heap.size());
+        Assert.assertEquals(1, heap.peek());
+        Assert.assertEquals(1.0D, heap.priority(1), 0.0D);
+
+        heap.clear();
+        Assert.assertTrue(heap.isEmpty());
+        Assert.assertFalse(heap.contains(1));
+        Assert.assertTrue(heap.offer(1, 2.0D));
+        Assert.assertEquals(1, heap.element(0));
+    }
+
+    @Test
+    public void testPollInOrder() {
+        Random random = new Random(7);
+        int count = 10000;
+        double[] priorities = new double[count];
+        IntMinHeap heap = new IntMinHeap();
+        for (int i = 0; i < count; i++) {
+            priorities[i] = random.nextDouble();
+            heap.offer(i, priorities[i]);
+        }
+        // Decrease the priorities of some elements
+        for (int i = 0; i < count; i += 3) {
+            priorities[i] /= 2.0D;
+            heap.offer(i, priorities[i]);
+        }
+
+        double last = -1.0D;
+        while (!heap.isEmpty()) {
+            double priority = heap.peekPriority();
+            int element = heap.poll();
+            Assert.assertEquals(priorities[element], priority, 0.0D);
+            Assert.assertTrue(priority >= last);
+            last = priority;
+        }
+    }
+}
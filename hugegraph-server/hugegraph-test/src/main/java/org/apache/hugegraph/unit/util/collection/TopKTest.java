@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hugegraph.unit.util.collection;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.apache.hugegraph.testutil.Assert;
+import org.apache.hugegraph.unit.BaseUnitTest;
+import org.apache.hugegraph.util.collection.TopK;
+import org.junit.Test;
+
+public class TopKTest extends BaseUnitTest {
+
+    @Test
+    public void testOfferAndToMap() {
+        TopK<String> tops = new TopK<>(3);
+        Assert.assertTrue(tops.isEmpty());
+        Assert.assertTrue(tops.admits(0.0D));
+
+        Assert.assertTrue(tops.offer("a", 1.0D));
+        Assert.assertTrue(tops.offer("b", 5.0D));
+        Assert.assertTrue(tops.offer("c", 3.0D));
+        Assert.assertEquals(3, tops.size());
+        Assert.assertEquals(1.0D, tops.minScore(), 0.0D);
+        Assert.assertFalse(tops.admits(1.0D));
+        Assert.assertTrue(tops.admits(1.5D));
+
+        // The min one is evicted
+        Assert.assertTrue(tops.offer("d", 4.0D));
+        Assert.assertFalse(tops.offer("e", 2.0D));
+        Assert.assertEquals(3, tops.size());
+        Assert.assertEquals(List.of("b", "d", "c"),
+                            new ArrayList<>(tops.toMap().keySet()));
+
+        // Update the score of a kept key
+        Assert.assertTrue(tops.offer("b", 0.5D));
+        Map<String, Double> results = tops.toMap();
+        Assert.assertEquals(List.of("d", "c", "b"),
+                            new ArrayList<>(results.keySet()));
+        Assert.assertEquals(0.5D, results.get("b"), 0.0D);
+
+        tops.clear();
+        Assert.assertTrue(tops.isEmpty());
+        Assert.assertEquals(0, tops.toMap().size());
+        Assert.assertThrows(IllegalStateException.class, tops::minScore);
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            new TopK<>(0);
+        }, e -> {
+            Assert.assertContains("The capacity of top k must be > 0",
+                                  e.getMessage());
+        });
+    }
+
+    @Test
+    public void testTiesInOfferedOrder() {
+        TopK<Integer> tops = new TopK<>(3);
+        for (int i = 0; i < 10; i++) {
+            tops.offer(i, i % 2 == 0 ? 1.0D : 2.0D);
+        }
+        // The keys offered earlier are kept and ranked first
+        Assert.assertEquals(List.of(1, 3, 5),
+                            new ArrayList<>(tops.toMap().keySet()));
+    }
+
+    @Test
+    public void testSameAsSortAll() {
+        Random random = new Random(7);
+        int count = 10000;
+        double[] scores = new double[count];
+        TopK<Integer> tops = new TopK<>(100);
+        TopK<Integer> all = new TopK<>(TopK.UNBOUNDED);
+        for (int i = 0; i < count; i++) {
+            // Make some ties
+            scores[i] = random.nextInt(1000);
+            tops.offer(i, scores[i]);
+            all.offer(i, scores[i]);
+        }
+        Assert.assertEquals(count, all.size());
+
+        List<Integer> sorted = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            sorted.add(i);
+        }
+        sorted.sort((i, j) -> Double.compare(scores[j], scores[i]));
+        Assert.assertEquals(sorted.subList(0, 100),
+                            new ArrayList<>(tops.toMap().keySet()));
+        Assert.assertEquals(sorted, new ArrayList<>(all.toMap().keySet()));
+    }
+}
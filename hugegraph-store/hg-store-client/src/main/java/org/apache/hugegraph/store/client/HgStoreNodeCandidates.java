@@ -18,6 +18,8 @@
 package org.apache.hugegraph.store.client;
 
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.ToIntFunction;
 
 /**
  * created on 2021/10/12
@@ -38,4 +40,30 @@ public final class HgStoreNodeCandidates {
         return this.nodeList.get(index);
     }
 
+    /**
+     * Return the node with the lowest load, ties are broken by a random start offset so that
+     * idle replicas share the traffic evenly.
+     *
+     * @param loadFunc the load of a node, e.g. the number of in-flight requests
+     * @return null if there is no candidate
+     */
+    public HgStoreNode getLeastLoadedNode(ToIntFunction<HgStoreNode> loadFunc) {
+        int size = this.nodeList.size();
+        if (size == 0) {
+            return null;
+        }
+        int offset = ThreadLocalRandom.current().nextInt(size);
+        HgStoreNode selected = null;
+        int minLoad = Integer.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            HgStoreNode node = this.nodeList.get((offset + i) % size);
+            int load = loadFunc.applyAsInt(node);
+            if (load < minLoad) {
+                minLoad = load;
+                selected = node;
+            }
+        }
+        return selected;
+    }
+
 }
@@ -23,6 +23,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.annotation.concurrent.ThreadSafe;
 
@@ -52,6 +54,8 @@ public final class HgStoreNodeManager {
     private final Map<String, HgStoreNode> addressMap = new ConcurrentHashMap<>();
     private final Map<Long, HgStoreNode> nodeIdMap = new ConcurrentHashMap<>();
     private final Map<String, List<HgStoreNode>> graphNodesMap = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicInteger> nodeLoadMap = new ConcurrentHashMap<>();
+    private final Map<Long, Semaphore> nodeWritePermits = new ConcurrentHashMap<>();
 
     private HgStoreNodeProvider nodeProvider;
     private HgStoreNodePartitioner nodePartitioner;
@@ -263,6 +267,32 @@ public final class HgStoreNodeManager {
         return node;
     }
 
+    /**
+     * Return the number of in-flight read requests sent to the node by this client.
+     */
+    public int getNodeLoad(Long nodeId) {
+        AtomicInteger load = this.nodeLoadMap.get(nodeId);
+        return load == null ? 0 : load.get();
+    }
+
+    public void increaseNodeLoad(Long nodeId) {
+        this.nodeLoadMap.computeIfAbsent(nodeId, k -> new AtomicInteger()).incrementAndGet();
+    }
+
+    public void decreaseNodeLoad(Long nodeId) {
+        AtomicInteger load = this.nodeLoadMap.get(nodeId);
+        if (load != null) {
+            load.decrementAndGet();
+        }
+    }
+
+    /**
+     * Return the permits bounding the batch writes being sent to the node by this client.
+     */
+    public Semaphore getNodeWritePermits(Long nodeId, int permits) {
+        return this.nodeWritePermits.computeIfAbsent(nodeId, k -> new Semaphore(permits));
+    }
+
     public HgStoreNodePartitioner getNodePartitioner() {
         return nodePartitioner;
     }
@@ -47,6 +47,15 @@ public interface HgStoreNodePartitioner {
     int partition(HgNodePartitionerBuilder builder, String graphName, byte[] startKey,
                   byte[] endKey);
 
+    /**
+     * The partition algorithm used by point reads, which may route the key to any replica of
+     * the partition rather than to its leader.
+     */
+    default int partitionForRead(HgNodePartitionerBuilder builder, String graphName,
+                                 byte[] startKey, byte[] endKey) {
+        return this.partition(builder, graphName, startKey, endKey);
+    }
+
     /**
      * @param builder
      * @param graphName
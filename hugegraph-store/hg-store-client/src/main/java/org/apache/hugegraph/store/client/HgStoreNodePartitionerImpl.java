@@ -17,6 +17,7 @@
 
 package org.apache.hugegraph.store.client;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
@@ -28,6 +29,7 @@ import org.apache.hugegraph.pd.common.PDException;
 import org.apache.hugegraph.pd.common.PartitionUtils;
 import org.apache.hugegraph.pd.grpc.Metapb;
 import org.apache.hugegraph.store.client.type.HgNodeStatus;
+import org.apache.hugegraph.store.client.util.HgStoreClientConfig;
 import org.apache.hugegraph.store.client.util.HgStoreClientConst;
 
 import lombok.extern.slf4j.Slf4j;
@@ -89,6 +91,50 @@ public class HgStoreNodePartitionerImpl implements HgStoreNodePartitioner,
         return 0;
     }
 
+    /**
+     * Route a point read to the least loaded replica of the partition when follower reads are
+     * enabled, learners are skipped since they may still be catching up.
+     */
+    @Override
+    public int partitionForRead(HgNodePartitionerBuilder builder, String graphName,
+                                byte[] startKey, byte[] endKey) {
+        if (!HgStoreClientConfig.of().getReadFollowerEnabled()
+            || HgStoreClientConst.ALL_PARTITION_OWNER == startKey
+            || !Arrays.equals(startKey, endKey)) {
+            return this.partition(builder, graphName, startKey, endKey);
+        }
+        try {
+            KVPair<Metapb.Partition, Metapb.Shard> partShard =
+                    pdClient.getPartition(graphName, startKey);
+            Metapb.ShardGroup shardGroup = pdClient.getShardGroup(partShard.getKey().getId());
+            long storeId = partShard.getValue().getStoreId();
+            if (shardGroup != null) {
+                List<HgStoreNode> nodes = new ArrayList<>(shardGroup.getShardsCount());
+                for (Metapb.Shard shard : shardGroup.getShardsList()) {
+                    if (shard.getRole() == Metapb.ShardRole.Learner) {
+                        continue;
+                    }
+                    HgStoreNode node = nodeManager.applyNode(graphName, shard.getStoreId());
+                    if (node != null) {
+                        nodes.add(node);
+                    }
+                }
+                HgStoreNode node = new HgStoreNodeCandidates(nodes).getLeastLoadedNode(
+                        n -> nodeManager.getNodeLoad(n.getNodeId()));
+                if (node != null) {
+                    storeId = node.getNodeId();
+                }
+            }
+            HashSet<HgNodePartition> partitions = new HashSet<>();
+            partitions.add(HgNodePartition.of(storeId, pdClient.keyToCode(graphName, startKey)));
+            builder.setPartitions(partitions);
+        } catch (PDException e) {
+            log.error("An error occurred while getting partition information :{}", e.getMessage());
+            throw new RuntimeException(e.getMessage(), e);
+        }
+        return 0;
+    }
+
     @Override
     public int partition(HgNodePartitionerBuilder builder, String graphName,
                          int startKey, int endKey) {
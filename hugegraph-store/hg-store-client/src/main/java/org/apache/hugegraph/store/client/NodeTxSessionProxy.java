@@ -51,6 +51,7 @@ import org.apache.hugegraph.store.HgStoreSession;
 import org.apache.hugegraph.store.client.grpc.KvBatchScanner;
 import org.apache.hugegraph.store.client.grpc.KvCloseableIterator;
 import org.apache.hugegraph.store.client.query.QueryExecutor;
+import org.apache.hugegraph.store.client.type.HgStoreClientException;
 import org.apache.hugegraph.store.client.util.HgAssert;
 import org.apache.hugegraph.store.client.util.HgStoreClientConst;
 import org.apache.hugegraph.store.client.util.HgStoreClientUtil;
@@ -243,11 +244,34 @@ public class NodeTxSessionProxy implements HgStoreSession {
 
         return this.txExecutor
                 .limitOne(
-                        () -> this.getNodeStream(table, ownerKey),
-                        e -> e.session.get(table, e.data.getKey()), HgStoreClientConst.EMPTY_BYTES
+                        () -> this.getReadNodeStream(table, ownerKey),
+                        e -> this.getOrReadLeader(table, ownerKey, e.session, e.data),
+                        HgStoreClientConst.EMPTY_BYTES
                 );
     }
 
+    /**
+     * Get the key from the replica chosen for the read, and fall back to the leader at once if
+     * the replica fails, e.g. it can't confirm the read index.
+     */
+    private byte[] getOrReadLeader(String table, HgOwnerKey ownerKey, HgStoreSession session,
+                                   NodeTkv nodeTkv) {
+        try {
+            return session.get(table, nodeTkv.getKey());
+        } catch (HgStoreClientException e) {
+            HgPair<HgStoreNode, NodeTkv> leader = this.getNodeStream(table, ownerKey)
+                                                      .findFirst().orElse(null);
+            if (leader == null || leader.getValue().getNodeId().equals(nodeTkv.getNodeId())) {
+                throw e;
+            }
+            log.warn("Failed to read from store node {}, fall back to the leader {}, " +
+                     "caused by: {}", nodeTkv.getNodeId(), leader.getValue().getNodeId(),
+                     e.getMessage());
+            return leader.getKey().openSession(this.graphName)
+                         .get(table, leader.getValue().getKey());
+        }
+    }
+
     @Override
     public boolean clean(int partId) {
         Collection<HgNodePartition> nodes = this.doPartition("", partId);
@@ -738,6 +762,27 @@ public class NodeTxSessionProxy implements HgStoreSession {
         return nodeTkvs;
     }
 
+    private List<NodeTkv> toReadNodeTkvList(String table, HgOwnerKey ownerKey) {
+        HgNodePartitionerBuilder partitionerBuilder = HgNodePartitionerBuilder.resetAndGet();
+        int status = this.nodePartitioner.partitionForRead(partitionerBuilder, this.graphName,
+                                                           ownerKey.getOwner(),
+                                                           ownerKey.getOwner());
+        if (status != 0) {
+            throw err("The node-partitioner is not work.");
+        }
+
+        Collection<HgNodePartition> partitions = partitionerBuilder.getPartitions();
+        if (partitions.isEmpty()) {
+            throw err("Failed to get the collection of HgNodePartition from node-partitioner.");
+        }
+
+        ArrayList<NodeTkv> nodeTkvs = new ArrayList<>(partitions.size());
+        for (HgNodePartition partition : partitions) {
+            nodeTkvs.add(new NodeTkv(partition, table, ownerKey, ownerKey));
+        }
+        return nodeTkvs;
+    }
+
     private List<NodeTkv> toNodeTkvList(String table, HgOwnerKey startKey, HgOwnerKey endKey) {
         Collection<HgNodePartition> partitions =
                 doPartition(table, startKey.getOwner(), endKey.getOwner());
@@ -837,6 +882,15 @@ public class NodeTxSessionProxy implements HgStoreSession {
                    );
     }
 
+    Stream<HgPair<HgStoreNode, NodeTkv>> getReadNodeStream(String table,
+                                                           HgOwnerKey ownerKey) {
+        return this.toReadNodeTkvList(table, ownerKey)
+                   .stream()
+                   .map(
+                           e -> new HgPair<>(this.getStoreNode(e.getNodeId()), e)
+                   );
+    }
+
     Stream<HgPair<HgStoreNode, NodeTkv>> getNodeStream(String table, HgOwnerKey startKey,
                                                        HgOwnerKey endKey) {
         return this.toNodeTkvList(table, startKey, endKey)
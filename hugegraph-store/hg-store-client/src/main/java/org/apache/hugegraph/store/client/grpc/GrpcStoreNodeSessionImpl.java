@@ -20,6 +20,7 @@ package org.apache.hugegraph.store.client.grpc;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.Semaphore;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
@@ -35,6 +36,7 @@ import org.apache.hugegraph.store.HgScanQuery;
 import org.apache.hugegraph.store.client.HgStoreNode;
 import org.apache.hugegraph.store.client.HgStoreNodeManager;
 import org.apache.hugegraph.store.client.HgStoreNodeSession;
+import org.apache.hugegraph.store.client.type.HgStoreClientException;
 import org.apache.hugegraph.store.client.util.HgAssert;
 import org.apache.hugegraph.store.client.util.HgStoreClientConfig;
 import org.apache.hugegraph.store.client.util.HgStoreClientConst;
@@ -233,19 +235,47 @@ class GrpcStoreNodeSessionImpl implements HgStoreNodeSession {
     }
 
     private boolean doCommit(List<BatchEntry> entries) {
-        return this.notifier.invoke(
-                () -> this.storeSessionClient.doBatch(this, this.getBatchId(), entries),
-                e -> true
-        ).orElse(false);
+        // Bound the batches in flight to the node, the writers beyond it wait here
+        int maxInflight = hgStoreClientConfig.getBatchWriteMaxInflight();
+        Semaphore permits = maxInflight <= 0 ? null :
+                            this.nodeManager.getNodeWritePermits(this.storeNode.getNodeId(),
+                                                                 maxInflight);
+        if (permits != null) {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw HgStoreClientException.of("Interrupted while waiting to write to " +
+                                                this.storeNode.getAddress(), e);
+            }
+        }
+        try {
+            return this.notifier.invoke(
+                    () -> this.storeSessionClient.doBatch(this, this.getBatchId(), entries),
+                    e -> true
+            ).orElse(false);
+        } finally {
+            if (permits != null) {
+                permits.release();
+            }
+        }
     }
 
     @Override
     public byte[] get(String table, HgOwnerKey ownerKey) {
-        return this.notifier.invoke(
-                () -> this.storeSessionClient.doGet(this, table, ownerKey)
-                ,
-                e -> e.getValueResponse().getValue().toByteArray()
-        ).orElse(HgStoreClientConst.EMPTY_BYTES);
+        boolean readIndex = hgStoreClientConfig.getReadFollowerEnabled()
+                            && hgStoreClientConfig.getReadIndexEnabled();
+        Long nodeId = this.storeNode.getNodeId();
+        this.nodeManager.increaseNodeLoad(nodeId);
+        try {
+            return this.notifier.invoke(
+                    () -> this.storeSessionClient.doGet(this, table, ownerKey, readIndex)
+                    ,
+                    e -> e.getValueResponse().getValue().toByteArray()
+            ).orElse(HgStoreClientConst.EMPTY_BYTES);
+        } finally {
+            this.nodeManager.decreaseNodeLoad(nodeId);
+        }
     }
 
     @Override
@@ -63,9 +63,15 @@ class GrpcStoreSessionClient extends AbstractGrpcClient {
     }
 
     FeedbackRes doGet(HgStoreNodeSession nodeSession, String table, HgOwnerKey ownerKey) {
+        return this.doGet(nodeSession, table, ownerKey, false);
+    }
+
+    FeedbackRes doGet(HgStoreNodeSession nodeSession, String table, HgOwnerKey ownerKey,
+                      boolean readIndex) {
         return this.getBlockingStub(nodeSession)
                    .get2(GetReq.newBuilder().setHeader(getHeader(nodeSession))
                                .setTk(toTk(table, ownerKey))
+                               .setReadIndex(readIndex)
                                .build());
     }
 
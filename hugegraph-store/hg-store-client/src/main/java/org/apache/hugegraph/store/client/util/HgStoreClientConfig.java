@@ -33,6 +33,9 @@ public final class HgStoreClientConfig {
 
     private static final int NET_KV_SCANNER_PAGE_SIZE = 10_000;
     private static final int NET_KV_SCANNER_HAVE_NEXT_TIMEOUT = 30 * 60;
+    private static final boolean READ_FOLLOWER_ENABLED = false;
+    private static final boolean READ_INDEX_ENABLED = true;
+    private static final int BATCH_WRITE_MAX_INFLIGHT = 16;
     private static final String fileName = "hg-store-client";
     private static PropertyResourceBundle prb = null;
     private static HgStoreClientConfig defaultInstance;
@@ -41,6 +44,9 @@ public final class HgStoreClientConfig {
     private Integer grpcMaxOutboundMessageSize = GRPC_DEFAULT_MAX_OUTBOUND_MESSAGE_SIZE;
     private Integer netKvScannerPageSize = NET_KV_SCANNER_PAGE_SIZE;
     private Integer netKvScannerHaveNextTimeout = NET_KV_SCANNER_HAVE_NEXT_TIMEOUT;
+    private Boolean readFollowerEnabled = READ_FOLLOWER_ENABLED;
+    private Boolean readIndexEnabled = READ_INDEX_ENABLED;
+    private Integer batchWriteMaxInflight = BATCH_WRITE_MAX_INFLIGHT;
 
     private HgStoreClientConfig() {
     }
@@ -83,6 +89,18 @@ public final class HgStoreClientConfig {
                 , config.netKvScannerPageSize))
         );
         log.info("net.kv.scanner.have.next.timeout = {}", config.netKvScannerHaveNextTimeout);
+        log.info("read.follower.enabled = "
+                 + (config.readFollowerEnabled = wrapper.getBool("read.follower.enabled"
+                , config.readFollowerEnabled))
+        );
+        log.info("read.index.enabled = "
+                 + (config.readIndexEnabled = wrapper.getBool("read.index.enabled"
+                , config.readIndexEnabled))
+        );
+        log.info("batch.write.max.inflight = "
+                 + (config.batchWriteMaxInflight = wrapper.getInt("batch.write.max.inflight"
+                , config.batchWriteMaxInflight))
+        );
     }
 
     public Integer getGrpcTimeoutSeconds() {
@@ -130,6 +148,44 @@ public final class HgStoreClientConfig {
         return this;
     }
 
+    public Boolean getReadFollowerEnabled() {
+        return readFollowerEnabled;
+    }
+
+    /**
+     * Serve point reads from the least loaded replica of a partition instead of the leader.
+     */
+    public HgStoreClientConfig setReadFollowerEnabled(Boolean readFollowerEnabled) {
+        this.readFollowerEnabled = readFollowerEnabled;
+        return this;
+    }
+
+    public Boolean getReadIndexEnabled() {
+        return readIndexEnabled;
+    }
+
+    /**
+     * Ask the replica to confirm the raft read index before a follower read, which makes the
+     * read linearizable. Otherwise the read is bounded by the replication lag of the follower.
+     */
+    public HgStoreClientConfig setReadIndexEnabled(Boolean readIndexEnabled) {
+        this.readIndexEnabled = readIndexEnabled;
+        return this;
+    }
+
+    public Integer getBatchWriteMaxInflight() {
+        return batchWriteMaxInflight;
+    }
+
+    /**
+     * The maximum number of batch writes being sent to one store node at the same time by this
+     * client, a non-positive value doesn't bound them.
+     */
+    public HgStoreClientConfig setBatchWriteMaxInflight(Integer batchWriteMaxInflight) {
+        this.batchWriteMaxInflight = batchWriteMaxInflight;
+        return this;
+    }
+
     private static class PropertiesWrapper {
 
         private final PropertyResourceBundle prb;
@@ -157,6 +213,14 @@ public final class HgStoreClientConfig {
 
         }
 
+        Boolean getBool(String key, Boolean defaultValue) {
+            String buf = this.getStr(key);
+            if (buf == null || buf.isEmpty()) {
+                return defaultValue;
+            }
+            return Boolean.valueOf(buf);
+        }
+
         String getStr(String key, String defaultValue) {
             String res = getStr(key);
 
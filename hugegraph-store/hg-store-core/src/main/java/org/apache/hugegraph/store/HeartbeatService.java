@@ -23,6 +23,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import org.apache.hugegraph.pd.common.PDException;
 import org.apache.hugegraph.pd.common.PDRuntimeException;
@@ -35,6 +36,7 @@ import org.apache.hugegraph.store.meta.Partition;
 import org.apache.hugegraph.store.meta.PartitionRole;
 import org.apache.hugegraph.store.meta.Store;
 import org.apache.hugegraph.store.meta.StoreMetadata;
+import org.apache.hugegraph.store.metric.HgMetricService;
 import org.apache.hugegraph.store.options.HgStoreEngineOptions;
 import org.apache.hugegraph.store.pd.PdProvider;
 import org.apache.hugegraph.store.util.IpUtil;
@@ -59,6 +61,7 @@ public class HeartbeatService implements Lifecycle<HgStoreEngineOptions>, Partit
     private PdProvider pdProvider;
     private Store storeInfo;
     private Metapb.ClusterStats clusterStats;
+    private PartitionHeartbeatBatcher hbBatcher;
     private StoreMetadata storeMetadata;
     private final List<StoreStateListener> stateListeners;
     private final Object partitionThreadLock = new Object();
@@ -90,6 +93,8 @@ public class HeartbeatService implements Lifecycle<HgStoreEngineOptions>, Partit
         storeInfo.setDeployPath(HeartbeatService.class.getResource("/").getPath());
         storeInfo.setDataPath(options.getDataPath());
         this.pdProvider = options.getPdProvider();
+        this.hbBatcher = new PartitionHeartbeatBatcher(options.getPartitionHBFullSyncRounds(),
+                                                       options.getPartitionHBLoadThreshold());
         new Thread(() -> doStoreHeartbeat(), PoolNames.HEARTBEAT).start();
         new Thread(() -> doPartitionHeartbeat(), PoolNames.P_HEARTBEAT).start();
         return true;
@@ -206,6 +211,7 @@ public class HeartbeatService implements Lifecycle<HgStoreEngineOptions>, Partit
                     log.error("Connection closed. The store state changes to {}",
                               Metapb.StoreState.Offline);
                 });
+                resetPartitionHeartbeat();
                 onStateChanged(Metapb.StoreState.Up);
             } else {
                 timerNextDelay = REGISTER_RETRY_INTERVAL * 1000 / 2;
@@ -340,12 +346,22 @@ public class HeartbeatService implements Lifecycle<HgStoreEngineOptions>, Partit
             });
             stats.addAllShardStats(shardStats);
             stats.setTimestamp(System.currentTimeMillis());
+            HgMetricService.getInstance().fillPartitionLoad(partition.getGroupId(), stats);
 
             statsList.add(stats.build());
         }
+        HgMetricService.getInstance().retainPartitionLoads(
+                partitions.stream().map(PartitionEngine::getGroupId).collect(Collectors.toSet()));
         // Send heartbeat
         if (statsList.size() > 0) {
-            pdProvider.partitionHeartbeat(statsList);
+            if (options.isPartitionHBBatch()) {
+                PartitionHeartbeatBatcher.Batch batch = hbBatcher.select(statsList);
+                pdProvider.partitionHeartbeat(storeEngine.getPartitionManager().getStore().getId(),
+                                              batch.isFull(), batch.getChanged(),
+                                              batch.getUnchangedIds());
+            } else {
+                pdProvider.partitionHeartbeat(statsList);
+            }
         }
 
     }
@@ -397,6 +413,16 @@ public class HeartbeatService implements Lifecycle<HgStoreEngineOptions>, Partit
         }
     }
 
+    /**
+     * Report all partitions in the next batched heartbeat, it's called when the pd leader
+     * changes or the store reconnects
+     */
+    public void resetPartitionHeartbeat() {
+        if (hbBatcher != null) {
+            hbBatcher.reset();
+        }
+    }
+
     private void wakeupHeartbeatThread() {
         synchronized (storeThreadLock) {
             storeThreadLock.notifyAll();
@@ -408,6 +434,7 @@ public class HeartbeatService implements Lifecycle<HgStoreEngineOptions>, Partit
      */
     public void connectNewPulse() {
         pdProvider.getPDClient().forceReconnect();
+        resetPartitionHeartbeat();
 //        pdProvider.startHeartbeatStream(error->{
 //            onStateChanged(Metapb.StoreState.Offline);
 //            timerNextDelay = REGISTER_RETRY_INTERVAL * 1000;
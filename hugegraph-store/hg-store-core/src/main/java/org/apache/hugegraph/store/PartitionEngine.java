@@ -31,9 +31,11 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 import org.apache.commons.collections.ListUtils;
 import org.apache.commons.collections.SetUtils;
@@ -63,6 +65,7 @@ import org.apache.hugegraph.store.raft.DefaultRaftClosure;
 import org.apache.hugegraph.store.raft.PartitionStateMachine;
 import org.apache.hugegraph.store.raft.RaftClosure;
 import org.apache.hugegraph.store.raft.RaftOperation;
+import org.apache.hugegraph.store.raft.RaftProposalBatcher;
 import org.apache.hugegraph.store.raft.RaftStateListener;
 import org.apache.hugegraph.store.raft.RaftTaskHandler;
 import org.apache.hugegraph.store.raft.util.RaftUtils;
@@ -78,6 +81,7 @@ import com.alipay.sofa.jraft.Node;
 import com.alipay.sofa.jraft.RaftGroupService;
 import com.alipay.sofa.jraft.ReplicatorGroup;
 import com.alipay.sofa.jraft.Status;
+import com.alipay.sofa.jraft.closure.ReadIndexClosure;
 import com.alipay.sofa.jraft.conf.Configuration;
 import com.alipay.sofa.jraft.core.DefaultJRaftServiceFactory;
 import com.alipay.sofa.jraft.core.NodeMetrics;
@@ -90,6 +94,7 @@ import com.alipay.sofa.jraft.option.RaftOptions;
 import com.alipay.sofa.jraft.storage.LogStorage;
 import com.alipay.sofa.jraft.storage.impl.RocksDBLogStorage;
 import com.alipay.sofa.jraft.storage.log.RocksDBSegmentLogStorage;
+import com.alipay.sofa.jraft.util.BytesUtil;
 import com.alipay.sofa.jraft.util.Endpoint;
 import com.alipay.sofa.jraft.util.ThreadId;
 import com.alipay.sofa.jraft.util.Utils;
@@ -123,6 +128,7 @@ public class PartitionEngine implements Lifecycle<PartitionEngineOptions>, RaftS
     private TaskManager taskManager;
     private SnapshotHandler snapshotHandler;
     private Node raftNode;
+    private RaftProposalBatcher proposalBatcher;
     private volatile boolean started;
 
     public PartitionEngine(HgStoreEngine storeEngine, ShardGroup shardGroup) {
@@ -250,6 +256,13 @@ public class PartitionEngine implements Lifecycle<PartitionEngineOptions>, RaftS
                                                      storeEngine.getRaftRpcServer(), true);
         this.raftNode = raftGroupService.start(false);
         this.raftNode.addReplicatorStateListener(new ReplicatorStateListener());
+        if (raft.getProposalBatchSize() > 1) {
+            this.proposalBatcher = new RaftProposalBatcher(
+                    this.raftNode, raft.getProposalBatchSize(), raft.getProposalBatchBytes(),
+                    TimeUnit.MICROSECONDS.toNanos(raft.getProposalBatchLingerUs()));
+        } else {
+            this.proposalBatcher = null;
+        }
 
         // Check if the peers returned by pd are consistent with the local ones, if not, reset
         // the peerlist
@@ -438,6 +451,10 @@ public class PartitionEngine implements Lifecycle<PartitionEngineOptions>, RaftS
             closure.run(new Status(HgRaftError.NOT_LEADER.getNumber(), "Not leader"));
             return;
         }
+        if (this.proposalBatcher != null) {
+            this.proposalBatcher.submit(operation, closure);
+            return;
+        }
         final Task task = new Task();
         task.setData(ByteBuffer.wrap(operation.getValues()));
         task.setDone(new DefaultRaftClosure(operation, closure));
@@ -503,6 +520,31 @@ public class PartitionEngine implements Lifecycle<PartitionEngineOptions>, RaftS
         return this.raftNode != null && this.raftNode.isLeader(false);
     }
 
+    /**
+     * Confirm the raft read index asynchronously, the callback is invoked once the local state
+     * machine has applied the log up to the leader's commit index, so a read served by this
+     * replica (leader or follower) is linearizable. The caller's thread is never blocked.
+     *
+     * @param timeout timeout in milliseconds
+     * @param done    invoked with an ok status if the read index is confirmed and applied
+     *                locally, or with the failure status otherwise
+     */
+    public void readIndex(long timeout, Consumer<Status> done) {
+        if (this.raftNode == null) {
+            done.accept(HgRaftError.NOT_LOCAL.toStatus());
+            return;
+        }
+        this.raftNode.readIndex(BytesUtil.EMPTY_BYTES, new ReadIndexClosure(timeout) {
+            @Override
+            public void run(Status status, long index, byte[] reqCtx) {
+                if (!status.isOk()) {
+                    log.warn("Raft {} readIndex failed, status {}", getGroupId(), status);
+                }
+                done.accept(status);
+            }
+        });
+    }
+
     public Endpoint getLeader() {
         PeerId peerId = this.raftNode.getLeaderId();
         return peerId != null ? peerId.getEndpoint() : null;
@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.hugegraph.store;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.apache.hugegraph.pd.grpc.Metapb;
+
+import lombok.Getter;
+
+/**
+ * Select the partition stats to report in a batched heartbeat, a partition is reported only
+ * if its state changed or its load moved beyond the threshold since the last report, and
+ * every partition is reported once every few rounds to resync the PD.
+ * It's reset when the PD leader changes or the store reconnects, since the new PD may lack
+ * the stats reported before
+ */
+public class PartitionHeartbeatBatcher {
+
+    // Loads below the floors are regarded as idle, their jitters are not reported
+    private static final double QPS_FLOOR = 10;
+    private static final double BYTES_FLOOR = 64 * 1024;
+
+    private final int fullSyncRounds;
+    private final double loadThreshold;
+    private final Map<Integer, Reported> reported = new HashMap<>();
+    private int round = 0;
+
+    public PartitionHeartbeatBatcher(int fullSyncRounds, double loadThreshold) {
+        this.fullSyncRounds = Math.max(1, fullSyncRounds);
+        this.loadThreshold = loadThreshold;
+    }
+
+    public synchronized Batch select(List<Metapb.PartitionStats> statsList) {
+        boolean full = this.round++ % this.fullSyncRounds == 0;
+        Batch batch = new Batch(full);
+        for (Metapb.PartitionStats stats : statsList) {
+            Reported last = this.reported.get(stats.getId());
+            Metapb.PartitionStats fingerprint = fingerprint(stats);
+            double qps = qps(stats);
+            double bytes = bytesPerSecond(stats);
+            if (full || last == null || !last.fingerprint.equals(fingerprint) ||
+                moved(last.qps, qps, QPS_FLOOR) || moved(last.bytes, bytes, BYTES_FLOOR)) {
+                this.reported.put(stats.getId(), new Reported(fingerprint, qps, bytes));
+                batch.changed.add(stats);
+            } else {
+                batch.unchangedIds.add(stats.getId());
+            }
+        }
+        Set<Integer> ids = statsList.stream().map(Metapb.PartitionStats::getId)
+                                    .collect(Collectors.toSet());
+        this.reported.keySet().retainAll(ids);
+        return batch;
+    }
+
+    /**
+     * Forget the reported stats, the next round will be a full one
+     */
+    public synchronized void reset() {
+        this.reported.clear();
+        this.round = 0;
+    }
+
+    private boolean moved(double last, double current, double floor) {
+        if (last < floor && current < floor) {
+            return false;
+        }
+        return Math.abs(current - last) > Math.max(last, floor) * this.loadThreshold;
+    }
+
+    /**
+     * The stats without the timestamp and the load, which change in every round
+     */
+    private static Metapb.PartitionStats fingerprint(Metapb.PartitionStats stats) {
+        return stats.toBuilder()
+                    .clearTimestamp()
+                    .clearReadCount()
+                    .clearWriteCount()
+                    .clearBytesRead()
+                    .clearBytesWritten()
+                    .clearLatencyUs()
+                    .clearIntervalMs()
+                    .build();
+    }
+
+    private static double qps(Metapb.PartitionStats stats) {
+        if (stats.getIntervalMs() <= 0) {
+            return 0;
+        }
+        return (stats.getReadCount() + stats.getWriteCount()) * 1000.0 / stats.getIntervalMs();
+    }
+
+    private static double bytesPerSecond(Metapb.PartitionStats stats) {
+        if (stats.getIntervalMs() <= 0) {
+            return 0;
+        }
+        return (stats.getBytesRead() + stats.getBytesWritten()) * 1000.0 / stats.getIntervalMs();
+    }
+
+    @Getter
+    public static class Batch {
+
+        private final boolean full;
+        private final List<Metapb.PartitionStats> changed = new ArrayList<>();
+        private final List<Integer> unchangedIds = new ArrayList<>();
+
+        private Batch(boolean full) {
+            this.full = full;
+        }
+    }
+
+    private static class Reported {
+
+        private final Metapb.PartitionStats fingerprint;
+        private final double qps;
+        private final double bytes;
+
+        private Reported(Metapb.PartitionStats fingerprint, double qps, double bytes) {
+            this.fingerprint = fingerprint;
+            this.qps = qps;
+            this.bytes = bytes;
+        }
+    }
+}
@@ -96,6 +96,7 @@ import org.apache.hugegraph.store.meta.Partition;
 import org.apache.hugegraph.store.meta.PartitionManager;
 import org.apache.hugegraph.store.meta.asynctask.AsyncTaskState;
 import org.apache.hugegraph.store.meta.asynctask.CleanTask;
+import org.apache.hugegraph.store.metric.HgMetricService;
 import org.apache.hugegraph.store.metric.HgStoreMetric;
 import org.apache.hugegraph.store.pd.DefaultPdProvider;
 import org.apache.hugegraph.store.pd.PdProvider;
@@ -277,9 +278,14 @@ public class BusinessHandlerImpl implements BusinessHandler {
             return null;
         }
 
+        long start = System.nanoTime();
         try (RocksDBSession dbSession = getSession(graph, table, partId)) {
             byte[] targetKey = keyCreator.getKey(partId, graph, code, key);
-            return dbSession.sessionOp().get(table, targetKey);
+            byte[] value = dbSession.sessionOp().get(table, targetKey);
+            HgMetricService.getInstance().increasePartitionRead(
+                    partId, 1, key.length + (value == null ? 0 : value.length),
+                    System.nanoTime() - start);
+            return value;
         } catch (Exception e) {
             log.error("Graph " + graph + " doGet exception", e);
             throw new HgStoreException(HgStoreException.EC_RKDB_DOGET_FAIL, e.toString());
@@ -292,15 +298,13 @@ public class BusinessHandlerImpl implements BusinessHandler {
 
         BiFunction<Integer, byte[], ScanIterator> function = (id, position) -> {
             try (RocksDBSession dbSession = getSession(graph, table, id)) {
-                return new InnerKeyFilter(dbSession.sessionOp().scan(table, position == null ?
-                                                                            keyCreator.getStartKey(
-                                                                                    id, graph) :
-                                                                            keyCreator.getStartKey(
-                                                                                    id, graph,
-                                                                                    position),
-                                                                     keyCreator.getEndKey(id,
-                                                                                          graph),
-                                                                     ScanIterator.Trait.SCAN_LT_END));
+                byte[] startKey = position == null ?
+                                  keyCreator.getStartKey(id, graph) :
+                                  keyCreator.getStartKey(id, graph, position);
+                ScanIterator iter = dbSession.sessionOp().scan(table, startKey,
+                                                               keyCreator.getEndKey(id, graph),
+                                                               ScanIterator.Trait.SCAN_LT_END);
+                return new PartitionReadIterator(id, new InnerKeyFilter(iter));
             }
         };
         return MultiPartitionIterator.of(ids, function);
@@ -332,13 +336,10 @@ public class BusinessHandlerImpl implements BusinessHandler {
                 type = scanType;
             }
             try (RocksDBSession dbSession = getSession(graph, table, id)) {
-                return new InnerKeyFilter(dbSession.sessionOp().scan(table,
-                                                                     keyCreator.getStartKey(id,
-                                                                                            graph,
-                                                                                            toPosition(
-                                                                                                    start,
-                                                                                                    position)),
-                                                                     endKey, type));
+                byte[] startKey = keyCreator.getStartKey(id, graph,
+                                                         toPosition(start, position));
+                ScanIterator iter = dbSession.sessionOp().scan(table, startKey, endKey, type);
+                return new PartitionReadIterator(id, new InnerKeyFilter(iter));
             }
         };
         return MultiPartitionIterator.of(ids, function);
@@ -441,7 +442,8 @@ public class BusinessHandlerImpl implements BusinessHandler {
                 byte[] endKey = keyCreator.getEndKey(id, graph);
                 ScanIterator iterator = dbSession.sessionOp().scan(table, startKey, endKey,
                                                                    ScanIterator.Trait.SCAN_LT_END);
-                return new InnerKeyFilter(iterator, codeFrom, codeTo);
+                return new PartitionReadIterator(id, new InnerKeyFilter(iterator, codeFrom,
+                                                                        codeTo));
             }
         };
         return MultiPartitionIterator.of(ids, function);
@@ -890,7 +892,7 @@ public class BusinessHandlerImpl implements BusinessHandler {
                 byte[] startKey = keyCreator.getStartKey(id, graph, startPos);
                 byte[] endKey = keyCreator.getEndKey(id, graph);
                 ScanIterator iter = dbSession.sessionOp().scan(tab, startKey, endKey, st);
-                return new InnerKeyFilter(iter);
+                return new PartitionReadIterator(id, new InnerKeyFilter(iter));
             }
         };
         return MultiPartitionIterator.of(ids, func);
@@ -908,13 +910,10 @@ public class BusinessHandlerImpl implements BusinessHandler {
         }
         BiFunction<Integer, byte[], ScanIterator> function = (id, position) -> {
             try (RocksDBSession dbSession = getSession(graph, table, id)) {
-                return new InnerKeyFilter(dbSession.sessionOp().scan(table,
-                                                                     keyCreator.getPrefixKey(id,
-                                                                                             graph,
-                                                                                             toPosition(
-                                                                                                     prefix,
-                                                                                                     position)),
-                                                                     scanType));
+                byte[] prefixKey = keyCreator.getPrefixKey(id, graph,
+                                                           toPosition(prefix, position));
+                ScanIterator iter = dbSession.sessionOp().scan(table, prefixKey, scanType);
+                return new PartitionReadIterator(id, new InnerKeyFilter(iter));
             }
         };
         return MultiPartitionIterator.of(ids, function);
@@ -998,9 +997,13 @@ public class BusinessHandlerImpl implements BusinessHandler {
 
             int partId = provider.getPartitionByCode(graph, code).getId();
 
+            long start = System.nanoTime();
             try (RocksDBSession dbSession = getSession(graph, table, partId)) {
                 byte[] targetKey = keyCreator.getKey(partId, graph, code, key);
                 byte[] value = dbSession.sessionOp().get(table, targetKey);
+                HgMetricService.getInstance().increasePartitionRead(
+                        partId, 1, key.length + (value == null ? 0 : value.length),
+                        System.nanoTime() - start);
                 c.accept(new HgPair<>(key, value));
             }
 
@@ -17,11 +17,20 @@
 
 package org.apache.hugegraph.store.business;
 
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.hugegraph.backend.BackendColumn;
+import org.apache.hugegraph.id.Id;
+import org.apache.hugegraph.id.IdGenerator;
 import org.apache.hugegraph.query.ConditionQuery;
 import org.apache.hugegraph.rocksdb.access.RocksDBSession;
 import org.apache.hugegraph.rocksdb.access.ScanIterator;
+import org.apache.hugegraph.serializer.BytesBuffer;
+import org.apache.hugegraph.struct.schema.PropertyKey;
 import org.apache.hugegraph.structure.BaseElement;
 
 import lombok.extern.slf4j.Slf4j;
@@ -32,12 +41,17 @@ public class FilterIterator<T extends RocksDBSession.BackendColumn> extends
         implements ScanIterator {
 
     private final ConditionQuery query;
+    // Property keys to keep in the returned value, null means all
+    private final Set<Id> selects;
     T current = null;
 
     public FilterIterator(ScanIterator iterator, ConditionQuery query) {
         super();
         this.iterator = iterator;
         this.query = query;
+        List<Id> selects = query.selects();
+        this.selects = selects == null || selects.isEmpty() ?
+                       null : new HashSet<>(selects);
         // log.info("operator sinking is used to filter data:{}",
         //         query.toString());
     }
@@ -58,6 +72,14 @@ public class FilterIterator<T extends RocksDBSession.BackendColumn> extends
 
             while (iterator.hasNext()) {
                 current = iterator.next();
+                if (this.query.conditionsSize() == 0) {
+                    // Only selected properties are pushed down
+                    match = true;
+                    if (this.selects != null) {
+                        current = this.project(current);
+                    }
+                    break;
+                }
                 BaseElement element;
                 if (this.query.resultType().isVertex()) {
                     element = serializer.parseVertex(null,
@@ -71,6 +93,9 @@ public class FilterIterator<T extends RocksDBSession.BackendColumn> extends
 
                 match = query.test(element);
                 if (match) {
+                    if (this.selects != null) {
+                        current = this.project(current);
+                    }
                     break;
                 }
             }
@@ -84,6 +109,64 @@ public class FilterIterator<T extends RocksDBSession.BackendColumn> extends
         return match;
     }
 
+    @SuppressWarnings("unchecked")
+    private T project(T column) {
+        boolean isVertex = this.query.resultType().isVertex();
+        byte[] value = projectValue(column.value, isVertex, this.selects);
+        if (value == column.value) {
+            return column;
+        }
+        return (T) RocksDBSession.BackendColumn.of(column.name, value);
+    }
+
+    /**
+     * Drop the properties which are not in selects from a serialized vertex
+     * or edge value, the label and the trailing expired time are kept as is.
+     * Properties are self-describing (cardinality and data type are encoded
+     * with each value), so no schema is needed to skip over them.
+     */
+    public static byte[] projectValue(byte[] value, boolean isVertex,
+                                      Collection<Id> selects) {
+        if (ArrayUtils.isEmpty(value)) {
+            return value;
+        }
+        BytesBuffer buffer = BytesBuffer.wrap(value);
+        if (isVertex) {
+            // Skip vertex label
+            buffer.readId();
+        }
+        int headEnd = buffer.position();
+        int size = buffer.readVInt();
+        int[] kept = new int[size * 2];
+        int keptCount = 0;
+        PropertyKey pkey = new PropertyKey(null, IdGenerator.ZERO, "");
+        for (int i = 0; i < size; i++) {
+            int start = buffer.position();
+            Id pkeyId = IdGenerator.of(buffer.readVInt());
+            buffer.readProperty(pkey);
+            if (selects.contains(pkeyId)) {
+                kept[keptCount * 2] = start;
+                kept[keptCount * 2 + 1] = buffer.position();
+                keptCount++;
+            }
+        }
+        if (keptCount == size) {
+            return value;
+        }
+
+        int tailStart = buffer.position();
+        BytesBuffer output = BytesBuffer.allocate(value.length);
+        output.write(value, 0, headEnd);
+        output.writeVInt(keptCount);
+        for (int i = 0; i < keptCount; i++) {
+            int start = kept[i * 2];
+            output.write(value, start, kept[i * 2 + 1] - start);
+        }
+        // Keep expired time if present
+        output.write(value, tailStart, value.length - tailStart);
+        return output.bytes();
+    }
+
     @Override
     public boolean isValid() {
         return false;
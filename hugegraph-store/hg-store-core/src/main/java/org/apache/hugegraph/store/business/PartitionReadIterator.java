@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hugegraph.store.business;
+
+import org.apache.hugegraph.rocksdb.access.RocksDBSession.BackendColumn;
+import org.apache.hugegraph.rocksdb.access.ScanIterator;
+import org.apache.hugegraph.store.metric.HgMetricService;
+
+/**
+ * Count the rows and bytes read by a scan of a partition into the partition load, so that the
+ * partitions hot by scans are detected as well as the ones hot by point reads.
+ * The counts are flushed every FLUSH_ROWS rows and on close, to keep a long scan visible in
+ * the heartbeats and to avoid updating the shared counters for each row.
+ */
+public class PartitionReadIterator implements ScanIterator {
+
+    private static final int FLUSH_ROWS = 1000;
+
+    private final int partId;
+    private final ScanIterator iterator;
+    private long rows;
+    private long bytes;
+    private long nanos;
+
+    public PartitionReadIterator(int partId, ScanIterator iterator) {
+        this.partId = partId;
+        this.iterator = iterator;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return this.iterator.hasNext();
+    }
+
+    @Override
+    public boolean isValid() {
+        return this.iterator.isValid();
+    }
+
+    @Override
+    public <T> T next() {
+        long start = System.nanoTime();
+        T t = this.iterator.next();
+        this.nanos += System.nanoTime() - start;
+        this.rows++;
+        if (t instanceof BackendColumn) {
+            BackendColumn column = (BackendColumn) t;
+            this.bytes += (column.name == null ? 0 : column.name.length) +
+                          (column.value == null ? 0 : column.value.length);
+        }
+        if (this.rows >= FLUSH_ROWS) {
+            this.flush();
+        }
+        return t;
+    }
+
+    @Override
+    public long count() {
+        long start = System.nanoTime();
+        long count = this.iterator.count();
+        HgMetricService.getInstance().increasePartitionRead(this.partId, count, 0L,
+                                                            System.nanoTime() - start);
+        return count;
+    }
+
+    @Override
+    public byte[] position() {
+        return this.iterator.position();
+    }
+
+    @Override
+    public void seek(byte[] position) {
+        this.iterator.seek(position);
+    }
+
+    @Override
+    public void close() {
+        this.flush();
+        this.iterator.close();
+    }
+
+    private void flush() {
+        if (this.rows == 0L) {
+            return;
+        }
+        HgMetricService.getInstance().increasePartitionRead(this.partId, this.rows, this.bytes,
+                                                            this.nanos);
+        this.rows = 0L;
+        this.bytes = 0L;
+        this.nanos = 0L;
+    }
+}
@@ -25,7 +25,10 @@ import java.time.Instant;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.hugegraph.pd.grpc.Metapb;
@@ -48,6 +51,14 @@ public class HgMetricService implements Lifecycle<Void> {
     private final SystemMetricService systemMetricService = new SystemMetricService();
     private HgStoreEngine storeEngine;
     private Map<String, Long> systemMetrics = new HashMap<>();
+    // Load of each partition since the last partition heartbeat
+    private final Map<Integer, PartitionLoad> partitionLoads = new ConcurrentHashMap<>();
+    // Raft log entries proposed/applied and the operations carried by them
+    private final LongAdder raftProposedEntries = new LongAdder();
+    private final LongAdder raftProposedOps = new LongAdder();
+    private final LongAdder raftAppliedEntries = new LongAdder();
+    private final LongAdder raftAppliedOps = new LongAdder();
+    private final LongAdder raftApplyNanos = new LongAdder();
 
     private HgMetricService() {
     }
@@ -197,4 +208,94 @@ public class HgMetricService implements Lifecycle<Void> {
         keysRead.addAndGet(keys);
         bytesRead.addAndGet(bytes);
     }
+
+    public void increasePartitionRead(int partId, long keys, long bytes, long nanos) {
+        PartitionLoad load = this.getPartitionLoad(partId);
+        load.readCount.add(keys);
+        load.bytesRead.add(bytes);
+        load.latencyNanos.add(nanos);
+    }
+
+    public void increasePartitionWrite(int partId, long keys, long bytes, long nanos) {
+        PartitionLoad load = this.getPartitionLoad(partId);
+        load.writeCount.add(keys);
+        load.bytesWritten.add(bytes);
+        load.latencyNanos.add(nanos);
+    }
+
+    public void increaseRaftProposal(int ops) {
+        this.raftProposedEntries.increment();
+        this.raftProposedOps.add(ops);
+    }
+
+    public void increaseRaftApply(int ops, long nanos) {
+        this.raftAppliedEntries.increment();
+        this.raftAppliedOps.add(ops);
+        this.raftApplyNanos.add(nanos);
+    }
+
+    public long getRaftProposedEntries() {
+        return this.raftProposedEntries.sum();
+    }
+
+    public long getRaftProposedOps() {
+        return this.raftProposedOps.sum();
+    }
+
+    public long getRaftAppliedEntries() {
+        return this.raftAppliedEntries.sum();
+    }
+
+    public long getRaftAppliedOps() {
+        return this.raftAppliedOps.sum();
+    }
+
+    public long getRaftApplyNanos() {
+        return this.raftApplyNanos.sum();
+    }
+
+    private PartitionLoad getPartitionLoad(int partId) {
+        return this.partitionLoads.computeIfAbsent(
+                partId, k -> new PartitionLoad(System.currentTimeMillis()));
+    }
+
+    /**
+     * Fill the load of the partition since the last call into the heartbeat, and restart the
+     * statistics period of the partition
+     */
+    public Metapb.PartitionStats.Builder fillPartitionLoad(int partId,
+                                                           Metapb.PartitionStats.Builder stats) {
+        long now = System.currentTimeMillis();
+        PartitionLoad load = this.partitionLoads.put(partId, new PartitionLoad(now));
+        if (load != null) {
+            stats.setReadCount(load.readCount.sum())
+                 .setWriteCount(load.writeCount.sum())
+                 .setBytesRead(load.bytesRead.sum())
+                 .setBytesWritten(load.bytesWritten.sum())
+                 .setLatencyUs(load.latencyNanos.sum() / 1000)
+                 .setIntervalMs(Math.max(1, now - load.startTime));
+        }
+        return stats;
+    }
+
+    /**
+     * Drop the load of the partitions not reported, e.g. the local replica is a follower
+     */
+    public void retainPartitionLoads(Set<Integer> partIds) {
+        this.partitionLoads.keySet().retainAll(partIds);
+    }
+
+    private static class PartitionLoad {
+
+        private final long startTime;
+        private final LongAdder readCount = new LongAdder();
+        private final LongAdder writeCount = new LongAdder();
+        private final LongAdder bytesRead = new LongAdder();
+        private final LongAdder bytesWritten = new LongAdder();
+        private final LongAdder latencyNanos = new LongAdder();
+
+        PartitionLoad(long startTime) {
+            this.startTime = startTime;
+        }
+    }
 }
@@ -41,6 +41,13 @@ public class HgStoreEngineOptions {
     private final int storeHBInterval = 30;
     // Partition heartbeat interval, unit: seconds
     private final int partitionHBInterval = 5;
+    // Report the partition heartbeats of the store in one batch with the unchanged ones omitted,
+    // older pds ignore the batch, so only enable it after all pds are upgraded
+    private boolean partitionHBBatch = false;
+    // Every partition is reported in the batch once every N heartbeats
+    private int partitionHBFullSyncRounds = 12;
+    // Relative change of the partition load to be reported in the batch
+    private double partitionHBLoadThreshold = 0.2;
     // Waiting for leader timeout, in seconds
     private final int waitLeaderTimeout = 30;
     private int raftRpcThreadPoolSize = Utils.cpus() * 6;
@@ -152,6 +159,20 @@ public class HgStoreEngineOptions {
         private double aveLogEntrySizeRatio = 0.95;
         private boolean useRocksDBSegmentLogStorage = true;
         private int maxSegmentFileSize = 64 * 1024 * 1024;
+        /**
+         * The maximum number of concurrent proposals merged into one log entry, 1 disables it.
+         * Stores of older versions can't apply the merged entries, so only enable it after all
+         * stores of the cluster are upgraded
+         */
+        private int proposalBatchSize = 1;
+        /**
+         * The maximum byte size of the proposals merged into one log entry
+         */
+        private int proposalBatchBytes = 1024 * 1024;
+        /**
+         * The time in microseconds to wait for more proposals to join a batch that isn't full
+         */
+        private int proposalBatchLingerUs = 100;
     }
 
     @Data
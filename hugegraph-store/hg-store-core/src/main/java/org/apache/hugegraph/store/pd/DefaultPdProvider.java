@@ -32,6 +32,7 @@ import org.apache.hugegraph.pd.grpc.Metapb;
 import org.apache.hugegraph.pd.grpc.Metapb.PartitionStats;
 import org.apache.hugegraph.pd.grpc.pulse.PartitionHeartbeatRequest;
 import org.apache.hugegraph.pd.grpc.pulse.PartitionHeartbeatResponse;
+import org.apache.hugegraph.pd.grpc.pulse.PartitionStatsBatch;
 import org.apache.hugegraph.pd.grpc.pulse.PdInstructionType;
 import org.apache.hugegraph.pd.grpc.pulse.PulseResponse;
 import org.apache.hugegraph.pd.grpc.watch.WatchChangeType;
@@ -40,6 +41,7 @@ import org.apache.hugegraph.pd.grpc.watch.WatchResponse;
 import org.apache.hugegraph.pd.pulse.PulseServerNotice;
 import org.apache.hugegraph.pd.watch.NodeEvent;
 import org.apache.hugegraph.pd.watch.PartitionEvent;
+import org.apache.hugegraph.store.HeartbeatService;
 import org.apache.hugegraph.store.HgStoreEngine;
 import org.apache.hugegraph.store.meta.Graph;
 import org.apache.hugegraph.store.meta.GraphManager;
@@ -58,6 +60,7 @@ import lombok.extern.slf4j.Slf4j;
 public class DefaultPdProvider implements PdProvider {
 
     private static final Logger LOG = Log.logger(DefaultPdProvider.class);
+    private static final int MAX_STATS_PER_HEARTBEAT = 1000;
     private final PDClient pdClient;
     private final String pdServerAddress;
     private final PDPulse pulseClient;
@@ -79,6 +82,7 @@ public class DefaultPdProvider implements PdProvider {
                 HgStoreEngine.getInstance().rebuildRaftGroup(event.getNodeId());
             } else if (event.getEventType() == NodeEvent.EventType.NODE_PD_LEADER_CHANGE) {
                 log.info("pd leader changed!, {}. restart heart beat", event);
+                resetPartitionHeartbeat();
 //                if (pulseClient.resetStub(event.getGraph(), pdPulse)) {
 //                    startHeartbeatStream(hbOnError);
 //                }
@@ -303,6 +307,7 @@ public class DefaultPdProvider implements PdProvider {
                         log.info("got pulse instruction, change leader to {}",
                                  pdInstruction.getLeaderIp());
                         if (pulseClient.resetStub(pdInstruction.getLeaderIp(), pdPulse)) {
+                            resetPartitionHeartbeat();
                             startHeartbeatStream(hbOnError);
                         }
                     }
@@ -323,6 +328,7 @@ public class DefaultPdProvider implements PdProvider {
             public void onCompleted() {
                 LOG.info("Partition heartbeat stream complete");
                 if (pulseClient.resetStub(pdClient.getLeaderIp(), pdPulse)) {
+                    resetPartitionHeartbeat();
                     startHeartbeatStream(hbOnError);
                 }
             }
@@ -356,6 +362,32 @@ public class DefaultPdProvider implements PdProvider {
         return false;
     }
 
+    @Override
+    public boolean partitionHeartbeat(long storeId, boolean full, List<PartitionStats> statsList,
+                                      List<Integer> unchangedIds) {
+        // Split the large batches to keep the messages small
+        int from = 0;
+        do {
+            int to = Math.min(statsList.size(), from + MAX_STATS_PER_HEARTBEAT);
+            PartitionStatsBatch.Builder batch = PartitionStatsBatch.newBuilder()
+                                                                   .setStoreId(storeId)
+                                                                   .setFull(full)
+                                                                   .addAllStates(
+                                                                           statsList.subList(from,
+                                                                                             to));
+            if (from == 0) {
+                batch.addAllUnchangedIds(unchangedIds);
+            }
+            PartitionHeartbeatRequest.Builder request =
+                    PartitionHeartbeatRequest.newBuilder().setBatch(batch);
+            synchronized (pdPulse) {
+                pdPulse.notifyServer(request);
+            }
+            from = to;
+        } while (from < statsList.size());
+        return true;
+    }
+
     @Override
     public boolean isLocalPartition(long storeId, int partitionId) {
         try {
@@ -479,6 +511,16 @@ public class DefaultPdProvider implements PdProvider {
         return pdServerAddress;
     }
 
+    /**
+     * The new pd leader may lack the stats omitted from the batched heartbeats
+     */
+    private void resetPartitionHeartbeat() {
+        HeartbeatService heartbeatService = HgStoreEngine.getInstance().getHeartbeatService();
+        if (heartbeatService != null) {
+            heartbeatService.resetPartitionHeartbeat();
+        }
+    }
+
     @Override
     public void resetPulseClient() {
         pulseClient.resetStub(pdClient.getLeaderIp(), pdPulse);
@@ -221,6 +221,13 @@ public class FakePdServiceProvider implements PdProvider {
         return false;
     }
 
+    @Override
+    public boolean partitionHeartbeat(long storeId, boolean full,
+                                      List<Metapb.PartitionStats> statsList,
+                                      List<Integer> unchangedIds) {
+        return true;
+    }
+
     @Override
     public boolean isLocalPartition(long storeId, int partitionId) {
         return true;
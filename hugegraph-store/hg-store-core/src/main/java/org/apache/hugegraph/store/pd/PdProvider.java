@@ -65,6 +65,15 @@ public interface PdProvider {
 
     boolean partitionHeartbeat(PartitionStats stats);
 
+    /**
+     * Report the partitions led by the store in one batch
+     *
+     * @param full         whether all the partitions are in the stats
+     * @param unchangedIds the partitions unchanged since the last report
+     */
+    boolean partitionHeartbeat(long storeId, boolean full, List<PartitionStats> statsList,
+                               List<Integer> unchangedIds);
+
     boolean isLocalPartition(long storeId, int partitionId);
 
     Metapb.Graph getGraph(String graphName) throws PDException;
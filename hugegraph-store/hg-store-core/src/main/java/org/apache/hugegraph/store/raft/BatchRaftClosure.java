@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hugegraph.store.raft;
+
+import java.util.List;
+
+import com.alipay.sofa.jraft.Status;
+
+/**
+ * Closure of a BATCH_TASK log entry, it only runs when the whole entry fails (e.g. leader
+ * changed before commit) and fans the status out to the closures of the merged operations.
+ * On success the state machine completes each merged operation itself.
+ */
+public class BatchRaftClosure implements RaftClosure {
+
+    private final List<DefaultRaftClosure> closures;
+
+    public BatchRaftClosure(List<DefaultRaftClosure> closures) {
+        this.closures = closures;
+    }
+
+    public List<DefaultRaftClosure> getClosures() {
+        return closures;
+    }
+
+    @Override
+    public void run(Status status) {
+        for (DefaultRaftClosure closure : closures) {
+            closure.run(status);
+        }
+    }
+}
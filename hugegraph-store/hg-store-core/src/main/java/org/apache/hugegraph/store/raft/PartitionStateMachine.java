@@ -17,6 +17,8 @@
 
 package org.apache.hugegraph.store.raft;
 
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Base64;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
@@ -25,6 +27,7 @@ import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.hugegraph.store.HgStoreEngine;
+import org.apache.hugegraph.store.metric.HgMetricService;
 import org.apache.hugegraph.store.snapshot.SnapshotHandler;
 import org.apache.hugegraph.store.util.HgStoreException;
 
@@ -81,21 +84,24 @@ public class PartitionStateMachine extends StateMachineAdapter {
     public void onApply(Iterator iter) {
         while (iter.hasNext()) {
             final DefaultRaftClosure done = (DefaultRaftClosure) iter.done();
+            final long start = System.nanoTime();
+            int count = 1;
             try {
-                for (RaftTaskHandler handler : taskHandlers) {
-                    if (done != null) {
-                        // Leader branch, call locally
-                        RaftOperation operation = done.getOperation();
-                        if (handler.invoke(groupId, operation.getOp(), operation.getReq(),
-                                           done.getClosure())) {
-                            done.run(Status.OK());
-                            break;
-                        }
-                    } else {
-                        if (handler.invoke(groupId, iter.getData().array(), null)) {
-                            break;
-                        }
-                    }
+                if (done != null && done.getOperation().getOp() == RaftOperation.BATCH_TASK) {
+                    // Leader branch of a merged entry, call locally with original requests
+                    List<DefaultRaftClosure> closures =
+                            ((BatchRaftClosure) done.getClosure()).getClosures();
+                    List<RaftOperation> operations = new ArrayList<>(closures.size());
+                    closures.forEach(c -> operations.add(c.getOperation()));
+                    count = operations.size();
+                    applyBatch(operations, closures);
+                } else if (done == null && isBatch(iter.getData())) {
+                    List<RaftOperation> operations =
+                            RaftOperation.splitBatch(iter.getData().array());
+                    count = operations.size();
+                    applyBatch(operations, null);
+                } else {
+                    apply(iter, done);
                 }
             } catch (Throwable t) {
                 log.info("{}", Base64.getEncoder().encode(iter.getData().array()));
@@ -106,6 +112,7 @@ public class PartitionStateMachine extends StateMachineAdapter {
                               done.getOperation().getReq());
                 }
             }
+            HgMetricService.getInstance().increaseRaftApply(count, System.nanoTime() - start);
             committedIndex = iter.getIndex();
             stateListeners.forEach(listener -> listener.onDataCommitted(committedIndex));
             // clear data
@@ -117,6 +124,81 @@ public class PartitionStateMachine extends StateMachineAdapter {
         }
     }
 
+    private void apply(Iterator iter, DefaultRaftClosure done) {
+        for (RaftTaskHandler handler : taskHandlers) {
+            if (done != null) {
+                // Leader branch, call locally
+                RaftOperation operation = done.getOperation();
+                if (handler.invoke(groupId, operation.getOp(), operation.getReq(),
+                                   done.getClosure())) {
+                    done.run(Status.OK());
+                    break;
+                }
+            } else {
+                if (handler.invoke(groupId, iter.getData().array(), null)) {
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Apply the operations of a merged entry, the handler gets the chance to apply them as a
+     * whole, otherwise they are applied one by one in the proposed order.
+     *
+     * @param closures closures of the operations, null on followers
+     */
+    private void applyBatch(List<RaftOperation> operations, List<DefaultRaftClosure> closures) {
+        List<RaftClosure> responses = null;
+        if (closures != null) {
+            responses = new ArrayList<>(closures.size());
+            for (DefaultRaftClosure closure : closures) {
+                responses.add(closure.getClosure());
+            }
+        }
+        for (RaftTaskHandler handler : taskHandlers) {
+            if (handler.invoke(groupId, operations, responses)) {
+                if (closures != null) {
+                    closures.forEach(c -> {
+                        c.run(Status.OK());
+                        c.clear();
+                    });
+                }
+                return;
+            }
+        }
+        for (int i = 0; i < operations.size(); i++) {
+            RaftOperation operation = operations.get(i);
+            DefaultRaftClosure closure = closures == null ? null : closures.get(i);
+            try {
+                for (RaftTaskHandler handler : taskHandlers) {
+                    if (closure != null) {
+                        if (handler.invoke(groupId, operation.getOp(), operation.getReq(),
+                                           closure.getClosure())) {
+                            closure.run(Status.OK());
+                            break;
+                        }
+                    } else if (handler.invoke(groupId, operation.getValues(), null)) {
+                        break;
+                    }
+                }
+            } catch (Throwable t) {
+                // One operation failing must not stop the others of the entry
+                log.error(String.format("StateMachine %s meet critical error, op = %s:",
+                                        groupId, operation.getOp()), t);
+            } finally {
+                if (closure != null) {
+                    closure.clear();
+                }
+            }
+        }
+    }
+
+    private static boolean isBatch(ByteBuffer data) {
+        return data != null && data.remaining() > 0 &&
+               data.get(data.position()) == RaftOperation.BATCH_TASK;
+    }
+
     public long getCommittedIndex() {
         return committedIndex;
     }
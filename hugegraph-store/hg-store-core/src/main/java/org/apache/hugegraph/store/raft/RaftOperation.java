@@ -20,6 +20,9 @@ package org.apache.hugegraph.store.raft;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -46,6 +49,8 @@ public class RaftOperation {
     public static final byte DB_COMPACTION = 0x67;
     public static final byte DO_SYNC_SNAPSHOT = 0x68;
     public static final byte SYNC_BLANK_TASK = 0x69;
+    // Several operations of one partition proposed as a single log entry
+    public static final byte BATCH_TASK = 0x6A;
 
     final static byte[] EMPTY_Bytes = new byte[0];
     private static final Logger LOG = LoggerFactory.getLogger(RaftOperation.class);
@@ -101,6 +106,53 @@ public class RaftOperation {
         return create(op, buffer, req);
     }
 
+    /**
+     * Merge operations into one BATCH_TASK operation, the values are laid out as
+     * [op][count]([length][values])*, and the req keeps the original closures for the leader
+     */
+    public static RaftOperation createBatch(final List<DefaultRaftClosure> closures) {
+        int size = 1 + Integer.BYTES;
+        for (DefaultRaftClosure closure : closures) {
+            size += Integer.BYTES + closure.getOperation().getValues().length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.put(BATCH_TASK);
+        buffer.putInt(closures.size());
+        for (DefaultRaftClosure closure : closures) {
+            byte[] values = closure.getOperation().getValues();
+            buffer.putInt(values.length);
+            buffer.put(values);
+        }
+        return create(BATCH_TASK, buffer.array(), closures);
+    }
+
+    /**
+     * Split the values of a BATCH_TASK operation, used by followers and log replay
+     */
+    public static List<RaftOperation> splitBatch(final byte[] values) {
+        ByteBuffer buffer = ByteBuffer.wrap(values);
+        if (buffer.get() != BATCH_TASK) {
+            throw new IllegalArgumentException("Not a batch raft operation");
+        }
+        int count = buffer.getInt();
+        List<RaftOperation> operations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            byte[] bytes = new byte[buffer.getInt()];
+            buffer.get(bytes);
+            operations.add(create(bytes[0], bytes, null));
+        }
+        return operations;
+    }
+
+    /**
+     * Only the operations of task handlers (e.g. data writes) could be merged into a batch,
+     * the internal operations of partition engine are always proposed alone
+     */
+    public static boolean isBatchable(final RaftOperation operation) {
+        return operation.getOp() < SYNC_PARTITION_TASK && operation.getValues() != null &&
+               operation.getValues().length > 0;
+    }
+
     public static byte[] toByteArray(final byte op) throws IOException {
         try (ByteArrayOutputStream bos = new ByteArrayOutputStream()) {
             bos.write(op);
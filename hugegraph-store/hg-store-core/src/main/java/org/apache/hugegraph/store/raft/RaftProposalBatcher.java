@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hugegraph.store.raft;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.hugegraph.store.metric.HgMetricService;
+import org.apache.hugegraph.store.util.HgRaftError;
+
+import com.alipay.sofa.jraft.Node;
+import com.alipay.sofa.jraft.Status;
+import com.alipay.sofa.jraft.entity.Task;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Coalesce the concurrent proposals of one partition into a single raft log entry.
+ * <p>
+ * The thread which finds the batcher idle drains the queue and the proposals arriving meanwhile
+ * are merged into the next entry. Once the queue is empty, the drainer lingers up to lingerNanos
+ * for more proposals to join a batch that isn't full, which trades a little latency of a lone
+ * writer for larger batches. Proposals keep their submit order, an operation that can't be
+ * batched closes the pending batch and is proposed alone.
+ * <p>
+ * A merged entry is a BATCH_TASK log entry which older stores can't apply, so the batching must
+ * only be enabled after all stores of the cluster are upgraded.
+ */
+@Slf4j
+public class RaftProposalBatcher {
+
+    private final Node raftNode;
+    private final int maxOperations;
+    private final long maxBytes;
+    private final long lingerNanos;
+    private final Queue<DefaultRaftClosure> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean draining = new AtomicBoolean(false);
+
+    public RaftProposalBatcher(Node raftNode, int maxOperations, long maxBytes) {
+        this(raftNode, maxOperations, maxBytes, 0L);
+    }
+
+    public RaftProposalBatcher(Node raftNode, int maxOperations, long maxBytes,
+                               long lingerNanos) {
+        this.raftNode = raftNode;
+        this.maxOperations = maxOperations;
+        this.maxBytes = maxBytes;
+        this.lingerNanos = lingerNanos;
+    }
+
+    public void submit(RaftOperation operation, RaftClosure closure) {
+        this.queue.offer(new DefaultRaftClosure(operation, closure));
+        this.drain();
+    }
+
+    private void drain() {
+        // Re-check the queue after releasing, a proposal may be offered while exiting the loop
+        while (!this.queue.isEmpty() && this.draining.compareAndSet(false, true)) {
+            try {
+                List<DefaultRaftClosure> batch = new ArrayList<>();
+                long bytes = 0;
+                boolean lingered = false;
+                DefaultRaftClosure closure;
+                while (true) {
+                    closure = this.queue.poll();
+                    if (closure == null) {
+                        if (batch.isEmpty() || lingered || this.lingerNanos <= 0L) {
+                            break;
+                        }
+                        // Wait a moment for the concurrent proposals to join the batch
+                        LockSupport.parkNanos(this.lingerNanos);
+                        lingered = true;
+                        continue;
+                    }
+                    RaftOperation operation = closure.getOperation();
+                    if (!RaftOperation.isBatchable(operation)) {
+                        this.propose(batch);
+                        batch = new ArrayList<>();
+                        bytes = 0;
+                        lingered = false;
+                        this.apply(operation, closure);
+                        continue;
+                    }
+                    batch.add(closure);
+                    bytes += operation.getValues().length;
+                    if (batch.size() >= this.maxOperations || bytes >= this.maxBytes) {
+                        this.propose(batch);
+                        batch = new ArrayList<>();
+                        bytes = 0;
+                        lingered = false;
+                    }
+                }
+                this.propose(batch);
+            } finally {
+                this.draining.set(false);
+            }
+        }
+    }
+
+    private void propose(List<DefaultRaftClosure> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        HgMetricService.getInstance().increaseRaftProposal(batch.size());
+        if (batch.size() == 1) {
+            DefaultRaftClosure closure = batch.get(0);
+            this.apply(closure.getOperation(), closure);
+            return;
+        }
+        RaftOperation operation = RaftOperation.createBatch(batch);
+        this.apply(operation, new DefaultRaftClosure(operation, new BatchRaftClosure(batch)));
+    }
+
+    private void apply(RaftOperation operation, DefaultRaftClosure closure) {
+        final Task task = new Task();
+        task.setData(ByteBuffer.wrap(operation.getValues()));
+        task.setDone(closure);
+        try {
+            this.raftNode.apply(task);
+        } catch (Throwable t) {
+            // Fail the closure instead of losing it, the other proposals go on
+            log.error("Raft batcher failed to apply task, op = {}", operation.getOp(), t);
+            closure.run(new Status(HgRaftError.UNKNOWN.getNumber(), t.getMessage()));
+        }
+    }
+}
@@ -17,6 +17,8 @@
 
 package org.apache.hugegraph.store.raft;
 
+import java.util.List;
+
 import org.apache.hugegraph.store.util.HgStoreException;
 
 /**
@@ -29,4 +31,15 @@ public interface RaftTaskHandler {
 
     boolean invoke(final int groupId, final byte methodId, final Object req,
                    RaftClosure response) throws HgStoreException;
+
+    /**
+     * Apply the operations merged in one log entry as a whole, e.g. in a single write batch.
+     *
+     * @param responses closures of the operations, null when applied by followers
+     * @return false means not handled, the operations will be invoked one by one
+     */
+    default boolean invoke(final int groupId, final List<RaftOperation> operations,
+                           final List<RaftClosure> responses) throws HgStoreException {
+        return false;
+    }
 }
@@ -65,6 +65,16 @@ public class AppConfig {
     // Built-in pd mode, for standalone deployment
     @Value("${app.fake-pd: false}")
     private boolean fakePd;
+
+    // Report the partition heartbeats in one batch, enable it after all pds are upgraded
+    @Value("${app.partition-hb-batch: false}")
+    private boolean partitionHBBatch;
+
+    @Value("${app.partition-hb-full-sync-rounds: 12}")
+    private int partitionHBFullSyncRounds;
+
+    @Value("${app.partition-hb-load-threshold: 0.2}")
+    private double partitionHBLoadThreshold;
     @Autowired
     private Raft raft;
     @Autowired
@@ -198,6 +208,12 @@ public class AppConfig {
         private int maxEntriesSize;
         @Value("${raft.maxBodySize:524288}")
         private int maxBodySize;
+        @Value("${raft.proposal-batch-size:1}")
+        private int proposalBatchSize;
+        @Value("${raft.proposal-batch-bytes:1048576}")
+        private int proposalBatchBytes;
+        @Value("${raft.proposal-batch-linger-us:100}")
+        private int proposalBatchLingerUs;
 
     }
 
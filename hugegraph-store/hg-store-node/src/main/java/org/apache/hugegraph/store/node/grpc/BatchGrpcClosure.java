@@ -21,12 +21,14 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.hugegraph.store.grpc.common.ResCode;
@@ -39,6 +41,7 @@ import org.apache.hugegraph.store.raft.RaftClosure;
 import org.apache.hugegraph.store.util.HgRaftError;
 
 import com.alipay.sofa.jraft.Status;
+import com.alipay.sofa.jraft.error.RaftError;
 
 import io.grpc.stub.StreamObserver;
 import lombok.extern.slf4j.Slf4j;
@@ -55,12 +58,14 @@ class BatchGrpcClosure<V> {
     private final List<Status> errorStatus;
     private final List<V> results;
     private final Map<Integer, Long> leaderMap;
+    private final Map<Integer, CompletableFuture<Status>> partitionFutures;
 
     public BatchGrpcClosure(int count) {
         countDownLatch = new CountDownLatch(count);
         errorStatus = Collections.synchronizedList(new ArrayList<>());
         results = Collections.synchronizedList(new ArrayList<>());
         leaderMap = new ConcurrentHashMap<>();
+        partitionFutures = new ConcurrentHashMap<>();
     }
 
     public RaftClosure newRaftClosure() {
@@ -94,6 +99,16 @@ class BatchGrpcClosure<V> {
         };
     }
 
+    /**
+     * The closure of the raft task of a partition, whose future is completed once the task of
+     * the partition is done, even if the other partitions are still running
+     */
+    public RaftClosure newRaftClosure(int partitionId) {
+        CompletableFuture<Status> future = new CompletableFuture<>();
+        partitionFutures.put(partitionId, future);
+        return newRaftClosure(future::complete);
+    }
+
     /**
      * Not using counter latch
      *
@@ -162,7 +177,16 @@ class BatchGrpcClosure<V> {
      */
     public void waitFinish(StreamObserver<V> observer, Function<List<V>, V> ok, long timeout) {
         try {
-            countDownLatch.await(timeout, TimeUnit.MILLISECONDS);
+            if (!countDownLatch.await(timeout, TimeUnit.MILLISECONDS)) {
+                // The partitions not completed in time are failed
+                List<Integer> pending = partitionFutures.entrySet().stream()
+                                                        .filter(e -> !e.getValue().isDone())
+                                                        .map(Map.Entry::getKey)
+                                                        .collect(Collectors.toList());
+                errorStatus.add(new Status(RaftError.ETIMEDOUT,
+                                           "Timeout waiting for the raft tasks of " +
+                                           "partitions %s", pending));
+            }
 
             if (errorStatus.isEmpty()) {  // No error, merge results
                 observer.onNext(ok.apply(results));
@@ -20,13 +20,17 @@ package org.apache.hugegraph.store.node.grpc;
 import static org.apache.hugegraph.store.grpc.common.GraphMethod.GRAPH_METHOD_DELETE;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 
+import org.apache.hugegraph.pd.grpc.Metapb;
 import org.apache.hugegraph.store.HgStoreEngine;
+import org.apache.hugegraph.store.PartitionEngine;
 import org.apache.hugegraph.store.business.DataManagerImpl;
 import org.apache.hugegraph.store.grpc.session.BatchReq;
 import org.apache.hugegraph.store.grpc.session.CleanReq;
@@ -88,6 +92,9 @@ public class HgStoreNodeService implements RaftTaskHandler {
             setRocksdbConfig(appConfig.getRocksdbConfig());
             setGrpcAddress(appConfig.getStoreServerAddress());
             setLabels(appConfig.getLabelConfig().getLabel());
+            setPartitionHBBatch(appConfig.isPartitionHBBatch());
+            setPartitionHBFullSyncRounds(appConfig.getPartitionHBFullSyncRounds());
+            setPartitionHBLoadThreshold(appConfig.getPartitionHBLoadThreshold());
             setRaftOptions(new RaftOptions() {{
                 setMetrics(appConfig.getRaft().isMetrics());
                 setRpcDefaultTimeout(appConfig.getRaft().getRpcTimeOut());
@@ -102,6 +109,9 @@ public class HgStoreNodeService implements RaftTaskHandler {
                 setMaxReplicatorInflightMsgs(appConfig.getRaft().getMaxReplicatorInflightMsgs());
                 setMaxEntriesSize(appConfig.getRaft().getMaxEntriesSize());
                 setMaxBodySize(appConfig.getRaft().getMaxBodySize());
+                setProposalBatchSize(appConfig.getRaft().getProposalBatchSize());
+                setProposalBatchBytes(appConfig.getRaft().getProposalBatchBytes());
+                setProposalBatchLingerUs(appConfig.getRaft().getProposalBatchLingerUs());
             }});
             setFakePdOptions(new FakePdOptions() {{
                 setStoreList(appConfig.getFakePdConfig().getStoreList());
@@ -134,6 +144,30 @@ public class HgStoreNodeService implements RaftTaskHandler {
         return storeEngine.getPartitionManager().getLeaderPartitionIds(graphName);
     }
 
+    /**
+     * Confirm the raft read index of the partition owning the code asynchronously, which makes
+     * a read served by a follower replica linearizable. If the read index can't be confirmed
+     * but this replica is the leader, the read is served as a plain leader read.
+     *
+     * @param done invoked with true if the read can be served locally, false when the
+     *             partition is not local or the read should be retried on the leader
+     */
+    public void readIndex(String graphName, int code, Consumer<Boolean> done) {
+        Metapb.Partition partition = storeEngine.getPdProvider()
+                                                .getPartitionByCode(graphName, code);
+        if (partition == null) {
+            done.accept(false);
+            return;
+        }
+        PartitionEngine engine = storeEngine.getPartitionEngine(partition.getId());
+        if (engine == null) {
+            done.accept(false);
+            return;
+        }
+        engine.readIndex(appConfig.getRaft().getRpcTimeOut(),
+                         status -> done.accept(status.isOk() || engine.isLeader()));
+    }
+
     /**
      * Add raft task, forward data to raft
      *
@@ -228,6 +262,32 @@ public class HgStoreNodeService implements RaftTaskHandler {
         return true;
     }
 
+    /**
+     * Process the batch requests merged in one raft log entry with a single write batch
+     */
+    @Override
+    public boolean invoke(int partId, List<RaftOperation> operations,
+                          List<RaftClosure> responses) throws HgStoreException {
+        List<BatchReq> requests = new ArrayList<>(operations.size());
+        for (RaftOperation operation : operations) {
+            if (operation.getOp() != HgStoreNodeService.BATCH_OP) {
+                return false;
+            }
+            BatchReq req = (BatchReq) operation.getReq();
+            if (req == null) {
+                try {
+                    CodedInputStream input = CodedInputStream.newInstance(operation.getValues());
+                    input.readRawByte();
+                    req = BatchReq.parseFrom(input);
+                } catch (IOException e) {
+                    throw new HgStoreException(e.getMessage(), e);
+                }
+            }
+            requests.add(req);
+        }
+        return hgStoreSession.doBatch(partId, requests, responses);
+    }
+
     @PreDestroy
     public void destroy() {
         storeEngine.shutdown();
@@ -17,6 +17,7 @@
 
 package org.apache.hugegraph.store.node.grpc;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -94,26 +95,52 @@ public class HgStoreSessionImpl extends HgStoreSessionGrpc.HgStoreSessionImplBas
 
     @Override
     public void get2(GetReq request, StreamObserver<FeedbackRes> responseObserver) {
+        String graph = request.getHeader().getGraph();
+        int code = request.getTk().getCode();
+
+        if (!request.getReadIndex()) {
+            doGet(request, responseObserver);
+            return;
+        }
+        // Serve the read once the read index is applied, without blocking the grpc thread
+        storeService.readIndex(graph, code, confirmed -> {
+            if (confirmed) {
+                doGet(request, responseObserver);
+                return;
+            }
+            FeedbackRes.Builder builder = FeedbackRes.newBuilder();
+            responseObserver.onNext(builder.setStatus(HgGrpc.fail(
+                    "Failed to confirm read index, graph: " + graph + ", code: " + code))
+                                           .build());
+            responseObserver.onCompleted();
+        });
+    }
+
+    private void doGet(GetReq request, StreamObserver<FeedbackRes> responseObserver) {
         String graph = request.getHeader().getGraph();
         String table = request.getTk().getTable();
         byte[] key = request.getTk().getKey().toByteArray();
         int code = request.getTk().getCode();
-        byte[] value = getWrapper().doGet(graph, code, table, key);
-
         FeedbackRes.Builder builder = FeedbackRes.newBuilder();
 
         FeedbackRes res = null;
-        if (value != null) {
-            res = builder.setStatus(HgGrpc.success())
-                         .setValueResponse(
-                                 ValueResponse.newBuilder()
-                                              .setValue(ByteString.copyFrom(value))
-                         ).build();
+        try {
+            byte[] value = getWrapper().doGet(graph, code, table, key);
+            if (value != null) {
+                res = builder.setStatus(HgGrpc.success())
+                             .setValueResponse(
+                                     ValueResponse.newBuilder()
+                                                  .setValue(ByteString.copyFrom(value))
+                             ).build();
 
-        } else {
-            res = builder.setStatus(HgGrpc.success())
-                         .setStatus(HgGrpc.not())
-                         .build();
+            } else {
+                res = builder.setStatus(HgGrpc.success())
+                             .setStatus(HgGrpc.not())
+                             .build();
+            }
+        } catch (Exception e) {
+            log.error("Failed to get, graph: {}, code: {}", graph, code, e);
+            res = builder.setStatus(HgGrpc.fail(e.getMessage())).build();
         }
 
         responseObserver.onNext(res);
@@ -300,7 +327,7 @@ public class HgStoreSessionImpl extends HgStoreSessionGrpc.HgStoreSessionImplBas
                                                                   .addAllEntry(
                                                                           entries))
                                              .build(),
-                                     closure.newRaftClosure());
+                                     closure.newRaftClosure(partition));
         });
 
         if (!graph.isEmpty()) {
@@ -335,6 +362,36 @@ public class HgStoreSessionImpl extends HgStoreSessionGrpc.HgStoreSessionImplBas
         GrpcClosure.setResult(response, builder.build());
     }
 
+    /**
+     * Apply the batch requests merged in one raft log entry with a single write batch
+     *
+     * @param responses null when applied by followers
+     * @return false if the requests belong to different graphs or fail to be applied together,
+     * then they are applied one by one
+     */
+    public boolean doBatch(int partId, List<BatchReq> requests, List<RaftClosure> responses) {
+        String graph = requests.get(0).getHeader().getGraph();
+        List<BatchEntry> entries = new ArrayList<>();
+        for (BatchReq request : requests) {
+            if (!graph.equals(request.getHeader().getGraph())) {
+                return false;
+            }
+            entries.addAll(request.getWriteReq().getEntryList());
+        }
+        try {
+            getWrapper().doBatch(graph, partId, entries);
+        } catch (Throwable t) {
+            log.warn("Failed to doBatch {} merged requests, graph: {}, apply them one by one",
+                     requests.size(), graph, t);
+            return false;
+        }
+        if (responses != null) {
+            FeedbackRes res = FeedbackRes.newBuilder().setStatus(HgGrpc.success()).build();
+            responses.forEach(response -> GrpcClosure.setResult(response, res));
+        }
+        return true;
+    }
+
     // private static HgBusinessHandler.Batch toBatch(BatchEntry entry) {
     //    return new HgBusinessHandler.Batch() {
     //        @Override
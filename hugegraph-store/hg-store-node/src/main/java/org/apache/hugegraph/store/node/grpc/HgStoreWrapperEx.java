@@ -29,6 +29,7 @@ import org.apache.hugegraph.store.business.FilterIterator;
 import org.apache.hugegraph.store.grpc.common.GraphMethod;
 import org.apache.hugegraph.store.grpc.common.TableMethod;
 import org.apache.hugegraph.store.grpc.session.BatchEntry;
+import org.apache.hugegraph.store.metric.HgMetricService;
 import org.apache.hugegraph.store.term.HgPair;
 
 import lombok.extern.slf4j.Slf4j;
@@ -79,7 +80,14 @@ public class HgStoreWrapperEx {
     }
 
     public void doBatch(String graph, int partId, List<BatchEntry> entryList) {
+        long start = System.nanoTime();
         this.handler.doBatch(graph, partId, entryList);
+        long bytes = 0;
+        for (BatchEntry entry : entryList) {
+            bytes += entry.getSerializedSize();
+        }
+        HgMetricService.getInstance().increasePartitionWrite(partId, entryList.size(), bytes,
+                                                             System.nanoTime() - start);
     }
 
     public boolean doTable(int partId, TableMethod method, String graph, String table) {
@@ -24,7 +24,9 @@ import java.util.function.Supplier;
 
 import org.apache.hugegraph.store.HgStoreEngine;
 import org.apache.hugegraph.store.meta.Partition;
+import org.apache.hugegraph.store.metric.HgMetricService;
 
+import io.micrometer.core.instrument.FunctionCounter;
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 
@@ -54,6 +56,28 @@ public final class StoreMetrics {
              .description("Number of graphs stored in this node")
              .register(registry);
 
+        HgMetricService metrics = HgMetricService.getInstance();
+        FunctionCounter.builder(PREFIX + ".raft.proposed.entries", metrics,
+                                HgMetricService::getRaftProposedEntries)
+                       .description("Number of raft log entries proposed by this node")
+                       .register(registry);
+        FunctionCounter.builder(PREFIX + ".raft.proposed.ops", metrics,
+                                HgMetricService::getRaftProposedOps)
+                       .description("Number of operations carried by the proposed entries")
+                       .register(registry);
+        FunctionCounter.builder(PREFIX + ".raft.applied.entries", metrics,
+                                HgMetricService::getRaftAppliedEntries)
+                       .description("Number of raft log entries applied by this node")
+                       .register(registry);
+        FunctionCounter.builder(PREFIX + ".raft.applied.ops", metrics,
+                                HgMetricService::getRaftAppliedOps)
+                       .description("Number of operations carried by the applied entries")
+                       .register(registry);
+        FunctionCounter.builder(PREFIX + ".raft.apply.time", metrics,
+                                m -> m.getRaftApplyNanos() / 1_000_000.0)
+                       .description("Time spent applying raft log entries")
+                       .baseUnit("milliseconds")
+                       .register(registry);
     }
 
     private static int getGraphs() {
@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hugegraph.store.node.grpc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.hugegraph.store.grpc.common.ResCode;
+import org.apache.hugegraph.store.grpc.common.ResStatus;
+import org.apache.hugegraph.store.grpc.session.FeedbackRes;
+import org.apache.hugegraph.store.raft.RaftClosure;
+import org.junit.Test;
+
+import com.alipay.sofa.jraft.Status;
+
+import io.grpc.stub.StreamObserver;
+
+public class BatchGrpcClosureTest {
+
+    private static final FeedbackRes OK_RES =
+            FeedbackRes.newBuilder()
+                       .setStatus(ResStatus.newBuilder().setCode(ResCode.RES_CODE_OK))
+                       .build();
+
+    private static List<FeedbackRes> waitFinish(BatchGrpcClosure<FeedbackRes> closure,
+                                                long timeout) {
+        List<FeedbackRes> responses = new ArrayList<>();
+        closure.waitFinish(new StreamObserver<FeedbackRes>() {
+            @Override
+            public void onNext(FeedbackRes value) {
+                responses.add(value);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+            }
+
+            @Override
+            public void onCompleted() {
+            }
+        }, closure::selectError, timeout);
+        return responses;
+    }
+
+    private static void finish(RaftClosure raftClosure) {
+        GrpcClosure.setResult(raftClosure, OK_RES);
+        raftClosure.run(Status.OK());
+    }
+
+    @Test
+    public void testAllPartitionsCompleted() {
+        BatchGrpcClosure<FeedbackRes> closure = new BatchGrpcClosure<>(2);
+        finish(closure.newRaftClosure(1));
+        finish(closure.newRaftClosure(2));
+
+        List<FeedbackRes> responses = waitFinish(closure, 1000L);
+        assertEquals(1, responses.size());
+        assertEquals(ResCode.RES_CODE_OK, responses.get(0).getStatus().getCode());
+    }
+
+    @Test
+    public void testPartitionNotCompletedInTime() {
+        BatchGrpcClosure<FeedbackRes> closure = new BatchGrpcClosure<>(3);
+        finish(closure.newRaftClosure(1));
+        closure.newRaftClosure(2);
+        finish(closure.newRaftClosure(3));
+
+        // The batch fails instead of succeeding with partition 2 unapplied
+        List<FeedbackRes> responses = waitFinish(closure, 10L);
+        assertEquals(1, responses.size());
+        ResStatus status = responses.get(0).getStatus();
+        assertEquals(ResCode.RES_CODE_FAIL, status.getCode());
+        assertTrue(status.getMsg(), status.getMsg().contains("partitions [2]"));
+    }
+}
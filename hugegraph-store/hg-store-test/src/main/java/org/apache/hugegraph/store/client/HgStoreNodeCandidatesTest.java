@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hugegraph.store.client;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class HgStoreNodeCandidatesTest {
+
+    @Test
+    public void testLeastLoadedNode() {
+        HgStoreNode leader = mockNode(1L);
+        HgStoreNode follower1 = mockNode(2L);
+        HgStoreNode follower2 = mockNode(3L);
+        Map<Long, Integer> loads = new HashMap<>();
+        loads.put(1L, 8);
+        loads.put(2L, 3);
+        loads.put(3L, 5);
+
+        HgStoreNodeCandidates candidates = new HgStoreNodeCandidates(
+                Arrays.asList(leader, follower1, follower2));
+        for (int i = 0; i < 10; i++) {
+            assertSame(follower1, candidates.getLeastLoadedNode(
+                    n -> loads.get(n.getNodeId())));
+        }
+    }
+
+    @Test
+    public void testLeastLoadedNodeWithNodeManager() {
+        HgStoreNodeManager manager = HgStoreNodeManager.getInstance();
+        HgStoreNode node1 = mockNode(101L);
+        HgStoreNode node2 = mockNode(102L);
+        manager.increaseNodeLoad(101L);
+
+        HgStoreNodeCandidates candidates = new HgStoreNodeCandidates(
+                Arrays.asList(node1, node2));
+        assertSame(node2, candidates.getLeastLoadedNode(
+                n -> manager.getNodeLoad(n.getNodeId())));
+
+        manager.decreaseNodeLoad(101L);
+        manager.increaseNodeLoad(102L);
+        assertSame(node1, candidates.getLeastLoadedNode(
+                n -> manager.getNodeLoad(n.getNodeId())));
+        manager.decreaseNodeLoad(102L);
+    }
+
+    @Test
+    public void testEmptyCandidates() {
+        HgStoreNodeCandidates candidates = new HgStoreNodeCandidates(Collections.emptyList());
+        assertNull(candidates.getLeastLoadedNode(n -> 0));
+    }
+
+    private static HgStoreNode mockNode(long nodeId) {
+        HgStoreNode node = mock(HgStoreNode.class);
+        when(node.getNodeId()).thenReturn(nodeId);
+        return node;
+    }
+}
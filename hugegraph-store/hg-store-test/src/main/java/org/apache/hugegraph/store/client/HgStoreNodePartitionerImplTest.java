@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hugegraph.store.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Collection;
+import java.util.Collections;
+
+import org.apache.hugegraph.pd.client.PDClient;
+import org.apache.hugegraph.pd.common.KVPair;
+import org.apache.hugegraph.pd.grpc.Metapb;
+import org.apache.hugegraph.store.client.util.HgStoreClientConfig;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class HgStoreNodePartitionerImplTest {
+
+    private static final String GRAPH = "partitioner_test/g";
+    private static final byte[] KEY = {1, 2, 3};
+    private static final int CODE = 77;
+
+    // Store ids of the replicas, far from the ids used by the other tests
+    private static final long LEADER = 1001L;
+    private static final long FOLLOWER = 1002L;
+    private static final long LEARNER = 1003L;
+
+    private final HgStoreNodeManager nodeManager = HgStoreNodeManager.getInstance();
+    private HgStoreNodePartitionerImpl partitioner;
+    private boolean followerEnabled;
+
+    @Before
+    public void setup() throws Exception {
+        this.followerEnabled = HgStoreClientConfig.of().getReadFollowerEnabled();
+
+        Metapb.Partition partition = Metapb.Partition.newBuilder().setId(1)
+                                                     .setGraphName(GRAPH).build();
+        Metapb.ShardGroup shardGroup = Metapb.ShardGroup.newBuilder().setId(1)
+                                                        .addShards(shard(LEADER,
+                                                                         Metapb.ShardRole.Leader))
+                                                        .addShards(shard(FOLLOWER,
+                                                                         Metapb.ShardRole.Follower))
+                                                        .addShards(shard(LEARNER,
+                                                                         Metapb.ShardRole.Learner))
+                                                        .build();
+        PDClient pdClient = mock(PDClient.class);
+        when(pdClient.getPartition(anyString(), any(byte[].class)))
+                .thenReturn(new KVPair<>(partition, shard(LEADER, Metapb.ShardRole.Leader)));
+        when(pdClient.getShardGroup(anyInt())).thenReturn(shardGroup);
+        when(pdClient.keyToCode(anyString(), any(byte[].class))).thenReturn(CODE);
+        when(pdClient.getActiveStores(anyString())).thenReturn(Collections.singletonList(
+                Metapb.Store.newBuilder().setId(LEADER).build()));
+
+        for (long nodeId : new long[]{LEADER, FOLLOWER, LEARNER}) {
+            this.nodeManager.addNode(GRAPH, mockNode(nodeId));
+        }
+        this.partitioner = new HgStoreNodePartitionerImpl(pdClient, this.nodeManager);
+    }
+
+    @After
+    public void teardown() {
+        HgStoreClientConfig.of().setReadFollowerEnabled(this.followerEnabled);
+    }
+
+    @Test
+    public void testPartitionForReadToLeaderIfDisabled() {
+        HgStoreClientConfig.of().setReadFollowerEnabled(false);
+        this.nodeManager.increaseNodeLoad(LEADER);
+        try {
+            assertEquals(LEADER, this.readNode(KEY, KEY));
+        } finally {
+            this.nodeManager.decreaseNodeLoad(LEADER);
+        }
+    }
+
+    @Test
+    public void testPartitionForReadToLeastLoadedReplica() {
+        HgStoreClientConfig.of().setReadFollowerEnabled(true);
+        // The learner is idle but must never be chosen
+        this.nodeManager.increaseNodeLoad(LEADER);
+        this.nodeManager.increaseNodeLoad(FOLLOWER);
+        this.nodeManager.increaseNodeLoad(FOLLOWER);
+        try {
+            for (int i = 0; i < 10; i++) {
+                assertEquals(LEADER, this.readNode(KEY, KEY));
+            }
+            this.nodeManager.increaseNodeLoad(LEADER);
+            this.nodeManager.increaseNodeLoad(LEADER);
+            for (int i = 0; i < 10; i++) {
+                assertEquals(FOLLOWER, this.readNode(KEY, KEY));
+            }
+        } finally {
+            for (int i = 0; i < 3; i++) {
+                this.nodeManager.decreaseNodeLoad(LEADER);
+            }
+            this.nodeManager.decreaseNodeLoad(FOLLOWER);
+            this.nodeManager.decreaseNodeLoad(FOLLOWER);
+        }
+    }
+
+    @Test
+    public void testPartitionForReadOfRangeAsPartition() {
+        HgStoreClientConfig.of().setReadFollowerEnabled(true);
+        // A range isn't a point read, it's routed to the stores as partition() does
+        HgNodePartitionerBuilder builder = HgNodePartitionerBuilder.resetAndGet();
+        assertEquals(0, this.partitioner.partitionForRead(builder, GRAPH, KEY,
+                                                          new byte[]{1, 2, 4}));
+        Collection<HgNodePartition> partitions = builder.getPartitions();
+        assertEquals(1, partitions.size());
+        HgNodePartition partition = partitions.iterator().next();
+        assertEquals(LEADER, (long) partition.getNodeId());
+        assertEquals(-1, (int) partition.getKeyCode());
+    }
+
+    private long readNode(byte[] startKey, byte[] endKey) {
+        HgNodePartitionerBuilder builder = HgNodePartitionerBuilder.resetAndGet();
+        assertEquals(0, this.partitioner.partitionForRead(builder, GRAPH, startKey, endKey));
+        Collection<HgNodePartition> partitions = builder.getPartitions();
+        assertEquals(1, partitions.size());
+        HgNodePartition partition = partitions.iterator().next();
+        assertEquals(CODE, (int) partition.getKeyCode());
+        return partition.getNodeId();
+    }
+
+    private static Metapb.Shard shard(long storeId, Metapb.ShardRole role) {
+        return Metapb.Shard.newBuilder().setStoreId(storeId).setRole(role).build();
+    }
+
+    private static HgStoreNode mockNode(long nodeId) {
+        HgStoreNode node = mock(HgStoreNode.class);
+        when(node.getNodeId()).thenReturn(nodeId);
+        when(node.getAddress()).thenReturn("127.0.0.1:" + nodeId);
+        return node;
+    }
+}
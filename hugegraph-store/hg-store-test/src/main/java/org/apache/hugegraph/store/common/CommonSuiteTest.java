@@ -17,6 +17,9 @@
 
 package org.apache.hugegraph.store.common;
 
+import org.apache.hugegraph.store.core.FilterIteratorTest;
+import org.apache.hugegraph.store.core.PartitionHeartbeatBatcherTest;
+import org.apache.hugegraph.store.core.PartitionReadIteratorTest;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 
@@ -25,7 +28,10 @@ import lombok.extern.slf4j.Slf4j;
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
         ByteBufferAllocatorTest.class,
-        KVByteBufferTest.class
+        KVByteBufferTest.class,
+        FilterIteratorTest.class,
+        PartitionHeartbeatBatcherTest.class,
+        PartitionReadIteratorTest.class
 })
 
 @Slf4j
@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.hugegraph.store.core;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.apache.hugegraph.id.Id;
+import org.apache.hugegraph.id.IdGenerator;
+import org.apache.hugegraph.serializer.BinaryElementSerializer;
+import org.apache.hugegraph.serializer.BytesBuffer;
+import org.apache.hugegraph.store.business.FilterIterator;
+import org.apache.hugegraph.struct.schema.VertexLabel;
+import org.apache.hugegraph.structure.BaseVertex;
+import org.apache.hugegraph.type.define.Cardinality;
+import org.apache.hugegraph.type.define.DataType;
+import org.junit.Test;
+
+public class FilterIteratorTest {
+
+    private static final Id LABEL = IdGenerator.of(7L);
+
+    private static byte[] value(boolean withLabel, long expiredTime) {
+        BytesBuffer buffer = BytesBuffer.allocate(64);
+        if (withLabel) {
+            buffer.writeId(LABEL);
+        }
+        buffer.writeVInt(3);
+        buffer.writeVInt(1);
+        buffer.writeProperty(Cardinality.SINGLE, DataType.TEXT, "marko");
+        buffer.writeVInt(2);
+        buffer.writeProperty(Cardinality.SINGLE, DataType.INT, 29);
+        buffer.writeVInt(3);
+        buffer.writeProperty(Cardinality.LIST, DataType.LONG,
+                             Arrays.asList(1L, 2L));
+        if (expiredTime > 0L) {
+            buffer.writeVLong(expiredTime);
+        }
+        return buffer.bytes();
+    }
+
+    private static BaseVertex parse(byte[] value, boolean withLabel) {
+        BytesBuffer buffer = BytesBuffer.wrap(value);
+        if (withLabel) {
+            assertEquals(LABEL, buffer.readId());
+        }
+        BaseVertex vertex = new BaseVertex(IdGenerator.of(1L), VertexLabel.NONE);
+        new BinaryElementSerializer().parseProperties(null, buffer, vertex);
+        if (buffer.remaining() > 0) {
+            vertex.expiredTime(buffer.readVLong());
+        }
+        return vertex;
+    }
+
+    @Test
+    public void testProjectVertexValue() {
+        byte[] value = value(true, 0L);
+        byte[] projected = FilterIterator.projectValue(
+                value, true, Collections.singleton(IdGenerator.of(2L)));
+
+        BaseVertex vertex = parse(projected, true);
+        assertEquals(1, vertex.getProperties().size());
+        assertEquals(29, vertex.getProperties().get(IdGenerator.of(2L)).value());
+    }
+
+    @Test
+    public void testProjectEdgeValueWithExpiredTime() {
+        byte[] value = value(false, 123456L);
+        byte[] projected = FilterIterator.projectValue(
+                value, false, Arrays.asList(IdGenerator.of(1L),
+                                            IdGenerator.of(3L)));
+
+        BaseVertex element = parse(projected, false);
+        assertEquals(2, element.getProperties().size());
+        assertEquals("marko",
+                     element.getProperties().get(IdGenerator.of(1L)).value());
+        assertEquals(Arrays.asList(1L, 2L),
+                     element.getProperties().get(IdGenerator.of(3L)).value());
+        assertEquals(123456L, element.expiredTime());
+    }
+
+    @Test
+    public void testProjectNoProperties() {
+        byte[] value = value(true, 0L);
+        byte[] projected = FilterIterator.projectValue(
+                value, true, Collections.singleton(IdGenerator.ZERO));
+
+        BaseVertex vertex = parse(projected, true);
+        assertEquals(0, vertex.getProperties().size());
+    }
+
+    @Test
+    public void testProjectAllProperties() {
+        byte[] value = value(true, 0L);
+        byte[] projected = FilterIterator.projectValue(
+                value, true, Arrays.asList(IdGenerator.of(1L),
+                                           IdGenerator.of(2L),
+                                           IdGenerator.of(3L)));
+        assertSame(value, projected);
+        assertArrayEquals(new byte[0],
+                          FilterIterator.projectValue(new byte[0], true,
+                                                      Collections.emptySet()));
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.hugegraph.store.core;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.hugegraph.pd.grpc.Metapb;
+import org.apache.hugegraph.store.PartitionHeartbeatBatcher;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PartitionHeartbeatBatcherTest {
+
+    private static Metapb.PartitionStats stats(int id, long term, long reads) {
+        return Metapb.PartitionStats.newBuilder()
+                                    .setId(id)
+                                    .setLeaderTerm(term)
+                                    .setTimestamp(System.nanoTime())
+                                    .setReadCount(reads)
+                                    .setIntervalMs(1000)
+                                    .build();
+    }
+
+    private static List<Integer> ids(List<Metapb.PartitionStats> statsList) {
+        return statsList.stream().map(Metapb.PartitionStats::getId).sorted()
+                        .collect(Collectors.toList());
+    }
+
+    @Test
+    public void testFirstRoundIsFull() {
+        PartitionHeartbeatBatcher batcher = new PartitionHeartbeatBatcher(12, 0.2);
+        PartitionHeartbeatBatcher.Batch batch =
+                batcher.select(Arrays.asList(stats(1, 1, 0), stats(2, 1, 0)));
+        Assert.assertTrue(batch.isFull());
+        Assert.assertEquals(Arrays.asList(1, 2), ids(batch.getChanged()));
+        Assert.assertTrue(batch.getUnchangedIds().isEmpty());
+    }
+
+    @Test
+    public void testUnchangedOmitted() {
+        PartitionHeartbeatBatcher batcher = new PartitionHeartbeatBatcher(12, 0.2);
+        batcher.select(Arrays.asList(stats(1, 1, 100), stats(2, 1, 5)));
+
+        // small load jitters and new timestamps are not reported
+        PartitionHeartbeatBatcher.Batch batch =
+                batcher.select(Arrays.asList(stats(1, 1, 110), stats(2, 1, 8)));
+        Assert.assertFalse(batch.isFull());
+        Assert.assertTrue(batch.getChanged().isEmpty());
+        Assert.assertEquals(Arrays.asList(1, 2), batch.getUnchangedIds());
+    }
+
+    @Test
+    public void testChangedReported() {
+        PartitionHeartbeatBatcher batcher = new PartitionHeartbeatBatcher(12, 0.2);
+        batcher.select(Arrays.asList(stats(1, 1, 100), stats(2, 1, 100), stats(3, 1, 100)));
+
+        // partition 1 changed its leader term, partition 2 doubled its load,
+        // partition 4 is new
+        PartitionHeartbeatBatcher.Batch batch = batcher.select(
+                Arrays.asList(stats(1, 2, 100), stats(2, 1, 200), stats(3, 1, 100),
+                              stats(4, 1, 0)));
+        Assert.assertEquals(Arrays.asList(1, 2, 4), ids(batch.getChanged()));
+        Assert.assertEquals(Collections.singletonList(3), batch.getUnchangedIds());
+
+        // the drift is measured from the last reported load
+        batch = batcher.select(Arrays.asList(stats(1, 2, 100), stats(2, 1, 170),
+                                             stats(3, 1, 115), stats(4, 1, 0)));
+        Assert.assertTrue(batch.getChanged().isEmpty());
+        batch = batcher.select(Arrays.asList(stats(1, 2, 100), stats(2, 1, 150),
+                                             stats(3, 1, 125), stats(4, 1, 0)));
+        Assert.assertEquals(Arrays.asList(2, 3), ids(batch.getChanged()));
+    }
+
+    @Test
+    public void testFullSync() {
+        PartitionHeartbeatBatcher batcher = new PartitionHeartbeatBatcher(3, 0.2);
+        List<Metapb.PartitionStats> statsList = Arrays.asList(stats(1, 1, 0), stats(2, 1, 0));
+        Assert.assertTrue(batcher.select(statsList).isFull());
+        Assert.assertFalse(batcher.select(statsList).isFull());
+        Assert.assertFalse(batcher.select(statsList).isFull());
+
+        PartitionHeartbeatBatcher.Batch batch = batcher.select(statsList);
+        Assert.assertTrue(batch.isFull());
+        Assert.assertEquals(2, batch.getChanged().size());
+
+        batcher.select(statsList);
+        batcher.reset();
+        Assert.assertTrue(batcher.select(statsList).isFull());
+    }
+
+    @Test
+    public void testRemovedPartitionForgotten() {
+        PartitionHeartbeatBatcher batcher = new PartitionHeartbeatBatcher(12, 0.2);
+        batcher.select(Arrays.asList(stats(1, 1, 0), stats(2, 1, 0)));
+        batcher.select(Collections.singletonList(stats(1, 1, 0)));
+
+        // partition 2 comes back, e.g. its leader is transferred back to the store
+        PartitionHeartbeatBatcher.Batch batch =
+                batcher.select(Arrays.asList(stats(1, 1, 0), stats(2, 1, 0)));
+        Assert.assertEquals(Collections.singletonList(2), ids(batch.getChanged()));
+        Assert.assertEquals(Collections.singletonList(1), batch.getUnchangedIds());
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hugegraph.store.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.hugegraph.pd.grpc.Metapb;
+import org.apache.hugegraph.rocksdb.access.RocksDBSession.BackendColumn;
+import org.apache.hugegraph.rocksdb.access.ScanIterator;
+import org.apache.hugegraph.store.business.PartitionReadIterator;
+import org.apache.hugegraph.store.metric.HgMetricService;
+import org.junit.Test;
+
+public class PartitionReadIteratorTest {
+
+    // Far from the partition ids of the other tests
+    private static final int PART_ID = 9001;
+
+    @Test
+    public void testScanCountedAsPartitionRead() {
+        HgMetricService metrics = HgMetricService.getInstance();
+        // Restart the statistics period of the partition
+        metrics.fillPartitionLoad(PART_ID, Metapb.PartitionStats.newBuilder());
+
+        List<BackendColumn> columns = Arrays.asList(
+                BackendColumn.of(new byte[]{1, 2}, new byte[]{1, 2, 3}),
+                BackendColumn.of(new byte[]{3}, null),
+                BackendColumn.of(new byte[]{4, 5, 6}, new byte[]{7}));
+        ScanIterator iterator = new PartitionReadIterator(PART_ID, new ListIterator(columns));
+        int rows = 0;
+        while (iterator.hasNext()) {
+            iterator.next();
+            rows++;
+        }
+        iterator.close();
+        assertEquals(3, rows);
+
+        Metapb.PartitionStats stats = metrics.fillPartitionLoad(
+                PART_ID, Metapb.PartitionStats.newBuilder()).build();
+        assertEquals(3L, stats.getReadCount());
+        assertEquals(10L, stats.getBytesRead());
+        assertEquals(0L, stats.getWriteCount());
+    }
+
+    @Test
+    public void testLongScanFlushedBeforeClose() {
+        HgMetricService metrics = HgMetricService.getInstance();
+        metrics.fillPartitionLoad(PART_ID, Metapb.PartitionStats.newBuilder());
+
+        BackendColumn[] columns = new BackendColumn[2500];
+        Arrays.fill(columns, BackendColumn.of(new byte[]{1}, new byte[]{2}));
+        ScanIterator iterator = new PartitionReadIterator(
+                PART_ID, new ListIterator(Arrays.asList(columns)));
+        while (iterator.hasNext()) {
+            iterator.next();
+        }
+        assertFalse(iterator.hasNext());
+
+        // The scan is still open, the rows read so far are reported in batches
+        Metapb.PartitionStats stats = metrics.fillPartitionLoad(
+                PART_ID, Metapb.PartitionStats.newBuilder()).build();
+        assertEquals(2000L, stats.getReadCount());
+
+        iterator.close();
+        stats = metrics.fillPartitionLoad(PART_ID, Metapb.PartitionStats.newBuilder())
+                       .build();
+        assertEquals(500L, stats.getReadCount());
+    }
+
+    private static class ListIterator implements ScanIterator {
+
+        private final Iterator<BackendColumn> iterator;
+
+        ListIterator(List<BackendColumn> columns) {
+            this.iterator = columns.iterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.iterator.hasNext();
+        }
+
+        @Override
+        public boolean isValid() {
+            return true;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T next() {
+            return (T) this.iterator.next();
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
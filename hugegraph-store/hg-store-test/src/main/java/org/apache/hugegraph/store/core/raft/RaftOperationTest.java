@@ -17,7 +17,10 @@
 
 package org.apache.hugegraph.store.core.raft;
 
+import java.util.List;
+
 import org.apache.hugegraph.pd.grpc.Metapb;
+import org.apache.hugegraph.store.raft.DefaultRaftClosure;
 import org.apache.hugegraph.store.raft.RaftOperation;
 import org.junit.Before;
 import org.junit.Test;
@@ -26,6 +29,8 @@ import com.google.protobuf.GeneratedMessageV3;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 public class RaftOperationTest {
 
@@ -72,4 +77,30 @@ public class RaftOperationTest {
         assertEquals((byte) 0b0, result.getOp());
 
     }
+
+    @Test
+    public void testBatch() {
+        final List<DefaultRaftClosure> closures = List.of(
+                new DefaultRaftClosure(RaftOperation.create((byte) 0x12, new byte[]{0x12, 1}, 1),
+                                       null),
+                new DefaultRaftClosure(RaftOperation.create((byte) 0x13, new byte[]{0x13}, 2),
+                                       null));
+        final RaftOperation result = RaftOperation.createBatch(closures);
+        assertEquals(RaftOperation.BATCH_TASK, result.getOp());
+        assertEquals(closures, result.getReq());
+
+        final List<RaftOperation> operations = RaftOperation.splitBatch(result.getValues());
+        assertEquals(2, operations.size());
+        assertEquals((byte) 0x12, operations.get(0).getOp());
+        assertArrayEquals(new byte[]{0x12, 1}, operations.get(0).getValues());
+        assertEquals((byte) 0x13, operations.get(1).getOp());
+        assertArrayEquals(new byte[]{0x13}, operations.get(1).getValues());
+    }
+
+    @Test
+    public void testIsBatchable() {
+        assertTrue(RaftOperation.isBatchable(
+                RaftOperation.create((byte) 0x12, new byte[]{0x12}, null)));
+        assertFalse(RaftOperation.isBatchable(RaftOperation.create(RaftOperation.BLANK_TASK)));
+    }
 }
@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hugegraph.store.core.raft;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hugegraph.store.raft.BatchRaftClosure;
+import org.apache.hugegraph.store.raft.DefaultRaftClosure;
+import org.apache.hugegraph.store.raft.RaftOperation;
+import org.apache.hugegraph.store.raft.RaftProposalBatcher;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.alipay.sofa.jraft.Node;
+import com.alipay.sofa.jraft.Status;
+import com.alipay.sofa.jraft.entity.Task;
+
+public class RaftProposalBatcherTest {
+
+    private static final byte DATA_OP = 0x12;
+
+    private final List<Task> tasks = new CopyOnWriteArrayList<>();
+    private final CountDownLatch firstApplied = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private Node node;
+
+    @Before
+    public void setUp() {
+        this.node = mock(Node.class);
+        doAnswer(invocation -> {
+            this.tasks.add(invocation.getArgument(0));
+            if (this.tasks.size() == 1) {
+                this.firstApplied.countDown();
+                this.release.await(10, TimeUnit.SECONDS);
+            }
+            return null;
+        }).when(this.node).apply(any(Task.class));
+    }
+
+    private static RaftOperation operation(byte op, int value) {
+        return RaftOperation.create(op, new byte[]{op, (byte) value}, value);
+    }
+
+    @Test
+    public void testSingleProposalNotWrapped() {
+        this.release.countDown();
+        RaftProposalBatcher batcher = new RaftProposalBatcher(this.node, 8, 1024);
+        batcher.submit(operation(DATA_OP, 1), status -> {
+        });
+
+        assertEquals(1, this.tasks.size());
+        assertArrayEquals(new byte[]{DATA_OP, 1}, this.tasks.get(0).getData().array());
+    }
+
+    @Test
+    public void testConcurrentProposalsMerged() throws InterruptedException {
+        RaftProposalBatcher batcher = new RaftProposalBatcher(this.node, 8, 1024);
+        Thread drainer = new Thread(() -> batcher.submit(operation(DATA_OP, 0), status -> {
+        }));
+        drainer.start();
+        // The drainer is blocked in apply, the following proposals are queued
+        this.firstApplied.await(10, TimeUnit.SECONDS);
+        for (int i = 1; i <= 3; i++) {
+            batcher.submit(operation(DATA_OP, i), status -> {
+            });
+        }
+        this.release.countDown();
+        drainer.join(10_000);
+
+        assertEquals(2, this.tasks.size());
+        byte[] data = this.tasks.get(1).getData().array();
+        List<RaftOperation> operations = RaftOperation.splitBatch(data);
+        assertEquals(3, operations.size());
+        for (int i = 0; i < 3; i++) {
+            assertArrayEquals(new byte[]{DATA_OP, (byte) (i + 1)},
+                              operations.get(i).getValues());
+        }
+        DefaultRaftClosure done = (DefaultRaftClosure) this.tasks.get(1).getDone();
+        assertEquals(RaftOperation.BATCH_TASK, done.getOperation().getOp());
+        assertEquals(3, ((BatchRaftClosure) done.getClosure()).getClosures().size());
+    }
+
+    @Test
+    public void testLingerMergesLateProposal() throws InterruptedException {
+        this.release.countDown();
+        RaftProposalBatcher batcher = new RaftProposalBatcher(this.node, 8, 1024,
+                                                              TimeUnit.SECONDS.toNanos(1L));
+        Thread drainer = new Thread(() -> batcher.submit(operation(DATA_OP, 1), status -> {
+        }));
+        drainer.start();
+        // The drainer lingers with a batch of one proposal, the next one joins it
+        Thread.sleep(100L);
+        batcher.submit(operation(DATA_OP, 2), status -> {
+        });
+        drainer.join(10_000);
+
+        assertEquals(1, this.tasks.size());
+        List<RaftOperation> operations = RaftOperation.splitBatch(
+                this.tasks.get(0).getData().array());
+        assertEquals(2, operations.size());
+        assertArrayEquals(new byte[]{DATA_OP, 1}, operations.get(0).getValues());
+        assertArrayEquals(new byte[]{DATA_OP, 2}, operations.get(1).getValues());
+    }
+
+    @Test
+    public void testInternalOperationKeepsOrder() throws InterruptedException {
+        RaftProposalBatcher batcher = new RaftProposalBatcher(this.node, 8, 1024);
+        Thread drainer = new Thread(() -> batcher.submit(operation(DATA_OP, 0), status -> {
+        }));
+        drainer.start();
+        this.firstApplied.await(10, TimeUnit.SECONDS);
+        batcher.submit(operation(DATA_OP, 1), status -> {
+        });
+        batcher.submit(operation(DATA_OP, 2), status -> {
+        });
+        batcher.submit(operation(RaftOperation.BLANK_TASK, 3), status -> {
+        });
+        batcher.submit(operation(DATA_OP, 4), status -> {
+        });
+        this.release.countDown();
+        drainer.join(10_000);
+
+        assertEquals(4, this.tasks.size());
+        assertEquals(2, RaftOperation.splitBatch(this.tasks.get(1).getData().array()).size());
+        assertArrayEquals(new byte[]{RaftOperation.BLANK_TASK, 3},
+                          this.tasks.get(2).getData().array());
+        assertArrayEquals(new byte[]{DATA_OP, 4}, this.tasks.get(3).getData().array());
+    }
+
+    @Test
+    public void testBatchFailureFansOut() {
+        CountDownLatch failed = new CountDownLatch(2);
+        BatchRaftClosure closure = new BatchRaftClosure(List.of(
+                new DefaultRaftClosure(operation(DATA_OP, 1), status -> failed.countDown()),
+                new DefaultRaftClosure(operation(DATA_OP, 2), status -> failed.countDown())));
+        closure.run(new Status(-1, "not leader"));
+        assertEquals(0, failed.getCount());
+    }
+}
@@ -17,13 +17,15 @@
 
 package org.apache.hugegraph.store.raftcore;
 
+import org.apache.hugegraph.store.core.raft.RaftProposalBatcherTest;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
         BytesCarrierTest.class,
-        ZeroByteStringHelperTest.class
+        ZeroByteStringHelperTest.class,
+        RaftProposalBatcherTest.class
 })
 public class RaftSuiteTest {
 
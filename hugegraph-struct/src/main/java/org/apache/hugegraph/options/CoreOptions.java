@@ -562,13 +562,6 @@ public class CoreOptions extends OptionHolder {
                     disallowEmpty(),
                     "smart"
             );
-    public static final ConfigOption<String> COMPUTER_CONFIG =
-            new ConfigOption<>(
-                    "computer.config",
-                    "The config file path of computer job.",
-                    disallowEmpty(),
-                    "./conf/computer.yaml"
-            );
     public static final ConfigOption<String> K8S_OPERATOR_TEMPLATE =
             new ConfigOption<>(
                     "k8s.operator_template",
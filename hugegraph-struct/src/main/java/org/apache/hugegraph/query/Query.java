@@ -146,6 +146,9 @@ public class Query implements Cloneable {
         this.aggregate = query.aggregate();
         this.showExpired = query.showExpired();
         this.olap = query.olap();
+        if (query.selects() != null && !query.selects().isEmpty()) {
+            this.selects = InsertionOrderUtil.newList(query.selects());
+        }
         if (query.orders != null) {
             this.orders(query.orders);
         }